@@ -0,0 +1,90 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.auditor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+
+/**
+ * The null checks found in a jar, a class directory or a single class file.
+ */
+public final class ArtifactAudit {
+
+    private final String path;
+    private final int scannedClasses;
+    private final List<ClassAudit> classes;
+
+    ArtifactAudit(@Nonnull String path, int scannedClasses, @Nonnull List<ClassAudit> classes) {
+        this.path = Objects.requireNonNull(path, "'path' must not be null");
+        this.scannedClasses = scannedClasses;
+        this.classes = Collections.unmodifiableList(Objects.requireNonNull(classes, "'classes' must not be null"));
+    }
+
+    /**
+     * Returns the path of the artifact.
+     *
+     * @return the path as given to the auditor
+     */
+    @Nonnull
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the number of scanned class files.
+     *
+     * @return the number of class files
+     */
+    public int getScannedClasses() {
+        return scannedClasses;
+    }
+
+    /**
+     * Returns the classes with checks.
+     *
+     * @return the classes sorted by name
+     */
+    @Nonnull
+    public List<ClassAudit> getClasses() {
+        return classes;
+    }
+
+    /**
+     * Returns the number of checks of all classes.
+     *
+     * @return the number of checks
+     */
+    public int getChecks() {
+        int checks = 0;
+        for (ClassAudit type : classes) {
+            checks += type.getChecks();
+        }
+        return checks;
+    }
+
+    /**
+     * Returns the size of the bytecode added by the checks of all classes.
+     *
+     * @return the size in bytes
+     */
+    public int getBytesAdded() {
+        int bytes = 0;
+        for (ClassAudit type : classes) {
+            bytes += type.getBytesAdded();
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.auditor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import javax.annotation.Nonnull;
+
+/**
+ * Writes the results of an {@link Auditor}.
+ */
+public interface AuditReport {
+
+    /**
+     * Writes the report.
+     *
+     * @param auditor
+     *            the auditor which audited the artifacts, for its inlining thresholds
+     * @param artifacts
+     *            the audited artifacts
+     * @param out
+     *            the target of the report, not closed
+     * @throws IOException
+     *             if the report can't be written
+     */
+    void write(@Nonnull Auditor auditor, @Nonnull List<ArtifactAudit> artifacts, @Nonnull Writer out)
+            throws IOException;
+}
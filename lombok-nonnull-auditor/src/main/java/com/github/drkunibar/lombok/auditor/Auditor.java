@@ -0,0 +1,741 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.auditor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javax.annotation.Nonnull;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Finds the null checks generated by lombok-nonnull in compiled classes and estimates their bytecode overhead. The
+ * generated code carries no marker in the class file, so the checks are recognized by their shape:
+ * <ul>
+ * <li>{@code if (x == null) throw new ...("<message>")}, optionally guarded by {@code $nonnullChecks} or by an
+ * {@code assert} and with the recording of the violation</li>
+ * <li>a call like {@code Objects.requireNonNull(x, "<message>")}, also the one woven by the maven plugin</li>
+ * <li>the call of the helper {@code $nonnullReturn} of the code shape {@code COMPACT}</li>
+ * <li>the calls of {@code NonnullElements} and the recorded checks of the check mode {@code REPORT}</li>
+ * <li>the loads and stores of the {@code $result} variables, found by their position around a check or in the debug
+ * information</li>
+ * </ul>
+ * The message is either {@value #RETURN_VALUE_MESSAGE} or {@code "<name>}{@value #PARAMETER_MESSAGE_SUFFIX}{@code "},
+ * so the checks of lombok's {@code @NonNull} and hand written checks with these messages are counted as well. The size
+ * of a method is read from the class file, the bytes of the checks are estimated from the forms of their instructions.
+ */
+public final class Auditor {
+
+    /**
+     * The default of the HotSpot flag {@code MaxInlineSize}: methods up to this size are always inlined.
+     */
+    public static final int MAX_INLINE_SIZE = 35;
+
+    /**
+     * The default of the HotSpot flag {@code FreqInlineSize} on x86_64: hot methods up to this size are inlined.
+     */
+    public static final int FREQ_INLINE_SIZE = 325;
+
+    static final String RETURN_VALUE_MESSAGE = "the return value must not be null";
+    static final String PARAMETER_MESSAGE_SUFFIX = " is marked non-null but is null";
+    static final String WOVEN_ATTRIBUTE = "com.github.drkunibar.lombok.Woven";
+
+    private static final String HELPER_NAME = "$nonnullReturn";
+    private static final String RESULT_NAME = "$result";
+    private static final String SITES_FIELD = "$nonnullSites";
+    private static final Set<String> GENERATED_FIELDS = new HashSet<>(Arrays.asList("$nonnullChecks", SITES_FIELD));
+    private static final Set<String> GUARD_FIELDS = new HashSet<>(Arrays.asList("$nonnullChecks",
+            "$assertionsDisabled"));
+    private static final String ELEMENTS = "com/github/drkunibar/lombok/runtime/NonnullElements";
+    private static final String VIOLATIONS = "com/github/drkunibar/lombok/runtime/NonnullViolations";
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final int maxInlineSize;
+    private final int freqInlineSize;
+
+    /**
+     * Creates an auditor with the default inlining thresholds {@value #MAX_INLINE_SIZE} and
+     * {@value #FREQ_INLINE_SIZE}.
+     */
+    public Auditor() {
+        this(MAX_INLINE_SIZE, FREQ_INLINE_SIZE);
+    }
+
+    /**
+     * Creates an auditor.
+     *
+     * @param maxInlineSize
+     *            the threshold {@code MaxInlineSize} in bytes
+     * @param freqInlineSize
+     *            the threshold {@code FreqInlineSize} in bytes
+     */
+    public Auditor(int maxInlineSize, int freqInlineSize) {
+        if (maxInlineSize < 0 || freqInlineSize < 0) {
+            throw new IllegalArgumentException("the inlining thresholds must not be negative");
+        }
+        this.maxInlineSize = maxInlineSize;
+        this.freqInlineSize = freqInlineSize;
+    }
+
+    /**
+     * Returns the threshold {@code MaxInlineSize}.
+     *
+     * @return the threshold in bytes
+     */
+    public int getMaxInlineSize() {
+        return maxInlineSize;
+    }
+
+    /**
+     * Returns the threshold {@code FreqInlineSize}.
+     *
+     * @return the threshold in bytes
+     */
+    public int getFreqInlineSize() {
+        return freqInlineSize;
+    }
+
+    /**
+     * Audits a jar, a directory of class files or a single class file.
+     *
+     * @param artifact
+     *            the path of the artifact
+     * @return the classes with checks
+     * @throws IOException
+     *             if the artifact can't be read or contains an invalid class file
+     */
+    @Nonnull
+    public ArtifactAudit audit(@Nonnull Path artifact) throws IOException {
+        Objects.requireNonNull(artifact, "'artifact' must not be null");
+        List<ClassAudit> classes = new ArrayList<>();
+        int scanned = 0;
+        if (Files.isDirectory(artifact)) {
+            List<Path> classFiles;
+            try (Stream<Path> files = Files.walk(artifact)) {
+                classFiles = files.filter(file -> file.getFileName()
+                        .toString()
+                        .endsWith(CLASS_SUFFIX))
+                        .filter(Files::isRegularFile)
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+            for (Path classFile : classFiles) {
+                scanned++;
+                add(classes, audit(classFile.toString(), Files.readAllBytes(classFile)));
+            }
+        } else if (artifact.getFileName()
+                .toString()
+                .endsWith(CLASS_SUFFIX)) {
+            scanned++;
+            add(classes, audit(artifact.toString(), Files.readAllBytes(artifact)));
+        } else {
+            try (ZipFile jar = new ZipFile(artifact.toFile())) {
+                Enumeration<? extends ZipEntry> entries = jar.entries();
+                while (entries.hasMoreElements()) {
+                    ZipEntry entry = entries.nextElement();
+                    if (entry.isDirectory() || !entry.getName()
+                            .endsWith(CLASS_SUFFIX)) {
+                        continue;
+                    }
+                    scanned++;
+                    try (InputStream in = jar.getInputStream(entry)) {
+                        add(classes, audit(artifact + "!/" + entry.getName(), readAll(in)));
+                    }
+                }
+            }
+        }
+        classes.sort(Comparator.comparing(ClassAudit::getName));
+        return new ArtifactAudit(artifact.toString(), scanned, classes);
+    }
+
+    /**
+     * Audits a class.
+     *
+     * @param classFile
+     *            the content of the class file
+     * @return the checks of the class
+     * @throws IllegalArgumentException
+     *             if the content is not a valid class file
+     */
+    @Nonnull
+    public ClassAudit audit(@Nonnull byte[] classFile) {
+        Objects.requireNonNull(classFile, "'classFile' must not be null");
+        ClassReader reader = new ClassReader(classFile);
+        ClassLayout layout = new ClassLayout(reader);
+        ClassScanner scanner = new ClassScanner(layout);
+        reader.accept(scanner, ClassReader.SKIP_FRAMES);
+        return new ClassAudit(reader.getClassName()
+                .replace('/', '.'), layout.woven, scanner.generatedFields, scanner.helperBytes, scanner.methods);
+    }
+
+    private ClassAudit audit(String location, byte[] classFile) throws IOException {
+        try {
+            return audit(classFile);
+        } catch (RuntimeException e) {
+            throw new IOException("invalid class file " + location, e);
+        }
+    }
+
+    private static void add(List<ClassAudit> classes, ClassAudit type) {
+        if (type.hasChecks()) {
+            classes.add(type);
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns the kind of the check a message belongs to.
+     *
+     * @param message
+     *            the constant loaded by an instruction or {@code null}
+     * @return the kind or {@code null} if the message is not the one of a check
+     */
+    static CheckKind kindOf(Object message) {
+        if (!(message instanceof String)) {
+            return null;
+        }
+        String text = (String) message;
+        if (RETURN_VALUE_MESSAGE.equals(text)) {
+            return CheckKind.RETURN;
+        }
+        if (text.endsWith(PARAMETER_MESSAGE_SUFFIX) && text.length() > PARAMETER_MESSAGE_SUFFIX.length()) {
+            return CheckKind.PARAMETER;
+        }
+        return null;
+    }
+
+    private List<String> thresholdsCrossed(int size, int bytesAdded) {
+        List<String> crossed = new ArrayList<>();
+        int sizeBefore = size - bytesAdded;
+        if (sizeBefore <= maxInlineSize && size > maxInlineSize) {
+            crossed.add("MaxInlineSize");
+        }
+        if (sizeBefore <= freqInlineSize && size > freqInlineSize) {
+            crossed.add("FreqInlineSize");
+        }
+        return crossed;
+    }
+
+    /**
+     * The parts of the class file ASM doesn't report: the exact size of the methods and the attributes of the class.
+     */
+    private static final class ClassLayout {
+
+        final Map<String, Integer> codeLengths = new HashMap<>();
+        boolean woven;
+
+        ClassLayout(ClassReader reader) {
+            char[] buffer = new char[reader.getMaxStringLength()];
+            int offset = reader.header + 6;
+            offset += 2 + 2 * reader.readUnsignedShort(offset);
+            int fields = reader.readUnsignedShort(offset);
+            offset += 2;
+            for (int i = 0; i < fields; i++) {
+                offset = skipAttributes(reader, offset + 6);
+            }
+            int methods = reader.readUnsignedShort(offset);
+            offset += 2;
+            for (int i = 0; i < methods; i++) {
+                String method = reader.readUTF8(offset + 2, buffer) + reader.readUTF8(offset + 4, buffer);
+                int attributes = reader.readUnsignedShort(offset + 6);
+                offset += 8;
+                for (int j = 0; j < attributes; j++) {
+                    if ("Code".equals(reader.readUTF8(offset, buffer))) {
+                        // attribute_name_index, attribute_length, max_stack, max_locals, code_length
+                        codeLengths.put(method, reader.readInt(offset + 10));
+                    }
+                    offset += 6 + reader.readInt(offset + 2);
+                }
+            }
+            int attributes = reader.readUnsignedShort(offset);
+            offset += 2;
+            for (int i = 0; i < attributes; i++) {
+                woven |= WOVEN_ATTRIBUTE.equals(reader.readUTF8(offset, buffer));
+                offset += 6 + reader.readInt(offset + 2);
+            }
+        }
+
+        private static int skipAttributes(ClassReader reader, int offset) {
+            int attributes = reader.readUnsignedShort(offset);
+            offset += 2;
+            for (int i = 0; i < attributes; i++) {
+                offset += 6 + reader.readInt(offset + 2);
+            }
+            return offset;
+        }
+    }
+
+    private final class ClassScanner extends ClassVisitor {
+
+        final List<MethodAudit> methods = new ArrayList<>();
+        private final ClassLayout layout;
+        int generatedFields;
+        int helperBytes;
+
+        ClassScanner(ClassLayout layout) {
+            super(Opcodes.ASM9);
+            this.layout = layout;
+        }
+
+        @Override
+        public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+            if (GENERATED_FIELDS.contains(name)) {
+                generatedFields++;
+            }
+            return null;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+                String[] exceptions) {
+            Integer size = layout.codeLengths.get(name + descriptor);
+            if (size == null) {
+                // abstract or native
+                return null;
+            }
+            if (name.startsWith(HELPER_NAME)) {
+                helperBytes += size;
+                return null;
+            }
+            return new InstructionRecorder() {
+
+                @Override
+                public void visitEnd() {
+                    MethodAudit method = analyze(name, descriptor, size, this);
+                    if (method != null) {
+                        methods.add(method);
+                    }
+                }
+            };
+        }
+    }
+
+    /**
+     * Matches the checks in the recorded instructions of a method. A check claims its instructions, so every byte is
+     * counted once even if the shapes overlap.
+     */
+    private MethodAudit analyze(String name, String descriptor, int size, InstructionRecorder recorder) {
+        List<Insn> insns = recorder.insns;
+        boolean[] claimed = new boolean[insns.size()];
+        Map<CheckKind, Integer> checks = new EnumMap<>(CheckKind.class);
+        int bytesAdded = 0;
+        // if (x == null) throw new ...(message)
+        for (int i = 0; i < insns.size(); i++) {
+            if (insns.get(i).opcode == Opcodes.ATHROW) {
+                bytesAdded += claim(insns, claimed, checks, throwCheck(insns, i));
+            }
+        }
+        // Objects.requireNonNull(x, message) and alike
+        for (int i = 0; i < insns.size(); i++) {
+            if (!claimed[i] && insns.get(i).opcode == Opcodes.INVOKESTATIC) {
+                bytesAdded += claim(insns, claimed, checks, callCheck(insns, i));
+            }
+        }
+        for (int i = 0; i < insns.size(); i++) {
+            Insn insn = insns.get(i);
+            if (claimed[i] || insn.opcode != Opcodes.INVOKESTATIC) {
+                continue;
+            }
+            if (insn.name.startsWith(HELPER_NAME)) {
+                bytesAdded += claim(insns, claimed, checks, new Check(CheckKind.RETURN, i, withCast(insns, i)));
+            } else if (ELEMENTS.equals(insn.owner)) {
+                bytesAdded += claim(insns, claimed, checks, elementCheck(insns, i));
+            }
+        }
+        // if (x == null) { NonnullViolations.record($nonnullSites + site); }
+        for (int i = 0; i < insns.size(); i++) {
+            if (!claimed[i] && insns.get(i)
+                    .isCall(VIOLATIONS, "record")) {
+                Check check = recordedCheck(insns, i);
+                // a recording in front of Objects.requireNonNull belongs to that check
+                boolean recordOnly = i + 1 >= insns.size() || !claimed[i + 1];
+                bytesAdded += claim(insns, claimed, recordOnly ? checks : null, check);
+            }
+        }
+        for (int i = 0; i < insns.size(); i++) {
+            Insn insn = insns.get(i);
+            if (!claimed[i] && insn.var >= 0 && recorder.resultSlots.contains(insn.var)) {
+                claimed[i] = true;
+                bytesAdded += insn.size;
+            }
+        }
+        if (checks.isEmpty()) {
+            return null;
+        }
+        return new MethodAudit(name, descriptor, checks, size, bytesAdded, thresholdsCrossed(size, bytesAdded));
+    }
+
+    private static int claim(List<Insn> insns, boolean[] claimed, Map<CheckKind, Integer> checks, Check check) {
+        if (check == null) {
+            return 0;
+        }
+        int bytes = 0;
+        for (int i = check.start; i <= check.end; i++) {
+            if (!claimed[i]) {
+                claimed[i] = true;
+                bytes += insns.get(i).size;
+            }
+        }
+        if (checks != null) {
+            checks.merge(check.kind, 1, Integer::sum);
+        }
+        return bytes + claimResultVariable(insns, claimed, check);
+    }
+
+    /**
+     * {@code astore n [check with aload n] aload n}: the store and the last load of the {@code $result} variable of
+     * the code shape {@code INLINE}. They are found by their position, the debug information is not needed.
+     */
+    private static int claimResultVariable(List<Insn> insns, boolean[] claimed, Check check) {
+        if (check.start == 0 || check.end + 1 >= insns.size()) {
+            return 0;
+        }
+        Insn store = insns.get(check.start - 1);
+        Insn load = insns.get(check.end + 1);
+        if (store.opcode != Opcodes.ASTORE || load.opcode != Opcodes.ALOAD || store.var != load.var) {
+            return 0;
+        }
+        boolean checked = false;
+        for (int i = check.start; i <= check.end && !checked; i++) {
+            checked = insns.get(i).opcode == Opcodes.ALOAD && insns.get(i).var == store.var;
+        }
+        if (!checked) {
+            return 0;
+        }
+        int bytes = 0;
+        for (int i : new int[] { check.start - 1, check.end + 1 }) {
+            if (!claimed[i]) {
+                claimed[i] = true;
+                bytes += insns.get(i).size;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * {@code [guard] [load] ifnonnull [record] new [dup] ldc message invokespecial athrow}
+     */
+    private static Check throwCheck(List<Insn> insns, int athrow) {
+        int init = athrow - 1;
+        if (init < 2 || insns.get(init).opcode != Opcodes.INVOKESPECIAL || !"<init>".equals(insns.get(init).name)) {
+            return null;
+        }
+        CheckKind kind = kindOf(insns.get(init - 1).constant);
+        if (kind == null) {
+            return null;
+        }
+        int start = init - 2;
+        if (start > 0 && insns.get(start).opcode == Opcodes.DUP) {
+            start--;
+        }
+        if (insns.get(start).opcode != Opcodes.NEW) {
+            return null;
+        }
+        if (start > 0 && insns.get(start - 1)
+                .isCall(VIOLATIONS, "record")) {
+            start = recordStart(insns, start - 1);
+        }
+        if (start > 0 && isNullJump(insns.get(start - 1))) {
+            start = guardStart(insns, loadStart(insns, start - 1));
+        }
+        return new Check(kind, start, athrow);
+    }
+
+    /**
+     * {@code [load] ldc message invokestatic [pop|checkcast]}
+     */
+    private static Check callCheck(List<Insn> insns, int call) {
+        if (call == 0) {
+            return null;
+        }
+        CheckKind kind = kindOf(insns.get(call - 1).constant);
+        if (kind == null) {
+            return null;
+        }
+        Insn insn = insns.get(call);
+        int start = call - 1;
+        int end = call;
+        int next = call + 1;
+        if (insn.descriptor.endsWith(")V")) {
+            start = loadStart(insns, start);
+        } else if (next < insns.size() && insns.get(next).opcode == Opcodes.POP) {
+            start = loadStart(insns, start);
+            end = next;
+        } else {
+            end = withCast(insns, call);
+        }
+        return new Check(kind, start, end);
+    }
+
+    /**
+     * {@code [load] ldc name [limit] invokestatic [checkcast]}
+     */
+    private static Check elementCheck(List<Insn> insns, int call) {
+        int start = call;
+        if (start > 0 && insns.get(start - 1)
+                .isIntConstant()) {
+            start--;
+        }
+        if (start > 0 && insns.get(start - 1).constant instanceof String) {
+            start--;
+        }
+        if (insns.get(call).descriptor.endsWith(")V")) {
+            return new Check(CheckKind.ELEMENT, loadStart(insns, start), call);
+        }
+        return new Check(CheckKind.ELEMENT, start, withCast(insns, call));
+    }
+
+    /**
+     * {@code [load] ifnonnull getstatic $nonnullSites iconst iadd invokestatic}
+     */
+    private static Check recordedCheck(List<Insn> insns, int call) {
+        int start = recordStart(insns, call);
+        if (start > 0 && isNullJump(insns.get(start - 1))) {
+            start = loadStart(insns, start - 1);
+        }
+        return new Check(CheckKind.RECORDED, start, call);
+    }
+
+    private static int recordStart(List<Insn> insns, int call) {
+        int start = call;
+        if (start >= 3 && insns.get(start - 1).opcode == Opcodes.IADD && insns.get(start - 2)
+                .isIntConstant()
+                && insns.get(start - 3).opcode == Opcodes.GETSTATIC && SITES_FIELD.equals(insns.get(start - 3).name)) {
+            start -= 3;
+        }
+        return start;
+    }
+
+    private static int loadStart(List<Insn> insns, int index) {
+        if (index == 0) {
+            return index;
+        }
+        Insn load = insns.get(index - 1);
+        if (load.opcode == Opcodes.ALOAD || load.opcode == Opcodes.GETSTATIC) {
+            return index - 1;
+        }
+        if (load.opcode == Opcodes.GETFIELD && index > 1 && insns.get(index - 2).opcode == Opcodes.ALOAD) {
+            return index - 2;
+        }
+        return index;
+    }
+
+    private static int guardStart(List<Insn> insns, int index) {
+        if (index >= 2) {
+            Insn jump = insns.get(index - 1);
+            Insn flag = insns.get(index - 2);
+            if ((jump.opcode == Opcodes.IFEQ || jump.opcode == Opcodes.IFNE) && flag.opcode == Opcodes.GETSTATIC
+                    && GUARD_FIELDS.contains(flag.name)) {
+                return index - 2;
+            }
+        }
+        return index;
+    }
+
+    private static int withCast(List<Insn> insns, int index) {
+        int next = index + 1;
+        return next < insns.size() && insns.get(next).opcode == Opcodes.CHECKCAST ? next : index;
+    }
+
+    private static boolean isNullJump(Insn insn) {
+        return insn.opcode == Opcodes.IFNULL || insn.opcode == Opcodes.IFNONNULL;
+    }
+
+    /**
+     * A matched check: the instructions from {@code start} to {@code end}, both inclusive.
+     */
+    private static final class Check {
+
+        final CheckKind kind;
+        final int start;
+        final int end;
+
+        Check(CheckKind kind, int start, int end) {
+            this.kind = kind;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * An instruction with its estimated size. The exact size depends on the constant pool and the alignment of the
+     * switches, which ASM doesn't report; the instructions of the checks are estimated exactly for small classes.
+     */
+    private static final class Insn {
+
+        final int opcode;
+        final int size;
+        Object constant;
+        String owner = "";
+        String name = "";
+        String descriptor = "";
+        int var = -1;
+
+        Insn(int opcode, int size) {
+            this.opcode = opcode;
+            this.size = size;
+        }
+
+        boolean isCall(String callOwner, String callName) {
+            return opcode == Opcodes.INVOKESTATIC && owner.equals(callOwner) && name.equals(callName);
+        }
+
+        boolean isIntConstant() {
+            return opcode >= Opcodes.ICONST_M1 && opcode <= Opcodes.ICONST_5 || opcode == Opcodes.BIPUSH
+                    || opcode == Opcodes.SIPUSH || opcode == Opcodes.LDC && constant instanceof Integer;
+        }
+    }
+
+    /**
+     * Records the instructions of a method and the slots of the {@code $result} variables.
+     */
+    private static class InstructionRecorder extends MethodVisitor {
+
+        final List<Insn> insns = new ArrayList<>();
+        final Set<Integer> resultSlots = new HashSet<>();
+
+        InstructionRecorder() {
+            super(Opcodes.ASM9);
+        }
+
+        @Override
+        public void visitInsn(int opcode) {
+            insns.add(new Insn(opcode, 1));
+        }
+
+        @Override
+        public void visitIntInsn(int opcode, int operand) {
+            Insn insn = new Insn(opcode, opcode == Opcodes.SIPUSH ? 3 : 2);
+            insn.constant = operand;
+            insns.add(insn);
+        }
+
+        @Override
+        public void visitVarInsn(int opcode, int var) {
+            int size;
+            if (var <= 3 && opcode != Opcodes.RET) {
+                size = 1;
+            } else {
+                size = var <= 0xFF ? 2 : 4;
+            }
+            Insn insn = new Insn(opcode, size);
+            insn.var = var;
+            insns.add(insn);
+        }
+
+        @Override
+        public void visitTypeInsn(int opcode, String type) {
+            Insn insn = new Insn(opcode, 3);
+            insn.owner = type;
+            insns.add(insn);
+        }
+
+        @Override
+        public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+            insns.add(member(new Insn(opcode, 3), owner, name, descriptor));
+        }
+
+        @Override
+        public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+            insns.add(member(new Insn(opcode, opcode == Opcodes.INVOKEINTERFACE ? 5 : 3), owner, name, descriptor));
+        }
+
+        @Override
+        public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle,
+                Object... bootstrapMethodArguments) {
+            insns.add(member(new Insn(Opcodes.INVOKEDYNAMIC, 5), "", name, descriptor));
+        }
+
+        @Override
+        public void visitJumpInsn(int opcode, Label label) {
+            insns.add(new Insn(opcode, 3));
+        }
+
+        @Override
+        public void visitLdcInsn(Object value) {
+            Insn insn = new Insn(Opcodes.LDC, value instanceof Long || value instanceof Double ? 3 : 2);
+            insn.constant = value;
+            insns.add(insn);
+        }
+
+        @Override
+        public void visitIincInsn(int var, int increment) {
+            Insn insn = new Insn(Opcodes.IINC, var <= 0xFF && increment == (byte) increment ? 3 : 6);
+            insn.var = var;
+            insns.add(insn);
+        }
+
+        @Override
+        public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+            insns.add(new Insn(Opcodes.TABLESWITCH, 13 + 4 * labels.length));
+        }
+
+        @Override
+        public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+            insns.add(new Insn(Opcodes.LOOKUPSWITCH, 9 + 8 * keys.length));
+        }
+
+        @Override
+        public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+            insns.add(member(new Insn(Opcodes.MULTIANEWARRAY, 4), descriptor, "", descriptor));
+        }
+
+        @Override
+        public void visitLocalVariable(String name, String descriptor, String signature, Label start, Label end,
+                int index) {
+            if (name.startsWith(RESULT_NAME)) {
+                resultSlots.add(index);
+            }
+        }
+
+        private static Insn member(Insn insn, String owner, String name, String descriptor) {
+            insn.owner = owner;
+            insn.name = name;
+            insn.descriptor = descriptor;
+            return insn;
+        }
+    }
+}
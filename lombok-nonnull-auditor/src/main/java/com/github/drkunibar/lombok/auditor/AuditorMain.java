@@ -0,0 +1,170 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.auditor;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+
+/**
+ * The command line of the {@link Auditor}:
+ *
+ * <pre>
+ * java -jar lombok-nonnull-auditor.jar [--format json|html] [--output &lt;file&gt;] [--max-inline-size &lt;bytes&gt;]
+ *         [--freq-inline-size &lt;bytes&gt;] &lt;jar, class directory or class file&gt;...
+ * </pre>
+ */
+public final class AuditorMain {
+
+    static final int OK = 0;
+    static final int FAILED = 1;
+    static final int USAGE = 2;
+
+    private static final String USAGE_TEXT = "usage: java -jar lombok-nonnull-auditor.jar [--format json|html]"
+            + " [--output <file>] [--max-inline-size <bytes>] [--freq-inline-size <bytes>]"
+            + " <jar, class directory or class file>...";
+
+    /**
+     * The formats of the report.
+     */
+    enum Format {
+
+        JSON(new JsonReport()), HTML(new HtmlReport());
+
+        final AuditReport report;
+
+        Format(AuditReport report) {
+            this.report = report;
+        }
+    }
+
+    private AuditorMain() {
+    }
+
+    /**
+     * Runs the auditor and exits with the status of {@link #run(String[], PrintStream, PrintStream)} on failure.
+     *
+     * @param args
+     *            the arguments of the command line
+     */
+    public static void main(String[] args) {
+        int status = run(args, System.out, System.err);
+        if (status != OK) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Audits the artifacts given on the command line.
+     *
+     * @param args
+     *            the arguments of the command line
+     * @param out
+     *            the target of the report if no output file is given
+     * @param err
+     *            the target of the errors
+     * @return the exit status: {@value #OK} on success, {@value #FAILED} if an artifact can't be read or the report
+     *         can't be written, {@value #USAGE} for invalid arguments
+     */
+    static int run(@Nonnull String[] args, @Nonnull PrintStream out, @Nonnull PrintStream err) {
+        Objects.requireNonNull(args, "'args' must not be null");
+        Objects.requireNonNull(out, "'out' must not be null");
+        Objects.requireNonNull(err, "'err' must not be null");
+        Format format = Format.JSON;
+        Path output = null;
+        int maxInlineSize = Auditor.MAX_INLINE_SIZE;
+        int freqInlineSize = Auditor.FREQ_INLINE_SIZE;
+        List<Path> artifacts = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                case "--format":
+                    format = format(value(args, ++i, arg));
+                    break;
+                case "--output":
+                    output = Paths.get(value(args, ++i, arg));
+                    break;
+                case "--max-inline-size":
+                    maxInlineSize = Integer.parseInt(value(args, ++i, arg));
+                    break;
+                case "--freq-inline-size":
+                    freqInlineSize = Integer.parseInt(value(args, ++i, arg));
+                    break;
+                default:
+                    if (arg.startsWith("--")) {
+                        throw new IllegalArgumentException("unknown option " + arg);
+                    }
+                    artifacts.add(Paths.get(arg));
+                    break;
+                }
+            }
+            if (artifacts.isEmpty()) {
+                throw new IllegalArgumentException("no artifact given");
+            }
+            Auditor auditor = new Auditor(maxInlineSize, freqInlineSize);
+            List<ArtifactAudit> audits = new ArrayList<>();
+            for (Path artifact : artifacts) {
+                if (!Files.exists(artifact)) {
+                    throw new IOException("artifact not found: " + artifact);
+                }
+                audits.add(auditor.audit(artifact));
+            }
+            if (output == null) {
+                Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                format.report.write(auditor, audits, writer);
+                writer.flush();
+            } else {
+                try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+                    format.report.write(auditor, audits, writer);
+                }
+            }
+            return OK;
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(USAGE_TEXT);
+            return USAGE;
+        } catch (IOException e) {
+            err.println(e.getMessage());
+            return FAILED;
+        }
+    }
+
+    private static Format format(String name) {
+        for (Format format : Format.values()) {
+            if (format.name()
+                    .equals(name.toUpperCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("unknown format " + name);
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("missing value of " + option);
+        }
+        return args[index];
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.auditor;
+
+/**
+ * The kinds of null checks counted by the {@link Auditor}.
+ */
+public enum CheckKind {
+
+    /**
+     * A check of a return value, identified by the message {@code "the return value must not be null"} or the call of
+     * the helper {@code $nonnullReturn} of the code shape {@code COMPACT}.
+     */
+    RETURN("returnChecks"),
+
+    /**
+     * A check of a parameter or a field, identified by the message {@code "<name> is marked non-null but is null"}.
+     */
+    PARAMETER("parameterChecks"),
+
+    /**
+     * A check of the elements of an array, a collection or a map by {@code NonnullElements}.
+     */
+    ELEMENT("elementChecks"),
+
+    /**
+     * A check of the check mode {@code REPORT} which records the violation instead of throwing an exception.
+     */
+    RECORDED("recordedChecks");
+
+    private final String property;
+
+    CheckKind(String property) {
+        this.property = property;
+    }
+
+    /**
+     * Returns the name of the kind in the reports, e.g. {@code returnChecks}.
+     *
+     * @return the name in the reports
+     */
+    public String getProperty() {
+        return property;
+    }
+}
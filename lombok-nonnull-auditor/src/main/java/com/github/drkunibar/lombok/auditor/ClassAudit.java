@@ -0,0 +1,122 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.auditor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+
+/**
+ * The null checks found in a class.
+ */
+public final class ClassAudit {
+
+    private final String name;
+    private final boolean woven;
+    private final int generatedFields;
+    private final int helperBytes;
+    private final List<MethodAudit> methods;
+
+    ClassAudit(@Nonnull String name, boolean woven, int generatedFields, int helperBytes,
+            @Nonnull List<MethodAudit> methods) {
+        this.name = Objects.requireNonNull(name, "'name' must not be null");
+        this.woven = woven;
+        this.generatedFields = generatedFields;
+        this.helperBytes = helperBytes;
+        this.methods = Collections.unmodifiableList(Objects.requireNonNull(methods, "'methods' must not be null"));
+    }
+
+    /**
+     * Returns the name of the class.
+     *
+     * @return the binary name, e.g. {@code com.example.Outer$Inner}
+     */
+    @Nonnull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns whether the checks were woven into the class file by the maven plugin instead of generated by lombok.
+     *
+     * @return {@code true} if the class is marked as woven
+     */
+    public boolean isWoven() {
+        return woven;
+    }
+
+    /**
+     * Returns the number of fields generated for the checks, i.e. {@code $nonnullChecks} and {@code $nonnullSites}.
+     *
+     * @return the number of generated fields
+     */
+    public int getGeneratedFields() {
+        return generatedFields;
+    }
+
+    /**
+     * Returns the size of the bytecode of the helper methods {@code $nonnullReturn}.
+     *
+     * @return the exact size in bytes
+     */
+    public int getHelperBytes() {
+        return helperBytes;
+    }
+
+    /**
+     * Returns the methods with checks.
+     *
+     * @return the methods in the order of the class file
+     */
+    @Nonnull
+    public List<MethodAudit> getMethods() {
+        return methods;
+    }
+
+    /**
+     * Returns the number of checks of all methods.
+     *
+     * @return the number of checks
+     */
+    public int getChecks() {
+        int checks = 0;
+        for (MethodAudit method : methods) {
+            checks += method.getChecks();
+        }
+        return checks;
+    }
+
+    /**
+     * Returns the size of the bytecode added by the checks, including the helper methods.
+     *
+     * @return the size in bytes
+     */
+    public int getBytesAdded() {
+        int bytes = helperBytes;
+        for (MethodAudit method : methods) {
+            bytes += method.getBytesAdded();
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns whether the class contains checks.
+     *
+     * @return {@code true} if a method contains checks or the class a generated field or helper
+     */
+    public boolean hasChecks() {
+        return !methods.isEmpty() || generatedFields > 0 || helperBytes > 0;
+    }
+}
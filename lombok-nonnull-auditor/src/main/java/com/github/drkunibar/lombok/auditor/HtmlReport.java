@@ -0,0 +1,102 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.auditor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+
+/**
+ * Writes the results of an {@link Auditor} as a standalone HTML page: a summary per artifact and a table of the
+ * methods with checks, where the methods which cross an inlining threshold are highlighted.
+ */
+public class HtmlReport implements AuditReport {
+
+    private static final String STYLE = "body{font-family:sans-serif}"
+            + "table{border-collapse:collapse;margin-bottom:2em}"
+            + "th,td{border:1px solid #ccc;padding:2px 6px;text-align:right}"
+            + "th{background:#eee}td.name{text-align:left;font-family:monospace}"
+            + "tr.crossed{background:#fdd}";
+
+    @Override
+    public void write(@Nonnull Auditor auditor, @Nonnull List<ArtifactAudit> artifacts, @Nonnull Writer out)
+            throws IOException {
+        Objects.requireNonNull(auditor, "'auditor' must not be null");
+        Objects.requireNonNull(artifacts, "'artifacts' must not be null");
+        Objects.requireNonNull(out, "'out' must not be null");
+        out.write("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"UTF-8\">\n");
+        out.write("<title>lombok-nonnull audit</title>\n<style>" + STYLE + "</style>\n</head>\n<body>\n");
+        out.write("<h1>lombok-nonnull audit</h1>\n");
+        out.write("<p>Inlining thresholds: MaxInlineSize " + auditor.getMaxInlineSize() + " bytes, FreqInlineSize "
+                + auditor.getFreqInlineSize() + " bytes</p>\n");
+        for (ArtifactAudit artifact : artifacts) {
+            out.write("<h2>" + escape(artifact.getPath()) + "</h2>\n");
+            out.write("<p>" + artifact.getScannedClasses() + " classes scanned, " + artifact.getClasses()
+                    .size()
+                    + " with checks, " + artifact.getChecks() + " checks, " + artifact.getBytesAdded()
+                    + " bytes added</p>\n");
+            if (!artifact.getClasses()
+                    .isEmpty()) {
+                writeMethods(artifact, out);
+            }
+        }
+        out.write("</body>\n</html>\n");
+        out.flush();
+    }
+
+    private static void writeMethods(ArtifactAudit artifact, Writer out) throws IOException {
+        out.write("<table>\n<tr><th>Class</th><th>Method</th>");
+        for (CheckKind kind : CheckKind.values()) {
+            out.write("<th>" + kind.getProperty() + "</th>");
+        }
+        out.write("<th>bytecodeSize</th><th>bytesAdded</th><th>thresholdsCrossed</th></tr>\n");
+        for (ClassAudit type : artifact.getClasses()) {
+            if (type.getHelperBytes() > 0 || type.getGeneratedFields() > 0) {
+                out.write("<tr><td class=\"name\">" + escape(type.getName()) + "</td><td class=\"name\">"
+                        + type.getGeneratedFields() + " generated fields"
+                        + "</td>" + repeat("<td></td>", CheckKind.values().length) + "<td></td><td>"
+                        + type.getHelperBytes() + "</td><td></td></tr>\n");
+            }
+            for (MethodAudit method : type.getMethods()) {
+                List<String> thresholds = method.getThresholdsCrossed();
+                out.write(thresholds.isEmpty() ? "<tr>" : "<tr class=\"crossed\">");
+                out.write("<td class=\"name\">" + escape(type.getName()) + "</td><td class=\"name\">"
+                        + escape(method.getName() + method.getDescriptor()) + "</td>");
+                for (CheckKind kind : CheckKind.values()) {
+                    out.write("<td>" + method.getChecks(kind) + "</td>");
+                }
+                out.write("<td>" + method.getBytecodeSize() + "</td><td>" + method.getBytesAdded() + "</td><td>"
+                        + escape(String.join(", ", thresholds)) + "</td></tr>\n");
+            }
+        }
+        out.write("</table>\n");
+    }
+
+    private static String repeat(String value, int count) {
+        StringBuilder repeated = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            repeated.append(value);
+        }
+        return repeated.toString();
+    }
+
+    static String escape(String value) {
+        return value.replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("\"", "&quot;");
+    }
+}
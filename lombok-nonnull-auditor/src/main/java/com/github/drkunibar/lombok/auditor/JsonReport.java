@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.auditor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+
+/**
+ * Writes the results of an {@link Auditor} as JSON: the artifacts with their classes and the methods with checks.
+ */
+public class JsonReport implements AuditReport {
+
+    @Override
+    public void write(@Nonnull Auditor auditor, @Nonnull List<ArtifactAudit> artifacts, @Nonnull Writer out)
+            throws IOException {
+        Objects.requireNonNull(auditor, "'auditor' must not be null");
+        Objects.requireNonNull(artifacts, "'artifacts' must not be null");
+        Objects.requireNonNull(out, "'out' must not be null");
+        out.write("{\n");
+        out.write("  \"maxInlineSize\": " + auditor.getMaxInlineSize() + ",\n");
+        out.write("  \"freqInlineSize\": " + auditor.getFreqInlineSize() + ",\n");
+        out.write("  \"artifacts\": [");
+        for (int i = 0; i < artifacts.size(); i++) {
+            ArtifactAudit artifact = artifacts.get(i);
+            out.write(i == 0 ? "\n" : ",\n");
+            out.write("    {\n");
+            out.write("      \"path\": " + quote(artifact.getPath()) + ",\n");
+            out.write("      \"scannedClasses\": " + artifact.getScannedClasses() + ",\n");
+            out.write("      \"checks\": " + artifact.getChecks() + ",\n");
+            out.write("      \"bytesAdded\": " + artifact.getBytesAdded() + ",\n");
+            out.write("      \"classes\": [");
+            writeClasses(artifact.getClasses(), out);
+            out.write("]\n");
+            out.write("    }");
+        }
+        out.write(artifacts.isEmpty() ? "]\n" : "\n  ]\n");
+        out.write("}\n");
+        out.flush();
+    }
+
+    private static void writeClasses(List<ClassAudit> classes, Writer out) throws IOException {
+        for (int i = 0; i < classes.size(); i++) {
+            ClassAudit type = classes.get(i);
+            out.write(i == 0 ? "\n" : ",\n");
+            out.write("        {\n");
+            out.write("          \"name\": " + quote(type.getName()) + ",\n");
+            out.write("          \"woven\": " + type.isWoven() + ",\n");
+            out.write("          \"checks\": " + type.getChecks() + ",\n");
+            out.write("          \"bytesAdded\": " + type.getBytesAdded() + ",\n");
+            out.write("          \"generatedFields\": " + type.getGeneratedFields() + ",\n");
+            out.write("          \"helperBytes\": " + type.getHelperBytes() + ",\n");
+            out.write("          \"methods\": [");
+            List<MethodAudit> methods = type.getMethods();
+            for (int j = 0; j < methods.size(); j++) {
+                out.write(j == 0 ? "\n" : ",\n");
+                writeMethod(methods.get(j), out);
+            }
+            out.write(methods.isEmpty() ? "]\n" : "\n          ]\n");
+            out.write("        }");
+        }
+        if (!classes.isEmpty()) {
+            out.write("\n      ");
+        }
+    }
+
+    private static void writeMethod(MethodAudit method, Writer out) throws IOException {
+        String indent = "              ";
+        out.write("            {\n");
+        out.write(indent + "\"name\": " + quote(method.getName()) + ",\n");
+        out.write(indent + "\"descriptor\": " + quote(method.getDescriptor()) + ",\n");
+        for (CheckKind kind : CheckKind.values()) {
+            out.write(indent + quote(kind.getProperty()) + ": " + method.getChecks(kind) + ",\n");
+        }
+        out.write(indent + "\"bytecodeSize\": " + method.getBytecodeSize() + ",\n");
+        out.write(indent + "\"bytesAdded\": " + method.getBytesAdded() + ",\n");
+        out.write(indent + "\"thresholdsCrossed\": [");
+        List<String> thresholds = method.getThresholdsCrossed();
+        for (int i = 0; i < thresholds.size(); i++) {
+            out.write((i == 0 ? "" : ", ") + quote(thresholds.get(i)));
+        }
+        out.write("]\n");
+        out.write("            }");
+    }
+
+    static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\')
+                        .append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"')
+                .toString();
+    }
+}
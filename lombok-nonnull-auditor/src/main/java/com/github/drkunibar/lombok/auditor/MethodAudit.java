@@ -0,0 +1,120 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.auditor;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+
+/**
+ * The null checks found in a method and their bytecode overhead.
+ */
+public final class MethodAudit {
+
+    private final String name;
+    private final String descriptor;
+    private final Map<CheckKind, Integer> checks;
+    private final int bytecodeSize;
+    private final int bytesAdded;
+    private final List<String> thresholdsCrossed;
+
+    MethodAudit(@Nonnull String name, @Nonnull String descriptor, @Nonnull Map<CheckKind, Integer> checks,
+            int bytecodeSize, int bytesAdded, @Nonnull List<String> thresholdsCrossed) {
+        this.name = Objects.requireNonNull(name, "'name' must not be null");
+        this.descriptor = Objects.requireNonNull(descriptor, "'descriptor' must not be null");
+        this.checks = Collections.unmodifiableMap(new EnumMap<>(Objects.requireNonNull(checks,
+                "'checks' must not be null")));
+        this.bytecodeSize = bytecodeSize;
+        this.bytesAdded = bytesAdded;
+        this.thresholdsCrossed = Collections.unmodifiableList(Objects.requireNonNull(thresholdsCrossed,
+                "'thresholdsCrossed' must not be null"));
+    }
+
+    /**
+     * Returns the name of the method.
+     *
+     * @return the name, e.g. {@code <init>} for a constructor
+     */
+    @Nonnull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the descriptor of the method.
+     *
+     * @return the descriptor, e.g. {@code (Ljava/lang/String;)V}
+     */
+    @Nonnull
+    public String getDescriptor() {
+        return descriptor;
+    }
+
+    /**
+     * Returns the number of checks of a kind.
+     *
+     * @param kind
+     *            the kind of the checks
+     * @return the number of checks
+     */
+    public int getChecks(@Nonnull CheckKind kind) {
+        Objects.requireNonNull(kind, "'kind' must not be null");
+        Integer count = checks.get(kind);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Returns the number of all checks.
+     *
+     * @return the number of checks
+     */
+    public int getChecks() {
+        int count = 0;
+        for (Integer kindCount : checks.values()) {
+            count += kindCount;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the size of the bytecode of the method.
+     *
+     * @return the exact size in bytes
+     */
+    public int getBytecodeSize() {
+        return bytecodeSize;
+    }
+
+    /**
+     * Returns the size of the bytecode added by the checks.
+     *
+     * @return the estimated size in bytes
+     */
+    public int getBytesAdded() {
+        return bytesAdded;
+    }
+
+    /**
+     * Returns the inlining thresholds of HotSpot the method exceeds only because of the checks.
+     *
+     * @return the names of the thresholds, e.g. {@code MaxInlineSize}
+     */
+    @Nonnull
+    public List<String> getThresholdsCrossed() {
+        return thresholdsCrossed;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.auditor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class AuditorMainTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    @Nested
+    class Json {
+
+        @Test
+        void directory_writeClassesAndMethods() throws IOException {
+            // given
+            String[] args = { AuditorTest.packageDirectory()
+                    .toString() };
+            // when
+            int status = run(args);
+            // then
+            String json = text(out);
+            assertThat(status).isEqualTo(AuditorMain.OK);
+            assertThat(json).startsWith("{\n")
+                    .contains("\"maxInlineSize\": 35,")
+                    .contains("\"name\": \"" + AuditorTestClass.class.getName() + "\",")
+                    .contains("\"name\": \"join\",")
+                    .contains("\"parameterChecks\": 2,")
+                    .contains("\"thresholdsCrossed\": [\"MaxInlineSize\"]")
+                    .doesNotContain(AuditorPlainTestClass.class.getName());
+            assertThat(text(err)).isEmpty();
+        }
+
+        @Test
+        void customThresholds_writeThresholds() throws IOException {
+            // given
+            String[] args = { "--max-inline-size", "10", "--freq-inline-size", "20", AuditorTest.packageDirectory()
+                    .toString() };
+            // when
+            int status = run(args);
+            // then
+            assertThat(status).isEqualTo(AuditorMain.OK);
+            assertThat(text(out)).contains("\"maxInlineSize\": 10,")
+                    .contains("\"freqInlineSize\": 20,")
+                    .contains("\"thresholdsCrossed\": [\"MaxInlineSize\", \"FreqInlineSize\"]");
+        }
+    }
+
+    @Nested
+    class Html {
+
+        @Test
+        void outputFile_writePage() throws IOException {
+            // given
+            Path output = Files.createTempFile("audit", ".html");
+            try {
+                String[] args = { "--format", "html", "--output", output.toString(), AuditorTest.packageDirectory()
+                        .toString() };
+                // when
+                int status = run(args);
+                // then
+                String html = new String(Files.readAllBytes(output), StandardCharsets.UTF_8);
+                assertThat(status).isEqualTo(AuditorMain.OK);
+                assertThat(text(out)).isEmpty();
+                assertThat(html).startsWith("<!DOCTYPE html>")
+                        .contains("<tr class=\"crossed\">")
+                        .contains("join(Ljava/lang/String;Ljava/lang/String;)Ljava/lang/String;")
+                        .contains("&lt;init&gt;")
+                        .endsWith("</html>\n");
+            } finally {
+                Files.delete(output);
+            }
+        }
+    }
+
+    @Nested
+    class Errors {
+
+        @Test
+        void noArtifact_printUsage() throws IOException {
+            // when
+            int status = run(new String[] { "--format", "json" });
+            // then
+            assertThat(status).isEqualTo(AuditorMain.USAGE);
+            assertThat(text(err)).contains("no artifact given")
+                    .contains("usage:");
+        }
+
+        @Test
+        void unknownFormat_printUsage() throws IOException {
+            // when
+            int status = run(new String[] { "--format", "xml", "classes" });
+            // then
+            assertThat(status).isEqualTo(AuditorMain.USAGE);
+            assertThat(text(err)).contains("unknown format xml");
+        }
+
+        @Test
+        void missingArtifact_fail() throws IOException {
+            // when
+            int status = run(new String[] { "does-not-exist.jar" });
+            // then
+            assertThat(status).isEqualTo(AuditorMain.FAILED);
+            assertThat(text(err)).contains("artifact not found: does-not-exist.jar");
+        }
+    }
+
+    private int run(String[] args) throws UnsupportedEncodingException {
+        return AuditorMain.run(args, new PrintStream(out, true, "UTF-8"), new PrintStream(err, true, "UTF-8"));
+    }
+
+    private static String text(ByteArrayOutputStream stream) throws UnsupportedEncodingException {
+        return stream.toString("UTF-8");
+    }
+}
@@ -0,0 +1,377 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.auditor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import com.github.drkunibar.lombok.auditor.elements.ElementsTestClass;
+import com.github.drkunibar.lombok.auditor.reportmode.ReportTestClass;
+import com.github.drkunibar.lombok.auditor.shape.ShapeTestClass;
+
+public class AuditorTest {
+
+    private final Auditor auditor = new Auditor();
+
+    @Nested
+    class InlineShape {
+
+        @Test
+        void parameters_countChecks() {
+            // given
+            byte[] classFile = classFile(AuditorTestClass.class);
+            // when
+            ClassAudit audit = auditor.audit(classFile);
+            // then
+            MethodAudit join = method(audit, "join");
+            assertThat(join.getChecks(CheckKind.PARAMETER)).isEqualTo(2);
+            assertThat(join.getChecks(CheckKind.RETURN)).isZero();
+            assertThat(join.getBytecodeSize()).isEqualTo(36);
+            assertThat(join.getBytesAdded()).isEqualTo(28);
+            assertThat(method(audit, "<init>").getChecks(CheckKind.PARAMETER)).isEqualTo(1);
+        }
+
+        @Test
+        void returnValue_countCheckAndResultVariable() {
+            // given
+            byte[] classFile = classFile(AuditorTestClass.class);
+            // when
+            ClassAudit audit = auditor.audit(classFile);
+            // then
+            MethodAudit getName = method(audit, "getName");
+            assertThat(getName.getChecks()).isEqualTo(1);
+            assertThat(getName.getChecks(CheckKind.RETURN)).isEqualTo(1);
+            assertThat(getName.getBytecodeSize()).isEqualTo(21);
+            assertThat(getName.getBytesAdded()).isEqualTo(16);
+            // the constant and the new object are not checked
+            assertThat(method(audit, "getCase").getChecks(CheckKind.RETURN)).isEqualTo(1);
+        }
+
+        @Test
+        void uncheckedMethod_notListed() {
+            // given
+            byte[] classFile = classFile(AuditorTestClass.class);
+            // when
+            ClassAudit audit = auditor.audit(classFile);
+            // then
+            assertThat(audit.getName()).isEqualTo(AuditorTestClass.class.getName());
+            assertThat(audit.getMethods()).extracting(MethodAudit::getName)
+                    .containsExactly("<init>", "getName", "getCase", "join");
+            assertThat(audit.getChecks()).isEqualTo(5);
+            assertThat(audit.getGeneratedFields()).isZero();
+            assertThat(audit.isWoven()).isFalse();
+        }
+
+        @Test
+        void plainClass_noChecks() {
+            // given
+            byte[] classFile = classFile(AuditorPlainTestClass.class);
+            // when
+            ClassAudit audit = auditor.audit(classFile);
+            // then
+            assertThat(audit.hasChecks()).isFalse();
+            assertThat(audit.getMethods()).isEmpty();
+        }
+    }
+
+    @Nested
+    class CompactShape {
+
+        @Test
+        void singleReturn_countRequireNonNull() {
+            // given
+            byte[] classFile = classFile(ShapeTestClass.class);
+            // when
+            ClassAudit audit = auditor.audit(classFile);
+            // then
+            MethodAudit getName = method(audit, "getName");
+            assertThat(getName.getChecks(CheckKind.RETURN)).isEqualTo(1);
+            assertThat(getName.getBytecodeSize()).isEqualTo(13);
+            assertThat(getName.getBytesAdded()).isEqualTo(8);
+        }
+
+        @Test
+        void severalReturns_countHelperCallAndHelper() {
+            // given
+            byte[] classFile = classFile(ShapeTestClass.class);
+            // when
+            ClassAudit audit = auditor.audit(classFile);
+            // then
+            MethodAudit getCase = method(audit, "getCase");
+            assertThat(getCase.getChecks(CheckKind.RETURN)).isEqualTo(1);
+            assertThat(getCase.getBytesAdded()).isEqualTo(6);
+            assertThat(audit.getMethods()).extracting(MethodAudit::getName)
+                    .containsExactly("getName", "getCase");
+            assertThat(audit.getHelperBytes()).isEqualTo(16);
+            assertThat(audit.getBytesAdded()).isEqualTo(8 + 6 + 16);
+        }
+    }
+
+    @Nested
+    class ReportMode {
+
+        @Test
+        void recordedChecks_countChecksAndSitesField() {
+            // given
+            byte[] classFile = classFile(ReportTestClass.class);
+            // when
+            ClassAudit audit = auditor.audit(classFile);
+            // then
+            MethodAudit getNames = method(audit, "getNames");
+            MethodAudit first = method(audit, "first");
+            assertThat(getNames.getChecks(CheckKind.RECORDED)).isEqualTo(1);
+            assertThat(getNames.getChecks()).isEqualTo(1);
+            assertThat(getNames.getBytesAdded()).isEqualTo(14);
+            assertThat(first.getChecks(CheckKind.RECORDED)).isEqualTo(1);
+            assertThat(first.getBytesAdded()).isEqualTo(12);
+            assertThat(audit.getGeneratedFields()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    class Elements {
+
+        @Test
+        void elementChecks_countBesideNullChecks() {
+            // given
+            byte[] classFile = classFile(ElementsTestClass.class);
+            // when
+            ClassAudit audit = auditor.audit(classFile);
+            // then
+            MethodAudit getNames = method(audit, "getNames");
+            MethodAudit first = method(audit, "first");
+            assertThat(getNames.getChecks(CheckKind.RETURN)).isEqualTo(1);
+            assertThat(getNames.getChecks(CheckKind.ELEMENT)).isEqualTo(1);
+            assertThat(getNames.getBytesAdded()).isEqualTo(21);
+            assertThat(first.getChecks(CheckKind.PARAMETER)).isEqualTo(1);
+            assertThat(first.getChecks(CheckKind.ELEMENT)).isEqualTo(1);
+            assertThat(first.getBytesAdded()).isEqualTo(21);
+        }
+    }
+
+    @Nested
+    class Thresholds {
+
+        @Test
+        void defaultThresholds_crossedByChecks() {
+            // given
+            byte[] classFile = classFile(AuditorTestClass.class);
+            // when
+            ClassAudit audit = auditor.audit(classFile);
+            // then
+            assertThat(method(audit, "join").getThresholdsCrossed()).containsExactly("MaxInlineSize");
+            assertThat(method(audit, "getName").getThresholdsCrossed()).isEmpty();
+            // too large without the check
+            assertThat(method(audit, "getCase").getThresholdsCrossed()).isEmpty();
+        }
+
+        @Test
+        void customThresholds_crossedByChecks() {
+            // given
+            Auditor custom = new Auditor(10, 20);
+            // when
+            ClassAudit audit = custom.audit(classFile(AuditorTestClass.class));
+            // then
+            assertThat(method(audit, "getName").getThresholdsCrossed()).containsExactly("MaxInlineSize",
+                    "FreqInlineSize");
+        }
+
+        @Test
+        void negativeThreshold_throwException() {
+            // when
+            Throwable throwable = catchThrowable(() -> new Auditor(-1, 325));
+            // then
+            assertThat(throwable).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    class WithoutDebugInformation {
+
+        @Test
+        void resultVariable_foundByPosition() {
+            // given
+            byte[] classFile = withoutLocalVariables(classFile(AuditorTestClass.class));
+            // when
+            ClassAudit audit = auditor.audit(classFile);
+            // then
+            MethodAudit getName = method(audit, "getName");
+            assertThat(getName.getBytecodeSize()).isEqualTo(21);
+            assertThat(getName.getBytesAdded()).isEqualTo(16);
+        }
+
+        @Test
+        void allShapes_sameBytesAddedAsWithDebugInformation() {
+            for (Class<?> type : Arrays.asList(AuditorTestClass.class, ShapeTestClass.class, ReportTestClass.class,
+                    ElementsTestClass.class)) {
+                // given
+                byte[] classFile = classFile(type);
+                // when
+                ClassAudit withVariables = auditor.audit(classFile);
+                ClassAudit withoutVariables = auditor.audit(withoutLocalVariables(classFile));
+                // then
+                assertThat(withoutVariables.getMethods()).as(type.getSimpleName())
+                        .extracting(MethodAudit::getName, MethodAudit::getBytesAdded)
+                        .isEqualTo(withVariables.getMethods()
+                                .stream()
+                                .map(method -> tuple(method.getName(), method.getBytesAdded()))
+                                .collect(Collectors.toList()));
+            }
+        }
+    }
+
+    @Nested
+    class Artifacts {
+
+        @Test
+        void directory_listClassesWithChecks() throws IOException {
+            // given
+            Path directory = packageDirectory();
+            // when
+            ArtifactAudit audit = auditor.audit(directory);
+            // then
+            assertThat(audit.getClasses()).extracting(ClassAudit::getName)
+                    .contains(AuditorTestClass.class.getName(), ShapeTestClass.class.getName())
+                    .doesNotContain(AuditorPlainTestClass.class.getName());
+            assertThat(audit.getScannedClasses()).isGreaterThan(audit.getClasses()
+                    .size());
+            assertThat(audit.getPath()).isEqualTo(directory.toString());
+        }
+
+        @Test
+        void jar_listClassesWithChecks() throws IOException {
+            // given
+            Path jar = Files.createTempFile("auditor", ".jar");
+            try {
+                try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+                    add(out, AuditorTestClass.class);
+                    add(out, AuditorPlainTestClass.class);
+                    out.putNextEntry(new ZipEntry("META-INF/readme.txt"));
+                    out.closeEntry();
+                }
+                // when
+                ArtifactAudit audit = auditor.audit(jar);
+                // then
+                assertThat(audit.getScannedClasses()).isEqualTo(2);
+                assertThat(audit.getClasses()).extracting(ClassAudit::getName)
+                        .containsExactly(AuditorTestClass.class.getName());
+                assertThat(audit.getChecks()).isEqualTo(5);
+            } finally {
+                Files.delete(jar);
+            }
+        }
+
+        @Test
+        void invalidClassFile_throwException() throws IOException {
+            // given
+            Path classFile = Files.createTempFile("Invalid", ".class");
+            try {
+                Files.write(classFile, new byte[] { 1, 2, 3 });
+                // when
+                Throwable throwable = catchThrowable(() -> auditor.audit(classFile));
+                // then
+                assertThat(throwable).isInstanceOf(IOException.class)
+                        .hasMessageContaining(classFile.toString());
+            } finally {
+                Files.delete(classFile);
+            }
+        }
+
+        private void add(JarOutputStream out, Class<?> type) throws IOException {
+            out.putNextEntry(new ZipEntry(type.getName()
+                    .replace('.', '/') + ".class"));
+            out.write(classFile(type));
+            out.closeEntry();
+        }
+    }
+
+    static byte[] classFile(Class<?> type) {
+        String resource = type.getSimpleName() + ".class";
+        try (InputStream in = type.getResourceAsStream(resource)) {
+            byte[] buffer = new byte[8192];
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Path packageDirectory() {
+        try {
+            return Paths.get(AuditorTestClass.class.getResource("AuditorTestClass.class")
+                    .toURI())
+                    .getParent();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Removes the {@code LocalVariableTable}, like a compilation without {@code -g:vars}.
+     */
+    private static byte[] withoutLocalVariables(byte[] classFile) {
+        ClassWriter writer = new ClassWriter(0);
+        new ClassReader(classFile).accept(new ClassVisitor(Opcodes.ASM9, writer) {
+
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+                    String[] exceptions) {
+                return new MethodVisitor(Opcodes.ASM9, super.visitMethod(access, name, descriptor, signature,
+                        exceptions)) {
+
+                    @Override
+                    public void visitLocalVariable(String name, String descriptor, String signature, Label start,
+                            Label end, int index) {
+                        // dropped
+                    }
+                };
+            }
+        }, 0);
+        return writer.toByteArray();
+    }
+
+    private static MethodAudit method(ClassAudit audit, String name) {
+        return audit.getMethods()
+                .stream()
+                .filter(method -> method.getName()
+                        .equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("no checks in " + name));
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.auditor;
+
+import javax.annotation.Nonnull;
+
+public class AuditorTestClass {
+
+    private final String name;
+
+    public AuditorTestClass(@Nonnull String name) {
+        this.name = name;
+    }
+
+    @Nonnull
+    public String getName() {
+        return name;
+    }
+
+    @Nonnull
+    public String getCase(int value) {
+        switch (value) {
+        case 0:
+            return "zero";
+        case 1:
+            return name;
+        default:
+            return name + value;
+        }
+    }
+
+    public String join(@Nonnull String first, @Nonnull String second) {
+        return first + second;
+    }
+
+    public String getUnchecked() {
+        return name;
+    }
+}
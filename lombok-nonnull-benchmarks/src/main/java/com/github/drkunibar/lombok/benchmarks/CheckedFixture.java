@@ -0,0 +1,117 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.benchmarks;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The null checks generated by this extension.
+ */
+public class CheckedFixture implements Fixture {
+
+    final String name;
+
+    public CheckedFixture(@Nonnull String name) {
+        this.name = name;
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Nonnull
+    @Override
+    public String getCase(String result, int caseValue) {
+        switch (caseValue) {
+        case 1:
+            return result;
+        case 2:
+        case 3:
+            return result;
+        default:
+            return result;
+        }
+    }
+
+    @Nonnull
+    @Override
+    @SuppressWarnings("UseSpecificCatch")
+    public String getTry(String result, int divider) {
+        try {
+            if (1 / divider > Integer.MAX_VALUE) {
+                // Nothing
+            }
+            return result;
+        } catch (Exception e) {
+            return result;
+        }
+    }
+
+    @Nonnull
+    @Override
+    public String join(@Nonnull String first, @Nonnull String second, @Nonnull String third, @Nonnull String fourth,
+            @Nonnull String fifth, @Nonnull String sixth) {
+        return first;
+    }
+
+    /**
+     * Another implementation of {@link #getName()} for megamorphic call sites.
+     */
+    public static final class Second extends CheckedFixture {
+
+        public Second(@Nonnull String name) {
+            super(name);
+        }
+
+        @Nonnull
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Another implementation of {@link #getName()} for megamorphic call sites.
+     */
+    public static final class Third extends CheckedFixture {
+
+        public Third(@Nonnull String name) {
+            super(name);
+        }
+
+        @Nonnull
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Another implementation of {@link #getName()} for megamorphic call sites.
+     */
+    public static final class Fourth extends CheckedFixture {
+
+        public Fourth(@Nonnull String name) {
+            super(name);
+        }
+
+        @Nonnull
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.benchmarks;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * The generated sources of one shape and size, compiled with one toolchain into a temporary directory.
+ */
+public class Compilation implements Closeable {
+
+    private final JavaCompiler compiler;
+    private final StandardJavaFileManager fileManager;
+    private final Path outputDirectory;
+    private final List<String> options;
+    private final List<JavaFileObject> sources;
+
+    /**
+     * Generates the sources and prepares the compiler.
+     *
+     * @param toolchain
+     *            the toolchain compiling the sources
+     * @param shape
+     *            the shape of the generated sources
+     * @param methods
+     *            the number of generated methods
+     * @throws IOException
+     *             if the output directory cannot be created
+     */
+    public Compilation(@Nonnull Toolchain toolchain, @Nonnull SourceGenerator.Shape shape, int methods)
+            throws IOException {
+        compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("the benchmarks must run on a JDK");
+        }
+        fileManager = compiler.getStandardFileManager(null, Locale.ROOT, StandardCharsets.UTF_8);
+        outputDirectory = Files.createTempDirectory("lombok-nonnull-benchmark");
+        options = toolchain.options(outputDirectory);
+        sources = new SourceGenerator(shape, methods).generate();
+    }
+
+    /**
+     * Compiles the sources.
+     *
+     * @return always {@code true}
+     * @throws IllegalStateException
+     *             if the compilation fails
+     */
+    public boolean compile() {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        boolean success = compiler.getTask(null, fileManager, diagnostics, options, null, sources)
+                .call();
+        if (!success) {
+            throw new IllegalStateException("compilation failed: " + diagnostics.getDiagnostics());
+        }
+        return success;
+    }
+
+    /**
+     * Closes the file manager and deletes the output directory.
+     */
+    @Override
+    public void close() throws IOException {
+        fileManager.close();
+        try (Stream<Path> files = Files.walk(outputDirectory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder())
+                    .collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+}
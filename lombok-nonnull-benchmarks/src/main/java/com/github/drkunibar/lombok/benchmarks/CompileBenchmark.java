@@ -0,0 +1,73 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the compile time of generated sources with and without this extension.
+ * <p>
+ * The cost of the extension is the difference between {@link Toolchain#LOMBOK_NONNULL} and the {@link Toolchain#LOMBOK}
+ * baseline of the same shape and size. Divided by {@code methods} it is the cost per method; the {@code NESTED} shape
+ * has six checked return sites per method with the default {@link SourceGenerator#NESTING_DEPTH}. The javac plugin is
+ * measured by {@link PluginCompileBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 2, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class CompileBenchmark {
+
+    @Param({ "LOMBOK", "LOMBOK_NONNULL" })
+    public Toolchain toolchain;
+
+    @Param({ "POJO", "LOMBOK_POJO", "NESTED" })
+    public SourceGenerator.Shape shape;
+
+    @Param({ "10", "1000", "10000" })
+    public int methods;
+
+    private Compilation compilation;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        compilation = new Compilation(toolchain, shape, methods);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        compilation.close();
+    }
+
+    @Benchmark
+    public boolean compile() {
+        return compilation.compile();
+    }
+}
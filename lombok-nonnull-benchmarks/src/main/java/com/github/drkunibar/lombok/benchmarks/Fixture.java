@@ -0,0 +1,34 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.benchmarks;
+
+/**
+ * The methods measured by {@link RuntimeBenchmark}. The implementations differ only in their null checks.
+ */
+public interface Fixture {
+
+    String getName();
+
+    /**
+     * A method with several return statements, see {@code ComplexTestClass.getCase}.
+     */
+    String getCase(String result, int caseValue);
+
+    /**
+     * A method with return statements in try and catch, see {@code ComplexTestClass.getTry}.
+     */
+    String getTry(String result, int divider);
+
+    String join(String first, String second, String third, String fourth, String fifth, String sixth);
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the compile time of the javac plugin against this extension.
+ * <p>
+ * The plugin does not run lombok, so only the shapes without lombok annotations are compiled; the {@code LOMBOK_POJO}
+ * shape would leave the plugin without getters and setters to check. {@link Toolchain#NONNULL_PLUGIN} runs the plugin
+ * in the forked JVM, which needs the internal javac packages exported on JDK 9 and later.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 2, jvmArgsAppend = { "-Xms2g", "-Xmx2g", "-XX:+IgnoreUnrecognizedVMOptions",
+        "--add-exports=jdk.compiler/com.sun.tools.javac.api=ALL-UNNAMED",
+        "--add-exports=jdk.compiler/com.sun.tools.javac.code=ALL-UNNAMED",
+        "--add-exports=jdk.compiler/com.sun.tools.javac.tree=ALL-UNNAMED",
+        "--add-exports=jdk.compiler/com.sun.tools.javac.util=ALL-UNNAMED" })
+public class PluginCompileBenchmark {
+
+    @Param({ "LOMBOK_NONNULL", "NONNULL_PLUGIN" })
+    public Toolchain toolchain;
+
+    @Param({ "POJO", "NESTED" })
+    public SourceGenerator.Shape shape;
+
+    @Param({ "10", "1000", "10000" })
+    public int methods;
+
+    private Compilation compilation;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        compilation = new Compilation(toolchain, shape, methods);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        compilation.close();
+    }
+
+    @Benchmark
+    public boolean compile() {
+        return compilation.compile();
+    }
+}
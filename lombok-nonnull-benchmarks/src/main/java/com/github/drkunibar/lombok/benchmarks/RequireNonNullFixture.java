@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.benchmarks;
+
+import java.util.Objects;
+
+/**
+ * Hand written null checks with {@link Objects#requireNonNull(Object, String)}.
+ */
+public class RequireNonNullFixture implements Fixture {
+
+    final String name;
+
+    public RequireNonNullFixture(String name) {
+        this.name = Objects.requireNonNull(name, "name is marked non-null but is null");
+    }
+
+    @Override
+    public String getName() {
+        return Objects.requireNonNull(name, "the return value must not be null");
+    }
+
+    @Override
+    public String getCase(String result, int caseValue) {
+        switch (caseValue) {
+        case 1:
+            return Objects.requireNonNull(result, "the return value must not be null");
+        case 2:
+        case 3:
+            return Objects.requireNonNull(result, "the return value must not be null");
+        default:
+            return Objects.requireNonNull(result, "the return value must not be null");
+        }
+    }
+
+    @Override
+    @SuppressWarnings("UseSpecificCatch")
+    public String getTry(String result, int divider) {
+        try {
+            if (1 / divider > Integer.MAX_VALUE) {
+                // Nothing
+            }
+            return Objects.requireNonNull(result, "the return value must not be null");
+        } catch (Exception e) {
+            return Objects.requireNonNull(result, "the return value must not be null");
+        }
+    }
+
+    @Override
+    public String join(String first, String second, String third, String fourth, String fifth, String sixth) {
+        Objects.requireNonNull(first, "first is marked non-null but is null");
+        Objects.requireNonNull(second, "second is marked non-null but is null");
+        Objects.requireNonNull(third, "third is marked non-null but is null");
+        Objects.requireNonNull(fourth, "fourth is marked non-null but is null");
+        Objects.requireNonNull(fifth, "fifth is marked non-null but is null");
+        Objects.requireNonNull(sixth, "sixth is marked non-null but is null");
+        return first;
+    }
+
+    /**
+     * Another implementation of {@link #getName()} for megamorphic call sites.
+     */
+    public static final class Second extends RequireNonNullFixture {
+
+        public Second(String name) {
+            super(name);
+        }
+
+        @Override
+        public String getName() {
+            return Objects.requireNonNull(name, "the return value must not be null");
+        }
+    }
+
+    /**
+     * Another implementation of {@link #getName()} for megamorphic call sites.
+     */
+    public static final class Third extends RequireNonNullFixture {
+
+        public Third(String name) {
+            super(name);
+        }
+
+        @Override
+        public String getName() {
+            return Objects.requireNonNull(name, "the return value must not be null");
+        }
+    }
+
+    /**
+     * Another implementation of {@link #getName()} for megamorphic call sites.
+     */
+    public static final class Fourth extends RequireNonNullFixture {
+
+        public Fourth(String name) {
+            super(name);
+        }
+
+        @Override
+        public String getName() {
+            return Objects.requireNonNull(name, "the return value must not be null");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of the generated checks in the steady state: throughput and latency of the same methods without
+ * checks ({@link Variant#UNCHECKED}), with the checks of this extension ({@link Variant#CHECKED}) and with hand written
+ * {@code Objects.requireNonNull} calls ({@link Variant#REQUIRE_NON_NULL}).
+ * <p>
+ * Every variant runs in its own forks, so the profiles of the call sites are not shared. {@link RuntimeSuite} repeats
+ * the benchmark for the different JIT compilers and keeps their inlining logs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class RuntimeBenchmark {
+
+    /**
+     * The null checks of the fixtures.
+     */
+    public enum Variant {
+
+        UNCHECKED(name -> new Fixture[] { new UncheckedFixture(name), new UncheckedFixture.Second(name),
+                new UncheckedFixture.Third(name), new UncheckedFixture.Fourth(name) }),
+
+        CHECKED(name -> new Fixture[] { new CheckedFixture(name), new CheckedFixture.Second(name),
+                new CheckedFixture.Third(name), new CheckedFixture.Fourth(name) }),
+
+        REQUIRE_NON_NULL(name -> new Fixture[] { new RequireNonNullFixture(name),
+                new RequireNonNullFixture.Second(name), new RequireNonNullFixture.Third(name),
+                new RequireNonNullFixture.Fourth(name) });
+
+        private final Function<String, Fixture[]> fixtures;
+
+        Variant(Function<String, Fixture[]> fixtures) {
+            this.fixtures = fixtures;
+        }
+    }
+
+    private static final int RECEIVERS = 4;
+
+    @Param({ "UNCHECKED", "CHECKED", "REQUIRE_NON_NULL" })
+    public Variant variant;
+
+    // not final, the JIT must not treat the arguments as constants
+    private String value = "value";
+    private int divider = 1;
+    private int caseValue;
+    private int receiver;
+    private Fixture fixture;
+    private Fixture[] receivers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        receivers = variant.fixtures.apply(value);
+        fixture = receivers[0];
+    }
+
+    @Benchmark
+    public String getter() {
+        return fixture.getName();
+    }
+
+    @Benchmark
+    public String multipleReturns() {
+        caseValue = (caseValue + 1) & 3;
+        return fixture.getCase(value, caseValue);
+    }
+
+    @Benchmark
+    public String tryCatch() {
+        return fixture.getTry(value, divider);
+    }
+
+    @Benchmark
+    public String manyParameters() {
+        return fixture.join(value, value, value, value, value, value);
+    }
+
+    /**
+     * Calls {@link Fixture#getName()} of four implementations from a single call site, which the JIT cannot inline.
+     */
+    @Benchmark
+    public String megamorphicGetter() {
+        receiver = (receiver + 1) % RECEIVERS;
+        return receivers[receiver].getName();
+    }
+}
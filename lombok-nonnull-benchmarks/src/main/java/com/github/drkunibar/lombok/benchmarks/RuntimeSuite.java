@@ -0,0 +1,103 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs {@link RuntimeBenchmark} once for every JIT configuration. Every run writes its results
+ * ({@code <jit>.json}) and its log with the inlining decisions of the JIT ({@code <jit>-inlining.log}) to the output
+ * directory.
+ *
+ * <pre>
+ * RuntimeSuite [output directory] [JIT...]
+ * </pre>
+ */
+public final class RuntimeSuite {
+
+    /**
+     * The JIT configurations.
+     */
+    public enum Jit {
+
+        /**
+         * The default: tiered compilation with C1 and C2.
+         */
+        TIERED,
+
+        /**
+         * C2 only.
+         */
+        C2("-XX:-TieredCompilation"),
+
+        /**
+         * C1 only, without profiling.
+         */
+        C1("-XX:TieredStopAtLevel=1"),
+
+        /**
+         * C1 with full profiling, the code of the warm up phase before C2 takes over.
+         */
+        C1_PROFILED("-XX:TieredStopAtLevel=3");
+
+        private final List<String> jvmArgs;
+
+        Jit(String... jvmArgs) {
+            this.jvmArgs = new ArrayList<>(Arrays.asList(jvmArgs));
+            this.jvmArgs.add("-XX:+UnlockDiagnosticVMOptions");
+            this.jvmArgs.add("-XX:+PrintInlining");
+        }
+    }
+
+    private RuntimeSuite() {
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        Path outputDirectory = Paths.get(args.length > 0 ? args[0] : "target/jmh-runtime");
+        Set<Jit> jits = EnumSet.allOf(Jit.class);
+        if (args.length > 1) {
+            jits.clear();
+            for (int i = 1; i < args.length; i++) {
+                jits.add(Jit.valueOf(args[i].toUpperCase(Locale.ROOT)));
+            }
+        }
+        Files.createDirectories(outputDirectory);
+        for (Jit jit : jits) {
+            Options options = new OptionsBuilder().include(RuntimeBenchmark.class.getName())
+                    .jvmArgsAppend(jit.jvmArgs.toArray(new String[0]))
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(outputDirectory.resolve(jit + ".json")
+                            .toString())
+                    // the forks print the inlining decisions to their standard output
+                    .output(outputDirectory.resolve(jit + "-inlining.log")
+                            .toString())
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.benchmarks;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+
+/**
+ * Generates the sources compiled by the benchmarks.
+ */
+public class SourceGenerator {
+
+    /**
+     * The nesting depth of the {@link Shape#NESTED} method bodies.
+     */
+    public static final int NESTING_DEPTH = 6;
+
+    /**
+     * The kind of code the generated class consists of.
+     */
+    public enum Shape {
+        /**
+         * Hand written getters with {@code @Nonnull} return values and setters with {@code @Nonnull} arguments.
+         */
+        POJO,
+        /**
+         * {@code @Nonnull} fields with lombok generated getters and setters.
+         */
+        LOMBOK_POJO,
+        /**
+         * Methods with deeply nested if/switch/try/loop bodies and a return statement on every level. Every return
+         * statement returns a field which may be {@code null}, so no return check is elided.
+         */
+        NESTED
+    }
+
+    private final Shape shape;
+    private final int methods;
+
+    public SourceGenerator(@Nonnull Shape shape, int methods) {
+        this.shape = shape;
+        this.methods = methods;
+    }
+
+    /**
+     * Generates the source files.
+     *
+     * @return the source files
+     */
+    @Nonnull
+    public List<JavaFileObject> generate() {
+        String className = "Generated" + shape.name() + methods;
+        StringBuilder out = new StringBuilder(methods * 256);
+        out.append("package generated;\n\n");
+        out.append("import javax.annotation.Nonnull;\n\n");
+        if (shape == Shape.LOMBOK_POJO) {
+            out.append("@lombok.Getter\n@lombok.Setter\n");
+        }
+        out.append("public class ")
+                .append(className)
+                .append(" {\n");
+        if (shape == Shape.NESTED) {
+            out.append("    private String value = \"\";\n");
+        }
+        for (int i = 0; i < methods; i++) {
+            switch (shape) {
+            case POJO:
+                pojo(out, i);
+                break;
+            case LOMBOK_POJO:
+                out.append("    @Nonnull private String field")
+                        .append(i)
+                        .append(" = \"\";\n");
+                break;
+            case NESTED:
+                nested(out, i);
+                break;
+            default:
+                throw new IllegalStateException("unknown shape " + shape);
+            }
+        }
+        out.append("}\n");
+        return Collections.singletonList(new Source("generated/" + className, out.toString()));
+    }
+
+    private void pojo(StringBuilder out, int i) {
+        out.append("    private String field")
+                .append(i)
+                .append(" = \"\";\n");
+        out.append("    @Nonnull public String getField")
+                .append(i)
+                .append("() { return field")
+                .append(i)
+                .append("; }\n");
+        out.append("    public void setField")
+                .append(i)
+                .append("(@Nonnull String value) { field")
+                .append(i)
+                .append(" = value; }\n");
+    }
+
+    private void nested(StringBuilder out, int i) {
+        out.append("    @Nonnull\n    public String method")
+                .append(i)
+                .append("(int a, @Nonnull String s) {\n");
+        out.append("        int x = a * 2;\n");
+        level(out, NESTING_DEPTH, "        ");
+        out.append("        return value;\n    }\n");
+    }
+
+    private void level(StringBuilder out, int depth, String indent) {
+        if (depth == 0) {
+            out.append(indent)
+                    .append("return value;\n");
+            return;
+        }
+        String inner = indent + "    ";
+        out.append(indent)
+                .append("x += ")
+                .append(depth)
+                .append(";\n");
+        switch (depth % 4) {
+        case 0:
+            out.append(indent)
+                    .append("if (a > ")
+                    .append(depth)
+                    .append(") {\n");
+            level(out, depth - 1, inner);
+            out.append(indent)
+                    .append("} else if (a < -")
+                    .append(depth)
+                    .append(") {\n")
+                    .append(inner)
+                    .append("return value;\n")
+                    .append(indent)
+                    .append("}\n");
+            break;
+        case 1:
+            out.append(indent)
+                    .append("for (int i")
+                    .append(depth)
+                    .append(" = 0; i")
+                    .append(depth)
+                    .append(" < a; i")
+                    .append(depth)
+                    .append("++) {\n");
+            level(out, depth - 1, inner);
+            out.append(indent)
+                    .append("}\n");
+            break;
+        case 2:
+            out.append(indent)
+                    .append("try {\n");
+            level(out, depth - 1, inner);
+            out.append(indent)
+                    .append("} catch (RuntimeException e")
+                    .append(depth)
+                    .append(") {\n")
+                    .append(inner)
+                    .append("return value;\n")
+                    .append(indent)
+                    .append("}\n");
+            break;
+        default:
+            out.append(indent)
+                    .append("switch (a % 3) {\n")
+                    .append(indent)
+                    .append("case 0:\n");
+            level(out, depth - 1, inner);
+            out.append(indent)
+                    .append("case 1:\n")
+                    .append(inner)
+                    .append("return value;\n")
+                    .append(indent)
+                    .append("default:\n")
+                    .append(inner)
+                    .append("break;\n")
+                    .append(indent)
+                    .append("}\n");
+            break;
+        }
+    }
+
+    private static class Source extends SimpleJavaFileObject {
+
+        private final String code;
+
+        Source(String name, String code) {
+            super(URI.create("string:///" + name + Kind.SOURCE.extension), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cold start of the statement processors: the first lookup in a fresh JVM.
+ * <p>
+ * {@link Registry#SERVICE_LOADER} is the former lookup, which located, parsed and instantiated the
+ * {@code META-INF/services} entries on the first use of the code processor. {@link Registry#TABLE} is the
+ * {@code ProcessorRegistry} written at build time. Every fork measures a single call, so class loading and the
+ * interpreter are part of the result. The classes are loaded by name, the processors are compiled against the
+ * internals of javac.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(30)
+public class StartupBenchmark {
+
+    /**
+     * The ways to find the processors.
+     */
+    public enum Registry {
+        SERVICE_LOADER,
+        TABLE
+    }
+
+    private static final String PACKAGE = "com.github.drkunibar.lombok.javac.codeprocessor.";
+
+    @Param({ "SERVICE_LOADER", "TABLE" })
+    public Registry registry;
+
+    @Benchmark
+    public Object firstLookup() throws ReflectiveOperationException {
+        ClassLoader loader = StartupBenchmark.class.getClassLoader();
+        if (registry == Registry.TABLE) {
+            return Class.forName(PACKAGE + "ProcessorRegistry", true, loader)
+                    .getMethod("all")
+                    .invoke(null);
+        }
+        List<Object> processors = new ArrayList<>();
+        for (Object processor : ServiceLoader.load(Class.forName(PACKAGE + "Processor", false, loader), loader)) {
+            processors.add(processor);
+        }
+        return processors;
+    }
+}
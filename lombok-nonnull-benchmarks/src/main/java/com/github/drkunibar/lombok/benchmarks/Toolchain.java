@@ -0,0 +1,98 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.benchmarks;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import com.github.drkunibar.lombok.DisableNonNull;
+import com.github.drkunibar.lombok.plugin.NonnullChecksPlugin;
+import lombok.Getter;
+
+/**
+ * The annotation processor setups compared by the benchmarks.
+ */
+public enum Toolchain {
+
+    /**
+     * The baseline: lombok only, the {@code @Nonnull} annotations are not processed.
+     */
+    LOMBOK(Getter.class, Nonnull.class),
+
+    /**
+     * lombok together with this extension.
+     */
+    LOMBOK_NONNULL(Getter.class, Nonnull.class, DisableNonNull.class),
+
+    /**
+     * The javac plugin of this extension without lombok. The lombok annotations of the sources are not processed.
+     */
+    NONNULL_PLUGIN("-Xplugin:" + NonnullChecksPlugin.NAME, Nonnull.class, NonnullChecksPlugin.class);
+
+    private final String plugin;
+    private final String processorPath;
+
+    Toolchain(Class<?>... markers) {
+        this(null, markers);
+    }
+
+    Toolchain(String plugin, Class<?>... markers) {
+        this.plugin = plugin;
+        this.processorPath = Arrays.stream(markers)
+                .map(Toolchain::locate)
+                .map(Path::toString)
+                .collect(Collectors.joining(File.pathSeparator));
+    }
+
+    /**
+     * Returns the javac options compiling against this toolchain.
+     *
+     * @param outputDirectory
+     *            the directory of the generated class files
+     * @return the javac options
+     */
+    @Nonnull
+    public List<String> options(@Nonnull Path outputDirectory) {
+        List<String> options = new ArrayList<>();
+        options.add("-nowarn");
+        options.add("-implicit:none");
+        options.add("-classpath");
+        options.add(LOMBOK_NONNULL.processorPath);
+        options.add("-processorpath");
+        options.add(processorPath);
+        if (plugin != null) {
+            options.add(plugin);
+        }
+        options.add("-d");
+        options.add(outputDirectory.toString());
+        return options;
+    }
+
+    private static Path locate(Class<?> type) {
+        try {
+            return Paths.get(type.getProtectionDomain()
+                    .getCodeSource()
+                    .getLocation()
+                    .toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("cannot locate the jar of " + type.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.benchmarks;
+
+/**
+ * The baseline without any null checks.
+ */
+public class UncheckedFixture implements Fixture {
+
+    final String name;
+
+    public UncheckedFixture(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getCase(String result, int caseValue) {
+        switch (caseValue) {
+        case 1:
+            return result;
+        case 2:
+        case 3:
+            return result;
+        default:
+            return result;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("UseSpecificCatch")
+    public String getTry(String result, int divider) {
+        try {
+            if (1 / divider > Integer.MAX_VALUE) {
+                // Nothing
+            }
+            return result;
+        } catch (Exception e) {
+            return result;
+        }
+    }
+
+    @Override
+    public String join(String first, String second, String third, String fourth, String fifth, String sixth) {
+        return first;
+    }
+
+    /**
+     * Another implementation of {@link #getName()} for megamorphic call sites.
+     */
+    public static final class Second extends UncheckedFixture {
+
+        public Second(String name) {
+            super(name);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Another implementation of {@link #getName()} for megamorphic call sites.
+     */
+    public static final class Third extends UncheckedFixture {
+
+        public Third(String name) {
+            super(name);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Another implementation of {@link #getName()} for megamorphic call sites.
+     */
+    public static final class Fourth extends UncheckedFixture {
+
+        public Fourth(String name) {
+            super(name);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+}
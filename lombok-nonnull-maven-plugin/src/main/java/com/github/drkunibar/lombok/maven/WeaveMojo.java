@@ -0,0 +1,137 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Weaves the {@code @Nonnull} checks into the compiled classes of the project. Only the class files changed since the
+ * last run are read, so an incremental compile is followed by an incremental weave.
+ *
+ * <pre>
+ * <code>
+ *     &lt;plugin&gt;
+ *         &lt;groupId&gt;io.github.drkunibar&lt;/groupId&gt;
+ *         &lt;artifactId&gt;lombok-nonnull-maven-plugin&lt;/artifactId&gt;
+ *         &lt;executions&gt;
+ *             &lt;execution&gt;
+ *                 &lt;goals&gt;
+ *                     &lt;goal&gt;weave&lt;/goal&gt;
+ *                 &lt;/goals&gt;
+ *             &lt;/execution&gt;
+ *         &lt;/executions&gt;
+ *     &lt;/plugin&gt;
+ * </code>
+ * </pre>
+ */
+@Mojo(name = "weave", defaultPhase = LifecyclePhase.PROCESS_CLASSES, threadSafe = true)
+public class WeaveMojo extends AbstractMojo {
+
+    /**
+     * The directory of the class files.
+     */
+    @Parameter(defaultValue = "${project.build.outputDirectory}", required = true)
+    private File classesDirectory;
+
+    /**
+     * The file whose modification time marks the last run.
+     */
+    @Parameter(defaultValue = "${project.build.directory}/lombok-nonnull-weave.stamp", required = true)
+    private File stampFile;
+
+    /**
+     * Skips the weaving.
+     */
+    @Parameter(property = "lombok-nonnull.weave.skip", defaultValue = "false")
+    private boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (skip || !classesDirectory.isDirectory()) {
+            getLog().info("Skipping the weaving of the @Nonnull checks");
+            return;
+        }
+        Weaver weaver = new Weaver();
+        int classes = 0;
+        try {
+            FileTime lastRun = stampFile.isFile() ? Files.getLastModifiedTime(stampFile.toPath()) : null;
+            for (Path classFile : changedClassFiles(lastRun)) {
+                byte[] content = Files.readAllBytes(classFile);
+                int errors = weaver.getErrors()
+                        .size();
+                byte[] woven = weaver.weave(content);
+                // a class with errors stays as it is, so the next run reads and reports it again
+                if (woven != content && weaver.getErrors()
+                        .size() == errors) {
+                    Files.write(classFile, woven);
+                    classes++;
+                }
+            }
+            if (weaver.getErrors()
+                    .isEmpty()) {
+                touch(stampFile.toPath());
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("cannot weave the classes in " + classesDirectory, e);
+        }
+        if (!weaver.getErrors()
+                .isEmpty()) {
+            weaver.getErrors()
+                    .forEach(getLog()::error);
+            throw new MojoFailureException(weaver.getErrors()
+                    .size() + " @Nonnull violation(s) found, see the log for details");
+        }
+        getLog().info("Woven " + weaver.getChecks() + " @Nonnull check(s) into " + classes + " class(es)");
+    }
+
+    private List<Path> changedClassFiles(FileTime lastRun) throws IOException {
+        try (Stream<Path> files = Files.walk(classesDirectory.toPath())) {
+            return files.filter(file -> file.toString()
+                    .endsWith(".class"))
+                    .filter(file -> lastRun == null || isModifiedSince(file, lastRun))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static boolean isModifiedSince(Path file, FileTime time) {
+        try {
+            return Files.getLastModifiedTime(file)
+                    .compareTo(time) >= 0;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private static void touch(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        if (Files.exists(file)) {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } else {
+            Files.createFile(file);
+        }
+    }
+}
@@ -0,0 +1,500 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.maven;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.Attribute;
+import org.objectweb.asm.ByteVector;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Inserts the {@code @Nonnull} checks into compiled classes. The semantics are the ones of the lombok handler with the
+ * code shape {@code REQUIRE_NON_NULL}:
+ * <ul>
+ * <li>every {@code @Nonnull} parameter is checked at the beginning of the method, in constructors behind the call of
+ * {@code super(...)} or {@code this(...)}</li>
+ * <li>every return value of a {@code @Nonnull} method is checked unless it is a constant or a new object</li>
+ * <li>{@code @DisableNonNull} on the method disables the return check, on a parameter the check of the parameter</li>
+ * <li>the methods of interfaces, enums and annotations are not checked</li>
+ * </ul>
+ * A check is a call of {@link Objects#requireNonNull(Object, String)}, so the throw path stays out of the method and no
+ * stack map frames have to be computed. Woven classes are marked with the attribute {@value #WOVEN_ATTRIBUTE} and are
+ * never woven twice.
+ */
+public final class Weaver {
+
+    /**
+     * The name of the class file attribute which marks woven classes.
+     */
+    public static final String WOVEN_ATTRIBUTE = "com.github.drkunibar.lombok.Woven";
+
+    static final String NONNULL = "Ljavax/annotation/Nonnull;";
+    static final String DISABLE_NON_NULL = "Lcom/github/drkunibar/lombok/DisableNonNull;";
+    static final String RETURN_VALUE_MESSAGE = "the return value must not be null";
+
+    private static final String OBJECTS = "java/util/Objects";
+    private static final String REQUIRE_NON_NULL = "(Ljava/lang/Object;Ljava/lang/String;)Ljava/lang/Object;";
+    private static final String CONSTRUCTOR = "<init>";
+
+    private final List<String> errors = new ArrayList<>();
+    private int checks;
+
+    /**
+     * Weaves the checks into a class.
+     *
+     * @param classFile
+     *            the content of the class file
+     * @return the woven class file or the given array if the class has nothing to check or is already woven
+     */
+    @Nonnull
+    public byte[] weave(@Nonnull byte[] classFile) {
+        Objects.requireNonNull(classFile, "'classFile' must not be null");
+        ClassReader reader = new ClassReader(classFile);
+        ClassScanner scanner = new ClassScanner();
+        reader.accept(scanner, new Attribute[] { new WovenAttribute() }, ClassReader.SKIP_FRAMES);
+        if (scanner.woven || scanner.methods.isEmpty()) {
+            return classFile;
+        }
+        // the inserted code needs no frames, so the frames of the class are copied as they are
+        ClassWriter writer = new ClassWriter(reader, ClassWriter.COMPUTE_MAXS);
+        reader.accept(new ClassWeaver(writer, scanner.methods), 0);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Returns the number of checks woven so far.
+     *
+     * @return the number of checks
+     */
+    public int getChecks() {
+        return checks;
+    }
+
+    /**
+     * Returns the errors found so far, e.g. {@code return null;} in a {@code @Nonnull} method.
+     *
+     * @return the errors
+     */
+    @Nonnull
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    private static boolean isReference(Type type) {
+        return type.getSort() == Type.OBJECT || type.getSort() == Type.ARRAY;
+    }
+
+    /**
+     * The checks of a single method.
+     */
+    private static final class MethodChecks {
+
+        private final String name;
+        private final Type[] parameterTypes;
+        private final int parameterOffset;
+        private final BitSet nonnullParameters = new BitSet();
+        private final BitSet disabledParameters = new BitSet();
+        private final String[] parameterNames;
+        private int annotableParameters;
+        private boolean nonnullReturn;
+        private boolean disabled;
+
+        MethodChecks(String name, String descriptor, boolean isStatic) {
+            this.name = name;
+            this.parameterTypes = Type.getArgumentTypes(descriptor);
+            this.parameterOffset = isStatic ? 0 : 1;
+            this.parameterNames = new String[parameterTypes.length];
+            this.annotableParameters = parameterTypes.length;
+        }
+
+        boolean checksReturn() {
+            return !disabled && nonnullReturn;
+        }
+
+        boolean checksParameter(int parameter) {
+            return nonnullParameters.get(parameter) && !disabledParameters.get(parameter)
+                    && isReference(parameterTypes[parameter]);
+        }
+
+        boolean hasChecks() {
+            for (int parameter = 0; parameter < parameterTypes.length; parameter++) {
+                if (checksParameter(parameter)) {
+                    return true;
+                }
+            }
+            return checksReturn();
+        }
+
+        int slot(int parameter) {
+            int slot = parameterOffset;
+            for (int i = 0; i < parameter; i++) {
+                slot += parameterTypes[i].getSize();
+            }
+            return slot;
+        }
+
+        String parameterName(int parameter) {
+            // without debug information or -parameters the names are not known
+            return parameterNames[parameter] != null ? parameterNames[parameter] : "arg" + parameter;
+        }
+
+        void annotateParameter(int annotable, String descriptor) {
+            // synthetic parameters, e.g. the outer instance of inner classes, cannot be annotated
+            int parameter = annotable + parameterTypes.length - annotableParameters;
+            if (NONNULL.equals(descriptor)) {
+                nonnullParameters.set(parameter);
+            } else if (DISABLE_NON_NULL.equals(descriptor)) {
+                disabledParameters.set(parameter);
+            }
+        }
+    }
+
+    /**
+     * The first pass: collects the annotations and parameter names of the methods.
+     */
+    private static final class ClassScanner extends ClassVisitor {
+
+        private final Map<String, MethodChecks> methods = new HashMap<>();
+        private boolean woven;
+        private boolean supported;
+
+        ClassScanner() {
+            super(Opcodes.ASM9);
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName,
+                String[] interfaces) {
+            // like the lombok handler: annotations are interfaces as well
+            supported = (access & (Opcodes.ACC_INTERFACE | Opcodes.ACC_ENUM)) == 0;
+        }
+
+        @Override
+        public void visitAttribute(Attribute attribute) {
+            woven |= WOVEN_ATTRIBUTE.equals(attribute.type);
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+                String[] exceptions) {
+            if (!supported || (access & (Opcodes.ACC_ABSTRACT | Opcodes.ACC_NATIVE | Opcodes.ACC_BRIDGE
+                    | Opcodes.ACC_SYNTHETIC)) != 0) {
+                return null;
+            }
+            MethodChecks method = new MethodChecks(name, descriptor, (access & Opcodes.ACC_STATIC) != 0);
+            return new MethodVisitor(Opcodes.ASM9) {
+
+                private int parameter;
+                private Label codeStart;
+
+                @Override
+                public void visitParameter(String parameterName, int parameterAccess) {
+                    if (parameter < method.parameterNames.length) {
+                        method.parameterNames[parameter++] = parameterName;
+                    }
+                }
+
+                @Override
+                public AnnotationVisitor visitAnnotation(String annotation, boolean visible) {
+                    if (NONNULL.equals(annotation)) {
+                        method.nonnullReturn = isReference(Type.getReturnType(descriptor));
+                    } else if (DISABLE_NON_NULL.equals(annotation)) {
+                        method.disabled = true;
+                    }
+                    return null;
+                }
+
+                @Override
+                public void visitAnnotableParameterCount(int count, boolean visible) {
+                    method.annotableParameters = count;
+                }
+
+                @Override
+                public AnnotationVisitor visitParameterAnnotation(int annotable, String annotation, boolean visible) {
+                    method.annotateParameter(annotable, annotation);
+                    return null;
+                }
+
+                @Override
+                public void visitLabel(Label label) {
+                    // the labels are visited in the order of their offsets, so the first one is at 0
+                    if (codeStart == null) {
+                        codeStart = label;
+                    }
+                }
+
+                @Override
+                public void visitLocalVariable(String variable, String variableDescriptor, String variableSignature,
+                        Label start, Label end, int index) {
+                    if (start != codeStart) {
+                        // another variable in the slot of a parameter
+                        return;
+                    }
+                    for (int i = 0; i < method.parameterTypes.length; i++) {
+                        if (method.slot(i) == index && method.parameterNames[i] == null) {
+                            method.parameterNames[i] = variable;
+                        }
+                    }
+                }
+
+                @Override
+                public void visitEnd() {
+                    if (method.hasChecks()) {
+                        methods.put(name + descriptor, method);
+                    }
+                }
+            };
+        }
+    }
+
+    /**
+     * The second pass: inserts the checks and marks the class.
+     */
+    private final class ClassWeaver extends ClassVisitor {
+
+        private final Map<String, MethodChecks> methods;
+        private String className;
+
+        ClassWeaver(ClassVisitor next, Map<String, MethodChecks> methods) {
+            super(Opcodes.ASM9, next);
+            this.methods = methods;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName,
+                String[] interfaces) {
+            className = name.replace('/', '.');
+            super.visit(version, access, name, signature, superName, interfaces);
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+                String[] exceptions) {
+            MethodVisitor next = super.visitMethod(access, name, descriptor, signature, exceptions);
+            MethodChecks method = methods.get(name + descriptor);
+            if (method == null) {
+                return next;
+            }
+            return new CheckWeaver(next, method, className, (access & Opcodes.ACC_STATIC) == 0);
+        }
+
+        @Override
+        public void visitEnd() {
+            super.visitAttribute(new WovenAttribute());
+            super.visitEnd();
+        }
+    }
+
+    /**
+     * Inserts the checks into a method. The last instruction is remembered to skip the checks of return values which
+     * are never {@code null}.
+     */
+    private final class CheckWeaver extends MethodVisitor {
+
+        private final MethodChecks method;
+        private final String className;
+        private final boolean instanceMethod;
+        private boolean parametersChecked;
+        private int pendingNew;
+        private Nullness last = Nullness.UNKNOWN;
+
+        CheckWeaver(MethodVisitor next, MethodChecks method, String className, boolean instanceMethod) {
+            super(Opcodes.ASM9, next);
+            this.method = method;
+            this.className = className;
+            this.instanceMethod = instanceMethod;
+        }
+
+        @Override
+        public void visitCode() {
+            super.visitCode();
+            if (!CONSTRUCTOR.equals(method.name)) {
+                checkParameters();
+            }
+        }
+
+        @Override
+        public void visitInsn(int opcode) {
+            if (opcode == Opcodes.ARETURN && method.checksReturn()) {
+                checkReturnValue();
+            }
+            super.visitInsn(opcode);
+            last = opcode == Opcodes.ACONST_NULL ? Nullness.NULL : Nullness.UNKNOWN;
+        }
+
+        @Override
+        public void visitIntInsn(int opcode, int operand) {
+            super.visitIntInsn(opcode, operand);
+            last = Nullness.UNKNOWN;
+        }
+
+        @Override
+        public void visitVarInsn(int opcode, int varIndex) {
+            super.visitVarInsn(opcode, varIndex);
+            last = opcode == Opcodes.ALOAD && varIndex == 0 && instanceMethod ? Nullness.NON_NULL : Nullness.UNKNOWN;
+        }
+
+        @Override
+        public void visitTypeInsn(int opcode, String type) {
+            super.visitTypeInsn(opcode, type);
+            if (opcode == Opcodes.NEW) {
+                pendingNew++;
+            }
+            last = opcode == Opcodes.ANEWARRAY ? Nullness.NON_NULL : Nullness.UNKNOWN;
+        }
+
+        @Override
+        public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+            super.visitFieldInsn(opcode, owner, name, descriptor);
+            last = Nullness.UNKNOWN;
+        }
+
+        @Override
+        public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+            super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+            last = Nullness.UNKNOWN;
+            if (opcode != Opcodes.INVOKESPECIAL || !CONSTRUCTOR.equals(name)) {
+                return;
+            }
+            if (pendingNew > 0) {
+                // initializes the object of a NEW, which is on top of the stack
+                pendingNew--;
+                last = Nullness.NON_NULL;
+            } else if (CONSTRUCTOR.equals(method.name) && !parametersChecked) {
+                // the call of super(...) or this(...)
+                checkParameters();
+            }
+        }
+
+        @Override
+        public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrap,
+                Object... arguments) {
+            super.visitInvokeDynamicInsn(name, descriptor, bootstrap, arguments);
+            last = Nullness.UNKNOWN;
+        }
+
+        @Override
+        public void visitJumpInsn(int opcode, Label label) {
+            super.visitJumpInsn(opcode, label);
+            last = Nullness.UNKNOWN;
+        }
+
+        @Override
+        public void visitLabel(Label label) {
+            super.visitLabel(label);
+            // a jump target, the value on the stack comes from another path
+            last = Nullness.UNKNOWN;
+        }
+
+        @Override
+        public void visitLdcInsn(Object value) {
+            super.visitLdcInsn(value);
+            last = value instanceof String || value instanceof Type ? Nullness.NON_NULL : Nullness.UNKNOWN;
+        }
+
+        @Override
+        public void visitIincInsn(int varIndex, int increment) {
+            super.visitIincInsn(varIndex, increment);
+            last = Nullness.UNKNOWN;
+        }
+
+        @Override
+        public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+            super.visitTableSwitchInsn(min, max, dflt, labels);
+            last = Nullness.UNKNOWN;
+        }
+
+        @Override
+        public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+            super.visitLookupSwitchInsn(dflt, keys, labels);
+            last = Nullness.UNKNOWN;
+        }
+
+        @Override
+        public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+            super.visitMultiANewArrayInsn(descriptor, numDimensions);
+            last = Nullness.NON_NULL;
+        }
+
+        private void checkParameters() {
+            parametersChecked = true;
+            for (int parameter = 0; parameter < method.parameterTypes.length; parameter++) {
+                if (method.checksParameter(parameter)) {
+                    super.visitVarInsn(Opcodes.ALOAD, method.slot(parameter));
+                    requireNonNull(method.parameterName(parameter) + " is marked non-null but is null");
+                    super.visitInsn(Opcodes.POP);
+                }
+            }
+        }
+
+        private void checkReturnValue() {
+            if (last == Nullness.NULL) {
+                errors.add(className + ": @Nonnull annotated method '" + method.name + "' returns null");
+            } else if (last == Nullness.UNKNOWN) {
+                super.visitInsn(Opcodes.DUP);
+                requireNonNull(RETURN_VALUE_MESSAGE);
+                super.visitInsn(Opcodes.POP);
+            }
+        }
+
+        private void requireNonNull(String message) {
+            super.visitLdcInsn(message);
+            super.visitMethodInsn(Opcodes.INVOKESTATIC, OBJECTS, "requireNonNull", REQUIRE_NON_NULL, false);
+            checks++;
+        }
+    }
+
+    private enum Nullness {
+        NULL,
+        NON_NULL,
+        UNKNOWN
+    }
+
+    /**
+     * The empty marker attribute of woven classes.
+     */
+    private static final class WovenAttribute extends Attribute {
+
+        WovenAttribute() {
+            super(WOVEN_ATTRIBUTE);
+        }
+
+        @Override
+        protected Attribute read(ClassReader classReader, int offset, int length, char[] charBuffer,
+                int codeAttributeOffset, Label[] labels) {
+            return new WovenAttribute();
+        }
+
+        @Override
+        protected ByteVector write(ClassWriter classWriter, byte[] code, int codeLength, int maxStack,
+                int maxLocals) {
+            return new ByteVector();
+        }
+    }
+}
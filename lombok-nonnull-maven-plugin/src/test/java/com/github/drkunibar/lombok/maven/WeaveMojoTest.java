@@ -0,0 +1,131 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.maven;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.apache.maven.plugin.MojoFailureException;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class WeaveMojoTest {
+
+    @Nested
+    class Weave {
+
+        @Test
+        void changedClasses_weaveAndTouchStamp() throws Exception {
+            Path directory = Files.createTempDirectory("weave");
+            try {
+                // given
+                Path classes = directory.resolve("classes");
+                Path classFile = copy(WeaverTestClass.class, classes);
+                Path stamp = directory.resolve("weave.stamp");
+                byte[] original = Files.readAllBytes(classFile);
+                // when
+                mojo(classes, stamp).execute();
+                // then
+                assertThat(Files.readAllBytes(classFile)).isNotEqualTo(original);
+                assertThat(stamp).exists();
+            } finally {
+                delete(directory);
+            }
+        }
+    }
+
+    @Nested
+    class Violation {
+
+        @Test
+        void returnNull_failWithoutWritingClassOrStamp() throws Exception {
+            Path directory = Files.createTempDirectory("weave");
+            try {
+                // given
+                Path classes = directory.resolve("classes");
+                Path classFile = copy(WeaverNullTestClass.class, classes);
+                Path stamp = directory.resolve("weave.stamp");
+                byte[] original = Files.readAllBytes(classFile);
+                // when
+                Throwable throwable = catchThrowable(() -> mojo(classes, stamp).execute());
+                // then
+                assertThat(throwable).isInstanceOf(MojoFailureException.class);
+                assertThat(Files.readAllBytes(classFile)).isEqualTo(original);
+                assertThat(stamp).doesNotExist();
+            } finally {
+                delete(directory);
+            }
+        }
+
+        @Test
+        void returnNull_failAgainOnNextRun() throws Exception {
+            Path directory = Files.createTempDirectory("weave");
+            try {
+                // given
+                Path classes = directory.resolve("classes");
+                copy(WeaverNullTestClass.class, classes);
+                copy(WeaverTestClass.class, classes);
+                Path stamp = directory.resolve("weave.stamp");
+                catchThrowable(() -> mojo(classes, stamp).execute());
+                // when
+                Throwable throwable = catchThrowable(() -> mojo(classes, stamp).execute());
+                // then
+                assertThat(throwable).isInstanceOf(MojoFailureException.class)
+                        .hasMessageStartingWith("1 @Nonnull violation(s) found");
+            } finally {
+                delete(directory);
+            }
+        }
+    }
+
+    private static WeaveMojo mojo(Path classes, Path stamp) throws ReflectiveOperationException {
+        WeaveMojo mojo = new WeaveMojo();
+        // the parameters are injected by Maven
+        set(mojo, "classesDirectory", classes.toFile());
+        set(mojo, "stampFile", stamp.toFile());
+        return mojo;
+    }
+
+    private static void set(WeaveMojo mojo, String name, File value) throws ReflectiveOperationException {
+        Field field = WeaveMojo.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(mojo, value);
+    }
+
+    private static Path copy(Class<?> type, Path classes) throws IOException {
+        Path classFile = classes.resolve(type.getName()
+                .replace('.', '/') + ".class");
+        Files.createDirectories(classFile.getParent());
+        try (InputStream in = type.getResourceAsStream(type.getSimpleName() + ".class")) {
+            Files.copy(in, classFile);
+        }
+        return classFile;
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+}
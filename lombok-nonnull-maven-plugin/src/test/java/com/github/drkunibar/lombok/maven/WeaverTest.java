@@ -0,0 +1,220 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.maven;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class WeaverTest {
+
+    private final Weaver weaver = new Weaver();
+
+    @Nested
+    class Parameter {
+
+        @Test
+        void constructorWithNull_throwException() throws Throwable {
+            // given
+            Class<?> type = load(WeaverTestClass.class);
+            // when
+            Throwable throwable = catchThrowable(() -> construct(type, new Class<?>[] { String.class }, (Object) null));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("name is marked non-null but is null");
+        }
+
+        @Test
+        void delegatingConstructorWithNull_throwException() throws Throwable {
+            // given
+            Class<?> type = load(WeaverTestClass.class);
+            // when
+            Throwable throwable = catchThrowable(() -> construct(type, new Class<?>[] { String.class, int.class },
+                    null, 1));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("name is marked non-null but is null");
+        }
+
+        @Test
+        void methodWithNull_throwException() throws Throwable {
+            // given
+            Object data = construct(load(WeaverTestClass.class), new Class<?>[] { String.class }, "foo");
+            Class<?>[] types = { String.class, long.class, String.class };
+            // when
+            Throwable checked = catchThrowable(() -> invoke(data, "setValue", types, null, 1L, "bar"));
+            Throwable disabled = catchThrowable(() -> invoke(data, "setValue", types, "foo", 1L, null));
+            // then
+            assertThat(checked).isInstanceOf(NullPointerException.class)
+                    .hasMessage("value is marked non-null but is null");
+            assertThat(disabled).isNull();
+        }
+
+        @Test
+        void disabledMethodWithNull_throwException() throws Throwable {
+            // given
+            Object data = construct(load(WeaverTestClass.class), new Class<?>[] { String.class }, "foo");
+            // when
+            Throwable throwable = catchThrowable(() -> invoke(data, "echo", new Class<?>[] { String.class },
+                    (Object) null));
+            // then: @DisableNonNull on the method disables the return check only
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("value is marked non-null but is null");
+        }
+
+        @Test
+        void staticMethodWithNull_throwException() throws Throwable {
+            // given
+            Class<?> type = load(WeaverTestClass.class);
+            // when
+            Throwable throwable = catchThrowable(() -> invoke(type, "format", new Class<?>[] { Object.class,
+                    int.class }, null, 1));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("value is marked non-null but is null");
+        }
+    }
+
+    @Nested
+    class ReturnValue {
+
+        @Test
+        void withName_returnValue() throws Throwable {
+            // given
+            Object data = construct(load(WeaverTestClass.class), new Class<?>[] { String.class }, "foo");
+            // when
+            Object name = invoke(data, "getName", new Class<?>[0]);
+            // then
+            assertThat(name).isEqualTo("foo");
+        }
+
+        @Test
+        void withoutName_throwException() throws Throwable {
+            // given
+            Object data = construct(load(WeaverTestClass.class), new Class<?>[0]);
+            // when
+            Throwable checked = catchThrowable(() -> invoke(data, "getName", new Class<?>[0]));
+            Throwable disabled = catchThrowable(() -> invoke(data, "getNameUnchecked", new Class<?>[0]));
+            // then
+            assertThat(checked).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value must not be null");
+            assertThat(disabled).isNull();
+        }
+
+        @Test
+        void returnNull_reportError() {
+            // when
+            weaver.weave(read(WeaverNullTestClass.class));
+            // then
+            assertThat(weaver.getErrors()).containsExactly(WeaverNullTestClass.class.getName()
+                    + ": @Nonnull annotated method 'getName' returns null");
+        }
+    }
+
+    @Nested
+    class Weave {
+
+        @Test
+        void checks_skipKnownValues() {
+            // when
+            weaver.weave(read(WeaverTestClass.class));
+            // then: the parameters of 2 constructors, echo, setValue and format,
+            // the return values of getName and format
+            assertThat(weaver.getChecks()).isEqualTo(7);
+        }
+
+        @Test
+        void interfaceAndEnum_areNotChanged() {
+            // given
+            byte[] interfaceFile = read(WeaverInterfaceTestClass.class);
+            byte[] enumFile = read(WeaverEnumTestClass.class);
+            // when
+            byte[] wovenInterface = weaver.weave(interfaceFile);
+            byte[] wovenEnum = weaver.weave(enumFile);
+            // then
+            assertThat(wovenInterface).isSameAs(interfaceFile);
+            assertThat(wovenEnum).isSameAs(enumFile);
+        }
+
+        @Test
+        void wovenClass_isNotWovenTwice() {
+            // given
+            byte[] woven = weaver.weave(read(WeaverTestClass.class));
+            // when
+            byte[] again = weaver.weave(woven);
+            // then
+            assertThat(again).isSameAs(woven);
+        }
+
+        @Test
+        void classWithoutChecks_isNotChanged() {
+            // given
+            byte[] classFile = read(WeaverTest.class);
+            // when
+            byte[] woven = weaver.weave(classFile);
+            // then
+            assertThat(woven).isSameAs(classFile);
+        }
+    }
+
+    private Class<?> load(Class<?> type) {
+        byte[] woven = weaver.weave(read(type));
+        return new ClassLoader(type.getClassLoader()) {
+
+            Class<?> define() {
+                return defineClass(type.getName(), woven, 0, woven.length);
+            }
+        }.define();
+    }
+
+    private static byte[] read(Class<?> type) {
+        try (InputStream in = type.getResourceAsStream(type.getSimpleName() + ".class")) {
+            byte[] buffer = new byte[in.available()];
+            int length = 0;
+            while (length < buffer.length) {
+                length += in.read(buffer, length, buffer.length - length);
+            }
+            return buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Object construct(Class<?> type, Class<?>[] types, Object... arguments) throws Throwable {
+        Constructor<?> constructor = type.getConstructor(types);
+        try {
+            return constructor.newInstance(arguments);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Object invoke(Object target, String name, Class<?>[] types, Object... arguments) throws Throwable {
+        Class<?> type = target instanceof Class ? (Class<?>) target : target.getClass();
+        Method method = type.getMethod(name, types);
+        try {
+            return method.invoke(target instanceof Class ? null : target, arguments);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.maven;
+
+import javax.annotation.Nonnull;
+import com.github.drkunibar.lombok.DisableNonNull;
+
+public class WeaverTestClass {
+
+    private final String name;
+
+    public WeaverTestClass(@Nonnull String name) {
+        super();
+        this.name = name;
+    }
+
+    public WeaverTestClass(@Nonnull String name, int count) {
+        this(name + count);
+    }
+
+    public WeaverTestClass() {
+        this.name = null;
+    }
+
+    @Nonnull
+    public String getName() {
+        return name;
+    }
+
+    @Nonnull
+    @DisableNonNull
+    public String getNameUnchecked() {
+        return name;
+    }
+
+    @Nonnull
+    @DisableNonNull
+    public String echo(@Nonnull String value) {
+        return value;
+    }
+
+    @Nonnull
+    public String getConstant() {
+        return "constant";
+    }
+
+    @Nonnull
+    public Object getNewObject() {
+        return new Object();
+    }
+
+    public void setValue(@Nonnull String value, long count, @Nonnull @DisableNonNull String other) {
+        // nothing to do
+    }
+
+    @Nonnull
+    public static String format(@Nonnull Object value, int width) {
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.plugin;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.tools.Diagnostic;
+import com.sun.source.util.Trees;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.code.TypeTag;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.JCTree.JCAnnotation;
+import com.sun.tools.javac.tree.JCTree.JCBlock;
+import com.sun.tools.javac.tree.JCTree.JCClassDecl;
+import com.sun.tools.javac.tree.JCTree.JCCompilationUnit;
+import com.sun.tools.javac.tree.JCTree.JCExpression;
+import com.sun.tools.javac.tree.JCTree.JCExpressionStatement;
+import com.sun.tools.javac.tree.JCTree.JCFieldAccess;
+import com.sun.tools.javac.tree.JCTree.JCIdent;
+import com.sun.tools.javac.tree.JCTree.JCImport;
+import com.sun.tools.javac.tree.JCTree.JCMethodDecl;
+import com.sun.tools.javac.tree.JCTree.JCMethodInvocation;
+import com.sun.tools.javac.tree.JCTree.JCModifiers;
+import com.sun.tools.javac.tree.JCTree.JCPrimitiveTypeTree;
+import com.sun.tools.javac.tree.JCTree.JCReturn;
+import com.sun.tools.javac.tree.JCTree.JCStatement;
+import com.sun.tools.javac.tree.JCTree.JCVariableDecl;
+import com.sun.tools.javac.tree.TreeCopier;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.tree.TreeScanner;
+import com.sun.tools.javac.util.Context;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.ListBuffer;
+import com.sun.tools.javac.util.Name;
+import com.sun.tools.javac.util.Names;
+
+/**
+ * Adds the {@code @Nonnull} checks to a parsed compilation unit.
+ * <p>
+ * {@code @Nonnull} parameters are checked at the start of the method, behind the {@code super(..)} or
+ * {@code this(..)} call of a constructor. The return values of {@code @Nonnull} methods are checked by
+ * {@link ReturnChecks}. The generated code is the code of the lombok handler with its default configuration and
+ * the same scope: {@code @DisableNonNull} on a method switches the return check off, on a parameter the check of the
+ * parameter, and the methods of interfaces, enums and annotations are not changed. The annotations are recognized by
+ * their names, the compilation unit is not attributed yet.
+ */
+public class NonnullChecks extends TreeScanner {
+
+    static final String NONNULL = "javax.annotation.Nonnull";
+
+    static final String DISABLE_NON_NULL = "com.github.drkunibar.lombok.DisableNonNull";
+
+    static final String RETURN_VALUE_MESSAGE = "the return value must not be null";
+
+    private final TreeMaker maker;
+    private final Names names;
+    private final Trees trees;
+    private final JCCompilationUnit unit;
+    private final Map<String, Boolean> imported = new HashMap<>();
+    private boolean supported = true;
+
+    /**
+     * Creates the checks of a compilation unit.
+     *
+     * @param context
+     *            the context of the compiler
+     * @param trees
+     *            the trees of the compiler, used to report errors
+     * @param unit
+     *            the parsed compilation unit
+     */
+    public NonnullChecks(@Nonnull Context context, @Nonnull Trees trees, @Nonnull JCCompilationUnit unit) {
+        Objects.requireNonNull(context, "'context' must not be null");
+        this.trees = Objects.requireNonNull(trees, "'trees' must not be null");
+        this.unit = Objects.requireNonNull(unit, "'unit' must not be null");
+        this.maker = TreeMaker.instance(context);
+        this.names = Names.instance(context);
+    }
+
+    /**
+     * Adds the checks to all methods of the compilation unit, including the methods of nested and local classes.
+     */
+    public void rewrite() {
+        scan(unit);
+    }
+
+    @Override
+    public void visitClassDef(JCClassDecl classDecl) {
+        boolean outerSupported = supported;
+        supported = (classDecl.mods.flags & (Flags.INTERFACE | Flags.ENUM | Flags.ANNOTATION)) == 0;
+        try {
+            super.visitClassDef(classDecl);
+        } finally {
+            supported = outerSupported;
+        }
+    }
+
+    @Override
+    public void visitMethodDef(JCMethodDecl method) {
+        if (supported && method.body != null) {
+            if (hasAnnotation(method.mods, NONNULL) && !hasAnnotation(method.mods, DISABLE_NON_NULL)
+                    && method.restype != null && !(method.restype instanceof JCPrimitiveTypeTree)) {
+                new ReturnChecks(this, method).rewrite();
+            }
+            addParameterChecks(method);
+        }
+        super.visitMethodDef(method);
+    }
+
+    /**
+     * Creates {@code if (variable == null) throw new NullPointerException(message);}.
+     */
+    JCStatement nullCheck(Name variable, String message, int position) {
+        maker.at(position);
+        JCExpression isNull = maker.Binary(JCTree.Tag.EQ, maker.Ident(variable), maker.Literal(TypeTag.BOT, null));
+        JCExpression type = maker.Select(maker.Select(maker.Ident(name("java")), name("lang")),
+                name("NullPointerException"));
+        JCExpression exception = maker.NewClass(null, List.<JCExpression> nil(), type,
+                List.<JCExpression> of(maker.Literal(message)), null);
+        return maker.If(isNull, maker.Block(0, List.<JCStatement> of(maker.Throw(exception))), null);
+    }
+
+    /**
+     * Creates {@code { final T result = expr; if (result == null) throw ...; return result; }} for a return statement.
+     */
+    JCBlock returnCheck(JCReturn statement, JCExpression resultType, Name result) {
+        JCExpression type = new TreeCopier<Void>(maker).copy(resultType);
+        maker.at(statement.pos);
+        JCVariableDecl declaration = maker.VarDef(maker.Modifiers(Flags.FINAL), result, type, statement.expr);
+        JCStatement check = nullCheck(result, RETURN_VALUE_MESSAGE, statement.pos);
+        maker.at(statement.pos);
+        return maker.Block(0, List.of(declaration, check, maker.Return(maker.Ident(result))));
+    }
+
+    Name name(String name) {
+        return names.fromString(name);
+    }
+
+    void error(String message, JCTree tree) {
+        trees.printMessage(Diagnostic.Kind.ERROR, message, tree, unit);
+    }
+
+    private void addParameterChecks(JCMethodDecl method) {
+        ListBuffer<JCStatement> checks = new ListBuffer<>();
+        for (JCVariableDecl parameter : method.params) {
+            if (hasAnnotation(parameter.mods, NONNULL) && !hasAnnotation(parameter.mods, DISABLE_NON_NULL)
+                    && !(parameter.vartype instanceof JCPrimitiveTypeTree)) {
+                checks.append(nullCheck(parameter.name, parameter.name + " is marked non-null but is null",
+                        parameter.pos));
+            }
+        }
+        if (checks.isEmpty()) {
+            return;
+        }
+        List<JCStatement> statements = method.body.stats;
+        if (statements.nonEmpty() && isConstructorCall(statements.head)) {
+            method.body.stats = statements.tail.prependList(checks.toList())
+                    .prepend(statements.head);
+        } else {
+            method.body.stats = statements.prependList(checks.toList());
+        }
+    }
+
+    private static boolean isConstructorCall(JCStatement statement) {
+        if (!(statement instanceof JCExpressionStatement)
+                || !(((JCExpressionStatement) statement).expr instanceof JCMethodInvocation)) {
+            return false;
+        }
+        JCExpression method = ((JCMethodInvocation) ((JCExpressionStatement) statement).expr).meth;
+        Name name = method instanceof JCIdent ? ((JCIdent) method).name
+                : method instanceof JCFieldAccess ? ((JCFieldAccess) method).name : null;
+        return name != null && (name.toString()
+                .equals("super")
+                || name.toString()
+                        .equals("this"));
+    }
+
+    private boolean hasAnnotation(JCModifiers modifiers, String type) {
+        for (JCAnnotation annotation : modifiers.annotations) {
+            String name = annotation.annotationType.toString();
+            if (name.equals(type) || (name.equals(simpleName(type)) && isImported(type))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns {@code true} if the simple name of the type refers to the type: a single type import or an import of
+     * the package.
+     */
+    private boolean isImported(String type) {
+        return imported.computeIfAbsent(type, t -> {
+            String onDemand = t.substring(0, t.lastIndexOf('.')) + ".*";
+            for (JCImport anImport : unit.getImports()) {
+                String name = anImport.qualid.toString();
+                if (!anImport.staticImport && (name.equals(t) || name.equals(onDemand))) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    private static String simpleName(String type) {
+        return type.substring(type.lastIndexOf('.') + 1);
+    }
+}
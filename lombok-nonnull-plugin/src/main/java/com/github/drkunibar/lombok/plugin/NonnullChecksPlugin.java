@@ -0,0 +1,66 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.plugin;
+
+import org.kohsuke.MetaInfServices;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.Plugin;
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskListener;
+import com.sun.source.util.Trees;
+import com.sun.tools.javac.api.BasicJavacTask;
+import com.sun.tools.javac.tree.JCTree.JCCompilationUnit;
+import com.sun.tools.javac.util.Context;
+
+/**
+ * The {@code @Nonnull} checks as a javac plugin, enabled with {@code -Xplugin:NonnullChecks}.
+ * <p>
+ * Every compilation unit is rewritten by {@link NonnullChecks} as soon as it is parsed, before annotation processing
+ * and attribution. No annotation processor and no lombok is involved.
+ */
+@MetaInfServices(Plugin.class)
+public class NonnullChecksPlugin implements Plugin {
+
+    /**
+     * The name of the plugin, see {@code -Xplugin}.
+     */
+    public static final String NAME = "NonnullChecks";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void init(JavacTask task, String... args) {
+        Context context = ((BasicJavacTask) task).getContext();
+        Trees trees = Trees.instance(task);
+        task.addTaskListener(new TaskListener() {
+
+            @Override
+            public void started(TaskEvent event) {
+                // nothing to do
+            }
+
+            @Override
+            public void finished(TaskEvent event) {
+                CompilationUnitTree unit = event.getCompilationUnit();
+                if (event.getKind() == TaskEvent.Kind.PARSE && unit != null) {
+                    new NonnullChecks(context, trees, (JCCompilationUnit) unit).rewrite();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.plugin;
+
+import java.util.HashSet;
+import java.util.Set;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.JCTree.JCAssign;
+import com.sun.tools.javac.tree.JCTree.JCAssignOp;
+import com.sun.tools.javac.tree.JCTree.JCBinary;
+import com.sun.tools.javac.tree.JCTree.JCClassDecl;
+import com.sun.tools.javac.tree.JCTree.JCConditional;
+import com.sun.tools.javac.tree.JCTree.JCExpression;
+import com.sun.tools.javac.tree.JCTree.JCFieldAccess;
+import com.sun.tools.javac.tree.JCTree.JCIdent;
+import com.sun.tools.javac.tree.JCTree.JCLambda;
+import com.sun.tools.javac.tree.JCTree.JCMethodDecl;
+import com.sun.tools.javac.tree.JCTree.JCMethodInvocation;
+import com.sun.tools.javac.tree.JCTree.JCPrimitiveTypeTree;
+import com.sun.tools.javac.tree.JCTree.JCReturn;
+import com.sun.tools.javac.tree.JCTree.JCTypeCast;
+import com.sun.tools.javac.tree.JCTree.JCUnary;
+import com.sun.tools.javac.tree.JCTree.JCVariableDecl;
+import com.sun.tools.javac.tree.TreeInfo;
+import com.sun.tools.javac.tree.TreeScanner;
+import com.sun.tools.javac.tree.TreeTranslator;
+import com.sun.tools.javac.util.Name;
+
+/**
+ * Replaces every {@code return expr;} of a {@code @Nonnull} method by a block which checks the value, see
+ * {@link NonnullChecks#returnCheck}. Every block declares its own {@code $result}, so the name is the same for all
+ * return statements of the method. Return values which are obviously never {@code null} (literals, {@code new},
+ * {@code this}, operators, lambdas, method references, class literals, {@code Objects.requireNonNull(..)} and
+ * primitive parameters) are not checked, returning the {@code null} literal is an error. Lambdas and local classes
+ * are skipped, their return statements do not belong to the method.
+ * <p>
+ * The analysis is a subset of the flow analysis of the lombok handler, it checks more return values but never less.
+ * The differences are listed in the README of the module.
+ */
+class ReturnChecks extends TreeTranslator {
+
+    private enum Nullness {
+        NON_NULL,
+        NULL,
+        UNKNOWN
+    }
+
+    private static final String RESULT_NAME = "$result";
+
+    private final NonnullChecks checks;
+    private final JCMethodDecl method;
+    private final Set<Name> primitiveParameters = new HashSet<>();
+    private Name resultName;
+
+    ReturnChecks(NonnullChecks checks, JCMethodDecl method) {
+        this.checks = checks;
+        this.method = method;
+        for (JCVariableDecl parameter : method.params) {
+            if (parameter.vartype instanceof JCPrimitiveTypeTree) {
+                primitiveParameters.add(parameter.name);
+            }
+        }
+    }
+
+    void rewrite() {
+        method.body = translate(method.body);
+    }
+
+    @Override
+    public void visitReturn(JCReturn tree) {
+        result = tree;
+        if (tree.expr == null) {
+            // reported by the compiler
+            return;
+        }
+        Nullness nullness = nullness(tree.expr);
+        if (nullness == Nullness.NULL) {
+            checks.error("@Nonnull annotated method '" + method.name + "' returns null", tree);
+        } else if (nullness == Nullness.UNKNOWN) {
+            result = checks.returnCheck(tree, method.restype, resultName());
+        }
+    }
+
+    @Override
+    public void visitClassDef(JCClassDecl tree) {
+        // the methods of local and anonymous classes are rewritten on their own
+        result = tree;
+    }
+
+    @Override
+    public void visitLambda(JCLambda tree) {
+        result = tree;
+    }
+
+    private Nullness nullness(JCExpression expression) {
+        JCExpression current = TreeInfo.skipParens(expression);
+        if (current instanceof JCAssign) {
+            return nullness(((JCAssign) current).rhs);
+        }
+        if (current instanceof JCConditional) {
+            JCConditional conditional = (JCConditional) current;
+            boolean nonNull = nullness(conditional.truepart) == Nullness.NON_NULL
+                    && nullness(conditional.falsepart) == Nullness.NON_NULL;
+            return nonNull ? Nullness.NON_NULL : Nullness.UNKNOWN;
+        }
+        if (current instanceof JCTypeCast) {
+            JCTypeCast cast = (JCTypeCast) current;
+            return cast.clazz instanceof JCPrimitiveTypeTree ? Nullness.NON_NULL : nullness(cast.expr);
+        }
+        if (current instanceof JCIdent) {
+            Name name = ((JCIdent) current).name;
+            return name.toString()
+                    .equals("this") || primitiveParameters.contains(name) ? Nullness.NON_NULL : Nullness.UNKNOWN;
+        }
+        if (current instanceof JCFieldAccess) {
+            String name = ((JCFieldAccess) current).name.toString();
+            return name.equals("class") || name.equals("this") ? Nullness.NON_NULL : Nullness.UNKNOWN;
+        }
+        if (current instanceof JCMethodInvocation) {
+            String name = ((JCMethodInvocation) current).meth.toString();
+            boolean nonNull = name.equals("Objects.requireNonNull") || name.equals("java.util.Objects.requireNonNull");
+            return nonNull ? Nullness.NON_NULL : Nullness.UNKNOWN;
+        }
+        if (current instanceof JCBinary || current instanceof JCUnary || current instanceof JCAssignOp) {
+            // the result is a primitive or a string
+            return Nullness.NON_NULL;
+        }
+        switch (current.getKind()) {
+        case NULL_LITERAL:
+            return Nullness.NULL;
+        case INT_LITERAL:
+        case LONG_LITERAL:
+        case FLOAT_LITERAL:
+        case DOUBLE_LITERAL:
+        case BOOLEAN_LITERAL:
+        case CHAR_LITERAL:
+        case STRING_LITERAL:
+        case NEW_CLASS:
+        case NEW_ARRAY:
+        case INSTANCE_OF:
+        case LAMBDA_EXPRESSION:
+        case MEMBER_REFERENCE:
+            return Nullness.NON_NULL;
+        default:
+            return Nullness.UNKNOWN;
+        }
+    }
+
+    /**
+     * Returns {@code $result} or, if the method declares a variable of this name, {@code $result1},
+     * {@code $result2}, ...
+     */
+    private Name resultName() {
+        if (resultName == null) {
+            Set<Name> declared = new HashSet<>();
+            new TreeScanner() {
+
+                @Override
+                public void visitVarDef(JCVariableDecl tree) {
+                    declared.add(tree.name);
+                    super.visitVarDef(tree);
+                }
+            }.scan((JCTree) method);
+            String name = RESULT_NAME;
+            for (int i = 1; declared.contains(checks.name(name)); i++) {
+                name = RESULT_NAME + i;
+            }
+            resultName = checks.name(name);
+        }
+        return resultName;
+    }
+}
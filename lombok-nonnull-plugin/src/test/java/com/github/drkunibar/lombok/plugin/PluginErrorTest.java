@@ -0,0 +1,149 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.plugin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compiles sources with {@code -Xplugin:NonnullChecks} and checks the errors of the plugin.
+ */
+public class PluginErrorTest {
+
+    @Nested
+    class ReturnNull {
+
+        @Test
+        void nullLiteral_error() throws Exception {
+            // given
+            String source = "package errors;\n\n"
+                    + "import javax.annotation.Nonnull;\n\n"
+                    + "public class Values {\n\n"
+                    + "    @Nonnull\n"
+                    + "    public String getName() {\n"
+                    + "        return null;\n"
+                    + "    }\n"
+                    + "}\n";
+            // when
+            List<String> messages = compile("Values", source);
+            // then
+            assertThat(messages).containsExactly("ERROR 9: @Nonnull annotated method 'getName' returns null");
+        }
+
+        @Test
+        void nullLiteralInParentheses_error() throws Exception {
+            // given
+            String source = "package errors;\n\n"
+                    + "import javax.annotation.Nonnull;\n\n"
+                    + "public class Values {\n\n"
+                    + "    @Nonnull\n"
+                    + "    public String getName(boolean empty) {\n"
+                    + "        if (empty) {\n"
+                    + "            return \"\";\n"
+                    + "        }\n"
+                    + "        return (null);\n"
+                    + "    }\n"
+                    + "}\n";
+            // when
+            List<String> messages = compile("Values", source);
+            // then
+            assertThat(messages).containsExactly("ERROR 12: @Nonnull annotated method 'getName' returns null");
+        }
+
+        @Test
+        void notAnnotated_noError() throws Exception {
+            // given
+            String source = "package errors;\n\n"
+                    + "public class Values {\n\n"
+                    + "    public String getName() {\n"
+                    + "        return null;\n"
+                    + "    }\n"
+                    + "}\n";
+            // when
+            List<String> messages = compile("Values", source);
+            // then
+            assertThat(messages).isEmpty();
+        }
+    }
+
+    /**
+     * Compiles the source with the plugin of this module and returns the errors and warnings with their line numbers.
+     */
+    private static List<String> compile(String className, String source) throws Exception {
+        Path directory = Files.createTempDirectory("lombok-nonnull-plugin");
+        try {
+            Path sourceFile = directory.resolve(className + ".java");
+            Files.write(sourceFile, source.getBytes(StandardCharsets.UTF_8));
+            JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+            List<String> options = Arrays.asList("-Xplugin:" + NonnullChecksPlugin.NAME, "-processorpath",
+                    locate(NonnullChecksPlugin.class), "-classpath", locate(Nonnull.class), "-d",
+                    directory.toString());
+            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+            try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, Locale.ROOT,
+                    StandardCharsets.UTF_8)) {
+                compiler.getTask(null, fileManager, diagnostics, options, null,
+                        fileManager.getJavaFileObjects(sourceFile.toFile()))
+                        .call();
+            }
+            List<String> messages = new ArrayList<>();
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                if (diagnostic.getKind() != Diagnostic.Kind.NOTE) {
+                    messages.add(diagnostic.getKind() + " " + diagnostic.getLineNumber() + ": "
+                            + diagnostic.getMessage(Locale.ROOT));
+                }
+            }
+            return messages;
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static String locate(Class<?> type) throws URISyntaxException {
+        return Paths.get(type.getProtectionDomain()
+                .getCodeSource()
+                .getLocation()
+                .toURI())
+                .toString();
+    }
+
+    private static void delete(Path directory) throws Exception {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder())
+                    .collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.plugin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class PluginTest {
+
+    @Nested
+    class Parameter {
+
+        @Test
+        void constructorWithNull_throwException() {
+            // when
+            @SuppressWarnings("null")
+            Throwable throwable = catchThrowable(() -> new PluginTestClass(null));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("name is marked non-null but is null");
+        }
+
+        @Test
+        void delegatingConstructorWithNull_throwException() {
+            // when
+            @SuppressWarnings("null")
+            Throwable throwable = catchThrowable(() -> new PluginTestClass(null, 1));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("name is marked non-null but is null");
+        }
+
+        @Test
+        void methodWithNull_throwException() {
+            // given
+            PluginTestClass data = new PluginTestClass("foo");
+            // when
+            @SuppressWarnings("null")
+            Throwable throwable = catchThrowable(() -> data.setName(null, null));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("value is marked non-null but is null");
+        }
+    }
+
+    @Nested
+    class ReturnValue {
+
+        @Test
+        void withName_returnValue() {
+            // given
+            PluginTestClass data = new PluginTestClass("foo");
+            // when / then
+            assertThat(data.getName()).isEqualTo("foo");
+            assertThat(data.getName(1)).isEqualTo("foo");
+            assertThat(data.getName(2)).isEqualTo("two");
+            assertThat(data.getName(3)).isEqualTo("foo");
+        }
+
+        @Test
+        void withoutName_getName_throwException() {
+            // given
+            PluginTestClass data = new PluginTestClass();
+            // when
+            Throwable throwable = catchThrowable(() -> data.getName());
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value must not be null");
+        }
+
+        @Test
+        void withoutName_getNameInSwitch_throwException() {
+            // given
+            PluginTestClass data = new PluginTestClass();
+            // when
+            Throwable inCase = catchThrowable(() -> data.getName(1));
+            Throwable inSynchronized = catchThrowable(() -> data.getName(3));
+            // then
+            assertThat(inCase).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value must not be null");
+            assertThat(inSynchronized).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value must not be null");
+        }
+
+        @Test
+        void withoutName_lambda_returnNull() {
+            // given
+            PluginTestClass data = new PluginTestClass();
+            // when
+            String value = data.getSupplier()
+                    .get();
+            // then
+            assertThat(value).isNull();
+        }
+    }
+
+    @Nested
+    class Disabled {
+
+        @Test
+        void disabledMethodWithNull_throwException() {
+            // given
+            PluginTestClass data = new PluginTestClass("foo");
+            // when
+            @SuppressWarnings("null")
+            Throwable throwable = catchThrowable(() -> data.getName(null));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("prefix is marked non-null but is null");
+        }
+
+        @Test
+        void disabledMethodWithoutName_returnNull() {
+            // given
+            PluginTestClass data = new PluginTestClass();
+            // when
+            String value = data.getName("foo");
+            // then
+            assertThat(value).isNull();
+        }
+
+        @Test
+        void disabledParameterWithNull_doNothing() {
+            // given
+            PluginTestClass data = new PluginTestClass("foo");
+            // when
+            @SuppressWarnings("null")
+            Throwable throwable = catchThrowable(() -> data.setName(null));
+            // then
+            assertThat(throwable).isNull();
+        }
+    }
+
+    @Nested
+    class Unsupported {
+
+        @Test
+        void interfaceWithNull_returnNull() {
+            // given
+            PluginInterfaceTestClass data = new PluginInterfaceTestClass() {
+                // default methods only
+            };
+            // when
+            @SuppressWarnings("null")
+            String name = data.getName(null);
+            @SuppressWarnings("null")
+            String value = PluginInterfaceTestClass.format(null);
+            // then
+            assertThat(name).isNull();
+            assertThat(value).isNull();
+        }
+
+        @Test
+        void enumWithNull_returnNull() {
+            // when
+            @SuppressWarnings("null")
+            String name = PluginEnumTestClass.VALUE.getName(null);
+            // then
+            assertThat(name).isNull();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.plugin;
+
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import com.github.drkunibar.lombok.DisableNonNull;
+
+public class PluginTestClass {
+
+    private final String name;
+
+    public PluginTestClass(@Nonnull String name) {
+        this.name = name;
+    }
+
+    public PluginTestClass(@Nonnull String name, int count) {
+        this(name + count);
+    }
+
+    public PluginTestClass() {
+        this.name = null;
+    }
+
+    @Nonnull
+    public String getName() {
+        return name;
+    }
+
+    @Nonnull
+    public String getName(int value) {
+        switch (value) {
+        case 1:
+            return name;
+        case 2:
+            return "two";
+        default:
+            synchronized (this) {
+                return name;
+            }
+        }
+    }
+
+    @Nonnull
+    public Supplier<String> getSupplier() {
+        return () -> {
+            return name;
+        };
+    }
+
+    @Nonnull
+    @DisableNonNull
+    public String getName(@Nonnull String prefix) {
+        return name;
+    }
+
+    public void setName(@Nonnull String value, String other) {
+        // nothing to do
+    }
+
+    public void setName(@Nonnull @DisableNonNull String value) {
+        // nothing to do
+    }
+}
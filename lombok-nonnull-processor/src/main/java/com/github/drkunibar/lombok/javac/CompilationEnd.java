@@ -0,0 +1,113 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nonnull;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskListener;
+import com.sun.tools.javac.util.Context;
+
+/**
+ * Runs an action once the handlers of the current compilation are finished.
+ * <p>
+ * javac 9+ announces the end of a compilation with a {@code COMPILATION} task event. javac 8 does not, there the
+ * action runs at the end of the annotation processing ({@code ANNOTATION_PROCESSING}), lombok and the handlers run as
+ * annotation processor. Compilers without task listeners run the action when the JVM shuts down.
+ */
+public final class CompilationEnd {
+
+    private static final String COMPILATION_EVENT = "COMPILATION";
+    private static final String ANNOTATION_PROCESSING_EVENT = "ANNOTATION_PROCESSING";
+
+    private CompilationEnd() {
+    }
+
+    /**
+     * Registers the action for the compilation of the given context.
+     *
+     * @param context
+     *            the compiler context
+     * @param action
+     *            the action, runs at most once
+     */
+    public static void whenFinished(@Nonnull Context context, @Nonnull Runnable action) {
+        Objects.requireNonNull(context, "'context' must not be null");
+        Objects.requireNonNull(action, "'action' must not be null");
+        Runnable once = runOnce(action);
+        if (!addTaskListener(context, once)) {
+            Runtime.getRuntime()
+                    .addShutdownHook(new Thread(once, "lombok-nonnull-compilation-end"));
+        }
+    }
+
+    private static boolean addTaskListener(Context context, Runnable action) {
+        String endEvent = hasEvent(COMPILATION_EVENT) ? COMPILATION_EVENT : ANNOTATION_PROCESSING_EVENT;
+        try {
+            Object task = task(context);
+            // addTaskListener of the exported interface, the implementation is not accessible if lombok does not
+            // open com.sun.tools.javac.api (e.g. with the compiler API)
+            Method addTaskListener = JavacTask.class.getMethod("addTaskListener", TaskListener.class);
+            addTaskListener.invoke(task, new TaskListener() {
+                @Override
+                public void started(TaskEvent event) {
+                    // only the end is of interest
+                }
+
+                @Override
+                public void finished(TaskEvent event) {
+                    if (endEvent.equals(event.getKind()
+                            .name())) {
+                        action.run();
+                    }
+                }
+            });
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static Object task(Context context) throws ReflectiveOperationException {
+        // the task registers itself in the context
+        Object task = context.get(JavacTask.class);
+        if (task != null) {
+            return task;
+        }
+        Class<?> taskType = Class.forName("com.sun.tools.javac.api.BasicJavacTask");
+        return taskType.getMethod("instance", Context.class)
+                .invoke(null, context);
+    }
+
+    private static boolean hasEvent(String name) {
+        for (TaskEvent.Kind kind : TaskEvent.Kind.values()) {
+            if (name.equals(kind.name())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Runnable runOnce(Runnable action) {
+        AtomicBoolean done = new AtomicBoolean();
+        return () -> {
+            if (done.compareAndSet(false, true)) {
+                action.run();
+            }
+        };
+    }
+}
@@ -13,27 +13,60 @@
  */
 package com.github.drkunibar.lombok.javac;
 
+import static lombok.core.AST.Kind.ANNOTATION;
 import static lombok.core.AST.Kind.ARGUMENT;
+import static lombok.core.AST.Kind.COMPILATION_UNIT;
+import static lombok.core.AST.Kind.FIELD;
 import static lombok.core.AST.Kind.METHOD;
+import static lombok.core.AST.Kind.TYPE;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ForkJoinPool;
 import javax.annotation.Nonnull;
 import org.kohsuke.MetaInfServices;
 import com.github.drkunibar.lombok.DisableNonNull;
+import com.github.drkunibar.lombok.javac.codeprocessor.AnalysisCache;
+import com.github.drkunibar.lombok.javac.codeprocessor.BytecodeSizeEstimator;
+import com.github.drkunibar.lombok.javac.codeprocessor.CacheMode;
+import com.github.drkunibar.lombok.javac.codeprocessor.CheckGuard;
+import com.github.drkunibar.lombok.javac.codeprocessor.CheckMode;
 import com.github.drkunibar.lombok.javac.codeprocessor.CodeProcessor;
+import com.github.drkunibar.lombok.javac.codeprocessor.CodeShape;
+import com.github.drkunibar.lombok.javac.codeprocessor.ElementCheck;
+import com.github.drkunibar.lombok.javac.codeprocessor.FieldChecks;
+import com.github.drkunibar.lombok.javac.codeprocessor.MethodAnalysis;
+import com.github.drkunibar.lombok.javac.codeprocessor.NullnessAnalyzer;
+import com.github.drkunibar.lombok.javac.codeprocessor.NullnessAnalyzer.Nullness;
+import com.github.drkunibar.lombok.javac.codeprocessor.ReturnScanner;
+import com.github.drkunibar.lombok.javac.codeprocessor.ViolationSites;
 import com.sun.tools.javac.code.Flags;
 import com.sun.tools.javac.tree.JCTree;
 import com.sun.tools.javac.tree.JCTree.JCAnnotation;
-import com.sun.tools.javac.tree.JCTree.JCBlock;
+import com.sun.tools.javac.tree.JCTree.JCClassDecl;
+import com.sun.tools.javac.tree.JCTree.JCCompilationUnit;
+import com.sun.tools.javac.tree.JCTree.JCExpression;
 import com.sun.tools.javac.tree.JCTree.JCMethodDecl;
 import com.sun.tools.javac.tree.JCTree.JCStatement;
+import com.sun.tools.javac.tree.JCTree.JCVariableDecl;
 import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.Name;
+import lombok.ConfigurationKeys;
 import lombok.NonNull;
 import lombok.core.AST;
 import lombok.core.AnnotationValues;
 import lombok.core.HandlerPriority;
 import lombok.core.configuration.ConfigurationKey;
+import lombok.core.configuration.NullCheckExceptionType;
+import lombok.javac.JavacAST;
 import lombok.javac.JavacAnnotationHandler;
 import lombok.javac.JavacNode;
 import lombok.javac.handlers.HandleNonNull;
@@ -47,61 +80,389 @@ public class HandleNonnull extends JavacAnnotationHandler<Nonnull> {
     public static final ConfigurationKey<Boolean> IGNORE_UNSUPPORTED_TYPES = new ConfigurationKeyImpl(
             IGNORE_UNSUPPORTED_TYPES_PROPERTY,
             "Do not generate warnings while @Nonnull is used with unsupported types (default = false).");
+    public static final String REPORT_PROPERTY = "lombok.javax.nonnull.report";
+    public static final ConfigurationKey<Boolean> REPORT = new ConfigurationKeyImpl(REPORT_PROPERTY,
+            "Write a report of the handler costs next to the class output directory (default = false). "
+                    + "Can be enabled for all sources with the system property of the same name.");
+    public static final String CODE_SHAPE_PROPERTY = "lombok.javax.nonnull.codeShape";
+    public static final ConfigurationKey<CodeShape> CODE_SHAPE = new CodeShapeKey(CODE_SHAPE_PROPERTY,
+            "The code generated for return values: INLINE, REQUIRE_NON_NULL, HELPER or COMPACT (default = INLINE).");
+    public static final String CHECK_MODE_PROPERTY = "lombok.javax.nonnull.checkMode";
+    public static final ConfigurationKey<CheckMode> CHECK_MODE = new CheckModeKey(CHECK_MODE_PROPERTY,
+            "When the checks are executed: ALWAYS, SYSTEM_PROPERTY, ASSERT or REPORT (default = ALWAYS).");
+    public static final String RECORD_VIOLATIONS_PROPERTY = "lombok.javax.nonnull.recordViolations";
+    public static final ConfigurationKey<Boolean> RECORD_VIOLATIONS = new ConfigurationKeyImpl(
+            RECORD_VIOLATIONS_PROPERTY,
+            "Record the violations at lombok-nonnull-runtime before the exception is thrown, e.g. as JFR events "
+                    + "(default = false). Ignored with checkMode = ASSERT.");
+    public static final String CHECK_ELEMENTS_PROPERTY = "lombok.javax.nonnull.checkElements";
+    public static final ConfigurationKey<Boolean> CHECK_ELEMENTS = new ConfigurationKeyImpl(CHECK_ELEMENTS_PROPERTY,
+            "Check the elements of @Nonnull collections, maps, iterators, streams and arrays (default = false). "
+                    + "Needs lombok-nonnull-runtime and checkMode = ALWAYS.");
+    public static final String ELEMENT_SCAN_LIMIT_PROPERTY = "lombok.javax.nonnull.elementScanLimit";
+    public static final ConfigurationKey<Integer> ELEMENT_SCAN_LIMIT = new IntegerKey(ELEMENT_SCAN_LIMIT_PROPERTY,
+            "The number of elements checked eagerly in arrays and parameters (default = 32).");
+    public static final String CHECK_FIELDS_PROPERTY = "lombok.javax.nonnull.checkFields";
+    public static final ConfigurationKey<Boolean> CHECK_FIELDS = new ConfigurationKeyImpl(CHECK_FIELDS_PROPERTY,
+            "Check @Nonnull fields when they are assigned, getters of final fields need no check (default = false).");
+    public static final String INLINING_WARN_PROPERTY = "lombok.javax.nonnull.inlining.warn";
+    public static final ConfigurationKey<Boolean> INLINING_WARN = new ConfigurationKeyImpl(INLINING_WARN_PROPERTY,
+            "Warn if the generated checks grow a method past an inlining threshold of the JIT (default = false).");
+    public static final String MAX_INLINE_SIZE_PROPERTY = "lombok.javax.nonnull.inlining.maxInlineSize";
+    public static final ConfigurationKey<Integer> MAX_INLINE_SIZE = new IntegerKey(MAX_INLINE_SIZE_PROPERTY,
+            "The bytecode size of methods inlined at cold call sites, see -XX:MaxInlineSize (default = 35).");
+    public static final String FREQ_INLINE_SIZE_PROPERTY = "lombok.javax.nonnull.inlining.freqInlineSize";
+    public static final ConfigurationKey<Integer> FREQ_INLINE_SIZE = new IntegerKey(FREQ_INLINE_SIZE_PROPERTY,
+            "The bytecode size of methods inlined at hot call sites, see -XX:FreqInlineSize (default = 325).");
+
+    public static final String ANALYSIS_THREADS_PROPERTY = "lombok.javax.nonnull.analysisThreads";
+    public static final ConfigurationKey<Integer> ANALYSIS_THREADS = new IntegerKey(ANALYSIS_THREADS_PROPERTY,
+            "The threads analyzing the methods of a type concurrently, 0 = one per processor (default = 1).");
+    public static final String CACHE_PROPERTY = "lombok.javax.nonnull.cache";
+    public static final ConfigurationKey<CacheMode> CACHE = new CacheModeKey(CACHE_PROPERTY,
+            "Keep the analyses of unchanged methods between compilations: NONE, MEMORY or DISK (default = NONE).");
+    public static final String CACHE_SIZE_PROPERTY = "lombok.javax.nonnull.cache.size";
+    public static final ConfigurationKey<Integer> CACHE_SIZE = new IntegerKey(CACHE_SIZE_PROPERTY,
+            "The number of method analyses kept in memory by the compiling JVM (default = 10000).");
 
     public void handle(AnnotationValues<Nonnull> annotation, JCAnnotation ast, JavacNode annotationNode,
             String hubblebubble) {
 
     }
 
+    private final HandleNonNull handleNonNull = new HandleNonNull();
+    private final AnnotationValues<NonNull> nonNullValues = AnnotationValues.of(NonNull.class);
+    private final Set<JCClassDecl> handledTypes = Collections.newSetFromMap(new WeakHashMap<>());
+    private final Set<JCAnnotation> handledAnnotations = Collections.newSetFromMap(new WeakHashMap<>());
+    private final Set<JCClassDecl> helperHosts = Collections.newSetFromMap(new WeakHashMap<>());
+    private final Set<JCClassDecl> flagHosts = Collections.newSetFromMap(new WeakHashMap<>());
+    private final Map<JCClassDecl, ViolationSites> violationSites = new WeakHashMap<>();
+    private NonnullConfiguration configuration;
+    private NullnessAnalyzer nullnessAnalyzer;
+    private NonnullReport.Entry reportEntry;
+    private Set<String> parameterChecks;
+    private Map<JCMethodDecl, MethodAnalysis> analyses = Collections.emptyMap();
+    private ForkJoinPool analysisPool;
+    private AnalysisCache analysisCache;
+
     @Override
     public void handle(AnnotationValues<Nonnull> annotation, JCAnnotation ast, JavacNode annotationNode) {
-        if (!needCodeGeneration(annotationNode)) {
+        if (handledAnnotations.remove(ast)) {
+            // already handled together with all other annotations of its type
+            return;
+        }
+        JavacNode typeNode = JavacHandlerUtil.upToTypeNode(annotationNode);
+        if (typeNode != null && handledTypes.add((JCClassDecl) typeNode.get())) {
+            handleType(typeNode);
+            if (handledAnnotations.remove(ast)) {
+                return;
+            }
+        }
+        // e.g. annotations of local variables or members generated after the type was handled
+        handleAnnotation(annotationNode, ast, isSupportedType(typeNode));
+    }
+
+    /**
+     * Handles all {@code @Nonnull} annotations of the fields, methods and method arguments of a type at once.
+     * Lombok calls {@link #handle(AnnotationValues, JCAnnotation, JavacNode)} for these annotations later on - these
+     * calls do nothing.
+     */
+    private void handleType(JavacNode typeNode) {
+        analyses = analyzeMethods(typeNode);
+        try {
+            handleMembers(typeNode);
+        } finally {
+            analyses = Collections.emptyMap();
+        }
+    }
+
+    private void handleMembers(JavacNode typeNode) {
+        boolean supportedType = isSupportedType(typeNode);
+        for (JavacNode member : typeNode.down()) {
+            AST.Kind kind = member.getKind();
+            if (kind != FIELD && kind != METHOD) {
+                continue;
+            }
+            MethodAnalysis analysis = kind == METHOD ? analyses.get(member.get()) : null;
+            if (analysis != null && isReportEnabled(member)) {
+                NonnullReport.Entry entry = NonnullReport.of(member.getContext())
+                        .entry(member);
+                entry.addNanos(analysis.getNanos());
+                if (analysis.isCached()) {
+                    entry.setAnalysisCached();
+                }
+            }
+            int sizeBefore = -1;
+            parameterChecks = new HashSet<>();
+            for (JavacNode child : member.down()) {
+                Iterable<JavacNode> nodes = child.getKind() == ARGUMENT ? child.down()
+                        : Collections.singletonList(child);
+                for (JavacNode node : nodes) {
+                    if (!isNonnullAnnotation(node)) {
+                        continue;
+                    }
+                    if (kind == METHOD && sizeBefore < 0 && isInliningCheckEnabled(node)) {
+                        sizeBefore = analysis != null && analysis.getSizeBefore() >= 0 ? analysis.getSizeBefore()
+                                : BytecodeSizeEstimator.estimate((JCMethodDecl) member.get());
+                    }
+                    JCAnnotation ast = (JCAnnotation) node.get();
+                    handledAnnotations.add(ast);
+                    handleAnnotation(node, ast, supportedType);
+                }
+            }
+            if (!parameterChecks.isEmpty()) {
+                completeParameterChecks(member, parameterChecks);
+            }
+            parameterChecks = null;
+            if (sizeBefore >= 0) {
+                checkInliningBudget(member, sizeBefore);
+            }
+        }
+    }
+
+    /**
+     * Analyzes the methods of a type with {@code @Nonnull} annotations before any of them is rewritten, see
+     * {@link MethodAnalysis}.
+     */
+    private Map<JCMethodDecl, MethodAnalysis> analyzeMethods(JavacNode typeNode) {
+        Collection<JCMethodDecl> methods = new ArrayList<>();
+        Set<JCMethodDecl> returnChecked = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (JavacNode member : typeNode.down()) {
+            if (member.getKind() != METHOD) {
+                continue;
+            }
+            JCMethodDecl method = (JCMethodDecl) member.get();
+            boolean annotated = false;
+            for (JavacNode child : member.down()) {
+                if (isNonnullAnnotation(child)) {
+                    returnChecked.add(method);
+                    annotated = true;
+                } else if (child.getKind() == ARGUMENT) {
+                    for (JavacNode node : child.down()) {
+                        annotated |= isNonnullAnnotation(node);
+                    }
+                }
+            }
+            if (annotated) {
+                methods.add(method);
+            }
+        }
+        if (methods.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        JCCompilationUnit unit = (JCCompilationUnit) typeNode.top()
+                .get();
+        return MethodAnalysis.analyzeAll(unit, methods, returnChecked, isInliningCheckEnabled(typeNode),
+                analysisPool(typeNode), analysisCache(typeNode));
+    }
+
+    /**
+     * Returns the cache of the method analyses or {@code null} if it is disabled. The file of {@link CacheMode#DISK}
+     * is written at the end of the compilation.
+     */
+    private AnalysisCache analysisCache(JavacNode node) {
+        NonnullConfiguration config = configuration(node);
+        CacheMode mode = config.get(CACHE, CacheMode.NONE);
+        if (mode == CacheMode.NONE) {
+            return null;
+        }
+        if (analysisCache == null || mode == CacheMode.DISK && !analysisCache.hasFile()) {
+            Path file = mode == CacheMode.DISK
+                    ? NonnullReport.besideClassOutput(node.getContext(), "lombok-nonnull-cache-", ".txt")
+                    : null;
+            AnalysisCache cache = new AnalysisCache(config.get(CACHE_SIZE, 10_000), file,
+                    NonnullReport.messager(node.getContext()));
+            if (file != null) {
+                CompilationEnd.whenFinished(node.getContext(), cache::write);
+            }
+            analysisCache = cache;
+        }
+        return analysisCache;
+    }
+
+    /**
+     * Returns the pool of the concurrent analysis or {@code null} if the methods are analyzed one after the other.
+     * The pool is shut down at the end of the compilation.
+     */
+    private ForkJoinPool analysisPool(JavacNode node) {
+        int threads = configuration(node).get(ANALYSIS_THREADS, 1);
+        if (threads == 0) {
+            threads = Runtime.getRuntime()
+                    .availableProcessors();
+        }
+        if (threads <= 1) {
+            return null;
+        }
+        if (analysisPool == null || analysisPool.isShutdown() || analysisPool.getParallelism() != threads) {
+            if (analysisPool != null) {
+                analysisPool.shutdown();
+            }
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            CompilationEnd.whenFinished(node.getContext(), pool::shutdown);
+            analysisPool = pool;
+        }
+        return analysisPool;
+    }
+
+    private static boolean isNonnullAnnotation(JavacNode node) {
+        return node.getKind() == ANNOTATION && JavacHandlerUtil.annotationTypeMatches(Nonnull.class, node);
+    }
+
+    /**
+     * Compares the estimated bytecode size of the method before and after the checks were added with the inlining
+     * thresholds of the JIT.
+     */
+    private void checkInliningBudget(JavacNode methodNode, int sizeBefore) {
+        JCMethodDecl method = (JCMethodDecl) methodNode.get();
+        int sizeAfter = BytecodeSizeEstimator.estimate(method);
+        NonnullConfiguration config = configuration(methodNode);
+        String exceeded = null;
+        int threshold = config.get(FREQ_INLINE_SIZE, 325);
+        if (sizeBefore <= threshold && sizeAfter > threshold) {
+            exceeded = "FreqInlineSize";
+        } else {
+            threshold = config.get(MAX_INLINE_SIZE, 35);
+            if (sizeBefore <= threshold && sizeAfter > threshold) {
+                exceeded = "MaxInlineSize";
+            }
+        }
+        NonnullReport.Entry entry = isReportEnabled(methodNode) ? NonnullReport.of(methodNode.getContext())
+                .entry(methodNode) : null;
+        if (entry != null) {
+            entry.addBytecodeSize(sizeBefore, sizeAfter, exceeded);
+        }
+        if (exceeded != null && config.get(INLINING_WARN, false)) {
+            methodNode.addWarning("@Nonnull checks grow method '" + method.name + "' from about " + sizeBefore
+                    + " to " + sizeAfter + " bytes of bytecode, more than " + exceeded + " (" + threshold + ")");
+            if (entry != null) {
+                entry.addWarning();
+            }
+        }
+    }
+
+    private void handleAnnotation(JavacNode annotationNode, JCAnnotation ast, boolean supportedType) {
+        if (!isReportEnabled(annotationNode)) {
+            generateNullCheck(annotationNode, ast, supportedType);
             return;
         }
-        switch (annotationNode.up()
-                .getKind()) {
+        reportEntry = NonnullReport.of(annotationNode.getContext())
+                .entry(annotationNode);
+        long start = System.nanoTime();
+        try {
+            generateNullCheck(annotationNode, ast, supportedType);
+        } finally {
+            reportEntry.addNanos(System.nanoTime() - start);
+            reportEntry = null;
+        }
+    }
+
+    private void generateNullCheck(JavacNode annotationNode, JCAnnotation ast, boolean supportedType) {
+        if (!needCodeGeneration(annotationNode, supportedType)) {
+            return;
+        }
+        JavacNode parentNode = annotationNode.up();
+        switch (parentNode.getKind()) {
         case ARGUMENT:
-            HandleNonNull handleNonNull = new HandleNonNull();
-            AnnotationValues<NonNull> annotationValues = AnnotationValues.of(NonNull.class, annotationNode);
-            handleNonNull.handle(annotationValues, ast, annotationNode);
+            handleNonNull.handle(nonNullValues, ast, annotationNode);
+            if (reportEntry != null) {
+                reportEntry.addParameterCheck();
+            }
+            CheckGuard guard = checkGuard(annotationNode);
+            JCExpression type = ((JCVariableDecl) parentNode.get()).vartype;
+            if (guard.getMode() != CheckMode.ALWAYS || guard.isRecording()
+                    || elementCheck(annotationNode, type, guard) != null) {
+                // the checks of a type are completed at once, Lombok adds further checks behind its own checks only
+                if (parameterChecks != null) {
+                    parameterChecks.add(parentNode.getName());
+                } else {
+                    completeParameterChecks(parentNode.up(),
+                            new HashSet<>(Collections.singleton(parentNode.getName())));
+                }
+            }
             break;
         case METHOD:
-            JCMethodDecl method = (JCMethodDecl) annotationNode.up()
-                    .get();
-            generateReturnNullCheck(annotationNode, method);
+            generateReturnNullCheck(annotationNode, (JCMethodDecl) parentNode.get());
+            break;
+        case FIELD:
+            generateFieldChecks(annotationNode, parentNode);
+            break;
+        default:
             break;
-
         }
     }
 
+    private boolean isSupportedType(JavacNode typeNode) {
+        return JavacHandlerUtil.isClassAndDoesNotHaveFlags(typeNode, Flags.INTERFACE | Flags.ENUM | Flags.ANNOTATION);
+    }
+
     private void warnIfNotIgnored(@Nonnull JavacNode node, @Nonnull String message) {
         if (!isUnsupportedTypeWarning(node)) {
-            node.addWarning(message);
+            addWarning(node, message);
         }
     }
 
+    private void addWarning(JavacNode node, String message) {
+        node.addWarning(message);
+        if (reportEntry != null) {
+            reportEntry.addWarning();
+        }
+    }
+
+    private boolean isReportEnabled(JavacNode node) {
+        return Boolean.getBoolean(REPORT_PROPERTY) || configuration(node).get(REPORT, false);
+    }
+
+    private boolean isInliningCheckEnabled(JavacNode node) {
+        return isReportEnabled(node) || configuration(node).get(INLINING_WARN, false);
+    }
+
     private boolean isUnsupportedTypeWarning(JavacNode node) {
-        Boolean ignoreUnsupportedTypes = node.getAst()
-                .readConfiguration(IGNORE_UNSUPPORTED_TYPES);
-        return ignoreUnsupportedTypes == null ? false : ignoreUnsupportedTypes;
+        return configuration(node).get(IGNORE_UNSUPPORTED_TYPES, false);
     }
 
-    private boolean needCodeGeneration(JavacNode annotationNode) {
+    /**
+     * Returns the configuration of the compilation unit of the given node. Lombok handles the compilation units one
+     * after the other, so only the snapshot of the current one is kept.
+     */
+    private NonnullConfiguration configuration(JavacNode node) {
+        JavacAST ast = node.getAst();
+        if (configuration == null || !configuration.isFor(ast)) {
+            configuration = new NonnullConfiguration(ast);
+        }
+        return configuration;
+    }
+
+    /**
+     * Returns the analyzer of the compilation unit of the given node, see {@link #configuration(JavacNode)}.
+     */
+    private NullnessAnalyzer nullnessAnalyzer(JavacNode node) {
+        JavacAST ast = node.getAst();
+        if (nullnessAnalyzer == null || !nullnessAnalyzer.isFor(ast)) {
+            nullnessAnalyzer = new NullnessAnalyzer(ast);
+        }
+        return nullnessAnalyzer;
+    }
+
+    private boolean needCodeGeneration(JavacNode annotationNode, boolean supportedType) {
         JavacNode parentNode = annotationNode.directUp();
         AST.Kind astKind = parentNode.getKind();
-        if (astKind != ARGUMENT && astKind != METHOD) {
+        boolean field = astKind == FIELD && configuration(annotationNode).get(CHECK_FIELDS, false);
+        if (astKind != ARGUMENT && astKind != METHOD && !field) {
             warnIfNotIgnored(annotationNode, "@Nonnull only works on methods and arguments");
             return false;
         }
         if (JavacHandlerUtil.hasAnnotation(DisableNonNull.class, parentNode)) {
             return false;
         }
-        JavacNode cls = JavacHandlerUtil.upToTypeNode(parentNode);
-        if (!JavacHandlerUtil.isClassAndDoesNotHaveFlags(cls, Flags.INTERFACE | Flags.ENUM | Flags.ANNOTATION)) {
+        if (!supportedType) {
             warnIfNotIgnored(annotationNode, "@Nonnull ignored in interfaces, annotations or enums");
             return false;
         }
-        JCMethodDecl method = upToMethodNode(annotationNode);
+        if (field) {
+            return true;
+        }
+        JavacNode methodNode = astKind == METHOD ? parentNode : parentNode.up();
+        JCMethodDecl method = (JCMethodDecl) methodNode.get();
         if ((method.mods.flags & Flags.ABSTRACT) != 0L) {
             warnIfNotIgnored(annotationNode, "@Nonnull ignored on abstract methods");
             return false;
@@ -109,14 +470,6 @@ public class HandleNonnull extends JavacAnnotationHandler<Nonnull> {
         return true;
     }
 
-    private JCMethodDecl upToMethodNode(@Nonnull JavacNode node) {
-        Objects.requireNonNull(node, "node must no be null");
-        while ((node != null) && !(node.get() instanceof JCMethodDecl)) {
-            node = node.up();
-        }
-        return (node != null) ? (JCMethodDecl) node.get() : null;
-    }
-
     private void generateReturnNullCheck(JavacNode annotationNode, final JCMethodDecl methodNode) {
         if (methodNode.name.toString()
                 .equals("<init>")) {
@@ -124,7 +477,7 @@ public class HandleNonnull extends JavacAnnotationHandler<Nonnull> {
             return;
         }
         if (methodNode.body == null) {
-            annotationNode.addWarning("@Nonnull annotated method '" + methodNode.getName() + "' has no body");
+            addWarning(annotationNode, "@Nonnull annotated method '" + methodNode.getName() + "' has no body");
             return;
         }
         if (Objects.equals(methodNode.getReturnType()
@@ -138,12 +491,246 @@ public class HandleNonnull extends JavacAnnotationHandler<Nonnull> {
             return;
         }
 
-        final JCBlock body = methodNode.body;
-        List<JCStatement> statements = body.getStatements();
-        CodeProcessor processor = new CodeProcessor();
-        Collection<JCStatement> newBody = processor.parse(statements, annotationNode, methodNode.restype);
-        List<JCStatement> from = List.from(newBody.toArray(new JCStatement[0]));
-        methodNode.body.stats = from;
+        MethodAnalysis analysis = analyses.get(methodNode);
+        Set<JCTree> returnPaths = analysis != null ? analysis.getReturnPaths()
+                : ReturnScanner.findReturnPaths(methodNode.body);
+        if (returnPaths.isEmpty()) {
+            return;
+        }
+        CheckGuard guard = checkGuard(annotationNode);
+        CodeShape shape = resolveCodeShape(annotationNode, returnPaths, guard);
+        Set<Name> checkedFields = configuration(annotationNode).get(CHECK_FIELDS, false)
+                ? FieldChecks.checkedFinalFields(JavacHandlerUtil.upToTypeNode(annotationNode))
+                : Collections.<Name> emptySet();
+        CodeProcessor processor = new CodeProcessor(annotationNode, methodNode, returnPaths, shape, guard,
+                nullnessAnalyzer(annotationNode), elementCheck(annotationNode, methodNode.restype, guard),
+                checkedFields);
+        processor.parse(methodNode.body.stats);
+        if (reportEntry != null) {
+            reportEntry.addStatementsVisited(processor.getVisitedStatements());
+            reportEntry.addReturnSites(processor.getReturnSites());
+        }
+    }
+
+    /**
+     * Checks a field behind its assignments in the constructors, methods and instance initializers of its class and
+     * its initial value.
+     */
+    private void generateFieldChecks(JavacNode annotationNode, JavacNode fieldNode) {
+        JCVariableDecl field = (JCVariableDecl) fieldNode.get();
+        if (field.vartype instanceof JCTree.JCPrimitiveTypeTree) {
+            warnIfNotIgnored(annotationNode, "@NonNull is meaningless on a primitive");
+            return;
+        }
+        if ((field.mods.flags & Flags.STATIC) != 0L) {
+            warnIfNotIgnored(annotationNode, "@Nonnull ignored on static fields");
+            return;
+        }
+        NullnessAnalyzer analyzer = nullnessAnalyzer(annotationNode);
+        for (JavacNode member : fieldNode.up()
+                .down()) {
+            // Lombok checks the @Nonnull fields in the constructors, setters and withers it generates
+            if ((member.getKind() == METHOD && !JavacHandlerUtil.isGenerated(member.get()))
+                    || FieldChecks.isInstanceInitializer(member)) {
+                FieldChecks.addAssignmentChecks(member, field.name, analyzer,
+                        position -> createFieldCheck(member, field, position));
+            }
+        }
+        if (field.init == null) {
+            return;
+        }
+        Nullness nullness = analyzer.nullness(field.init, Collections.<Name> emptySet(),
+                Collections.<Name> emptySet());
+        if (nullness == Nullness.NULL) {
+            annotationNode.addError("@Nonnull annotated field '" + field.name + "' is initialized with null",
+                    field.init);
+        } else if (nullness == Nullness.UNKNOWN) {
+            FieldChecks.injectInitializer(fieldNode, createFieldCheck(fieldNode, field, field.pos));
+        }
+    }
+
+    private JCStatement createFieldCheck(JavacNode source, JCVariableDecl field, int position) {
+        String message = field.name + " is marked non-null but is null";
+        JCStatement check = JavacHandlerUtil.generateNullCheck(source.getTreeMaker(), field.vartype, field.name, source,
+                message);
+        check = checkGuard(source).guard(source, check, field.name, message, field.name.toString(), position);
+        return FieldChecks.accessField(source, check, field.name);
+    }
+
+    /**
+     * Resolves {@link CodeShape#COMPACT} and falls back to {@link CodeShape#INLINE} if no class can take the helper
+     * method, e.g. for anonymous classes in interfaces. Recorded checks always use {@link CodeShape#INLINE}, every
+     * return statement is a check site of its own.
+     */
+    private CodeShape resolveCodeShape(JavacNode annotationNode, Set<JCTree> returnPaths, CheckGuard guard) {
+        if (guard.isRecording()) {
+            return CodeShape.INLINE;
+        }
+        CheckMode mode = guard.getMode();
+        NonnullConfiguration config = configuration(annotationNode);
+        CodeShape shape = config.get(CODE_SHAPE, CodeShape.INLINE);
+        if (shape == CodeShape.COMPACT) {
+            // Objects.requireNonNull always throws a NullPointerException
+            NullCheckExceptionType exceptionType = config.get(ConfigurationKeys.NON_NULL_EXCEPTION_TYPE,
+                    NullCheckExceptionType.NULL_POINTER_EXCEPTION);
+            boolean npe = exceptionType == NullCheckExceptionType.NULL_POINTER_EXCEPTION
+                    || exceptionType == NullCheckExceptionType.JDK;
+            shape = npe && CodeProcessor.countReturnStatements(returnPaths) == 1 ? CodeShape.REQUIRE_NON_NULL
+                    : CodeShape.HELPER;
+        }
+        if (shape == CodeShape.REQUIRE_NON_NULL && mode != CheckMode.ALWAYS) {
+            // Objects.requireNonNull cannot be switched off
+            shape = CodeShape.HELPER;
+        }
+        if (shape == CodeShape.HELPER && !injectHelper(annotationNode, guard)) {
+            shape = CodeShape.INLINE;
+        }
+        return shape;
+    }
+
+    /**
+     * Injects the helper method into the nearest enclosing class which may declare static methods (once per class).
+     *
+     * @return {@code false} if there is no such class
+     */
+    private boolean injectHelper(JavacNode annotationNode, CheckGuard guard) {
+        JavacNode host = staticHost(annotationNode);
+        if (host == null) {
+            return false;
+        }
+        if (helperHosts.add((JCClassDecl) host.get())) {
+            JavacHandlerUtil.injectMethod(host, CodeProcessor.createHelper(annotationNode, guard));
+        }
+        return true;
+    }
+
+    /**
+     * Returns the guard of the configured check mode. {@link CheckMode#SYSTEM_PROPERTY} and recorded checks inject a
+     * field into the nearest enclosing class which may declare static members (once per class) and fall back to
+     * {@link CheckMode#ALWAYS} without recording if there is no such class.
+     */
+    private CheckGuard checkGuard(JavacNode node) {
+        NonnullConfiguration config = configuration(node);
+        CheckMode mode = config.get(CHECK_MODE, CheckMode.ALWAYS);
+        boolean record = mode == CheckMode.REPORT
+                || (mode != CheckMode.ASSERT && config.get(RECORD_VIOLATIONS, false));
+        if (mode == CheckMode.ASSERT || (mode == CheckMode.ALWAYS && !record)) {
+            return new CheckGuard(mode, null);
+        }
+        JavacNode host = staticHost(node);
+        if (host == null) {
+            return new CheckGuard(CheckMode.ALWAYS, null);
+        }
+        JCClassDecl type = (JCClassDecl) host.get();
+        if (mode == CheckMode.SYSTEM_PROPERTY && flagHosts.add(type)) {
+            JavacHandlerUtil.injectField(host, CheckGuard.createFlag(node));
+        }
+        ViolationSites sites = null;
+        if (record) {
+            sites = violationSites.get(type);
+            if (sites == null) {
+                sites = new ViolationSites(host);
+                violationSites.put(type, sites);
+            }
+        }
+        return new CheckGuard(mode, sites);
+    }
+
+    /**
+     * Applies the check mode to the parameter checks Lombok generated for the given parameters and adds the element
+     * checks behind them.
+     */
+    private void completeParameterChecks(JavacNode methodNode, Set<String> parameters) {
+        JCMethodDecl method = (JCMethodDecl) methodNode.get();
+        if (method.body == null) {
+            return;
+        }
+        CheckGuard guard = checkGuard(methodNode);
+        for (List<JCStatement> node = method.body.stats; node.nonEmpty() && !parameters.isEmpty(); node = node.tail) {
+            String parameter = handleNonNull.returnVarNameIfNullCheck(node.head);
+            if (parameter == null || !parameters.remove(parameter)) {
+                continue;
+            }
+            JCVariableDecl param = findParameter(method, parameter);
+            node.head = guard.guard(methodNode, node.head, param.name, parameter + " is marked non-null but is null",
+                    parameter, param.pos);
+            ElementCheck elements = elementCheck(methodNode, param.vartype, guard);
+            JCStatement scan = elements == null ? null : elements.scan(methodNode, param.name);
+            if (scan != null) {
+                node.tail = node.tail.prepend(scan);
+                node = node.tail;
+            }
+        }
+    }
+
+    private static JCVariableDecl findParameter(JCMethodDecl method, String parameter) {
+        for (JCVariableDecl param : method.params) {
+            if (param.name.contentEquals(parameter)) {
+                return param;
+            }
+        }
+        throw new IllegalStateException("Unknown parameter: " + parameter);
+    }
+
+    /**
+     * Returns the element check of a declared type if enabled, only {@link CheckMode#ALWAYS} checks the elements.
+     */
+    private ElementCheck elementCheck(JavacNode node, JCExpression type, CheckGuard guard) {
+        NonnullConfiguration config = configuration(node);
+        if (guard.getMode() != CheckMode.ALWAYS || !config.get(CHECK_ELEMENTS, false)) {
+            return null;
+        }
+        return ElementCheck.forType(node, type, config.get(ELEMENT_SCAN_LIMIT, 32));
+    }
+
+    private JavacNode staticHost(JavacNode node) {
+        JavacNode host = JavacHandlerUtil.upToTypeNode(node);
+        while (host != null && !canDeclareStaticMethods(host)) {
+            host = JavacHandlerUtil.upToTypeNode(host.up());
+        }
+        return host;
+    }
+
+    private boolean canDeclareStaticMethods(JavacNode typeNode) {
+        JCClassDecl type = (JCClassDecl) typeNode.get();
+        if ((type.mods.flags & (Flags.INTERFACE | Flags.ANNOTATION)) != 0L || type.name.toString().isEmpty()) {
+            // private static interface methods need Java 9
+            return false;
+        }
+        JavacNode parent = typeNode.up();
+        if (parent.getKind() == COMPILATION_UNIT || (type.mods.flags & (Flags.STATIC | Flags.ENUM)) != 0L) {
+            return true;
+        }
+        // members of interfaces are implicitly static
+        return parent.getKind() == TYPE && (((JCClassDecl) parent.get()).mods.flags & Flags.INTERFACE) != 0L;
+    }
+
+    private static class CodeShapeKey extends ConfigurationKey<CodeShape> {
+
+        public CodeShapeKey(String keyName, String description) {
+            super(keyName, description);
+        }
+    }
+
+    private static class CacheModeKey extends ConfigurationKey<CacheMode> {
+
+        public CacheModeKey(String keyName, String description) {
+            super(keyName, description);
+        }
+    }
+
+    private static class CheckModeKey extends ConfigurationKey<CheckMode> {
+
+        public CheckModeKey(String keyName, String description) {
+            super(keyName, description);
+        }
+    }
+
+    private static class IntegerKey extends ConfigurationKey<Integer> {
+
+        public IntegerKey(String keyName, String description) {
+            super(keyName, description);
+        }
     }
 
     private static class ConfigurationKeyImpl extends ConfigurationKey<Boolean> {
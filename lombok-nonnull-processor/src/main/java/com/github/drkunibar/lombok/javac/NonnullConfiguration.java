@@ -0,0 +1,85 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import lombok.core.configuration.ConfigurationKey;
+import lombok.javac.JavacAST;
+
+/**
+ * The {@code lombok.config} values of a compilation unit.
+ * <p>
+ * Every key is resolved at most once per compilation unit, later reads are served from the snapshot (including keys
+ * without a value).
+ */
+public class NonnullConfiguration {
+
+    private final JavacAST ast;
+    private final Map<ConfigurationKey<?>, Object> values = new HashMap<>();
+
+    public NonnullConfiguration(@Nonnull JavacAST ast) {
+        this.ast = Objects.requireNonNull(ast, "'ast' must not be null");
+    }
+
+    /**
+     * Returns {@code true} if the snapshot belongs to the given compilation unit.
+     *
+     * @param ast
+     *            the compilation unit
+     * @return {@code true} if the snapshot belongs to the compilation unit
+     */
+    public boolean isFor(@Nonnull JavacAST ast) {
+        return this.ast == ast;
+    }
+
+    /**
+     * Returns the value of the given key.
+     *
+     * @param <T>
+     *            the type of the value
+     * @param key
+     *            the key
+     * @return the value or {@code null} if the key is not configured
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(@Nonnull ConfigurationKey<T> key) {
+        Objects.requireNonNull(key, "'key' must not be null");
+        if (values.containsKey(key)) {
+            return (T) values.get(key);
+        }
+        T value = ast.readConfiguration(key);
+        values.put(key, value);
+        return value;
+    }
+
+    /**
+     * Returns the value of the given key.
+     *
+     * @param <T>
+     *            the type of the value
+     * @param key
+     *            the key
+     * @param defaultValue
+     *            the value if the key is not configured
+     * @return the value or the default value if the key is not configured
+     */
+    @Nonnull
+    public <T> T get(@Nonnull ConfigurationKey<T> key, @Nonnull T defaultValue) {
+        T value = get(key);
+        return value == null ? defaultValue : value;
+    }
+}
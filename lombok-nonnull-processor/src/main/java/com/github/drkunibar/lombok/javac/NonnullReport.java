@@ -0,0 +1,312 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac;
+
+import static lombok.core.AST.Kind.FIELD;
+import static lombok.core.AST.Kind.METHOD;
+import static lombok.core.AST.Kind.TYPE;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.processing.Messager;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager;
+import javax.tools.StandardLocation;
+import com.sun.tools.javac.processing.JavacProcessingEnvironment;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.JCTree.JCCompilationUnit;
+import com.sun.tools.javac.util.Context;
+import com.sun.tools.javac.util.Options;
+import lombok.javac.JavacNode;
+
+/**
+ * Collects the cost of the handler per source file and member and writes it as CSV report next to the class output
+ * directory (e.g. {@code target/lombok-nonnull-report-classes.csv}) once the compilation is finished. A summary of
+ * the most expensive files and members is printed as notes of the compilation.
+ */
+public class NonnullReport {
+
+    private static final Context.Key<NonnullReport> KEY = new Context.Key<>();
+    private static final String PREFIX = "[lombok-nonnull] ";
+    private static final int TOP = 10;
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+    private static final String REPORT_PROBE = "lombok-nonnull-report";
+
+    private final Path file;
+    private final Messager messager;
+    private final Map<JCTree, Entry> entries = new IdentityHashMap<>();
+    private final List<Entry> ordered = new ArrayList<>();
+
+    private NonnullReport(Path file, Messager messager) {
+        this.file = file;
+        this.messager = messager;
+    }
+
+    /**
+     * Returns the report of the given compilation. The report is created on first use.
+     *
+     * @param context
+     *            the compiler context
+     * @return the report
+     */
+    @Nonnull
+    public static NonnullReport of(@Nonnull Context context) {
+        Objects.requireNonNull(context, "'context' must not be null");
+        NonnullReport report = context.get(KEY);
+        if (report == null) {
+            report = new NonnullReport(besideClassOutput(context, "lombok-nonnull-report-", ".csv"), messager(context));
+            context.put(KEY, report);
+            CompilationEnd.whenFinished(context, report::write);
+        }
+        return report;
+    }
+
+    /**
+     * Returns the entry of the member the given node belongs to.
+     *
+     * @param node
+     *            a node, e.g. an annotation
+     * @return the entry of the enclosing method, field or type
+     */
+    @Nonnull
+    public Entry entry(@Nonnull JavacNode node) {
+        JavacNode member = node;
+        while (member.getKind() != METHOD && member.getKind() != FIELD && member.getKind() != TYPE
+                && member.up() != null) {
+            member = member.up();
+        }
+        Entry entry = entries.get(member.get());
+        if (entry == null) {
+            entry = new Entry(member);
+            entries.put(member.get(), entry);
+            ordered.add(entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Returns the messager of the annotation processing or {@code null} if the compiler does not provide it. Its notes
+     * are shown by the build tool like the notes of the compiler.
+     */
+    static Messager messager(Context context) {
+        JavacProcessingEnvironment environment = context.get(JavacProcessingEnvironment.class);
+        return environment == null ? null : environment.getMessager();
+    }
+
+    /**
+     * Returns a file next to the class output directory, e.g. {@code target/<prefix>classes<suffix>}.
+     */
+    static Path besideClassOutput(Context context, String prefix, String suffix) {
+        String outputDirectory = Options.instance(context)
+                .get("-d");
+        if (outputDirectory == null) {
+            outputDirectory = classOutput(context);
+        }
+        Path output = Paths.get(outputDirectory == null ? "target/classes" : outputDirectory)
+                .toAbsolutePath();
+        Path parent = output.getParent() == null ? output : output.getParent();
+        return parent.resolve(prefix + output.getFileName() + suffix);
+    }
+
+    private static String classOutput(Context context) {
+        // the compiler API passes -d to the file manager only
+        JavaFileManager fileManager = context.get(JavaFileManager.class);
+        if (fileManager == null) {
+            return null;
+        }
+        try {
+            FileObject file = fileManager.getFileForOutput(StandardLocation.CLASS_OUTPUT, "", REPORT_PROBE, null);
+            if (file == null || !"file".equals(file.toUri()
+                    .getScheme())) {
+                return null;
+            }
+            return Paths.get(file.toUri())
+                    .getParent()
+                    .toString();
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private synchronized void write() {
+        try {
+            Files.createDirectories(file.getParent());
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                out.write("file,type,member,nanos,statementsVisited,returnSites,parameterChecks,warnings,"
+                        + "bytecodeBefore,bytecodeAfter,inliningThreshold,analysisCached");
+                out.newLine();
+                for (Entry entry : ordered) {
+                    out.write(entry.toCsv());
+                    out.newLine();
+                }
+            }
+        } catch (IOException e) {
+            note("cannot write the report " + file + ": " + e);
+        }
+        printSummary();
+    }
+
+    private void printSummary() {
+        Map<String, Long> files = new LinkedHashMap<>();
+        long nanos = 0;
+        long returnSites = 0;
+        long parameterChecks = 0;
+        long warnings = 0;
+        for (Entry entry : ordered) {
+            files.merge(entry.file, entry.nanos, Long::sum);
+            nanos += entry.nanos;
+            returnSites += entry.returnSites;
+            parameterChecks += entry.parameterChecks;
+            warnings += entry.warnings;
+        }
+        note(ordered.size() + " members in " + files.size() + " files: " + millis(nanos) + ", " + returnSites
+                + " return sites, " + parameterChecks + " parameter checks, " + warnings + " warnings");
+        note("slowest files:");
+        files.entrySet()
+                .stream()
+                .sorted(Map.Entry.<String, Long> comparingByValue()
+                        .reversed())
+                .limit(TOP)
+                .forEach(e -> note("    " + millis(e.getValue()) + "  " + e.getKey()));
+        note("slowest members:");
+        ordered.stream()
+                .sorted(Comparator.comparingLong((Entry e) -> e.nanos)
+                        .reversed())
+                .limit(TOP)
+                .forEach(e -> note("    " + millis(e.nanos) + "  " + e.type + "#" + e.member + " ("
+                        + e.returnSites + " return sites)"));
+        List<Entry> inlining = new ArrayList<>();
+        for (Entry entry : ordered) {
+            if (entry.inliningThreshold != null) {
+                inlining.add(entry);
+            }
+        }
+        if (!inlining.isEmpty()) {
+            note(inlining.size() + " methods grown past an inlining threshold:");
+            inlining.stream()
+                    .limit(TOP)
+                    .forEach(e -> note("    " + e.bytecodeBefore + " -> " + e.bytecodeAfter + " bytes, "
+                            + e.inliningThreshold + "  " + e.type + "#" + e.member));
+        }
+        note("report: " + file);
+    }
+
+    private void note(String message) {
+        if (messager != null) {
+            messager.printMessage(Diagnostic.Kind.NOTE, PREFIX + message);
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3f ms", nanos / NANOS_PER_MILLI);
+    }
+
+    /**
+     * The statistics of a single method, field or type.
+     */
+    public static class Entry {
+
+        private final String file;
+        private final String type;
+        private final String member;
+        private long nanos;
+        private long statementsVisited;
+        private long returnSites;
+        private long parameterChecks;
+        private long warnings;
+        private int bytecodeBefore;
+        private int bytecodeAfter;
+        private String inliningThreshold;
+        private boolean analysisCached;
+
+        Entry(JavacNode member) {
+            JCCompilationUnit compilationUnit = (JCCompilationUnit) member.top()
+                    .get();
+            this.file = compilationUnit.sourcefile == null ? "" : compilationUnit.sourcefile.getName();
+            JavacNode type = member.getKind() == TYPE ? member : member.up();
+            this.type = type == null ? "" : type.getName();
+            this.member = member.getKind() == TYPE ? "" : member.getName();
+        }
+
+        public void addNanos(long nanos) {
+            this.nanos += nanos;
+        }
+
+        public void addStatementsVisited(long statements) {
+            this.statementsVisited += statements;
+        }
+
+        public void addReturnSites(long returnSites) {
+            this.returnSites += returnSites;
+        }
+
+        public void addParameterCheck() {
+            this.parameterChecks++;
+        }
+
+        public void addWarning() {
+            this.warnings++;
+        }
+
+        /**
+         * Records that the analysis of the method was taken from the {@link HandleNonnull#CACHE}.
+         */
+        public void setAnalysisCached() {
+            this.analysisCached = true;
+        }
+
+        /**
+         * Records the estimated bytecode size of the method.
+         *
+         * @param before
+         *            the size without the checks
+         * @param after
+         *            the size with the checks
+         * @param threshold
+         *            the inlining threshold exceeded because of the checks or {@code null}
+         */
+        public void addBytecodeSize(int before, int after, String threshold) {
+            this.bytecodeBefore = before;
+            this.bytecodeAfter = after;
+            this.inliningThreshold = threshold;
+        }
+
+        String toCsv() {
+            return String.join(",", csv(file), csv(type), csv(member), String.valueOf(nanos),
+                    String.valueOf(statementsVisited), String.valueOf(returnSites), String.valueOf(parameterChecks),
+                    String.valueOf(warnings), String.valueOf(bytecodeBefore), String.valueOf(bytecodeAfter),
+                    inliningThreshold == null ? "" : inliningThreshold, analysisCached ? "1" : "0");
+        }
+
+        private static String csv(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
@@ -0,0 +1,363 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.codeprocessor;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import javax.annotation.processing.Messager;
+import javax.tools.Diagnostic;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.JCTree.JCCompilationUnit;
+import com.sun.tools.javac.tree.JCTree.JCMethodDecl;
+import com.sun.tools.javac.tree.JCTree.JCReturn;
+import lombok.javac.handlers.JavacHandlerUtil;
+
+/**
+ * Caches the {@link MethodAnalysis} of methods by a fingerprint of the source file content, the position and name of
+ * the method and the parts analyzed. The file content is hashed once per compilation unit, so a cache hit does not
+ * print or hash the method. Methods generated by lombok depend on the configuration as well, they are fingerprinted by
+ * their printed source (signature and body). The return paths are kept as positions in
+ * {@link ReturnScanner#statements(JCTree)}, they are resolved against the trees of the current compilation.
+ * <p>
+ * The analyses are kept in a least recently used map shared by all compilations of the JVM. With a file the analyses
+ * used by a compilation are written at its end and read by the next compilation, e.g. of another JVM.
+ */
+public class AnalysisCache {
+
+    /**
+     * Part of every fingerprint and the first line of the file, increment it when the analysis changes its results.
+     */
+    private static final String FORMAT = "lombok-nonnull-analysis-4";
+    private static final String PREFIX = "[lombok-nonnull] ";
+    private static final Map<String, Entry> ENTRIES = new LinkedHashMap<String, Entry>(256, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+    private static int maxEntries = 10_000;
+
+    private final Path file;
+    private final Messager messager;
+    private final Map<JCCompilationUnit, String> sourceHashes = new WeakHashMap<>();
+    private final Set<String> used = new LinkedHashSet<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    /**
+     * Creates the cache of a compilation and reads the file if it exists.
+     *
+     * @param maxEntries
+     *            the number of analyses kept in memory, shared by all compilations of the JVM
+     * @param file
+     *            the file of the analyses or {@code null} to keep them in memory only
+     * @param messager
+     *            prints the notes about an unreadable or unwritable file, {@code null} to print nothing
+     */
+    public AnalysisCache(int maxEntries, Path file, Messager messager) {
+        this.file = file;
+        this.messager = messager;
+        synchronized (ENTRIES) {
+            AnalysisCache.maxEntries = Math.max(maxEntries, 1);
+            if (file != null) {
+                read(file);
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if the analyses are written to a file.
+     */
+    public boolean hasFile() {
+        return file != null;
+    }
+
+    /**
+     * Returns the cached analysis of the method or analyzes it, see
+     * {@link MethodAnalysis#analyze(JCMethodDecl, boolean, boolean)}. Can be called concurrently.
+     */
+    @Nonnull
+    public MethodAnalysis analyze(@Nonnull JCCompilationUnit unit, @Nonnull JCMethodDecl method,
+            boolean findReturnPaths, boolean estimateSize) {
+        Objects.requireNonNull(unit, "'unit' must not be null");
+        Objects.requireNonNull(method, "'method' must not be null");
+        long start = System.nanoTime();
+        String fingerprint = fingerprint(unit, method, findReturnPaths, estimateSize);
+        Entry entry;
+        synchronized (ENTRIES) {
+            entry = ENTRIES.get(fingerprint);
+            used.add(fingerprint);
+        }
+        List<JCTree> statements = findReturnPaths && method.body != null ? ReturnScanner.statements(method.body)
+                : Collections.<JCTree> emptyList();
+        Set<JCTree> returnPaths = entry != null ? entry.resolve(statements) : null;
+        if (returnPaths != null) {
+            hits.incrementAndGet();
+            return MethodAnalysis.of(returnPaths, entry.sizeBefore, System.nanoTime() - start, true);
+        }
+        MethodAnalysis analysis = MethodAnalysis.analyze(method, findReturnPaths, estimateSize);
+        Entry created = new Entry(analysis.getSizeBefore(), Entry.positions(statements, analysis.getReturnPaths()));
+        synchronized (ENTRIES) {
+            ENTRIES.put(fingerprint, created);
+        }
+        misses.incrementAndGet();
+        return MethodAnalysis.of(analysis.getReturnPaths(), analysis.getSizeBefore(), System.nanoTime() - start,
+                false);
+    }
+
+    /**
+     * Returns the number of analyses taken from the cache.
+     */
+    public int getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of methods analyzed because they were not cached.
+     */
+    public int getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Writes the analyses used by this compilation to the file, see {@link #AnalysisCache(int, Path, Messager)}. The
+     * analyses of the file which were not used, e.g. of the sources not compiled by an incremental build, are kept. The
+     * file holds at most the number of analyses kept in memory, the least recently used analyses are dropped.
+     */
+    public void write() {
+        if (file == null) {
+            return;
+        }
+        Map<String, String> lines;
+        synchronized (ENTRIES) {
+            // least recently used first
+            lines = readLines(file);
+            for (String fingerprint : used) {
+                Entry entry = ENTRIES.get(fingerprint);
+                if (entry != null) {
+                    lines.remove(fingerprint);
+                    lines.put(fingerprint, entry.toString());
+                }
+            }
+            Iterator<String> eldest = lines.keySet()
+                    .iterator();
+            for (int size = lines.size(); size > maxEntries; size--) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            try (BufferedWriter out = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                out.write(FORMAT);
+                out.newLine();
+                for (Map.Entry<String, String> line : lines.entrySet()) {
+                    out.write(line.getKey() + " " + line.getValue());
+                    out.newLine();
+                }
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            note("cannot write the analysis cache " + file + ": " + e);
+        }
+    }
+
+    private void read(Path file) {
+        for (Map.Entry<String, String> line : readLines(file).entrySet()) {
+            if (!ENTRIES.containsKey(line.getKey())) {
+                String[] columns = line.getValue()
+                        .split(" ");
+                ENTRIES.put(line.getKey(), Entry.parse(columns[0], columns[1]));
+            }
+        }
+    }
+
+    /**
+     * Returns the analyses of the file by fingerprint in the order of the file, empty if the file does not exist or
+     * was written by another version.
+     */
+    private Map<String, String> readLines(Path file) {
+        Map<String, String> lines = new LinkedHashMap<>();
+        if (!Files.isRegularFile(file)) {
+            return lines;
+        }
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (!FORMAT.equals(in.readLine())) {
+                // written by another version, the analyses are repeated
+                return lines;
+            }
+            for (String line = in.readLine(); line != null; line = in.readLine()) {
+                String[] columns = line.split(" ");
+                if (columns.length == 3) {
+                    // validates the columns
+                    Entry.parse(columns[1], columns[2]);
+                    lines.put(columns[0], columns[1] + " " + columns[2]);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            note("cannot read the analysis cache " + file + ": " + e);
+            lines.clear();
+        }
+        return lines;
+    }
+
+    private void note(String message) {
+        if (messager != null) {
+            messager.printMessage(Diagnostic.Kind.NOTE, PREFIX + message);
+        }
+    }
+
+    private String fingerprint(JCCompilationUnit unit, JCMethodDecl method, boolean findReturnPaths,
+            boolean estimateSize) {
+        String sourceHash = JavacHandlerUtil.isGenerated(method) ? null : sourceHash(unit);
+        if (sourceHash == null) {
+            // modifiers, annotations, signature and body
+            return sha256(FORMAT + ":" + findReturnPaths + ":" + estimateSize + ":" + method);
+        }
+        int end = method.body != null ? method.body.endpos : -1;
+        return sourceHash + ":" + findReturnPaths + ":" + estimateSize + ":" + method.pos + ":" + end + ":"
+                + method.name + ":" + method.params.size();
+    }
+
+    /**
+     * Returns the hash of the source file content or {@code null} if it cannot be read.
+     */
+    private String sourceHash(JCCompilationUnit unit) {
+        synchronized (sourceHashes) {
+            String hash = sourceHashes.get(unit);
+            if (hash == null && !sourceHashes.containsKey(unit)) {
+                try {
+                    hash = unit.sourcefile == null ? null
+                            : sha256(unit.sourcefile.getCharContent(true)
+                                    .toString());
+                } catch (IOException e) {
+                    hash = null;
+                }
+                sourceHashes.put(unit, hash);
+            }
+            return hash;
+        }
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required by every Java platform", e);
+        }
+    }
+
+    /**
+     * The cached parts of an analysis.
+     */
+    private static final class Entry {
+
+        private final int sizeBefore;
+        private final int[] returnPaths;
+
+        Entry(int sizeBefore, int[] returnPaths) {
+            this.sizeBefore = sizeBefore;
+            this.returnPaths = returnPaths;
+        }
+
+        static int[] positions(List<JCTree> statements, Set<JCTree> returnPaths) {
+            int[] positions = new int[returnPaths.size()];
+            int count = 0;
+            for (int i = 0; i < statements.size() && count < positions.length; i++) {
+                if (returnPaths.contains(statements.get(i))) {
+                    positions[count++] = i;
+                }
+            }
+            return positions;
+        }
+
+        static Entry parse(String sizeBefore, String returnPaths) {
+            String[] positions = returnPaths.equals("-") ? new String[0] : returnPaths.split(",");
+            int[] parsed = new int[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                parsed[i] = Integer.parseInt(positions[i]);
+            }
+            return new Entry(Integer.parseInt(sizeBefore), parsed);
+        }
+
+        /**
+         * Returns the return paths in the given statements or {@code null} if they do not fit, e.g. after a
+         * collision of the fingerprints.
+         */
+        Set<JCTree> resolve(List<JCTree> statements) {
+            Set<JCTree> resolved = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (int position : returnPaths) {
+                if (position < 0 || position >= statements.size()) {
+                    return null;
+                }
+                resolved.add(statements.get(position));
+            }
+            for (JCTree statement : statements) {
+                if (statement instanceof JCReturn && !resolved.contains(statement)) {
+                    return null;
+                }
+            }
+            return resolved;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder().append(sizeBefore)
+                    .append(' ');
+            if (returnPaths.length == 0) {
+                return out.append('-')
+                        .toString();
+            }
+            for (int i = 0; i < returnPaths.length; i++) {
+                out.append(i == 0 ? "" : ",")
+                        .append(returnPaths[i]);
+            }
+            return out.toString();
+        }
+    }
+}
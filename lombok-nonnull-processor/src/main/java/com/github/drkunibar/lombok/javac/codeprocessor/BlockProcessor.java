@@ -13,37 +13,23 @@
  */
 package com.github.drkunibar.lombok.javac.codeprocessor;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.Objects;
-import javax.annotation.Nonnull;
+import java.util.EnumSet;
+import java.util.Set;
 import org.kohsuke.MetaInfServices;
+import com.sun.source.tree.Tree;
 import com.sun.tools.javac.tree.JCTree.JCBlock;
-import com.sun.tools.javac.tree.JCTree.JCExpression;
-import com.sun.tools.javac.tree.JCTree.JCStatement;
-import com.sun.tools.javac.util.List;
-import lombok.javac.JavacNode;
 
 @MetaInfServices(Processor.class)
-public class BlockProcessor extends CodeProcessor implements Processor<JCBlock> {
+public class BlockProcessor implements Processor<JCBlock> {
 
     @Override
-    public Collection<JCStatement> process(@Nonnull JCBlock code, @Nonnull JavacNode annotationNode,
-            @Nonnull JCExpression returnType) {
-        Objects.requireNonNull(code, "'code' must not be null");
-        Objects.requireNonNull(annotationNode, "'annotationNode' must not be null");
-        Objects.requireNonNull(returnType, "'returnType' must not be null");
-        Collection<JCStatement> stmts = new ArrayList<>(code.stats);
-        Collection<JCStatement> processedStmts = parse(stmts, annotationNode, returnType);
-        List<JCStatement> from = List.from(processedStmts.toArray(new JCStatement[0]));
-        code.stats = from;
-        return Collections.singleton(code);
+    public void process(JCBlock code, CodeProcessor codeProcessor) {
+        codeProcessor.parse(code.stats);
     }
 
     @Override
-    public Class<JCBlock> getSupportedType() {
-        return JCBlock.class;
+    public Set<Tree.Kind> getSupportedKinds() {
+        return EnumSet.of(Tree.Kind.BLOCK);
     }
 
 }
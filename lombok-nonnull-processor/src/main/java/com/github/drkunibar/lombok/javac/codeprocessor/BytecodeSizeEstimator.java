@@ -0,0 +1,619 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.codeprocessor;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.JCTree.JCArrayAccess;
+import com.sun.tools.javac.tree.JCTree.JCAssign;
+import com.sun.tools.javac.tree.JCTree.JCAssignOp;
+import com.sun.tools.javac.tree.JCTree.JCBinary;
+import com.sun.tools.javac.tree.JCTree.JCBreak;
+import com.sun.tools.javac.tree.JCTree.JCCase;
+import com.sun.tools.javac.tree.JCTree.JCCatch;
+import com.sun.tools.javac.tree.JCTree.JCClassDecl;
+import com.sun.tools.javac.tree.JCTree.JCConditional;
+import com.sun.tools.javac.tree.JCTree.JCContinue;
+import com.sun.tools.javac.tree.JCTree.JCDoWhileLoop;
+import com.sun.tools.javac.tree.JCTree.JCEnhancedForLoop;
+import com.sun.tools.javac.tree.JCTree.JCFieldAccess;
+import com.sun.tools.javac.tree.JCTree.JCForLoop;
+import com.sun.tools.javac.tree.JCTree.JCIdent;
+import com.sun.tools.javac.tree.JCTree.JCIf;
+import com.sun.tools.javac.tree.JCTree.JCInstanceOf;
+import com.sun.tools.javac.tree.JCTree.JCLiteral;
+import com.sun.tools.javac.tree.JCTree.JCMethodDecl;
+import com.sun.tools.javac.tree.JCTree.JCMethodInvocation;
+import com.sun.tools.javac.tree.JCTree.JCNewArray;
+import com.sun.tools.javac.tree.JCTree.JCNewClass;
+import com.sun.tools.javac.tree.JCTree.JCParens;
+import com.sun.tools.javac.tree.JCTree.JCPrimitiveTypeTree;
+import com.sun.tools.javac.tree.JCTree.JCReturn;
+import com.sun.tools.javac.tree.JCTree.JCSwitch;
+import com.sun.tools.javac.tree.JCTree.JCSynchronized;
+import com.sun.tools.javac.tree.JCTree.JCThrow;
+import com.sun.tools.javac.tree.JCTree.JCTry;
+import com.sun.tools.javac.tree.JCTree.JCTypeCast;
+import com.sun.tools.javac.tree.JCTree.JCUnary;
+import com.sun.tools.javac.tree.JCTree.JCVariableDecl;
+import com.sun.tools.javac.tree.JCTree.JCWhileLoop;
+import com.sun.tools.javac.tree.TreeScanner;
+import com.sun.tools.javac.util.Name;
+
+/**
+ * Estimates the bytecode size of a method from its syntax tree, e.g. to compare it with the inlining thresholds of
+ * the JIT compiler ({@code -XX:MaxInlineSize}, {@code -XX:FreqInlineSize}).
+ * <p>
+ * The tree is not attributed, so the estimate assumes the usual instruction for every node: names which are not
+ * parameters or local variables are fields, method calls are {@code invokevirtual}, string concatenation is
+ * {@code invokedynamic} and so on. Lambda bodies and local classes are compiled to own methods and not counted.
+ */
+public class BytecodeSizeEstimator extends TreeScanner {
+
+    private static final int SHORT_LOCAL_SLOTS = 4;
+
+    /**
+     * {@code JCCase.getExpressions()} since Java 12, a case may have several labels. Before, the only label is read by
+     * {@code getExpression()}, which is deprecated since.
+     */
+    private static final Method CASE_LABELS = caseLabels();
+
+    private final Map<Name, Integer> locals = new HashMap<>();
+    private int nextSlot;
+    private int size;
+    private JCTree condition;
+
+    private BytecodeSizeEstimator() {
+    }
+
+    /**
+     * Estimates the size of the code of the given method.
+     *
+     * @param method
+     *            the method
+     * @return the estimated number of bytes, {@code 0} without a body
+     */
+    public static int estimate(@Nonnull JCMethodDecl method) {
+        Objects.requireNonNull(method, "'method' must not be null");
+        if (method.body == null) {
+            return 0;
+        }
+        BytecodeSizeEstimator estimator = new BytecodeSizeEstimator();
+        estimator.nextSlot = (method.mods.flags & Flags.STATIC) != 0L ? 0 : 1;
+        for (JCVariableDecl parameter : method.params) {
+            estimator.declare(parameter);
+        }
+        estimator.scan(method.body);
+        if (method.restype == null || "void".equals(method.restype.toString())) {
+            // the implicit return at the end
+            estimator.size++;
+        }
+        return estimator.size;
+    }
+
+    @Override
+    public void scan(JCTree tree) {
+        if (tree == null || tree instanceof JCClassDecl) {
+            return;
+        }
+        String kind = tree.getKind()
+                .name();
+        if (kind.equals("LAMBDA_EXPRESSION") || kind.equals("MEMBER_REFERENCE")) {
+            // invokedynamic
+            size += 5;
+            return;
+        }
+        super.scan(tree);
+    }
+
+    @Override
+    public void visitVarDef(JCVariableDecl tree) {
+        declare(tree);
+        if (tree.init != null) {
+            scan(tree.init);
+            size += store(tree.name);
+        }
+    }
+
+    @Override
+    public void visitIdent(JCIdent tree) {
+        if (locals.containsKey(tree.name) || tree.name.toString()
+                .equals("this")) {
+            size += load(tree.name);
+        } else {
+            // aload_0 + getfield
+            size += 4;
+        }
+    }
+
+    @Override
+    public void visitLiteral(JCLiteral tree) {
+        size += literal(tree);
+    }
+
+    @Override
+    public void visitSelect(JCFieldAccess tree) {
+        String name = tree.name.toString();
+        if (name.equals("class")) {
+            size += 2;
+        } else if (isTypeName(tree.selected)) {
+            // getstatic, Outer.this
+            size += 3;
+        } else {
+            scan(tree.selected);
+            size += 3;
+        }
+    }
+
+    @Override
+    public void visitApply(JCMethodInvocation tree) {
+        if (tree.meth instanceof JCFieldAccess) {
+            JCFieldAccess select = (JCFieldAccess) tree.meth;
+            if (!isTypeName(select.selected)) {
+                scan(select.selected);
+            }
+        } else {
+            // the implicit 'this'
+            size += 1;
+        }
+        scan(tree.args);
+        size += 3;
+        String method = tree.meth.toString();
+        if (method.endsWith("requireNonNull") || method.equals(CodeProcessor.HELPER_NAME)) {
+            // the generic result needs a checkcast
+            size += 3;
+        }
+    }
+
+    @Override
+    public void visitNewClass(JCNewClass tree) {
+        scan(tree.encl);
+        scan(tree.args);
+        // new + dup + invokespecial
+        size += 7;
+    }
+
+    @Override
+    public void visitNewArray(JCNewArray tree) {
+        scan(tree.dims);
+        if (tree.elems != null) {
+            size += 2;
+            for (JCTree element : tree.elems) {
+                // dup + index + store
+                scan(element);
+                size += 3;
+            }
+        }
+        size += 3;
+    }
+
+    @Override
+    public void visitAssign(JCAssign tree) {
+        scan(tree.rhs);
+        if (tree.lhs instanceof JCIdent && locals.containsKey(((JCIdent) tree.lhs).name)) {
+            size += store(((JCIdent) tree.lhs).name);
+        } else if (tree.lhs instanceof JCArrayAccess) {
+            // array + index + store
+            scan(((JCArrayAccess) tree.lhs).indexed);
+            scan(((JCArrayAccess) tree.lhs).index);
+            size += 1;
+        } else {
+            // the object (or aload_0) + putfield
+            JCTree object = tree.lhs instanceof JCFieldAccess ? ((JCFieldAccess) tree.lhs).selected : null;
+            if (object != null && !isTypeName(object)) {
+                scan(object);
+            } else {
+                size += 1;
+            }
+            size += 3;
+        }
+    }
+
+    @Override
+    public void visitAssignop(JCAssignOp tree) {
+        if (tree.lhs instanceof JCIdent && locals.containsKey(((JCIdent) tree.lhs).name)) {
+            // iinc or load + operation + store
+            scan(tree.rhs);
+            size += 3;
+        } else {
+            scan(tree.lhs);
+            scan(tree.rhs);
+            size += 6;
+        }
+    }
+
+    @Override
+    public void visitUnary(JCUnary tree) {
+        String kind = tree.getKind()
+                .name();
+        if (kind.endsWith("INCREMENT") || kind.endsWith("DECREMENT")) {
+            boolean local = tree.arg instanceof JCIdent && locals.containsKey(((JCIdent) tree.arg).name);
+            // iinc or getfield, dup, const, operation, putfield
+            size += local ? 4 : 10;
+            return;
+        }
+        if (kind.equals("LOGICAL_COMPLEMENT")) {
+            // inverts the jump of the operand
+            scanCondition(tree.arg);
+            size += branch(tree.arg) + value(tree);
+            return;
+        }
+        scan(tree.arg);
+        size += 1;
+    }
+
+    @Override
+    public void visitBinary(JCBinary tree) {
+        String kind = tree.getKind()
+                .name();
+        if (kind.equals("CONDITIONAL_AND") || kind.equals("CONDITIONAL_OR")) {
+            // the jumps of the operands
+            scanCondition(tree.lhs);
+            scanCondition(tree.rhs);
+            size += branch(tree.lhs) + branch(tree.rhs) + value(tree);
+        } else if (isBranch(tree)) {
+            scan(tree.lhs);
+            scan(tree.rhs);
+            // the conditional jump, ifnull/ifnonnull need no constant
+            size += (isNullLiteral(tree.lhs) || isNullLiteral(tree.rhs) ? 2 : 3) + value(tree);
+        } else if (kind.equals("PLUS") && isString(tree)) {
+            // one invokedynamic for the whole concatenation, the literals are part of its recipe
+            for (JCTree operand : concatenated(tree, new ArrayList<JCTree>())) {
+                if (!(operand instanceof JCLiteral)) {
+                    scan(operand);
+                }
+            }
+            size += 5;
+        } else {
+            scan(tree.lhs);
+            scan(tree.rhs);
+            size += 1;
+        }
+    }
+
+    @Override
+    public void visitTypeCast(JCTypeCast tree) {
+        scan(tree.expr);
+        size += tree.clazz instanceof JCPrimitiveTypeTree ? 1 : 3;
+    }
+
+    @Override
+    public void visitTypeTest(JCInstanceOf tree) {
+        scan(tree.expr);
+        size += 3;
+    }
+
+    @Override
+    public void visitIndexed(JCArrayAccess tree) {
+        super.visitIndexed(tree);
+        size += 1;
+    }
+
+    @Override
+    public void visitConditional(JCConditional tree) {
+        scanCondition(tree.cond);
+        scan(tree.truepart);
+        scan(tree.falsepart);
+        // branch + goto
+        size += branch(tree.cond) + 3;
+    }
+
+    @Override
+    public void visitIf(JCIf tree) {
+        scanCondition(tree.cond);
+        scan(tree.thenpart);
+        scan(tree.elsepart);
+        size += branch(tree.cond) + (tree.elsepart == null ? 0 : 3);
+    }
+
+    @Override
+    public void visitWhileLoop(JCWhileLoop tree) {
+        scanCondition(tree.cond);
+        scan(tree.body);
+        size += branch(tree.cond) + 3;
+    }
+
+    @Override
+    public void visitDoLoop(JCDoWhileLoop tree) {
+        scan(tree.body);
+        scanCondition(tree.cond);
+        size += branch(tree.cond);
+    }
+
+    @Override
+    public void visitForLoop(JCForLoop tree) {
+        scan(tree.init);
+        if (tree.cond != null) {
+            scanCondition(tree.cond);
+        }
+        scan(tree.step);
+        scan(tree.body);
+        size += (tree.cond == null ? 0 : branch(tree.cond)) + 3;
+    }
+
+    @Override
+    public void visitForeachLoop(JCEnhancedForLoop tree) {
+        declare(tree.var);
+        scan(tree.expr);
+        // the hidden iterator (or array, length and index) takes the next slots
+        nextSlot += 3;
+        scan(tree.body);
+        // iterator(), hasNext(), next() of an interface, checkcast, stores, loads and branches
+        size += 28;
+    }
+
+    @Override
+    public void visitSwitch(JCSwitch tree) {
+        scan(tree.selector);
+        // the opcode, aligned to four bytes, then the default offset
+        int start = size;
+        size += 1 + (3 - start % 4) + 4;
+        List<Integer> keys = new ArrayList<>();
+        boolean constant = true;
+        int entries = 0;
+        for (JCCase switchCase : tree.cases) {
+            List<JCTree> labels = labels(switchCase);
+            for (JCTree key : labels) {
+                if (key instanceof JCLiteral && ((JCLiteral) key).value instanceof Number) {
+                    keys.add(((Number) ((JCLiteral) key).value).intValue());
+                } else {
+                    constant = false;
+                }
+            }
+            // default has no label
+            entries += Math.max(1, labels.size());
+            scan(switchCase.stats);
+        }
+        size += constant ? switchTable(keys) : 4 + 8 * entries;
+    }
+
+    private static Method caseLabels() {
+        try {
+            return JCCase.class.getMethod("getExpressions");
+        } catch (NoSuchMethodException e) {
+            try {
+                return JCCase.class.getMethod("getExpression");
+            } catch (NoSuchMethodException e1) {
+                throw new IllegalStateException("the labels of a case are not accessible", e1);
+            }
+        }
+    }
+
+    /**
+     * Returns the expressions of the labels of a case, none for {@code default}.
+     */
+    private static List<JCTree> labels(JCCase switchCase) {
+        Object labels;
+        try {
+            labels = CASE_LABELS.invoke(switchCase);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("the labels of a case are not accessible", e);
+        }
+        List<JCTree> result = new ArrayList<>();
+        if (labels instanceof Iterable) {
+            for (Object label : (Iterable<?>) labels) {
+                result.add((JCTree) label);
+            }
+        } else if (labels != null) {
+            result.add((JCTree) labels);
+        }
+        return result;
+    }
+
+    @Override
+    public void visitTry(JCTry tree) {
+        scan(tree.body);
+        for (JCCatch catcher : tree.catchers) {
+            declare(catcher.param);
+            scan(catcher.body);
+            // store of the exception + goto
+            size += 4;
+        }
+        if (tree.finalizer != null) {
+            int finalizerStart = size;
+            scan(tree.finalizer);
+            int finalizer = size - finalizerStart;
+            // the finally block is copied to every exit, plus the handler for other exceptions
+            size += finalizer * (tree.catchers.size() + 1) + 4;
+        }
+        size += 3;
+    }
+
+    @Override
+    public void visitSynchronized(JCSynchronized tree) {
+        super.visitSynchronized(tree);
+        // monitorenter, monitorexit and the handler
+        size += 14;
+    }
+
+    @Override
+    public void visitReturn(JCReturn tree) {
+        super.visitReturn(tree);
+        size += 1;
+    }
+
+    @Override
+    public void visitThrow(JCThrow tree) {
+        super.visitThrow(tree);
+        size += 1;
+    }
+
+    @Override
+    public void visitBreak(JCBreak tree) {
+        size += 3;
+    }
+
+    @Override
+    public void visitContinue(JCContinue tree) {
+        size += 3;
+    }
+
+    /**
+     * Scans the condition of a jump, it needs no boolean value.
+     */
+    private void scanCondition(JCTree tree) {
+        JCTree outer = condition;
+        condition = skipParens(tree);
+        scan(tree);
+        condition = outer;
+    }
+
+    /**
+     * Returns the size of {@code iconst_1, goto, iconst_0} if the jump of the given tree produces a boolean value.
+     */
+    private int value(JCTree tree) {
+        return tree == condition ? 0 : 5;
+    }
+
+    /**
+     * Returns the size of the table of a switch with the given constant keys without the default offset, javac picks
+     * the smaller of {@code tableswitch} and {@code lookupswitch} by the same costs.
+     */
+    private static int switchTable(List<Integer> keys) {
+        if (keys.isEmpty()) {
+            return 4;
+        }
+        long low = Collections.min(keys);
+        long high = Collections.max(keys);
+        long tableCost = 4 + (high - low + 1) + 3 * 3;
+        long lookupCost = 3 + 2L * keys.size() + 3L * keys.size();
+        return tableCost <= lookupCost ? (int) (8 + 4 * (high - low + 1)) : 4 + 8 * keys.size();
+    }
+
+    /**
+     * Collects the operands of a string concatenation, the nested concatenations are compiled to one.
+     */
+    private static List<JCTree> concatenated(JCTree tree, List<JCTree> operands) {
+        JCTree current = skipParens(tree);
+        if (current instanceof JCBinary && current.getKind()
+                .name()
+                .equals("PLUS") && isString(current)) {
+            concatenated(((JCBinary) current).lhs, operands);
+            concatenated(((JCBinary) current).rhs, operands);
+        } else {
+            operands.add(tree);
+        }
+        return operands;
+    }
+
+    private static JCTree skipParens(JCTree tree) {
+        JCTree current = tree;
+        while (current instanceof JCParens) {
+            current = ((JCParens) current).expr;
+        }
+        return current;
+    }
+
+    /**
+     * Returns the size of the jump of a condition, comparisons already contain it.
+     */
+    private static int branch(JCTree condition) {
+        return isBranch(condition) ? 0 : 3;
+    }
+
+    private static boolean isBranch(JCTree tree) {
+        switch (skipParens(tree).getKind()
+                .name()) {
+        case "EQUAL_TO":
+        case "NOT_EQUAL_TO":
+        case "LESS_THAN":
+        case "LESS_THAN_EQUAL":
+        case "GREATER_THAN":
+        case "GREATER_THAN_EQUAL":
+        case "CONDITIONAL_AND":
+        case "CONDITIONAL_OR":
+        case "LOGICAL_COMPLEMENT":
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private static boolean isNullLiteral(JCTree tree) {
+        return tree.getKind()
+                .name()
+                .equals("NULL_LITERAL");
+    }
+
+    private void declare(JCVariableDecl variable) {
+        locals.put(variable.name, nextSlot);
+        String type = variable.vartype == null ? "" : variable.vartype.toString();
+        nextSlot += type.equals("long") || type.equals("double") ? 2 : 1;
+    }
+
+    private int load(Name name) {
+        Integer slot = locals.get(name);
+        return slot == null || slot < SHORT_LOCAL_SLOTS ? 1 : 2;
+    }
+
+    private int store(Name name) {
+        return load(name);
+    }
+
+    private boolean isTypeName(JCTree tree) {
+        if (tree instanceof JCFieldAccess) {
+            return isTypeName(((JCFieldAccess) tree).selected);
+        }
+        if (!(tree instanceof JCIdent)) {
+            return false;
+        }
+        Name name = ((JCIdent) tree).name;
+        return !locals.containsKey(name) && Character.isUpperCase(name.toString()
+                .charAt(0));
+    }
+
+    private static boolean isString(JCTree tree) {
+        String kind = tree.getKind()
+                .name();
+        if (kind.equals("STRING_LITERAL")) {
+            return true;
+        }
+        return kind.equals("PLUS") && (isString(((JCBinary) tree).lhs) || isString(((JCBinary) tree).rhs));
+    }
+
+    private static int literal(JCLiteral tree) {
+        Object value = tree.value;
+        if (!(value instanceof Number)) {
+            // null, string or a char/boolean of newer compilers
+            return value instanceof String ? 2 : 1;
+        }
+        switch (tree.getKind()
+                .name()) {
+        case "BOOLEAN_LITERAL":
+            return 1;
+        case "LONG_LITERAL":
+        case "DOUBLE_LITERAL":
+            // lconst/dconst or ldc2_w
+            long wide = ((Number) value).longValue();
+            return (wide == 0 || wide == 1) && ((Number) value).doubleValue() == wide ? 1 : 3;
+        case "FLOAT_LITERAL":
+            float real = ((Number) value).floatValue();
+            return real == 0f || real == 1f || real == 2f ? 1 : 2;
+        default:
+            int number = ((Number) value).intValue();
+            if (number >= -1 && number <= 5) {
+                return 1;
+            }
+            return number >= Byte.MIN_VALUE && number <= Byte.MAX_VALUE ? 2 : 3;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.codeprocessor;
+
+/**
+ * Where the {@link MethodAnalysis} of unchanged methods is kept between compilations, see {@link AnalysisCache}.
+ */
+public enum CacheMode {
+
+    /**
+     * Every compilation analyzes all methods.
+     */
+    NONE,
+
+    /**
+     * The analyses are kept in the memory of the compiling JVM, e.g. of a Gradle daemon or an IDE.
+     */
+    MEMORY,
+
+    /**
+     * {@link #MEMORY} and a file next to the class output directory, read by the next compilation.
+     */
+    DISK
+}
@@ -13,29 +13,23 @@
  */
 package com.github.drkunibar.lombok.javac.codeprocessor;
 
-import java.util.Collection;
-import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 import org.kohsuke.MetaInfServices;
-import com.sun.tools.javac.tree.JCTree;
+import com.sun.source.tree.Tree;
 import com.sun.tools.javac.tree.JCTree.JCCase;
-import com.sun.tools.javac.tree.JCTree.JCStatement;
-import com.sun.tools.javac.util.List;
-import lombok.javac.JavacNode;
 
 @MetaInfServices(Processor.class)
-public class CaseProcessor extends CodeProcessor implements Processor<JCCase> {
+public class CaseProcessor implements Processor<JCCase> {
 
     @Override
-    @SuppressWarnings("CollectionsToArray")
-    public Collection<JCTree.JCStatement> process(JCCase code, JavacNode annotationNode,
-            JCTree.JCExpression returnType) {
-        code.stats = List.from(parse(code.stats, annotationNode, returnType).toArray(new JCStatement[0]));
-        return Collections.singleton(code);
+    public void process(JCCase code, CodeProcessor codeProcessor) {
+        codeProcessor.parseCase(code);
     }
 
     @Override
-    public Class<JCCase> getSupportedType() {
-        return JCCase.class;
+    public Set<Tree.Kind> getSupportedKinds() {
+        return EnumSet.of(Tree.Kind.CASE);
     }
 
 }
@@ -0,0 +1,191 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.codeprocessor;
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.tree.JCTree.JCBlock;
+import com.sun.tools.javac.tree.JCTree.JCExpression;
+import com.sun.tools.javac.tree.JCTree.JCIf;
+import com.sun.tools.javac.tree.JCTree.JCStatement;
+import com.sun.tools.javac.tree.JCTree.JCVariableDecl;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.Name;
+import lombok.javac.Javac;
+import lombok.javac.JavacNode;
+import lombok.javac.JavacTreeMaker;
+import lombok.javac.JavacTreeMaker.TreeTag;
+import lombok.javac.handlers.JavacHandlerUtil;
+
+/**
+ * Applies a {@link CheckMode} to the generated null checks.
+ */
+public class CheckGuard {
+
+    /**
+     * The name of the flag used by {@link CheckMode#SYSTEM_PROPERTY}, see {@link #createFlag(JavacNode)}.
+     */
+    public static final String FLAG_NAME = "$nonnullChecks";
+
+    /**
+     * The system property which disables the checks with {@code false}, see {@link CheckMode#SYSTEM_PROPERTY}.
+     */
+    public static final String CHECKS_PROPERTY = "lombok.nonnull.checks";
+
+    private final CheckMode mode;
+    private final ViolationSites sites;
+
+    /**
+     * Creates a guard.
+     *
+     * @param mode
+     *            the check mode. The class of the checks has to provide the flag for {@link CheckMode#SYSTEM_PROPERTY}.
+     * @param sites
+     *            the check sites of the class, required for {@link CheckMode#REPORT}. The other modes except
+     *            {@link CheckMode#ASSERT} record the violation before the exception is thrown if not {@code null}.
+     */
+    public CheckGuard(@Nonnull CheckMode mode, ViolationSites sites) {
+        this.mode = Objects.requireNonNull(mode, "'mode' must not be null");
+        if (mode == CheckMode.REPORT && sites == null) {
+            throw new IllegalArgumentException("'sites' must not be null in mode REPORT");
+        }
+        if (mode == CheckMode.ASSERT && sites != null) {
+            throw new IllegalArgumentException("'sites' must be null in mode ASSERT");
+        }
+        this.sites = sites;
+    }
+
+    /**
+     * Returns the check mode.
+     *
+     * @return the check mode
+     */
+    @Nonnull
+    public CheckMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns whether the checks record their violations at the runtime registry.
+     *
+     * @return {@code true} if every check is a check site of its own
+     */
+    public boolean isRecording() {
+        return sites != null;
+    }
+
+    /**
+     * Creates the flag used by {@link CheckMode#SYSTEM_PROPERTY}: {@code private static final boolean $nonnullChecks =
+     * !"false".equalsIgnoreCase(System.getProperty("lombok.nonnull.checks.<package>",
+     * System.getProperty("lombok.nonnull.checks")));}
+     *
+     * @param source
+     *            the node the field is generated for
+     * @return the field, not yet injected into a class
+     */
+    @Nonnull
+    public static JCVariableDecl createFlag(@Nonnull JavacNode source) {
+        Objects.requireNonNull(source, "'source' must not be null");
+        JavacTreeMaker maker = source.getTreeMaker();
+        JCExpression value = maker.Apply(List.<JCExpression> nil(),
+                JavacHandlerUtil.chainDots(source, "java", "lang", "System", "getProperty"),
+                List.<JCExpression> of(maker.Literal(CHECKS_PROPERTY)));
+        String packageName = source.getPackageDeclaration();
+        if (packageName != null) {
+            value = maker.Apply(List.<JCExpression> nil(),
+                    JavacHandlerUtil.chainDots(source, "java", "lang", "System", "getProperty"),
+                    List.of(maker.Literal(CHECKS_PROPERTY + "." + packageName), value));
+        }
+        JCExpression disabled = maker.Apply(List.<JCExpression> nil(),
+                maker.Select(maker.Literal("false"), source.toName("equalsIgnoreCase")), List.of(value));
+        JCVariableDecl flag = maker.VarDef(maker.Modifiers(Flags.PRIVATE | Flags.STATIC | Flags.FINAL),
+                source.toName(FLAG_NAME), maker.TypeIdent(Javac.CTC_BOOLEAN), maker.Unary(Javac.CTC_NOT, disabled));
+        JavacHandlerUtil.recursiveSetGeneratedBy(flag, source);
+        return flag;
+    }
+
+    /**
+     * Applies the check mode to a generated null check.
+     *
+     * @param source
+     *            the node the check is generated for
+     * @param check
+     *            the null check
+     * @param variable
+     *            the checked variable
+     * @param message
+     *            the message of a failed {@code assert}
+     * @param checked
+     *            what is checked for a recorded check site, e.g. {@code return} or the name of the parameter
+     * @param position
+     *            the source position of a recorded check site
+     * @return the check to use instead of the given one
+     */
+    @Nonnull
+    public JCStatement guard(@Nonnull JavacNode source, @Nonnull JCStatement check, @Nonnull Name variable,
+            @Nonnull String message, @Nonnull String checked, int position) {
+        Objects.requireNonNull(source, "'source' must not be null");
+        Objects.requireNonNull(check, "'check' must not be null");
+        Objects.requireNonNull(variable, "'variable' must not be null");
+        Objects.requireNonNull(message, "'message' must not be null");
+        Objects.requireNonNull(checked, "'checked' must not be null");
+        JavacTreeMaker maker = source.getTreeMaker();
+        JCStatement guarded;
+        switch (mode) {
+        case SYSTEM_PROPERTY:
+            guarded = maker.If(maker.Ident(source.toName(FLAG_NAME)),
+                    maker.Block(0, List.of(recordBeforeThrow(source, check, variable, checked, position))), null);
+            break;
+        case ASSERT:
+            guarded = maker.Assert(compareWithNull(maker, Javac.CTC_NOT_EQUAL, variable), maker.Literal(message));
+            break;
+        case REPORT:
+            JCStatement record = sites.record(source, sites.add(source, checked, position));
+            guarded = maker.If(compareWithNull(maker, Javac.CTC_EQUAL, variable), maker.Block(0, List.of(record)),
+                    null);
+            break;
+        default:
+            guarded = recordBeforeThrow(source, check, variable, checked, position);
+            break;
+        }
+        JavacHandlerUtil.recursiveSetGeneratedBy(guarded, source);
+        return guarded;
+    }
+
+    /**
+     * Adds the recording of the violation to a check which throws an exception, preferably into the block of the
+     * {@code if} statement Lombok generates.
+     */
+    private JCStatement recordBeforeThrow(JavacNode source, JCStatement check, Name variable, String checked,
+            int position) {
+        if (sites == null) {
+            return check;
+        }
+        JavacTreeMaker maker = source.getTreeMaker();
+        JCStatement record = sites.record(source, sites.add(source, checked, position));
+        if (check instanceof JCIf && ((JCIf) check).thenpart instanceof JCBlock) {
+            JCBlock block = (JCBlock) ((JCIf) check).thenpart;
+            block.stats = block.stats.prepend(record);
+            return check;
+        }
+        // e.g. Objects.requireNonNull with the exception type JDK
+        return maker.Block(0, List.of(maker.If(compareWithNull(maker, Javac.CTC_EQUAL, variable),
+                maker.Block(0, List.of(record)), null), check));
+    }
+
+    private static JCExpression compareWithNull(JavacTreeMaker maker, TreeTag operator, Name variable) {
+        return maker.Binary(operator, maker.Ident(variable), maker.Literal(Javac.CTC_BOT, null));
+    }
+}
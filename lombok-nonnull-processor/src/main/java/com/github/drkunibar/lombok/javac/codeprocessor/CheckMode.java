@@ -0,0 +1,44 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.codeprocessor;
+
+/**
+ * Controls when the generated checks are executed.
+ */
+public enum CheckMode {
+
+    /**
+     * The checks are always executed.
+     */
+    ALWAYS,
+
+    /**
+     * The checks are guarded by a {@code private static final boolean $nonnullChecks} of the class, initialized from
+     * the system property {@code lombok.nonnull.checks.<package>} or {@code lombok.nonnull.checks} (default = enabled).
+     * The JIT removes disabled checks completely.
+     */
+    SYSTEM_PROPERTY,
+
+    /**
+     * The checks are {@code assert} statements, enabled with {@code -ea}. A failed check throws an
+     * {@link AssertionError}.
+     */
+    ASSERT,
+
+    /**
+     * The checks count the violation in {@code com.github.drkunibar.lombok.runtime.NonnullViolations} of
+     * lombok-nonnull-runtime and continue. The counts are exposed as MXBean.
+     */
+    REPORT
+}
@@ -13,148 +13,602 @@
  */
 package com.github.drkunibar.lombok.javac.codeprocessor;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collection;
+import java.util.ArrayDeque;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.ServiceLoader;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.StreamSupport;
+import java.util.Set;
 import javax.annotation.Nonnull;
 import com.sun.tools.javac.code.Flags;
 import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.JCTree.JCAssign;
+import com.sun.tools.javac.tree.JCTree.JCAssignOp;
+import com.sun.tools.javac.tree.JCTree.JCBinary;
 import com.sun.tools.javac.tree.JCTree.JCBlock;
+import com.sun.tools.javac.tree.JCTree.JCBreak;
+import com.sun.tools.javac.tree.JCTree.JCCase;
+import com.sun.tools.javac.tree.JCTree.JCContinue;
 import com.sun.tools.javac.tree.JCTree.JCExpression;
+import com.sun.tools.javac.tree.JCTree.JCExpressionStatement;
+import com.sun.tools.javac.tree.JCTree.JCIdent;
+import com.sun.tools.javac.tree.JCTree.JCIf;
+import com.sun.tools.javac.tree.JCTree.JCMethodDecl;
+import com.sun.tools.javac.tree.JCTree.JCMethodInvocation;
+import com.sun.tools.javac.tree.JCTree.JCParens;
+import com.sun.tools.javac.tree.JCTree.JCPrimitiveTypeTree;
 import com.sun.tools.javac.tree.JCTree.JCReturn;
 import com.sun.tools.javac.tree.JCTree.JCStatement;
+import com.sun.tools.javac.tree.JCTree.JCThrow;
+import com.sun.tools.javac.tree.JCTree.JCTypeParameter;
 import com.sun.tools.javac.tree.JCTree.JCVariableDecl;
 import com.sun.tools.javac.util.List;
 import com.sun.tools.javac.util.Name;
+import com.github.drkunibar.lombok.javac.codeprocessor.NullnessAnalyzer.Nullness;
 import lombok.javac.JavacNode;
 import lombok.javac.JavacTreeMaker;
-import lombok.javac.apt.LombokProcessor;
 import lombok.javac.handlers.JavacHandlerUtil;
 
+/**
+ * Rewrites the return statements of a method body in place.
+ * <p>
+ * With {@link CodeShape#INLINE} every {@code return expr;} is replaced by a declaration of a {@code $result}
+ * variable, a null check and a {@code return $result;}. The new statements are spliced into the existing javac
+ * {@link List}s, all other statements and lists are left untouched. The other shapes only wrap the expression of the
+ * return statement. Statements which do not contain a return statement (see {@link ReturnScanner}) are not rewritten.
+ * Return values which are never {@code null} (see {@link NullnessAnalyzer}) are not checked, returning the
+ * {@code null} literal is an error.
+ * <p>
+ * The statements are visited with a work stack instead of recursion, the depth of the call stack does not grow with
+ * the nesting of the statements, e.g. with long {@code else if} chains of generated code.
+ * <p>
+ * While the statements are visited in order the processor learns which variables are not {@code null}: checked
+ * {@code @Nonnull} parameters, variables assigned a non-null value, variables passed to
+ * {@code Objects.requireNonNull(..)} and variables guarded by {@code if (x == null) return/throw/break/continue}. The
+ * knowledge ends with the statement list it was learned in and with the next assignment of the variable.
+ */
 public class CodeProcessor {
 
-    protected static final Map<Class<? extends JCTree>, Processor<? extends JCTree>> PROCESSORS = new HashMap<>();
+    /**
+     * The name of the helper method used by {@link CodeShape#HELPER}, see {@link #createHelper(JavacNode)}.
+     */
+    public static final String HELPER_NAME = "$nonnullReturn";
+
+    private static final String RETURN_VALUE_MESSAGE = "the return value must not be null";
+
+    private static final String RETURN_VALUE_NAME = "the return value";
 
-    static {
-        // Load the 'prozessors' with the correct ClassLoader
-        ServiceLoader<Processor> processors = ServiceLoader.load(Processor.class,
-                LombokProcessor.class.getClassLoader());
-        StreamSupport.stream(processors.spliterator(), false)
-                .forEach(CodeProcessor::registerProcessor);
+    private static final String RESULT_NAME = "$result";
+
+    private final JavacNode annotationNode;
+    private final JCMethodDecl method;
+    private final Set<JCTree> returnPaths;
+    private final CodeShape shape;
+    private final CheckGuard guard;
+    private final NullnessAnalyzer analyzer;
+    private final ElementCheck elements;
+    private final Set<Name> nonNullFields;
+    private final Set<Name> assignedVariables;
+    private NonNullNames nonNullVariables;
+    private final JavacTreeMaker maker;
+    private final Deque<Runnable> work = new ArrayDeque<>();
+    private final Deque<Runnable> scheduled = new ArrayDeque<>();
+    private Name resultName;
+    private boolean running;
+    private int visitedStatements;
+    private int returnSites;
+
+    /**
+     * Creates a processor for a single method.
+     *
+     * @param annotationNode
+     *            the {@code @Nonnull} annotation of the method
+     * @param method
+     *            the method
+     * @param returnPaths
+     *            the return statements of the method and the statements containing them, see {@link ReturnScanner}
+     * @param shape
+     *            the code to generate, {@link CodeShape#COMPACT} has to be resolved by the caller. The class of the
+     *            method has to provide the helper method for {@link CodeShape#HELPER}.
+     * @param guard
+     *            the guard of the checks, {@link CodeShape#REQUIRE_NON_NULL} only works with {@link CheckMode#ALWAYS}
+     *            and {@link CodeShape#HELPER} not with {@link CheckMode#REPORT}
+     * @param analyzer
+     *            the analyzer of the return values
+     * @param elements
+     *            the check of the elements of the return values or {@code null}
+     * @param checkedFields
+     *            the fields of the class which are checked on assignment, see {@link FieldChecks}
+     */
+    public CodeProcessor(@Nonnull JavacNode annotationNode, @Nonnull JCMethodDecl method,
+            @Nonnull Set<JCTree> returnPaths, @Nonnull CodeShape shape, @Nonnull CheckGuard guard,
+            @Nonnull NullnessAnalyzer analyzer, ElementCheck elements, @Nonnull Set<Name> checkedFields) {
+        this.annotationNode = Objects.requireNonNull(annotationNode, "'annotationNode' must not be null");
+        this.method = Objects.requireNonNull(method, "'method' must not be null");
+        this.returnPaths = Objects.requireNonNull(returnPaths, "'returnPaths' must not be null");
+        this.shape = Objects.requireNonNull(shape, "'shape' must not be null");
+        if (shape == CodeShape.COMPACT) {
+            throw new IllegalArgumentException("'shape' must be resolved");
+        }
+        this.guard = Objects.requireNonNull(guard, "'guard' must not be null");
+        CheckMode mode = guard.getMode();
+        if (shape == CodeShape.REQUIRE_NON_NULL && mode != CheckMode.ALWAYS
+                || shape == CodeShape.HELPER && mode == CheckMode.REPORT) {
+            throw new IllegalArgumentException("'shape' cannot be guarded by 'guard'");
+        }
+        this.analyzer = Objects.requireNonNull(analyzer, "'analyzer' must not be null");
+        this.elements = elements;
+        this.nonNullFields = Objects.requireNonNull(checkedFields, "'checkedFields' must not be null");
+        this.maker = annotationNode.getTreeMaker();
+        this.assignedVariables = method.body == null ? Collections.<Name> emptySet()
+                : NonNullNames.assignedNames(method.body);
+        NonNullNames variables = NonNullNames.parameters(annotationNode.up());
+        if (!checkedFields.isEmpty()) {
+            // a field is accessed by its name as long as no variable of the method hides it
+            Set<Name> fields = new HashSet<>(checkedFields);
+            fields.removeAll(FieldChecks.declaredNames(method));
+            for (Name field : fields) {
+                variables = variables.withConstant(field);
+            }
+        }
+        this.nonNullVariables = variables;
     }
 
-    private static final BlockProcessor BLOCK_PROCESSOR = new BlockProcessor();
-    private static final AtomicInteger RESULT_COUNTER = new AtomicInteger();
+    /**
+     * Returns the number of return statements in the given return paths.
+     *
+     * @param returnPaths
+     *            the return paths, see {@link ReturnScanner}
+     * @return the number of return statements
+     */
+    public static int countReturnStatements(@Nonnull Set<JCTree> returnPaths) {
+        Objects.requireNonNull(returnPaths, "'returnPaths' must not be null");
+        int count = 0;
+        for (JCTree tree : returnPaths) {
+            if (tree instanceof JCReturn) {
+                count++;
+            }
+        }
+        return count;
+    }
 
+    /**
+     * Creates the helper method used by {@link CodeShape#HELPER}:
+     * {@code private static <T> T $nonnullReturn(T value) { if (value == null) throw ...; return value; }}. The null
+     * check is generated like the inlined one, so it honors {@code lombok.nonNull.exceptionType}.
+     *
+     * @param source
+     *            the node the method is generated for
+     * @param guard
+     *            the guard of the check, not {@link CheckMode#REPORT}
+     * @return the method, not yet injected into a class
+     */
     @Nonnull
-    public JCStatement parseToSingleStatement(@Nonnull JCStatement statement, @Nonnull JavacNode annotationNode,
-            @Nonnull JCExpression returnType) {
+    public static JCMethodDecl createHelper(@Nonnull JavacNode source, @Nonnull CheckGuard guard) {
+        Objects.requireNonNull(source, "'source' must not be null");
+        Objects.requireNonNull(guard, "'guard' must not be null");
+        JavacTreeMaker maker = source.getTreeMaker();
+        Name typeName = source.toName("T");
+        Name valueName = source.toName("value");
+        JCTypeParameter typeParameter = maker.TypeParameter(typeName, List.<JCExpression> nil());
+        JCVariableDecl parameter = maker.VarDef(maker.Modifiers(Flags.PARAMETER | Flags.FINAL), valueName,
+                maker.Ident(typeName), null);
+        JCStatement nullcheck = JavacHandlerUtil.generateNullCheck(maker, maker.Ident(typeName), valueName, source,
+                RETURN_VALUE_MESSAGE);
+        JCStatement check = guard.guard(source, nullcheck, valueName, RETURN_VALUE_MESSAGE, "return", source.get().pos);
+        JCBlock body = maker.Block(0, List.of(check, maker.Return(maker.Ident(valueName))));
+        JCMethodDecl helper = maker.MethodDef(maker.Modifiers(Flags.PRIVATE | Flags.STATIC | Flags.FINAL),
+                source.toName(HELPER_NAME), maker.Ident(typeName), List.of(typeParameter), List.of(parameter),
+                List.<JCExpression> nil(), body, null);
+        JavacHandlerUtil.recursiveSetGeneratedBy(helper, source);
+        return helper;
+    }
+
+    /**
+     * Rewrites the statements of the list in place.
+     *
+     * @param statements
+     *            the statements, e.g. of a block
+     */
+    public void parse(@Nonnull List<JCStatement> statements) {
+        Objects.requireNonNull(statements, "'statements' must not be null");
+        run(new StatementList(statements, false));
+    }
+
+    /**
+     * Rewrites the statements of a {@code case} in place. The statements of the cases of a {@code switch} share one
+     * scope, so the statements of a return check are put in a block.
+     *
+     * @param statement
+     *            the case
+     */
+    public void parseCase(@Nonnull JCCase statement) {
         Objects.requireNonNull(statement, "'statement' must not be null");
-        Objects.requireNonNull(annotationNode, "'annotationNode' must not be null");
-        Objects.requireNonNull(returnType, "'returnType' must not be null");
-        Collection<JCStatement> parseStatement = parseStatement(statement, annotationNode, returnType);
-        return collect(annotationNode.getTreeMaker(), parseStatement);
+        run(new StatementList(statement.stats, true));
     }
 
+    /**
+     * Rewrites a statement which stands alone, e.g. the body of a loop. With {@link CodeShape#INLINE} a return
+     * statement is replaced by a block.
+     *
+     * @param statement
+     *            the statement
+     * @return the statement to use instead of the given one
+     */
     @Nonnull
-    public JCBlock parseToBlock(@Nonnull JCStatement statement, @Nonnull JavacNode annotationNode,
-            @Nonnull JCExpression returnType) {
+    public JCStatement parseToSingleStatement(@Nonnull JCStatement statement) {
         Objects.requireNonNull(statement, "'statement' must not be null");
-        Objects.requireNonNull(annotationNode, "'annotationNode' must not be null");
-        Objects.requireNonNull(returnType, "'returnType' must not be null");
-        Collection<JCStatement> parseStatement = parseStatement(statement, annotationNode, returnType);
-        JCStatement result = collect(annotationNode.getTreeMaker(), parseStatement);
-        if (result instanceof JCBlock) {
-            return (JCBlock) result;
-        } else {
-            JavacTreeMaker maker = annotationNode.getTreeMaker();
-            List<JCStatement> stmts = List.from(new JCStatement[] { result });
-            return maker.Block(0, stmts);
+        visitedStatements++;
+        if (!needsRewrite(statement)) {
+            return statement;
         }
+        if (statement instanceof JCReturn && !needsNullCheck((JCReturn) statement)) {
+            wrapElements((JCReturn) statement);
+            return statement;
+        }
+        if (statement instanceof JCReturn && shape == CodeShape.INLINE) {
+            return maker.Block(0, generateReturnCheck((JCReturn) statement));
+        }
+        if (statement instanceof JCReturn) {
+            wrapReturnValue((JCReturn) statement);
+            return statement;
+        }
+        parseStatement(statement);
+        return statement;
     }
 
-    @Nonnull
-    public Collection<JCStatement> parseStatement(@Nonnull JCStatement statement, @Nonnull JavacNode annotationNode,
-            @Nonnull JCExpression returnType) {
+    /**
+     * Rewrites the statements nested in the given statement in place.
+     *
+     * @param statement
+     *            the statement
+     */
+    public void parseStatement(@Nonnull JCStatement statement) {
         Objects.requireNonNull(statement, "'statement' must not be null");
-        Objects.requireNonNull(annotationNode, "'annotationNode' must not be null");
-        Objects.requireNonNull(returnType, "'returnType' must not be null");
-        if (statement instanceof JCReturn) {
-            JCReturn tree = (JCReturn) statement;
-            JCExpression expr = tree.expr;
-            JavacTreeMaker maker = annotationNode.getTreeMaker();
-            String resultName = "$result_" + RESULT_COUNTER.getAndIncrement();
-            Name declName = annotationNode.toName(resultName);
-            JCVariableDecl decl = maker.VarDef(maker.Modifiers(Flags.PARAMETER), declName, returnType, expr);
-            JCReturn ret = maker.Return(maker.Ident(declName));
-            JCStatement nullcheck = JavacHandlerUtil.generateNullCheck(maker, maker.Ident(declName), declName,
-                    annotationNode, "the return value must not be null");
-            generateBy(decl, annotationNode);
-            generateBy(nullcheck, annotationNode);
-            generateBy(ret, annotationNode);
-            return Arrays.asList(decl, nullcheck, ret);
+        run(() -> dispatch(statement));
+    }
+
+    /**
+     * Returns the number of statements looked at so far.
+     *
+     * @return the number of statements
+     */
+    public int getVisitedStatements() {
+        return visitedStatements;
+    }
+
+    /**
+     * Returns the number of return statements rewritten so far.
+     *
+     * @return the number of return statements
+     */
+    public int getReturnSites() {
+        return returnSites;
+    }
+
+    /**
+     * Runs the given work. Called from a {@link Processor} the work is only scheduled: it runs after the processor
+     * returned, in the order it was scheduled, and before the work which was scheduled earlier. So the nesting of the
+     * statements is kept on the work stack instead of the call stack.
+     */
+    private void run(Runnable task) {
+        scheduled.add(task);
+        if (running) {
+            return;
+        }
+        running = true;
+        try {
+            pushScheduled();
+            while (!work.isEmpty()) {
+                work.pop()
+                        .run();
+                pushScheduled();
+            }
+        } finally {
+            running = false;
+            work.clear();
+            scheduled.clear();
+        }
+    }
+
+    private void pushScheduled() {
+        while (!scheduled.isEmpty()) {
+            work.push(scheduled.pollLast());
+        }
+    }
+
+    /**
+     * Calls the processor of the statement, which schedules the rewrite of the nested statements.
+     */
+    private void dispatch(JCStatement statement) {
+        if (!returnPaths.contains(statement)) {
+            return;
+        }
+        Processor<JCStatement> processor = getProcessor(statement);
+        if (processor != null) {
+            processor.process(statement, this);
         } else {
-            Optional<Processor<JCTree.JCStatement>> processor = getProcessor(statement);
-            if (processor.isPresent()) {
-                return processor.get()
-                        .process(statement, annotationNode, returnType);
+            annotationNode.addWarning("@Nonnull cannot check the return statements in a statement of the kind "
+                    + statement.getKind(), statement);
+        }
+    }
+
+    /**
+     * Learns from a statement which completes normally what is known about the variables behind it: the
+     * declarations, the assignments, the arguments of {@code Objects.requireNonNull(..)} and the variables compared
+     * with {@code null} by an {@code if} which leaves the statement list, e.g. {@code if (s == null) return "";},
+     * unless its else part assigns them.
+     */
+    private void learn(JCStatement statement) {
+        if (statement instanceof JCVariableDecl) {
+            JCVariableDecl variable = (JCVariableDecl) statement;
+            if (variable.vartype instanceof JCPrimitiveTypeTree) {
+                nonNullVariables = nonNullVariables.withConstant(variable.name);
             } else {
-                return Collections.singleton(statement);
+                nonNullVariables = nonNullVariables.withVariable(variable.name,
+                        variable.init != null && isNonNull(variable.init));
+                learnRequireNonNull(variable.init);
+            }
+        } else if (statement instanceof JCExpressionStatement) {
+            JCExpression expression = ((JCExpressionStatement) statement).expr;
+            if (expression instanceof JCAssign && ((JCAssign) expression).lhs instanceof JCIdent) {
+                JCAssign assign = (JCAssign) expression;
+                nonNullVariables = nonNullVariables.withAssignment(((JCIdent) assign.lhs).name,
+                        isNonNull(assign.rhs));
+            } else if (expression instanceof JCAssignOp && ((JCAssignOp) expression).lhs instanceof JCIdent) {
+                // a string concatenation or an unboxed operation
+                nonNullVariables = nonNullVariables.withAssignment(((JCIdent) ((JCAssignOp) expression).lhs).name,
+                        true);
+            }
+            learnRequireNonNull(expression);
+        } else if (statement instanceof JCIf && completesAbruptly(((JCIf) statement).thenpart)) {
+            JCIf ifStatement = (JCIf) statement;
+            learnNullComparisons(ifStatement.cond);
+            if (ifStatement.elsepart != null) {
+                // the else part runs behind the comparison and may assign the variables again
+                nonNullVariables = nonNullVariables.withNullable(NonNullNames.assignedNames(ifStatement.elsepart));
             }
         }
     }
 
-    @Nonnull
-    public final Collection<JCStatement> parse(@Nonnull Collection<JCStatement> statements,
-            @Nonnull JavacNode annotationNode, @Nonnull JCExpression returnType) {
-        Objects.requireNonNull(statements, "'statements' must not be null");
-        Objects.requireNonNull(annotationNode, "'annotationNode' must not be null");
-        Objects.requireNonNull(returnType, "'returnType' must not be null");
-        Collection<JCTree.JCStatement> result = new ArrayList<>();
-        for (JCTree.JCStatement stmt : statements) {
-            result.addAll(parseStatement(stmt, annotationNode, returnType));
+    private boolean isNonNull(JCExpression expression) {
+        return analyzer.nullness(expression, nonNullVariables, nonNullFields) == Nullness.NON_NULL;
+    }
+
+    private void learnRequireNonNull(JCExpression expression) {
+        JCExpression current = expression;
+        while (current instanceof JCParens || current instanceof JCAssign) {
+            current = current instanceof JCParens ? ((JCParens) current).expr : ((JCAssign) current).rhs;
+        }
+        if (current instanceof JCMethodInvocation && NullnessAnalyzer.isRequireNonNull((JCMethodInvocation) current)
+                && ((JCMethodInvocation) current).args.head instanceof JCIdent) {
+            Name variable = ((JCIdent) ((JCMethodInvocation) current).args.head).name;
+            nonNullVariables = nonNullVariables.withAssignment(variable, true);
+        }
+    }
+
+    /**
+     * Learns the variables compared with {@code null} by the condition of an {@code if} whose then part does not
+     * complete normally, e.g. {@code x == null || y == null}.
+     */
+    private void learnNullComparisons(JCExpression condition) {
+        JCExpression current = condition;
+        while (current instanceof JCParens) {
+            current = ((JCParens) current).expr;
+        }
+        if (!(current instanceof JCBinary)) {
+            return;
+        }
+        JCBinary binary = (JCBinary) current;
+        String kind = binary.getKind()
+                .name();
+        if (kind.equals("CONDITIONAL_OR")) {
+            learnNullComparisons(binary.lhs);
+            learnNullComparisons(binary.rhs);
+        } else if (kind.equals("EQUAL_TO")) {
+            JCExpression compared = isNullLiteral(binary.lhs) ? binary.rhs
+                    : isNullLiteral(binary.rhs) ? binary.lhs : null;
+            if (compared instanceof JCIdent) {
+                nonNullVariables = nonNullVariables.withAssignment(((JCIdent) compared).name, true);
+            }
         }
-        return result;
     }
 
-    protected void parse(@Nonnull JCBlock block, @Nonnull JavacNode annotationNode, @Nonnull JCExpression returnType) {
-        Objects.requireNonNull(block, "'block' must not be null");
-        Objects.requireNonNull(annotationNode, "'annotationNode' must not be null");
-        Objects.requireNonNull(returnType, "'returnType' must not be null");
-        BLOCK_PROCESSOR.process(block, annotationNode, returnType);
+    private static boolean isNullLiteral(JCExpression expression) {
+        return expression.getKind()
+                .name()
+                .equals("NULL_LITERAL");
+    }
+
+    private static boolean completesAbruptly(JCStatement statement) {
+        if (statement instanceof JCBlock) {
+            List<JCStatement> statements = ((JCBlock) statement).stats;
+            return statements.nonEmpty() && completesAbruptly(statements.last());
+        }
+        return statement instanceof JCReturn || statement instanceof JCThrow || statement instanceof JCBreak
+                || statement instanceof JCContinue;
+    }
+
+    private boolean needsRewrite(JCStatement statement) {
+        if (!returnPaths.contains(statement)) {
+            return false;
+        }
+        if (!(statement instanceof JCReturn)) {
+            return true;
+        }
+        JCReturn ret = (JCReturn) statement;
+        return needsCheck(ret) || (elements != null && ret.expr != null);
+    }
+
+    /**
+     * Returns whether a return statement which needs a rewrite needs the null check, otherwise only its elements are
+     * checked.
+     */
+    private boolean needsNullCheck(JCReturn statement) {
+        return analyzer.nullness(statement.expr, nonNullVariables, nonNullFields) == Nullness.UNKNOWN;
+    }
+
+    private boolean needsCheck(JCReturn statement) {
+        if (statement.expr == null) {
+            // reported by the compiler
+            return false;
+        }
+        Nullness nullness = analyzer.nullness(statement.expr, nonNullVariables, nonNullFields);
+        if (nullness == Nullness.NULL) {
+            annotationNode.addError("@Nonnull annotated method '" + method.name + "' returns null", statement);
+        }
+        return nullness == Nullness.UNKNOWN;
     }
 
-    protected JCStatement collect(@Nonnull JavacTreeMaker TreeMaker, @Nonnull Collection<JCStatement> stmts) {
-        if (stmts.size() == 1) {
-            return stmts.iterator()
-                    .next();
+    private List<JCStatement> generateReturnCheck(JCReturn statement) {
+        returnSites++;
+        Name declName = resultName();
+        JCExpression type = JavacHandlerUtil.cloneType(maker, method.restype, annotationNode);
+        JCVariableDecl decl = maker.VarDef(maker.Modifiers(Flags.PARAMETER), declName, type, statement.expr);
+        JCStatement nullcheck = JavacHandlerUtil.generateNullCheck(maker, maker.Ident(declName), declName,
+                annotationNode, RETURN_VALUE_MESSAGE);
+        nullcheck = guard.guard(annotationNode, nullcheck, declName, RETURN_VALUE_MESSAGE, "return", statement.pos);
+        JCExpression result = maker.Ident(declName);
+        if (elements != null) {
+            result = elements.wrap(annotationNode, result, RETURN_VALUE_NAME);
+        }
+        JCReturn ret = maker.Return(result);
+        generateBy(decl);
+        generateBy(nullcheck);
+        generateBy(ret);
+        return List.of(decl, nullcheck, ret);
+    }
+
+    private void wrapReturnValue(JCReturn statement) {
+        returnSites++;
+        JCMethodInvocation wrapped;
+        if (shape == CodeShape.HELPER) {
+            wrapped = maker.Apply(List.<JCExpression> nil(), maker.Ident(annotationNode.toName(HELPER_NAME)),
+                    List.<JCExpression> nil());
+            generateBy(wrapped);
+            wrapped.args = List.of(statement.expr);
         } else {
-            List<JCStatement> from = List.from(stmts.toArray(new JCStatement[0]));
-            return TreeMaker.Block(0, from);
+            JCExpression requireNonNull = JavacHandlerUtil.chainDots(annotationNode, "java", "util", "Objects",
+                    "requireNonNull");
+            wrapped = maker.Apply(List.<JCExpression> nil(), requireNonNull,
+                    List.<JCExpression> of(maker.Literal(RETURN_VALUE_MESSAGE)));
+            generateBy(wrapped);
+            // the original expression keeps its positions
+            wrapped.args = wrapped.args.prepend(statement.expr);
         }
+        statement.expr = wrapped;
+        wrapElements(statement);
     }
 
-    protected void generateBy(JCTree node, JavacNode annotationNode) {
-        JavacHandlerUtil.recursiveSetGeneratedBy(node, annotationNode);
+    private void wrapElements(JCReturn statement) {
+        if (elements != null) {
+            statement.expr = elements.wrap(annotationNode, statement.expr, RETURN_VALUE_NAME);
+        }
+    }
+
+    /**
+     * Replaces the head of the node by the given statements.
+     *
+     * @return the node of the last inserted statement
+     */
+    private static List<JCStatement> splice(List<JCStatement> node, List<JCStatement> statements) {
+        List<JCStatement> last = statements;
+        while (last.tail.nonEmpty()) {
+            last = last.tail;
+        }
+        last.tail = node.tail;
+        node.head = statements.head;
+        node.tail = statements.tail;
+        return last;
+    }
+
+    /**
+     * Returns the name of the variables of the return checks. The variables of the return statements of a method are
+     * in different scopes, so they share a name and the generated code only depends on the method.
+     */
+    private Name resultName() {
+        if (resultName == null) {
+            Set<Name> declared = FieldChecks.declaredNames(method);
+            String name = RESULT_NAME;
+            for (int i = 1; declared.contains(annotationNode.toName(name)); i++) {
+                name = RESULT_NAME + i;
+            }
+            resultName = annotationNode.toName(name);
+        }
+        return resultName;
     }
 
-    private static void registerProcessor(@Nonnull Processor<? extends JCTree> processor) {
-        Objects.requireNonNull(processor, "'processor' must not be null");
-        PROCESSORS.put(processor.getSupportedType(), processor);
+    private <T extends JCTree> T generateBy(T node) {
+        JavacHandlerUtil.recursiveSetGeneratedBy(node, annotationNode);
+        return node;
     }
 
-    protected static <P extends JCTree> Optional<Processor<P>> getProcessor(@Nonnull P codeBlock) {
+    /**
+     * Returns the processor of the kind of the given statement or {@code null}, see {@link ProcessorRegistry}. Return
+     * statements are rewritten by the {@link CodeProcessor} itself.
+     */
+    protected static <P extends JCTree> Processor<P> getProcessor(@Nonnull P codeBlock) {
         Objects.requireNonNull(codeBlock, "'codeBlock' must not be null");
-        Processor<P> processor = (Processor<P>) PROCESSORS.get(codeBlock.getClass());
-        return Optional.ofNullable(processor);
+        // the registry holds for every kind the processor of the tree class javac uses for that kind
+        @SuppressWarnings("unchecked")
+        Processor<P> processor = (Processor<P>) ProcessorRegistry.forKind(codeBlock.getKind());
+        return processor;
     }
 
+    /**
+     * The rewrite of a statement list. It stops at every statement with nested return statements and continues
+     * behind it once the nested statements are rewritten.
+     */
+    private final class StatementList implements Runnable {
+
+        private final boolean sharedScope;
+        private List<JCStatement> node;
+        private JCStatement nested;
+        private NonNullNames outer;
+
+        StatementList(List<JCStatement> statements, boolean sharedScope) {
+            this.node = statements;
+            this.sharedScope = sharedScope;
+        }
+
+        @Override
+        public void run() {
+            if (outer == null) {
+                // the variables of the list and what is learned about them end with the list
+                outer = nonNullVariables;
+            } else {
+                learn(nested);
+                node = node.tail;
+            }
+            for (; node.nonEmpty(); node = node.tail) {
+                visitedStatements++;
+                JCStatement statement = node.head;
+                if (!assignedVariables.isEmpty()) {
+                    // a loop assigns its variables before the statements in front of the assignment run again
+                    nonNullVariables = nonNullVariables.withNullable(NonNullNames.assignedNames(statement));
+                }
+                if (!needsRewrite(statement)) {
+                    learn(statement);
+                    continue;
+                }
+                if (statement instanceof JCReturn && !needsNullCheck((JCReturn) statement)) {
+                    wrapElements((JCReturn) statement);
+                } else if (statement instanceof JCReturn && shape == CodeShape.INLINE) {
+                    List<JCStatement> check = generateReturnCheck((JCReturn) statement);
+                    // the statements of all cases share one scope, the variable must not be declared twice
+                    node = splice(node,
+                            sharedScope ? List.<JCStatement> of(generateBy(maker.Block(0, check))) : check);
+                } else if (statement instanceof JCReturn) {
+                    wrapReturnValue((JCReturn) statement);
+                } else {
+                    // continue behind the statement once its nested statements are rewritten
+                    nested = statement;
+                    dispatch(statement);
+                    scheduled.add(this);
+                    return;
+                }
+            }
+            nonNullVariables = outer;
+        }
+    }
 }
@@ -0,0 +1,41 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.codeprocessor;
+
+/**
+ * The code generated for the return statements of a {@code @Nonnull} method.
+ */
+public enum CodeShape {
+
+    /**
+     * {@code T $result = expr; if ($result == null) throw ...; return $result;} at every return statement.
+     */
+    INLINE,
+
+    /**
+     * {@code return java.util.Objects.requireNonNull(expr, "...");} at every return statement.
+     */
+    REQUIRE_NON_NULL,
+
+    /**
+     * {@code return $nonnullReturn(expr);} at every return statement. The static helper method contains the null
+     * check and is generated once per class.
+     */
+    HELPER,
+
+    /**
+     * {@link #REQUIRE_NON_NULL} for methods with a single return statement, {@link #HELPER} for all other methods.
+     */
+    COMPACT
+}
@@ -13,26 +13,23 @@
  */
 package com.github.drkunibar.lombok.javac.codeprocessor;
 
-import java.util.Collection;
-import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 import org.kohsuke.MetaInfServices;
-import com.sun.tools.javac.tree.JCTree;
+import com.sun.source.tree.Tree;
 import com.sun.tools.javac.tree.JCTree.JCDoWhileLoop;
-import lombok.javac.JavacNode;
 
 @MetaInfServices(Processor.class)
-public class DoWhileProcessor extends CodeProcessor implements Processor<JCDoWhileLoop> {
+public class DoWhileProcessor implements Processor<JCDoWhileLoop> {
 
     @Override
-    public Collection<JCTree.JCStatement> process(JCDoWhileLoop code, JavacNode annotationNode,
-            JCTree.JCExpression returnType) {
-        code.body = parseToSingleStatement(code.body, annotationNode, returnType);
-        return Collections.singleton(code);
+    public void process(JCDoWhileLoop code, CodeProcessor codeProcessor) {
+        code.body = codeProcessor.parseToSingleStatement(code.body);
     }
 
     @Override
-    public Class<JCDoWhileLoop> getSupportedType() {
-        return JCDoWhileLoop.class;
+    public Set<Tree.Kind> getSupportedKinds() {
+        return EnumSet.of(Tree.Kind.DO_WHILE_LOOP);
     }
 
 }
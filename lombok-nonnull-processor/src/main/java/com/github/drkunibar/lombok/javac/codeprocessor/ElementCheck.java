@@ -0,0 +1,155 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.codeprocessor;
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.JCTree.JCArrayTypeTree;
+import com.sun.tools.javac.tree.JCTree.JCExpression;
+import com.sun.tools.javac.tree.JCTree.JCMethodInvocation;
+import com.sun.tools.javac.tree.JCTree.JCPrimitiveTypeTree;
+import com.sun.tools.javac.tree.JCTree.JCStatement;
+import com.sun.tools.javac.tree.JCTree.JCTypeApply;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.Name;
+import lombok.javac.Javac;
+import lombok.javac.JavacNode;
+import lombok.javac.JavacTreeMaker;
+import lombok.javac.handlers.JavacHandlerUtil;
+
+/**
+ * The check of the elements of a {@code @Nonnull} container, see {@code NonnullElements} of lombok-nonnull-runtime.
+ * <p>
+ * Return values are wrapped in a checking view: {@code return NonnullElements.list($result, "the return value");}.
+ * Parameters cannot be replaced and get a bounded scan: {@code NonnullElements.scan(names, "names", 32);}.
+ */
+public final class ElementCheck {
+
+    private static final String[] ELEMENTS = { "com", "github", "drkunibar", "lombok", "runtime", "NonnullElements" };
+
+    private enum Container {
+        LIST("java.util.List", "list", true),
+        SET("java.util.Set", "set", true),
+        COLLECTION("java.util.Collection", "collection", true),
+        MAP("java.util.Map", "map", true),
+        ITERATOR("java.util.Iterator", "iterator", false),
+        STREAM("java.util.stream.Stream", "stream", false),
+        ARRAY(null, "array", true);
+
+        private final String type;
+        private final String view;
+        private final boolean scannable;
+
+        Container(String type, String view, boolean scannable) {
+            this.type = type;
+            this.view = view;
+            this.scannable = scannable;
+        }
+    }
+
+    private final Container container;
+    private final int scanLimit;
+
+    private ElementCheck(Container container, int scanLimit) {
+        this.container = container;
+        this.scanLimit = scanLimit;
+    }
+
+    /**
+     * Returns the element check of a declared type.
+     *
+     * @param node
+     *            a node of the compilation unit, used to resolve the type with its imports
+     * @param type
+     *            the declared type
+     * @param scanLimit
+     *            the maximum number of elements checked by a scan
+     * @return the element check or {@code null} if the type is no supported container
+     */
+    public static ElementCheck forType(@Nonnull JavacNode node, @Nonnull JCExpression type, int scanLimit) {
+        Objects.requireNonNull(node, "'node' must not be null");
+        Objects.requireNonNull(type, "'type' must not be null");
+        if (type instanceof JCArrayTypeTree) {
+            boolean primitive = ((JCArrayTypeTree) type).elemtype instanceof JCPrimitiveTypeTree;
+            return primitive ? null : new ElementCheck(Container.ARRAY, scanLimit);
+        }
+        JCTree rawType = type instanceof JCTypeApply ? ((JCTypeApply) type).clazz : type;
+        for (Container container : Container.values()) {
+            if (container.type != null && JavacHandlerUtil.typeMatches(container.type, node, rawType)) {
+                return new ElementCheck(container, scanLimit);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Wraps a return value in a checking view, arrays are scanned.
+     *
+     * @param source
+     *            the node the code is generated for
+     * @param value
+     *            the checked return value
+     * @param name
+     *            the name of the value in the messages
+     * @return the wrapped value
+     */
+    @Nonnull
+    public JCExpression wrap(@Nonnull JavacNode source, @Nonnull JCExpression value, @Nonnull String name) {
+        Objects.requireNonNull(source, "'source' must not be null");
+        Objects.requireNonNull(value, "'value' must not be null");
+        Objects.requireNonNull(name, "'name' must not be null");
+        JavacTreeMaker maker = source.getTreeMaker();
+        List<JCExpression> args = List.<JCExpression> of(maker.Literal(name));
+        if (container == Container.ARRAY) {
+            args = args.append(maker.Literal(Javac.CTC_INT, scanLimit));
+        }
+        JCMethodInvocation wrapped = maker.Apply(List.<JCExpression> nil(), elementsMethod(source, container.view),
+                args);
+        JavacHandlerUtil.recursiveSetGeneratedBy(wrapped, source);
+        // the value keeps its positions
+        wrapped.args = wrapped.args.prepend(value);
+        return wrapped;
+    }
+
+    /**
+     * Creates the scan of a parameter.
+     *
+     * @param source
+     *            the node the code is generated for
+     * @param variable
+     *            the name of the parameter
+     * @return the statement or {@code null} if the container cannot be scanned without consuming it, e.g. a stream
+     */
+    public JCStatement scan(@Nonnull JavacNode source, @Nonnull Name variable) {
+        Objects.requireNonNull(source, "'source' must not be null");
+        Objects.requireNonNull(variable, "'variable' must not be null");
+        if (!container.scannable) {
+            return null;
+        }
+        JavacTreeMaker maker = source.getTreeMaker();
+        JCStatement scan = maker.Exec(maker.Apply(List.<JCExpression> nil(), elementsMethod(source, "scan"),
+                List.of(maker.Ident(variable), maker.Literal(variable.toString()),
+                        maker.Literal(Javac.CTC_INT, scanLimit))));
+        JavacHandlerUtil.recursiveSetGeneratedBy(scan, source);
+        return scan;
+    }
+
+    private static JCExpression elementsMethod(JavacNode node, String method) {
+        String[] elements = new String[ELEMENTS.length + 1];
+        System.arraycopy(ELEMENTS, 0, elements, 0, ELEMENTS.length);
+        elements[ELEMENTS.length] = method;
+        return JavacHandlerUtil.chainDots(node, elements);
+    }
+}
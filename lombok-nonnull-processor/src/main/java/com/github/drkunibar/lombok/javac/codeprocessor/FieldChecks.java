@@ -0,0 +1,351 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.codeprocessor;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.IntFunction;
+import javax.annotation.Nonnull;
+import com.github.drkunibar.lombok.DisableNonNull;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.JCTree.JCAssign;
+import com.sun.tools.javac.tree.JCTree.JCBlock;
+import com.sun.tools.javac.tree.JCTree.JCClassDecl;
+import com.sun.tools.javac.tree.JCTree.JCExpression;
+import com.sun.tools.javac.tree.JCTree.JCExpressionStatement;
+import com.sun.tools.javac.tree.JCTree.JCFieldAccess;
+import com.sun.tools.javac.tree.JCTree.JCIdent;
+import com.sun.tools.javac.tree.JCTree.JCMethodDecl;
+import com.sun.tools.javac.tree.JCTree.JCPrimitiveTypeTree;
+import com.sun.tools.javac.tree.JCTree.JCStatement;
+import com.sun.tools.javac.tree.JCTree.JCVariableDecl;
+import com.sun.tools.javac.tree.TreeScanner;
+import com.sun.tools.javac.tree.TreeTranslator;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.ListBuffer;
+import com.sun.tools.javac.util.Name;
+import com.github.drkunibar.lombok.javac.codeprocessor.NullnessAnalyzer.Nullness;
+import lombok.core.AST.Kind;
+import lombok.javac.JavacNode;
+import lombok.javac.JavacTreeMaker;
+import lombok.javac.handlers.JavacHandlerUtil;
+
+/**
+ * The checks of {@code @Nonnull} fields. A field is checked when it is assigned instead of every time it is read:
+ * behind every assignment statement in the constructors, methods and instance initializers of its class and in an
+ * instance initializer for its initial value.
+ */
+public final class FieldChecks {
+
+    private FieldChecks() {
+    }
+
+    /**
+     * Adds a check behind every statement which assigns the field, e.g. {@code this.name = name;} or
+     * {@code name = value;} if no parameter or local variable hides the field. Values which are never {@code null},
+     * e.g. primitives or {@code @Nonnull} parameters, need no check. Nested classes are skipped.
+     *
+     * @param memberNode
+     *            the constructor, method or instance initializer
+     * @param field
+     *            the name of the field
+     * @param analyzer
+     *            the analyzer of the assigned values
+     * @param checks
+     *            creates a check of the field for the source position of the assignment
+     * @return the number of added checks
+     */
+    public static int addAssignmentChecks(@Nonnull JavacNode memberNode, @Nonnull Name field,
+            @Nonnull NullnessAnalyzer analyzer, @Nonnull IntFunction<JCStatement> checks) {
+        Objects.requireNonNull(memberNode, "'memberNode' must not be null");
+        Objects.requireNonNull(field, "'field' must not be null");
+        Objects.requireNonNull(analyzer, "'analyzer' must not be null");
+        Objects.requireNonNull(checks, "'checks' must not be null");
+        JCBlock body = body(memberNode.get());
+        if (body == null) {
+            return 0;
+        }
+        AssignmentTranslator translator = new AssignmentTranslator(memberNode, body, field,
+                !declaredNames(memberNode.get()).contains(field), analyzer, checks);
+        translator.translate(body);
+        return translator.count;
+    }
+
+    /**
+     * Replaces the accesses of a variable with the name of the field by accesses of the field, e.g. in a check created
+     * for the variable.
+     *
+     * @param source
+     *            the node the check is generated for
+     * @param check
+     *            the check
+     * @param field
+     *            the name of the field
+     * @return the check
+     */
+    @Nonnull
+    public static JCStatement accessField(@Nonnull JavacNode source, @Nonnull JCStatement check, @Nonnull Name field) {
+        Objects.requireNonNull(source, "'source' must not be null");
+        Objects.requireNonNull(check, "'check' must not be null");
+        Objects.requireNonNull(field, "'field' must not be null");
+        JavacTreeMaker maker = source.getTreeMaker();
+        TreeTranslator translator = new TreeTranslator() {
+
+            @Override
+            public void visitIdent(JCIdent tree) {
+                if (tree.name != field) {
+                    result = tree;
+                    return;
+                }
+                // the position of the source: javac reports a read in front of the field as forward reference
+                result = JavacHandlerUtil.recursiveSetGeneratedBy(maker.Select(maker.Ident(source.toName("this")),
+                        field), source);
+            }
+        };
+        return translator.translate(check);
+    }
+
+    /**
+     * Creates an instance initializer with the check of the initial value of a field.
+     *
+     * @param fieldNode
+     *            the field
+     * @param check
+     *            the check of the field
+     * @return the initializer, already injected into the class behind all other members
+     */
+    @Nonnull
+    public static JCBlock injectInitializer(@Nonnull JavacNode fieldNode, @Nonnull JCStatement check) {
+        Objects.requireNonNull(fieldNode, "'fieldNode' must not be null");
+        Objects.requireNonNull(check, "'check' must not be null");
+        JCBlock initializer = fieldNode.getTreeMaker()
+                .Block(0, List.of(check));
+        JavacHandlerUtil.recursiveSetGeneratedBy(initializer, fieldNode);
+        JavacNode typeNode = fieldNode.up();
+        JCClassDecl type = (JCClassDecl) typeNode.get();
+        // runs behind all field initializers
+        type.defs = type.defs.append(initializer);
+        typeNode.add(initializer, Kind.INITIALIZER);
+        return initializer;
+    }
+
+    /**
+     * Returns the {@code @Nonnull} fields of a class which are final and not static. Every constructor has to assign
+     * them, so their checks make them non-null everywhere else. A field which is assigned within an expression, e.g.
+     * {@code alias = this.name = name;}, is left out: only assignment statements are checked.
+     *
+     * @param typeNode
+     *            the class
+     * @return the names of the fields
+     */
+    @Nonnull
+    public static Set<Name> checkedFinalFields(@Nonnull JavacNode typeNode) {
+        Objects.requireNonNull(typeNode, "'typeNode' must not be null");
+        Set<Name> fields = new HashSet<>();
+        for (JavacNode member : typeNode.down()) {
+            if (member.getKind() != Kind.FIELD) {
+                continue;
+            }
+            JCVariableDecl field = (JCVariableDecl) member.get();
+            boolean finalField = (field.mods.flags & (Flags.FINAL | Flags.STATIC)) == Flags.FINAL;
+            if (finalField && !(field.vartype instanceof JCPrimitiveTypeTree)
+                    && JavacHandlerUtil.hasAnnotation(Nonnull.class, member)
+                    && !JavacHandlerUtil.hasAnnotation(DisableNonNull.class, member)) {
+                fields.add(field.name);
+            }
+        }
+        if (!fields.isEmpty()) {
+            fields.removeAll(nestedAssignments(typeNode));
+        }
+        return fields;
+    }
+
+    /**
+     * Returns the names of the parameters and all variables declared in the method or initializer, including nested
+     * classes and lambdas.
+     *
+     * @param method
+     *            the method or initializer
+     * @return the names
+     */
+    @Nonnull
+    public static Set<Name> declaredNames(@Nonnull JCTree method) {
+        Objects.requireNonNull(method, "'method' must not be null");
+        Set<Name> names = new HashSet<>();
+        new TreeScanner() {
+
+            @Override
+            public void visitVarDef(JCVariableDecl tree) {
+                names.add(tree.name);
+                super.visitVarDef(tree);
+            }
+        }.scan(method);
+        return names;
+    }
+
+    /**
+     * Returns the names of the fields which the constructors and instance initializers of a class assign within an
+     * expression, e.g. {@code alias = this.name = name;} or {@code use(this.name = name);}. The assigned values are
+     * not checked. A local variable with the name of a field counts as the field.
+     */
+    private static Set<Name> nestedAssignments(JavacNode typeNode) {
+        Set<Name> names = new HashSet<>();
+        TreeScanner scanner = new TreeScanner() {
+
+            @Override
+            public void visitExec(JCExpressionStatement tree) {
+                if (tree.expr instanceof JCAssign) {
+                    // checked by the AssignmentTranslator
+                    scan(((JCAssign) tree.expr).rhs);
+                } else {
+                    super.visitExec(tree);
+                }
+            }
+
+            @Override
+            public void visitAssign(JCAssign tree) {
+                Name name = assignedField(tree.lhs);
+                if (name != null) {
+                    names.add(name);
+                }
+                super.visitAssign(tree);
+            }
+        };
+        for (JavacNode member : typeNode.down()) {
+            JCTree tree = member.get();
+            boolean constructor = member.getKind() == Kind.METHOD && ((JCMethodDecl) tree).name.toString()
+                    .equals("<init>");
+            if (constructor || isInstanceInitializer(member)) {
+                scanner.scan(body(tree));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Returns the name of the field of {@code this} which is the target of an assignment, {@code name} or
+     * {@code this.name}, or {@code null}.
+     */
+    private static Name assignedField(JCExpression target) {
+        if (target instanceof JCIdent) {
+            return ((JCIdent) target).name;
+        }
+        if (target instanceof JCFieldAccess && ((JCFieldAccess) target).selected instanceof JCIdent
+                && ((JCIdent) ((JCFieldAccess) target).selected).name.toString()
+                        .equals("this")) {
+            return ((JCFieldAccess) target).name;
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether the member is a non-static initializer block written by hand.
+     *
+     * @param member
+     *            the member of a class
+     * @return {@code true} for an instance initializer
+     */
+    public static boolean isInstanceInitializer(@Nonnull JavacNode member) {
+        Objects.requireNonNull(member, "'member' must not be null");
+        return member.getKind() == Kind.INITIALIZER && (((JCBlock) member.get()).flags & Flags.STATIC) == 0L
+                && !JavacHandlerUtil.isGenerated(member.get());
+    }
+
+    /**
+     * Returns the body of a method or the block of an initializer, {@code null} for an abstract method.
+     */
+    private static JCBlock body(JCTree member) {
+        return member instanceof JCMethodDecl ? ((JCMethodDecl) member).body : (JCBlock) member;
+    }
+
+    private static class AssignmentTranslator extends TreeTranslator {
+
+        private final JavacNode methodNode;
+        private final Name field;
+        private final boolean identIsField;
+        private final NullnessAnalyzer analyzer;
+        private final IntFunction<JCStatement> checks;
+        private final Set<Name> nonNullParameters;
+        private int count;
+
+        AssignmentTranslator(JavacNode methodNode, JCBlock body, Name field, boolean identIsField,
+                NullnessAnalyzer analyzer, IntFunction<JCStatement> checks) {
+            this.methodNode = methodNode;
+            this.field = field;
+            this.identIsField = identIsField;
+            this.analyzer = analyzer;
+            this.checks = checks;
+            // a parameter assigned anywhere in the method may be null at any assignment of the field
+            this.nonNullParameters = NonNullNames.parameters(methodNode)
+                    .withNullable(NonNullNames.assignedNames(body));
+        }
+
+        @Override
+        public void visitBlock(JCBlock tree) {
+            ListBuffer<JCStatement> stats = new ListBuffer<>();
+            for (JCStatement statement : tree.stats) {
+                stats.append(isAssignment(statement) ? statement : translate(statement));
+                if (needsCheck(statement)) {
+                    stats.append(checks.apply(statement.pos));
+                    count++;
+                }
+            }
+            tree.stats = stats.toList();
+            result = tree;
+        }
+
+        @Override
+        public void visitExec(JCExpressionStatement tree) {
+            // e.g. the single statement of an if
+            if (needsCheck(tree)) {
+                count++;
+                JCBlock block = methodNode.getTreeMaker()
+                        .Block(0, List.of(tree, checks.apply(tree.pos)));
+                result = JavacHandlerUtil.setGeneratedBy(block, methodNode);
+            } else {
+                result = tree;
+            }
+        }
+
+        @Override
+        public void visitClassDef(JCClassDecl tree) {
+            // 'this' is another object
+            result = tree;
+        }
+
+        private boolean needsCheck(JCStatement statement) {
+            if (!isAssignment(statement)) {
+                return false;
+            }
+            JCAssign assign = (JCAssign) ((JCExpressionStatement) statement).expr;
+            Nullness nullness = analyzer.nullness(assign.rhs, nonNullParameters, Collections.<Name> emptySet());
+            if (nullness == Nullness.NULL) {
+                methodNode.addError("@Nonnull annotated field '" + field + "' is assigned null", assign);
+            }
+            return nullness == Nullness.UNKNOWN;
+        }
+
+        private boolean isAssignment(JCTree statement) {
+            if (!(statement instanceof JCExpressionStatement)
+                    || !(((JCExpressionStatement) statement).expr instanceof JCAssign)) {
+                return false;
+            }
+            JCExpression target = ((JCAssign) ((JCExpressionStatement) statement).expr).lhs;
+            return assignedField(target) == field && (identIsField || target instanceof JCFieldAccess);
+        }
+    }
+}
@@ -13,26 +13,23 @@
  */
 package com.github.drkunibar.lombok.javac.codeprocessor;
 
-import java.util.Collection;
-import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 import org.kohsuke.MetaInfServices;
-import com.sun.tools.javac.tree.JCTree;
+import com.sun.source.tree.Tree;
 import com.sun.tools.javac.tree.JCTree.JCEnhancedForLoop;
-import lombok.javac.JavacNode;
 
 @MetaInfServices(Processor.class)
-public class ForEnhanceProcessor extends CodeProcessor implements Processor<JCEnhancedForLoop> {
+public class ForEnhanceProcessor implements Processor<JCEnhancedForLoop> {
 
     @Override
-    public Collection<JCTree.JCStatement> process(JCEnhancedForLoop code, JavacNode annotationNode,
-            JCTree.JCExpression returnType) {
-        code.body = parseToSingleStatement(code.body, annotationNode, returnType);
-        return Collections.singleton(code);
+    public void process(JCEnhancedForLoop code, CodeProcessor codeProcessor) {
+        code.body = codeProcessor.parseToSingleStatement(code.body);
     }
 
     @Override
-    public Class<JCEnhancedForLoop> getSupportedType() {
-        return JCEnhancedForLoop.class;
+    public Set<Tree.Kind> getSupportedKinds() {
+        return EnumSet.of(Tree.Kind.ENHANCED_FOR_LOOP);
     }
 
 }
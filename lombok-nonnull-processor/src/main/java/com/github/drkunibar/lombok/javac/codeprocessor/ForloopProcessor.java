@@ -13,26 +13,23 @@
  */
 package com.github.drkunibar.lombok.javac.codeprocessor;
 
-import java.util.Collection;
-import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 import org.kohsuke.MetaInfServices;
-import com.sun.tools.javac.tree.JCTree;
+import com.sun.source.tree.Tree;
 import com.sun.tools.javac.tree.JCTree.JCForLoop;
-import lombok.javac.JavacNode;
 
 @MetaInfServices(Processor.class)
-public class ForloopProcessor extends CodeProcessor implements Processor<JCForLoop> {
+public class ForloopProcessor implements Processor<JCForLoop> {
 
     @Override
-    public Collection<JCTree.JCStatement> process(JCForLoop code, JavacNode annotationNode,
-            JCTree.JCExpression returnType) {
-        code.body = parseToSingleStatement(code.body, annotationNode, returnType);
-        return Collections.singleton(code);
+    public void process(JCForLoop code, CodeProcessor codeProcessor) {
+        code.body = codeProcessor.parseToSingleStatement(code.body);
     }
 
     @Override
-    public Class<JCForLoop> getSupportedType() {
-        return JCForLoop.class;
+    public Set<Tree.Kind> getSupportedKinds() {
+        return EnumSet.of(Tree.Kind.FOR_LOOP);
     }
 
 }
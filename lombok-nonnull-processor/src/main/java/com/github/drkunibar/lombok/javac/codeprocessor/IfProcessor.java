@@ -13,29 +13,26 @@
  */
 package com.github.drkunibar.lombok.javac.codeprocessor;
 
-import java.util.Collection;
-import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 import org.kohsuke.MetaInfServices;
-import com.sun.tools.javac.tree.JCTree.JCExpression;
+import com.sun.source.tree.Tree;
 import com.sun.tools.javac.tree.JCTree.JCIf;
-import com.sun.tools.javac.tree.JCTree.JCStatement;
-import lombok.javac.JavacNode;
 
 @MetaInfServices(Processor.class)
-public class IfProcessor extends CodeProcessor implements Processor<JCIf> {
+public class IfProcessor implements Processor<JCIf> {
 
     @Override
-    public Collection<JCStatement> process(JCIf code, JavacNode annotationNode, JCExpression returnType) {
-        code.thenpart = parseToSingleStatement(code.thenpart, annotationNode, returnType);
+    public void process(JCIf code, CodeProcessor codeProcessor) {
+        code.thenpart = codeProcessor.parseToSingleStatement(code.thenpart);
         if (code.elsepart != null) {
-            code.elsepart = parseToSingleStatement(code.elsepart, annotationNode, returnType);
+            code.elsepart = codeProcessor.parseToSingleStatement(code.elsepart);
         }
-        return Collections.singleton(code);
     }
 
     @Override
-    public Class<JCIf> getSupportedType() {
-        return JCIf.class;
+    public Set<Tree.Kind> getSupportedKinds() {
+        return EnumSet.of(Tree.Kind.IF);
     }
 
 }
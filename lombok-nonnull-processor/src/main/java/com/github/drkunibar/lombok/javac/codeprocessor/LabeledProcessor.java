@@ -0,0 +1,35 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.codeprocessor;
+
+import java.util.EnumSet;
+import java.util.Set;
+import org.kohsuke.MetaInfServices;
+import com.sun.source.tree.Tree;
+import com.sun.tools.javac.tree.JCTree.JCLabeledStatement;
+
+@MetaInfServices(Processor.class)
+public class LabeledProcessor implements Processor<JCLabeledStatement> {
+
+    @Override
+    public void process(JCLabeledStatement code, CodeProcessor codeProcessor) {
+        code.body = codeProcessor.parseToSingleStatement(code.body);
+    }
+
+    @Override
+    public Set<Tree.Kind> getSupportedKinds() {
+        return EnumSet.of(Tree.Kind.LABELED_STATEMENT);
+    }
+
+}
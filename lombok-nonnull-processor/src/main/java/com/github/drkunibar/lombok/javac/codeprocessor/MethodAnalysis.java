@@ -0,0 +1,184 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.codeprocessor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import javax.annotation.Nonnull;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.JCTree.JCCompilationUnit;
+import com.sun.tools.javac.tree.JCTree.JCMethodDecl;
+
+/**
+ * The read-only part of the return value checks of a method: the statements on the paths to its return statements
+ * and its estimated bytecode size before the checks are added.
+ * <p>
+ * An analysis only reads the javac trees, so the methods of a type can be analyzed concurrently on a bounded
+ * {@link ForkJoinPool}. The {@link CodeProcessor} rewrites the methods afterwards one after the other. The nullness of
+ * the returned expressions depends on the statements before the return and is still decided during the rewrite.
+ */
+public final class MethodAnalysis {
+
+    private final Set<JCTree> returnPaths;
+    private final int sizeBefore;
+    private final long nanos;
+    private final boolean cached;
+
+    private MethodAnalysis(Set<JCTree> returnPaths, int sizeBefore, long nanos, boolean cached) {
+        this.returnPaths = returnPaths;
+        this.sizeBefore = sizeBefore;
+        this.nanos = nanos;
+        this.cached = cached;
+    }
+
+    /**
+     * Creates an analysis from its parts, e.g. from the {@link AnalysisCache}.
+     */
+    static MethodAnalysis of(Set<JCTree> returnPaths, int sizeBefore, long nanos, boolean cached) {
+        return new MethodAnalysis(returnPaths, sizeBefore, nanos, cached);
+    }
+
+    /**
+     * Analyzes a method.
+     *
+     * @param method
+     *            the method
+     * @param findReturnPaths
+     *            {@code true} to find the return paths, the method has a {@code @Nonnull} return value
+     * @param estimateSize
+     *            {@code true} to estimate the bytecode size
+     * @return the analysis
+     */
+    @Nonnull
+    public static MethodAnalysis analyze(@Nonnull JCMethodDecl method, boolean findReturnPaths,
+            boolean estimateSize) {
+        Objects.requireNonNull(method, "'method' must not be null");
+        long start = System.nanoTime();
+        Set<JCTree> returnPaths = findReturnPaths && method.body != null
+                ? ReturnScanner.findReturnPaths(method.body)
+                : Collections.<JCTree> emptySet();
+        int sizeBefore = estimateSize ? BytecodeSizeEstimator.estimate(method) : -1;
+        return new MethodAnalysis(returnPaths, sizeBefore, System.nanoTime() - start, false);
+    }
+
+    /**
+     * Analyzes the methods of a type.
+     *
+     * @param unit
+     *            the compilation unit of the methods, identifies the source in the cache
+     * @param methods
+     *            the methods to analyze
+     * @param returnChecked
+     *            the methods with a {@code @Nonnull} return value, compared by identity
+     * @param estimateSize
+     *            {@code true} to estimate the bytecode size
+     * @param pool
+     *            the pool for a concurrent analysis or {@code null} to analyze the methods in the calling thread
+     * @param cache
+     *            the cache of the analyses or {@code null}
+     * @return the analyses by method, compared by identity
+     */
+    @Nonnull
+    public static Map<JCMethodDecl, MethodAnalysis> analyzeAll(@Nonnull JCCompilationUnit unit,
+            @Nonnull Collection<JCMethodDecl> methods, @Nonnull Set<JCMethodDecl> returnChecked, boolean estimateSize,
+            ForkJoinPool pool, AnalysisCache cache) {
+        Objects.requireNonNull(unit, "'unit' must not be null");
+        Objects.requireNonNull(methods, "'methods' must not be null");
+        Objects.requireNonNull(returnChecked, "'returnChecked' must not be null");
+        Map<JCMethodDecl, MethodAnalysis> analyses = new IdentityHashMap<>();
+        if (pool == null || methods.size() < 2) {
+            for (JCMethodDecl method : methods) {
+                analyses.put(method, analyze(unit, method, returnChecked.contains(method), estimateSize, cache));
+            }
+            return analyses;
+        }
+        List<JCMethodDecl> ordered = new ArrayList<>(methods);
+        List<Callable<MethodAnalysis>> tasks = new ArrayList<>(ordered.size());
+        for (JCMethodDecl method : ordered) {
+            boolean findReturnPaths = returnChecked.contains(method);
+            tasks.add(() -> analyze(unit, method, findReturnPaths, estimateSize, cache));
+        }
+        // the rewrites start after all analyses are finished, the trees are not modified meanwhile
+        List<Future<MethodAnalysis>> results = pool.invokeAll(tasks);
+        for (int i = 0; i < ordered.size(); i++) {
+            analyses.put(ordered.get(i), result(results.get(i)));
+        }
+        return analyses;
+    }
+
+    private static MethodAnalysis analyze(JCCompilationUnit unit, JCMethodDecl method, boolean findReturnPaths,
+            boolean estimateSize, AnalysisCache cache) {
+        return cache != null ? cache.analyze(unit, method, findReturnPaths, estimateSize)
+                : analyze(method, findReturnPaths, estimateSize);
+    }
+
+    private static MethodAnalysis result(Future<MethodAnalysis> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+            throw new IllegalStateException("the analysis of the methods was interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Returns the statements on the paths to the return statements, see {@link ReturnScanner}. Empty if the method
+     * has no {@code @Nonnull} return value.
+     */
+    @Nonnull
+    public Set<JCTree> getReturnPaths() {
+        return returnPaths;
+    }
+
+    /**
+     * Returns the estimated bytecode size before the checks or -1 if it was not estimated.
+     */
+    public int getSizeBefore() {
+        return sizeBefore;
+    }
+
+    /**
+     * Returns the time spent in the analysis.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Returns {@code true} if the analysis was taken from the {@link AnalysisCache}.
+     */
+    public boolean isCached() {
+        return cached;
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.codeprocessor;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import com.github.drkunibar.lombok.DisableNonNull;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.JCTree.JCAssign;
+import com.sun.tools.javac.tree.JCTree.JCAssignOp;
+import com.sun.tools.javac.tree.JCTree.JCIdent;
+import com.sun.tools.javac.tree.JCTree.JCPrimitiveTypeTree;
+import com.sun.tools.javac.tree.JCTree.JCVariableDecl;
+import com.sun.tools.javac.tree.TreeScanner;
+import com.sun.tools.javac.util.Name;
+import lombok.core.AST.Kind;
+import lombok.javac.JavacNode;
+import lombok.javac.handlers.JavacHandlerUtil;
+
+/**
+ * The variables which are never {@code null} at a point of a method body.
+ * <p>
+ * The set is immutable and linked, the newest entry first. An entry hides the older entries of the same name, so a
+ * change is a single new entry and the state at the start of a block is restored by keeping a reference to it.
+ */
+final class NonNullNames extends AbstractSet<Name> {
+
+    private enum State {
+        /** a variable which may be {@code null} */
+        NULLABLE,
+        /** a variable which is not {@code null} until it is assigned */
+        NON_NULL,
+        /** a name which is never {@code null}, e.g. a primitive variable */
+        CONSTANT
+    }
+
+    static final NonNullNames EMPTY = new NonNullNames(null, null, null);
+
+    private final Name name;
+    private final State state;
+    private final NonNullNames next;
+
+    private NonNullNames(Name name, State state, NonNullNames next) {
+        this.name = name;
+        this.state = state;
+        this.next = next;
+    }
+
+    /**
+     * Returns the parameters of a method: primitive parameters are never {@code null}, {@code @Nonnull} parameters
+     * are checked by Lombok on entry and not {@code null} until they are assigned.
+     *
+     * @param methodNode
+     *            the method
+     * @return the parameters
+     */
+    @Nonnull
+    static NonNullNames parameters(@Nonnull JavacNode methodNode) {
+        Objects.requireNonNull(methodNode, "'methodNode' must not be null");
+        NonNullNames names = EMPTY;
+        for (JavacNode child : methodNode.down()) {
+            if (child.getKind() != Kind.ARGUMENT) {
+                continue;
+            }
+            JCVariableDecl parameter = (JCVariableDecl) child.get();
+            if (parameter.vartype instanceof JCPrimitiveTypeTree) {
+                names = names.withConstant(parameter.name);
+            } else {
+                names = names.withVariable(parameter.name, isCheckedParameter(child));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Returns the names of the variables which are assigned in the tree, e.g. {@code name = value} or
+     * {@code name += value}.
+     *
+     * @param tree
+     *            the tree, e.g. a statement
+     * @return the names
+     */
+    @Nonnull
+    static Set<Name> assignedNames(@Nonnull JCTree tree) {
+        Objects.requireNonNull(tree, "'tree' must not be null");
+        Set<Name> names = new HashSet<>();
+        new TreeScanner() {
+
+            @Override
+            public void visitAssign(JCAssign assign) {
+                if (assign.lhs instanceof JCIdent) {
+                    names.add(((JCIdent) assign.lhs).name);
+                }
+                super.visitAssign(assign);
+            }
+
+            @Override
+            public void visitAssignop(JCAssignOp assign) {
+                if (assign.lhs instanceof JCIdent) {
+                    names.add(((JCIdent) assign.lhs).name);
+                }
+                super.visitAssignop(assign);
+            }
+        }.scan(tree);
+        return names;
+    }
+
+    /**
+     * Declares a local variable or a parameter.
+     *
+     * @param variable
+     *            the name of the variable
+     * @param nonNull
+     *            {@code true} if the initial value is never {@code null}
+     * @return the new set
+     */
+    @Nonnull
+    NonNullNames withVariable(@Nonnull Name variable, boolean nonNull) {
+        return new NonNullNames(variable, nonNull ? State.NON_NULL : State.NULLABLE, this);
+    }
+
+    /**
+     * Adds a name which is never {@code null} and cannot be assigned, e.g. a primitive variable.
+     *
+     * @param constant
+     *            the name
+     * @return the new set
+     */
+    @Nonnull
+    NonNullNames withConstant(@Nonnull Name constant) {
+        return new NonNullNames(constant, State.CONSTANT, this);
+    }
+
+    /**
+     * Records what is known about a variable after an assignment or a check. Names which are not declared as
+     * variables, e.g. fields, are ignored: another method could change them.
+     *
+     * @param variable
+     *            the name of the variable
+     * @param nonNull
+     *            {@code true} if the variable is not {@code null} from now on
+     * @return the new set
+     */
+    @Nonnull
+    NonNullNames withAssignment(@Nonnull Name variable, boolean nonNull) {
+        State current = stateOf(variable);
+        State assigned = nonNull ? State.NON_NULL : State.NULLABLE;
+        if (current == null || current == State.CONSTANT || current == assigned) {
+            return this;
+        }
+        return new NonNullNames(variable, assigned, this);
+    }
+
+    /**
+     * Forgets what is known about the given variables, e.g. because they are assigned in a loop.
+     *
+     * @param variables
+     *            the names of the variables
+     * @return the new set
+     */
+    @Nonnull
+    NonNullNames withNullable(@Nonnull Set<Name> variables) {
+        NonNullNames names = this;
+        for (Name variable : variables) {
+            names = names.withAssignment(variable, false);
+        }
+        return names;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        State current = o instanceof Name ? stateOf((Name) o) : null;
+        return current == State.NON_NULL || current == State.CONSTANT;
+    }
+
+    @Override
+    public Iterator<Name> iterator() {
+        Set<Name> seen = new HashSet<>();
+        List<Name> names = new ArrayList<>();
+        for (NonNullNames entry = this; entry.next != null; entry = entry.next) {
+            if (seen.add(entry.name) && entry.state != State.NULLABLE) {
+                names.add(entry.name);
+            }
+        }
+        return Collections.unmodifiableList(names)
+                .iterator();
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Iterator<Name> iterator = iterator(); iterator.hasNext(); iterator.next()) {
+            size++;
+        }
+        return size;
+    }
+
+    private State stateOf(Name variable) {
+        for (NonNullNames entry = this; entry.next != null; entry = entry.next) {
+            if (entry.name == variable) {
+                return entry.state;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isCheckedParameter(JavacNode parameterNode) {
+        if (JavacHandlerUtil.hasAnnotation(DisableNonNull.class, parameterNode)) {
+            return false;
+        }
+        for (JavacNode annotation : parameterNode.down()) {
+            if (annotation.getKind() == Kind.ANNOTATION
+                    && JavacHandlerUtil.annotationTypeMatches(Nonnull.class, annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
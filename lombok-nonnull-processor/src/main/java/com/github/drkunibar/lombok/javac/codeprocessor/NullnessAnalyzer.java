@@ -0,0 +1,229 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.codeprocessor;
+
+import static lombok.core.AST.Kind.FIELD;
+import static lombok.core.AST.Kind.TYPE;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import com.sun.source.tree.BinaryTree;
+import com.sun.source.tree.CompoundAssignmentTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.UnaryTree;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.JCTree.JCAssign;
+import com.sun.tools.javac.tree.JCTree.JCClassDecl;
+import com.sun.tools.javac.tree.JCTree.JCConditional;
+import com.sun.tools.javac.tree.JCTree.JCExpression;
+import com.sun.tools.javac.tree.JCTree.JCFieldAccess;
+import com.sun.tools.javac.tree.JCTree.JCIdent;
+import com.sun.tools.javac.tree.JCTree.JCMethodInvocation;
+import com.sun.tools.javac.tree.JCTree.JCParens;
+import com.sun.tools.javac.tree.JCTree.JCPrimitiveTypeTree;
+import com.sun.tools.javac.tree.JCTree.JCTypeCast;
+import com.sun.tools.javac.tree.JCTree.JCVariableDecl;
+import com.sun.tools.javac.util.Name;
+import lombok.javac.JavacAST;
+import lombok.javac.JavacNode;
+
+/**
+ * Decides from the syntax tree alone whether an expression is never {@code null}.
+ * <p>
+ * The analysis runs before attribution, so it only knows what the source spells out: literals, object and array
+ * creation, {@code this}, operators (their results are primitives or strings), casts to primitives, lambdas, method
+ * references, {@code Objects.requireNonNull(..)}, the variables known to be non-null at the expression, the checked
+ * {@code @Nonnull} fields and the constants of the enums declared in the same compilation unit. Everything else is
+ * {@link Nullness#UNKNOWN}.
+ */
+public class NullnessAnalyzer {
+
+    /**
+     * The result of the analysis.
+     */
+    public enum Nullness {
+        /** the expression is never {@code null} */
+        NON_NULL,
+        /** the expression is the {@code null} literal */
+        NULL,
+        /** the expression may be {@code null} */
+        UNKNOWN
+    }
+
+    private final JavacAST ast;
+    private Map<String, Set<String>> enumConstants;
+
+    /**
+     * Creates an analyzer for the expressions of a compilation unit.
+     *
+     * @param ast
+     *            the compilation unit
+     */
+    public NullnessAnalyzer(@Nonnull JavacAST ast) {
+        this.ast = Objects.requireNonNull(ast, "'ast' must not be null");
+    }
+
+    /**
+     * Returns {@code true} if the analyzer belongs to the given compilation unit.
+     *
+     * @param ast
+     *            the compilation unit
+     * @return {@code true} if the analyzer belongs to the compilation unit
+     */
+    public boolean isFor(@Nonnull JavacAST ast) {
+        return this.ast == ast;
+    }
+
+    /**
+     * Analyzes an expression.
+     *
+     * @param expression
+     *            the expression, e.g. of a return statement
+     * @param nonNullVariables
+     *            the names which are not {@code null} as identifier at the expression, e.g. primitive variables or
+     *            checked parameters which are not assigned before
+     * @param nonNullFields
+     *            the fields which are never {@code null} as {@code this.<field>}
+     * @return the nullness of the expression
+     */
+    @Nonnull
+    public Nullness nullness(@Nonnull JCExpression expression, @Nonnull Set<Name> nonNullVariables,
+            @Nonnull Set<Name> nonNullFields) {
+        Objects.requireNonNull(expression, "'expression' must not be null");
+        Objects.requireNonNull(nonNullVariables, "'nonNullVariables' must not be null");
+        Objects.requireNonNull(nonNullFields, "'nonNullFields' must not be null");
+        JCExpression current = expression;
+        while (current instanceof JCParens || current instanceof JCAssign) {
+            current = current instanceof JCParens ? ((JCParens) current).expr : ((JCAssign) current).rhs;
+        }
+        if (current instanceof JCConditional) {
+            JCConditional conditional = (JCConditional) current;
+            boolean nonNull = nullness(conditional.truepart, nonNullVariables, nonNullFields) == Nullness.NON_NULL
+                    && nullness(conditional.falsepart, nonNullVariables, nonNullFields) == Nullness.NON_NULL;
+            return nonNull ? Nullness.NON_NULL : Nullness.UNKNOWN;
+        }
+        if (current instanceof JCTypeCast) {
+            JCTypeCast cast = (JCTypeCast) current;
+            return cast.clazz instanceof JCPrimitiveTypeTree ? Nullness.NON_NULL
+                    : nullness(cast.expr, nonNullVariables, nonNullFields);
+        }
+        if (current instanceof JCIdent) {
+            Name name = ((JCIdent) current).name;
+            return name.toString()
+                    .equals("this") || nonNullVariables.contains(name) ? Nullness.NON_NULL : Nullness.UNKNOWN;
+        }
+        if (current instanceof JCFieldAccess) {
+            JCFieldAccess select = (JCFieldAccess) current;
+            boolean nonNull = (isThis(select.selected) && nonNullFields.contains(select.name))
+                    || isNonNullSelect(select);
+            return nonNull ? Nullness.NON_NULL : Nullness.UNKNOWN;
+        }
+        if (current instanceof JCMethodInvocation) {
+            return isNonNullInvocation((JCMethodInvocation) current) ? Nullness.NON_NULL : Nullness.UNKNOWN;
+        }
+        return nullness(current.getKind());
+    }
+
+    private static Nullness nullness(Tree.Kind kind) {
+        switch (kind.name()) {
+        case "NULL_LITERAL":
+            return Nullness.NULL;
+        case "INT_LITERAL":
+        case "LONG_LITERAL":
+        case "FLOAT_LITERAL":
+        case "DOUBLE_LITERAL":
+        case "BOOLEAN_LITERAL":
+        case "CHAR_LITERAL":
+        case "STRING_LITERAL":
+        case "NEW_CLASS":
+        case "NEW_ARRAY":
+        case "INSTANCE_OF":
+        case "LAMBDA_EXPRESSION":
+        case "MEMBER_REFERENCE":
+            return Nullness.NON_NULL;
+        default:
+            // unary, binary and compound assignment operators result in a primitive or a string
+            Class<? extends Tree> type = kind.asInterface();
+            boolean operator = type == UnaryTree.class || type == BinaryTree.class
+                    || type == CompoundAssignmentTree.class;
+            return operator ? Nullness.NON_NULL : Nullness.UNKNOWN;
+        }
+    }
+
+    private static boolean isThis(JCExpression expression) {
+        return expression instanceof JCIdent && ((JCIdent) expression).name.toString()
+                .equals("this");
+    }
+
+    private boolean isNonNullSelect(JCFieldAccess select) {
+        String name = select.name.toString();
+        if (name.equals("class") || name.equals("this")) {
+            return true;
+        }
+        if (!(select.selected instanceof JCIdent)) {
+            return false;
+        }
+        Set<String> constants = enumConstants().get(((JCIdent) select.selected).name.toString());
+        return constants != null && constants.contains(name);
+    }
+
+    private static boolean isNonNullInvocation(JCMethodInvocation invocation) {
+        return isRequireNonNull(invocation) || invocation.meth.toString()
+                .equals(CodeProcessor.HELPER_NAME);
+    }
+
+    /**
+     * Returns {@code true} if the invocation is {@code Objects.requireNonNull(..)}, it returns its first argument and
+     * throws if it is {@code null}.
+     */
+    static boolean isRequireNonNull(JCMethodInvocation invocation) {
+        String method = invocation.meth.toString();
+        return method.equals("Objects.requireNonNull") || method.equals("java.util.Objects.requireNonNull");
+    }
+
+    /**
+     * Returns the constants of the enums declared in the compilation unit by the simple name of the enum.
+     */
+    private Map<String, Set<String>> enumConstants() {
+        if (enumConstants == null) {
+            enumConstants = new HashMap<>();
+            collectEnumConstants(ast.top());
+        }
+        return enumConstants;
+    }
+
+    private void collectEnumConstants(JavacNode node) {
+        for (JavacNode child : node.down()) {
+            if (child.getKind() != TYPE) {
+                continue;
+            }
+            JCClassDecl type = (JCClassDecl) child.get();
+            if ((type.mods.flags & Flags.ENUM) != 0L) {
+                Set<String> constants = enumConstants.computeIfAbsent(type.name.toString(), n -> new HashSet<>());
+                for (JavacNode member : child.down()) {
+                    JCTree field = member.get();
+                    if (member.getKind() == FIELD && (((JCVariableDecl) field).mods.flags & Flags.ENUM) != 0L) {
+                        constants.add(member.getName());
+                    }
+                }
+            }
+            collectEnumConstants(child);
+        }
+    }
+}
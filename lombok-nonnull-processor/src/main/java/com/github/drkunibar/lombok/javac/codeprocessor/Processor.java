@@ -13,18 +13,28 @@
  */
 package com.github.drkunibar.lombok.javac.codeprocessor;
 
-import java.util.Collection;
+import java.util.Set;
+import com.sun.source.tree.Tree;
 import com.sun.tools.javac.tree.JCTree;
-import com.sun.tools.javac.tree.JCTree.JCStatement;
-import lombok.javac.JavacNode;
 
 public interface Processor<T extends JCTree> {
-    Collection<JCStatement> process(T code, JavacNode annotationNode, JCTree.JCExpression returnType);
 
     /**
-     * Returns the supported type.
+     * Rewrites the return statements nested in the given code in place. The nested statements passed to the
+     * {@link CodeProcessor} are rewritten after this method returned, only return statements passed to
+     * {@link CodeProcessor#parseToSingleStatement} are replaced immediately.
      *
-     * @return the supported type.
+     * @param code
+     *            the code
+     * @param codeProcessor
+     *            the processor of the current method, used for the nested statements
      */
-    Class<T> getSupportedType();
+    void process(T code, CodeProcessor codeProcessor);
+
+    /**
+     * Returns the kinds of the supported statements. Every kind of statement has exactly one processor.
+     *
+     * @return the supported kinds
+     */
+    Set<Tree.Kind> getSupportedKinds();
 }
@@ -0,0 +1,86 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.codeprocessor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import com.sun.source.tree.Tree;
+
+/**
+ * The processors of the statements, indexed by the kind of their statements.
+ * <p>
+ * The list is the content of the {@code META-INF/services} file generated from the {@code @MetaInfServices}
+ * annotations of the processors, written out at build time so no service file has to be looked up and parsed through
+ * the class loader of lombok when a compiler starts. The table is built on first use and never changed.
+ */
+public final class ProcessorRegistry {
+
+    private ProcessorRegistry() {
+    }
+
+    /**
+     * Returns the processor of a kind of statements.
+     *
+     * @param kind
+     *            the kind
+     * @return the processor or {@code null}, e.g. for return statements and expressions
+     */
+    public static Processor<?> forKind(@Nonnull Tree.Kind kind) {
+        Objects.requireNonNull(kind, "'kind' must not be null");
+        return Table.PROCESSORS[kind.ordinal()];
+    }
+
+    /**
+     * Returns all processors.
+     *
+     * @return the processors, not modifiable
+     */
+    @Nonnull
+    public static List<Processor<?>> all() {
+        return Table.ALL;
+    }
+
+    /**
+     * Holds the table, so it is built when the first statement is processed.
+     */
+    private static final class Table {
+
+        static final List<Processor<?>> ALL = Collections.unmodifiableList(Arrays.<Processor<?>> asList(
+                new BlockProcessor(), new CaseProcessor(), new DoWhileProcessor(), new ForEnhanceProcessor(),
+                new ForloopProcessor(), new IfProcessor(), new LabeledProcessor(), new SkipProcessor(),
+                new SwitchProcessor(), new SynchronizedProcessor(), new TryProcessor(), new WhileProcessor()));
+
+        /**
+         * The processors by the ordinal of the kind of their statements. The ordinals depend on the running compiler,
+         * so the table is filled at runtime.
+         */
+        static final Processor<?>[] PROCESSORS = index(ALL);
+
+        private static Processor<?>[] index(List<Processor<?>> processors) {
+            Processor<?>[] table = new Processor<?>[Tree.Kind.values().length];
+            for (Processor<?> processor : processors) {
+                for (Tree.Kind kind : processor.getSupportedKinds()) {
+                    if (table[kind.ordinal()] != null) {
+                        throw new IllegalStateException("Two processors for statements of the kind " + kind);
+                    }
+                    table[kind.ordinal()] = processor;
+                }
+            }
+            return table;
+        }
+    }
+}
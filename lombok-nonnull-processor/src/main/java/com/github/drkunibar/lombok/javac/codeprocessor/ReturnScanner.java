@@ -0,0 +1,132 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.codeprocessor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.JCTree.JCClassDecl;
+import com.sun.tools.javac.tree.JCTree.JCExpression;
+import com.sun.tools.javac.tree.JCTree.JCReturn;
+import com.sun.tools.javac.tree.TreeScanner;
+
+/**
+ * Finds the return statements of a method body and all statements which (transitively) contain one.
+ * <p>
+ * Only statements are visited. Expressions (including lambdas) and local classes are skipped, their return statements
+ * do not belong to the method. The trees are visited with a work stack instead of recursion, so deeply nested
+ * statements do not need a deep call stack.
+ */
+public class ReturnScanner {
+
+    private ReturnScanner() {
+    }
+
+    /**
+     * Scans the given tree.
+     *
+     * @param tree
+     *            the tree, e.g. the body of a method
+     * @return the return statements and the statements containing them (compared by identity)
+     */
+    @Nonnull
+    public static Set<JCTree> findReturnPaths(@Nonnull JCTree tree) {
+        Objects.requireNonNull(tree, "'tree' must not be null");
+        Set<JCTree> returnPaths = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<JCTree, JCTree> parents = new IdentityHashMap<>();
+        Children children = new Children();
+        Deque<JCTree> pending = new ArrayDeque<>();
+        if (isStatement(tree)) {
+            pending.push(tree);
+        }
+        while (!pending.isEmpty()) {
+            JCTree current = pending.pop();
+            if (current instanceof JCReturn) {
+                // stops at the first known return path, its parents are known already
+                JCTree path = current;
+                while (path != null && returnPaths.add(path)) {
+                    path = parents.get(path);
+                }
+                continue;
+            }
+            for (JCTree child : children.of(current)) {
+                parents.put(child, current);
+                pending.push(child);
+            }
+        }
+        return returnPaths;
+    }
+
+    /**
+     * Returns the statements of the given tree. The order only depends on the structure of the tree, the position of
+     * a statement identifies it in another tree parsed from the same source, see {@link AnalysisCache}.
+     *
+     * @param tree
+     *            the tree, e.g. the body of a method
+     * @return the statements, the tree first
+     */
+    @Nonnull
+    public static List<JCTree> statements(@Nonnull JCTree tree) {
+        Objects.requireNonNull(tree, "'tree' must not be null");
+        List<JCTree> statements = new ArrayList<>();
+        Children children = new Children();
+        Deque<JCTree> pending = new ArrayDeque<>();
+        if (isStatement(tree)) {
+            pending.push(tree);
+        }
+        while (!pending.isEmpty()) {
+            JCTree current = pending.pop();
+            statements.add(current);
+            if (!(current instanceof JCReturn)) {
+                for (JCTree child : children.of(current)) {
+                    pending.push(child);
+                }
+            }
+        }
+        return statements;
+    }
+
+    private static boolean isStatement(JCTree tree) {
+        return tree != null && !(tree instanceof JCExpression) && !(tree instanceof JCClassDecl);
+    }
+
+    /**
+     * Collects the direct children of a tree which are no expressions or classes.
+     */
+    private static class Children extends TreeScanner {
+
+        private final List<JCTree> children = new ArrayList<>();
+
+        List<JCTree> of(JCTree tree) {
+            children.clear();
+            tree.accept(this);
+            return children;
+        }
+
+        @Override
+        public void scan(JCTree tree) {
+            if (isStatement(tree)) {
+                children.add(tree);
+            }
+        }
+    }
+}
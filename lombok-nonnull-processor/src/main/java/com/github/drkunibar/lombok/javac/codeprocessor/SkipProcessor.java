@@ -0,0 +1,53 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.codeprocessor;
+
+import java.util.EnumSet;
+import java.util.Set;
+import org.kohsuke.MetaInfServices;
+import com.sun.source.tree.Tree;
+import com.sun.tools.javac.tree.JCTree.JCStatement;
+
+/**
+ * The statements which never contain a return statement of the method: simple statements and the declarations of
+ * local classes, whose return statements belong to their own methods. Kinds unknown to the running compiler are left
+ * out.
+ */
+@MetaInfServices(Processor.class)
+public class SkipProcessor implements Processor<JCStatement> {
+
+    private static final String[] KINDS = { "EXPRESSION_STATEMENT", "VARIABLE", "THROW", "BREAK", "CONTINUE",
+            "EMPTY_STATEMENT", "ASSERT", "YIELD", "CLASS", "INTERFACE", "ENUM", "ANNOTATION_TYPE", "RECORD",
+            "ERRONEOUS" };
+
+    @Override
+    public void process(JCStatement code, CodeProcessor codeProcessor) {
+        // nothing to rewrite
+    }
+
+    @Override
+    public Set<Tree.Kind> getSupportedKinds() {
+        Set<Tree.Kind> kinds = EnumSet.noneOf(Tree.Kind.class);
+        for (Tree.Kind kind : Tree.Kind.values()) {
+            for (String name : KINDS) {
+                if (kind.name()
+                        .equals(name)) {
+                    kinds.add(kind);
+                }
+            }
+        }
+        return kinds;
+    }
+
+}
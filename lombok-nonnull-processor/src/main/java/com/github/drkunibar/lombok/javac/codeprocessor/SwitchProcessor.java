@@ -13,27 +13,26 @@
  */
 package com.github.drkunibar.lombok.javac.codeprocessor;
 
-import java.util.Collection;
-import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 import org.kohsuke.MetaInfServices;
-import com.sun.tools.javac.tree.JCTree;
+import com.sun.source.tree.Tree;
+import com.sun.tools.javac.tree.JCTree.JCCase;
 import com.sun.tools.javac.tree.JCTree.JCSwitch;
-import lombok.javac.JavacNode;
 
 @MetaInfServices(Processor.class)
-public class SwitchProcessor extends CodeProcessor implements Processor<JCSwitch> {
+public class SwitchProcessor implements Processor<JCSwitch> {
 
     @Override
-    public Collection<JCTree.JCStatement> process(JCSwitch code, JavacNode annotationNode,
-            JCTree.JCExpression returnType) {
-        code.cases.stream()
-                .forEach(c -> parseStatement(c, annotationNode, returnType));
-        return Collections.singleton(code);
+    public void process(JCSwitch code, CodeProcessor codeProcessor) {
+        for (JCCase c : code.cases) {
+            codeProcessor.parseStatement(c);
+        }
     }
 
     @Override
-    public Class<JCSwitch> getSupportedType() {
-        return JCSwitch.class;
+    public Set<Tree.Kind> getSupportedKinds() {
+        return EnumSet.of(Tree.Kind.SWITCH);
     }
 
 }
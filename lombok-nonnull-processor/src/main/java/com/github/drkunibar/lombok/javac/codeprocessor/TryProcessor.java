@@ -13,31 +13,30 @@
  */
 package com.github.drkunibar.lombok.javac.codeprocessor;
 
-import java.util.Collection;
-import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 import org.kohsuke.MetaInfServices;
-import com.sun.tools.javac.tree.JCTree;
+import com.sun.source.tree.Tree;
+import com.sun.tools.javac.tree.JCTree.JCCatch;
 import com.sun.tools.javac.tree.JCTree.JCTry;
-import lombok.javac.JavacNode;
 
 @MetaInfServices(Processor.class)
-public class TryProcessor extends CodeProcessor implements Processor<JCTry> {
+public class TryProcessor implements Processor<JCTry> {
 
     @Override
-    public Collection<JCTree.JCStatement> process(JCTry code, JavacNode annotationNode,
-            JCTree.JCExpression returnType) {
-        code.body = parseToBlock(code.body, annotationNode, returnType);
-        code.catchers.stream()
-                .forEach(c -> parseStatement(c.body, annotationNode, returnType));
+    public void process(JCTry code, CodeProcessor codeProcessor) {
+        codeProcessor.parse(code.body.stats);
+        for (JCCatch c : code.catchers) {
+            codeProcessor.parse(c.body.stats);
+        }
         if (code.finalizer != null) {
-            code.finalizer = parseToBlock(code.finalizer, annotationNode, returnType);
+            codeProcessor.parse(code.finalizer.stats);
         }
-        return Collections.singleton(code);
     }
 
     @Override
-    public Class<JCTry> getSupportedType() {
-        return JCTry.class;
+    public Set<Tree.Kind> getSupportedKinds() {
+        return EnumSet.of(Tree.Kind.TRY);
     }
 
 }
@@ -0,0 +1,157 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.codeprocessor;
+
+import static lombok.core.AST.Kind.METHOD;
+import static lombok.core.AST.Kind.TYPE;
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import com.sun.source.tree.LineMap;
+import com.sun.tools.javac.code.Flags;
+import com.sun.tools.javac.tree.JCTree.JCCompilationUnit;
+import com.sun.tools.javac.tree.JCTree.JCExpression;
+import com.sun.tools.javac.tree.JCTree.JCNewArray;
+import com.sun.tools.javac.tree.JCTree.JCStatement;
+import com.sun.tools.javac.tree.JCTree.JCVariableDecl;
+import com.sun.tools.javac.util.List;
+import lombok.javac.Javac;
+import lombok.javac.JavacNode;
+import lombok.javac.JavacTreeMaker;
+import lombok.javac.handlers.JavacHandlerUtil;
+
+/**
+ * The check sites of a class for {@link CheckMode#REPORT}.
+ * <p>
+ * The class registers its sites at the runtime registry while it is initialized:
+ * {@code private static final int $nonnullSites = NonnullViolations.register("com.example.Foo", new String[] {
+ * "getName:return@42", ... });}. A failed check records the violation with the id {@code $nonnullSites + <index>},
+ * the index of the site is a compile time constant.
+ */
+public class ViolationSites {
+
+    /**
+     * The name of the field with the id of the first site.
+     */
+    public static final String FIELD_NAME = "$nonnullSites";
+
+    private static final String[] REGISTRY = { "com", "github", "drkunibar", "lombok", "runtime",
+            "NonnullViolations" };
+
+    private final JavacNode host;
+    private final JCNewArray names;
+    private int count;
+
+    /**
+     * Creates the sites of a class and injects the field into the class.
+     *
+     * @param host
+     *            the class, has to be able to declare static members
+     */
+    public ViolationSites(@Nonnull JavacNode host) {
+        this.host = Objects.requireNonNull(host, "'host' must not be null");
+        JavacTreeMaker maker = host.getTreeMaker();
+        names = maker.NewArray(JavacHandlerUtil.chainDots(host, "java", "lang", "String"), List.<JCExpression> nil(),
+                List.<JCExpression> nil());
+        JCExpression register = maker.Apply(List.<JCExpression> nil(), registryMethod(host, "register"),
+                List.of(maker.Literal(binaryName(host)), names));
+        JCVariableDecl field = maker.VarDef(maker.Modifiers(Flags.PRIVATE | Flags.STATIC | Flags.FINAL),
+                host.toName(FIELD_NAME), maker.TypeIdent(Javac.CTC_INT), register);
+        JavacHandlerUtil.recursiveSetGeneratedBy(field, host);
+        JavacHandlerUtil.injectField(host, field);
+    }
+
+    /**
+     * Adds a check site.
+     *
+     * @param source
+     *            the node the check is generated for
+     * @param checked
+     *            what is checked, e.g. {@code return} or the name of a parameter
+     * @param position
+     *            the source position of the check
+     * @return the index of the site in the class
+     */
+    public int add(@Nonnull JavacNode source, @Nonnull String checked, int position) {
+        Objects.requireNonNull(source, "'source' must not be null");
+        Objects.requireNonNull(checked, "'checked' must not be null");
+        JavacTreeMaker maker = source.getTreeMaker();
+        String site = method(source) + ":" + checked + "@" + line(source, position);
+        names.elems = names.elems.append(JavacHandlerUtil.setGeneratedBy(maker.Literal(site), source));
+        return count++;
+    }
+
+    /**
+     * Creates the statement which records a violation:
+     * {@code com.github.drkunibar.lombok.runtime.NonnullViolations.record($nonnullSites + <index>);}
+     *
+     * @param source
+     *            the node the statement is generated for
+     * @param index
+     *            the index of the site, see {@link #add(JavacNode, String, int)}
+     * @return the statement
+     */
+    @Nonnull
+    public JCStatement record(@Nonnull JavacNode source, int index) {
+        Objects.requireNonNull(source, "'source' must not be null");
+        JavacTreeMaker maker = source.getTreeMaker();
+        JCExpression site = maker.Binary(Javac.CTC_PLUS, maker.Ident(source.toName(FIELD_NAME)),
+                maker.Literal(Javac.CTC_INT, index));
+        JCStatement record = maker.Exec(maker.Apply(List.<JCExpression> nil(), registryMethod(source, "record"),
+                List.of(site)));
+        JavacHandlerUtil.recursiveSetGeneratedBy(record, source);
+        return record;
+    }
+
+    private static JCExpression registryMethod(JavacNode node, String method) {
+        String[] elements = new String[REGISTRY.length + 1];
+        System.arraycopy(REGISTRY, 0, elements, 0, REGISTRY.length);
+        elements[REGISTRY.length] = method;
+        return JavacHandlerUtil.chainDots(node, elements);
+    }
+
+    private static String binaryName(JavacNode type) {
+        StringBuilder name = new StringBuilder(type.getName());
+        for (JavacNode node = type.up(); node != null && node.getKind() == TYPE; node = node.up()) {
+            name.insert(0, node.getName() + "$");
+        }
+        String packageName = type.getPackageDeclaration();
+        return packageName == null ? name.toString() : packageName + "." + name;
+    }
+
+    /**
+     * Returns the name of the method of the node, prefixed with the names of the classes nested in the host.
+     */
+    private String method(JavacNode source) {
+        JavacNode method = source;
+        while (method != null && method.getKind() != METHOD) {
+            method = method.up();
+        }
+        if (method == null) {
+            // e.g. the initial value of a field
+            return "<init>";
+        }
+        StringBuilder name = new StringBuilder(method.getName());
+        for (JavacNode type = method.up(); type != host && type.getKind() == TYPE; type = type.up()) {
+            name.insert(0, type.getName() + ".");
+        }
+        return name.toString();
+    }
+
+    private static long line(JavacNode source, int position) {
+        LineMap lineMap = ((JCCompilationUnit) source.top()
+                .get()).getLineMap();
+        return lineMap == null || position < 0 ? 0 : lineMap.getLineNumber(position);
+    }
+}
@@ -13,26 +13,23 @@
  */
 package com.github.drkunibar.lombok.javac.codeprocessor;
 
-import java.util.Collection;
-import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 import org.kohsuke.MetaInfServices;
-import com.sun.tools.javac.tree.JCTree.JCExpression;
-import com.sun.tools.javac.tree.JCTree.JCStatement;
+import com.sun.source.tree.Tree;
 import com.sun.tools.javac.tree.JCTree.JCWhileLoop;
-import lombok.javac.JavacNode;
 
 @MetaInfServices(Processor.class)
-public class WhileProcessor extends CodeProcessor implements Processor<JCWhileLoop> {
+public class WhileProcessor implements Processor<JCWhileLoop> {
 
     @Override
-    public Collection<JCStatement> process(JCWhileLoop code, JavacNode annotationNode, JCExpression returnType) {
-        code.body = parseToSingleStatement(code.body, annotationNode, returnType);
-        return Collections.singleton(code);
+    public void process(JCWhileLoop code, CodeProcessor codeProcessor) {
+        code.body = codeProcessor.parseToSingleStatement(code.body);
     }
 
     @Override
-    public Class<JCWhileLoop> getSupportedType() {
-        return JCWhileLoop.class;
+    public Set<Tree.Kind> getSupportedKinds() {
+        return EnumSet.of(Tree.Kind.WHILE_LOOP);
     }
 
 }
@@ -0,0 +1,140 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.analysis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The methods of {@link AnalysisTestClass} are analyzed concurrently, see {@code lombok.config}.
+ */
+public class AnalysisTest {
+
+    @Nested
+    class ReturnValue {
+
+        @Test
+        void withoutName_getName_throwException() {
+            // given
+            AnalysisTestClass data = new AnalysisTestClass(null);
+            // when
+            Throwable throwable = catchThrowable(() -> data.getName());
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value must not be null");
+        }
+
+        @Test
+        void withName_getName_returnName() {
+            // given
+            AnalysisTestClass data = new AnalysisTestClass("name");
+            // when
+            String name = data.getName();
+            // then
+            assertThat(name).isEqualTo("name");
+        }
+
+        @Test
+        void withoutName_getCase_throwException() {
+            // given
+            AnalysisTestClass data = new AnalysisTestClass(null);
+            // when
+            Throwable throwable = catchThrowable(() -> data.getCase(1));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value must not be null");
+        }
+
+        @Test
+        void withoutName_getCaseOfLiteral_returnLiteral() {
+            // given
+            AnalysisTestClass data = new AnalysisTestClass(null);
+            // when
+            String value = data.getCase(0);
+            // then
+            assertThat(value).isEqualTo("zero");
+        }
+
+        @Test
+        void withoutName_getNestedInLoop_throwException() {
+            // given
+            AnalysisTestClass data = new AnalysisTestClass(null);
+            // when
+            Throwable throwable = catchThrowable(() -> data.getNested(false, true));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value must not be null");
+        }
+
+        @Test
+        void withoutName_getNestedInIf_throwException() {
+            // given
+            AnalysisTestClass data = new AnalysisTestClass(null);
+            // when
+            Throwable throwable = catchThrowable(() -> data.getNested(true, true));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value must not be null");
+        }
+
+        @Test
+        void withoutName_getNestedOfLiteral_returnLiteral() {
+            // given
+            AnalysisTestClass data = new AnalysisTestClass(null);
+            // when
+            String value = data.getNested(false, false);
+            // then
+            assertThat(value).isEqualTo("none");
+        }
+
+        @Test
+        void withoutName_getTryCatch_throwException() {
+            // given
+            AnalysisTestClass data = new AnalysisTestClass(null);
+            // when
+            Throwable throwable = catchThrowable(() -> data.getTry(0));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value must not be null");
+        }
+    }
+
+    @Nested
+    class Arguments {
+
+        @Test
+        void withoutSecond_join_throwException() {
+            // given
+            AnalysisTestClass data = new AnalysisTestClass("name");
+            // when
+            Throwable throwable = catchThrowable(() -> data.join("first", null));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("second is marked non-null but is null");
+        }
+
+        @Test
+        void withArguments_join_returnJoined() {
+            // given
+            AnalysisTestClass data = new AnalysisTestClass("name");
+            // when
+            String joined = data.join("first", "second");
+            // then
+            assertThat(joined).isEqualTo("firstsecond");
+        }
+    }
+}
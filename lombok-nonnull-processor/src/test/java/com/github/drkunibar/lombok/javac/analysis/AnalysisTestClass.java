@@ -0,0 +1,75 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.analysis;
+
+import javax.annotation.Nonnull;
+
+public class AnalysisTestClass {
+
+    private final String name;
+
+    public AnalysisTestClass(String name) {
+        this.name = name;
+    }
+
+    @Nonnull
+    public String getName() {
+        return name;
+    }
+
+    @Nonnull
+    public String getCase(int value) {
+        switch (value) {
+        case 0:
+            return "zero";
+        case 1:
+            return name;
+        default:
+            return name + value;
+        }
+    }
+
+    @Nonnull
+    public String getNested(boolean first, boolean second) {
+        if (first) {
+            if (second) {
+                return name;
+            }
+            return "first";
+        }
+        for (int i = 0; i < 2; i++) {
+            if (second) {
+                return name;
+            }
+        }
+        return "none";
+    }
+
+    @Nonnull
+    @SuppressWarnings("UseSpecificCatch")
+    public String getTry(int divider) {
+        try {
+            if (1 / divider > 0) {
+                return name;
+            }
+            return "zero";
+        } catch (Exception e) {
+            return name;
+        }
+    }
+
+    public String join(@Nonnull String first, @Nonnull String second) {
+        return first + second;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class CacheTest {
+
+    @Nested
+    class Analyzed {
+
+        @Test
+        void withoutValue_getValue_throwException() {
+            // given
+            CacheTestClass.First data = new CacheTestClass.First(null);
+            // when
+            Throwable throwable = catchThrowable(() -> data.getValue(false));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value must not be null");
+        }
+
+        @Test
+        void withValue_getValue_returnValue() {
+            // given
+            CacheTestClass.First data = new CacheTestClass.First("value");
+            // when
+            String value = data.getValue(false);
+            // then
+            assertThat(value).isEqualTo("value");
+        }
+    }
+
+    @Nested
+    class Cached {
+
+        @Test
+        void withoutValue_getValue_throwException() {
+            // given
+            CacheTestClass.Second data = new CacheTestClass.Second(null);
+            // when
+            Throwable throwable = catchThrowable(() -> data.getValue(false));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value must not be null");
+        }
+
+        @Test
+        void withEmptyValue_getValue_returnValueInLoop() {
+            // given
+            CacheTestClass.Second data = new CacheTestClass.Second("");
+            // when
+            String value = data.getValue(false);
+            // then
+            assertThat(value).isEmpty();
+        }
+
+        @Test
+        void withValue_getValue_returnValue() {
+            // given
+            CacheTestClass.Second data = new CacheTestClass.Second("value");
+            // when
+            String value = data.getValue(false);
+            // then
+            assertThat(value).isEqualTo("value");
+        }
+
+        @Test
+        void withoutValue_getDefault_returnDefault() {
+            // given
+            CacheTestClass.Second data = new CacheTestClass.Second(null);
+            // when
+            String value = data.getValue(true);
+            // then
+            assertThat(value).isEqualTo("default");
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.cache;
+
+import javax.annotation.Nonnull;
+
+/**
+ * {@link First#getValue(boolean)} and {@link Second#getValue(boolean)} have the same source, the analysis of the
+ * second one is taken from the cache.
+ */
+public class CacheTestClass {
+
+    public static class First {
+
+        private final String value;
+
+        public First(String value) {
+            this.value = value;
+        }
+
+        @Nonnull
+        public String getValue(boolean useDefault) {
+            if (useDefault) {
+                return "default";
+            }
+            while (value == null || value.isEmpty()) {
+                return value;
+            }
+            return value;
+        }
+    }
+
+    public static class Second {
+
+        private final String value;
+
+        public Second(String value) {
+            this.value = value;
+        }
+
+        @Nonnull
+        public String getValue(boolean useDefault) {
+            if (useDefault) {
+                return "default";
+            }
+            while (value == null || value.isEmpty()) {
+                return value;
+            }
+            return value;
+        }
+    }
+}
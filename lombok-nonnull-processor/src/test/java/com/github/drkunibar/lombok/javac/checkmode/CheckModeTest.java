@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.checkmode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.lang.reflect.Field;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import com.github.drkunibar.lombok.javac.checkmode.disabled.DisabledCheckModeTestClass;
+import com.github.drkunibar.lombok.javac.codeprocessor.CheckGuard;
+
+public class CheckModeTest {
+
+    @Nested
+    class Enabled {
+
+        @Test
+        void withoutName_getName_throwException() {
+            // given
+            CheckModeTestClass data = new CheckModeTestClass();
+            // when
+            Throwable throwable = catchThrowable(() -> data.getName());
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value must not be null");
+        }
+
+        @Test
+        void checkModeTestClass_setNameWithNull_throwException() {
+            // given
+            CheckModeTestClass data = new CheckModeTestClass();
+            // when
+            @SuppressWarnings("null")
+            Throwable throwable = catchThrowable(() -> data.setName(null));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("name is marked non-null but is null");
+        }
+
+        @Test
+        void checkModeTestClass_flag_isEnabled() throws ReflectiveOperationException {
+            // given
+            Field flag = CheckModeTestClass.class.getDeclaredField(CheckGuard.FLAG_NAME);
+            flag.setAccessible(true);
+            // when
+            boolean enabled = flag.getBoolean(null);
+            // then
+            assertThat(enabled).isTrue();
+        }
+    }
+
+    @Nested
+    class Disabled {
+
+        @Test
+        void disabledByPackageProperty_nullValues_areAccepted() {
+            // given
+            System.setProperty(CheckGuard.CHECKS_PROPERTY + "." + DisabledCheckModeTestClass.class.getPackage()
+                    .getName(), "false");
+            DisabledCheckModeTestClass data = new DisabledCheckModeTestClass();
+            // when
+            data.setName(null);
+            String name = data.getName();
+            // then
+            assertThat(name).isNull();
+        }
+    }
+}
@@ -20,8 +20,9 @@ public class ComplexTestClass {
 
     @Nonnull
     public String getValue(boolean nullResult) {
+        String nullValue = null;
         if (nullResult) {
-            return null;
+            return nullValue;
         } else {
             return "foo";
         }
@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import com.github.drkunibar.lombok.javac.config.nested.NestedConfigTestClass;
+
+/**
+ * Both classes are compiled in one compilation, the nested directory has its own {@code lombok.config}.
+ */
+public class ConfigTest {
+
+    @Nested
+    class ParentDirectory {
+
+        @Test
+        void setNameWithNull_throwException() {
+            // given
+            ConfigTestClass data = new ConfigTestClass(Arrays.asList("a"));
+            // when
+            Throwable throwable = catchThrowable(() -> data.setName(null));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("name is marked non-null but is null");
+        }
+
+        @Test
+        void nullElement_throwException() {
+            // given
+            ConfigTestClass data = new ConfigTestClass(Arrays.asList((String) null));
+            // when
+            Throwable throwable = catchThrowable(() -> data.getValues()
+                    .get(0));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value contains a null element");
+        }
+    }
+
+    @Nested
+    class NestedDirectory {
+
+        @Test
+        void checkFieldsOverridden_setNameWithNull_noException() {
+            // given
+            NestedConfigTestClass data = new NestedConfigTestClass(Arrays.asList("a"));
+            // when
+            Throwable throwable = catchThrowable(() -> data.setName(null));
+            // then
+            assertThat(throwable).isNull();
+        }
+
+        @Test
+        void checkElementsInherited_nullElement_throwException() {
+            // given
+            NestedConfigTestClass data = new NestedConfigTestClass(Arrays.asList((String) null));
+            // when
+            Throwable throwable = catchThrowable(() -> data.getValues()
+                    .get(0));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value contains a null element");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.config;
+
+import java.util.List;
+import javax.annotation.Nonnull;
+
+public class ConfigTestClass {
+
+    @Nonnull
+    private String name = "";
+    private final List<String> values;
+
+    public ConfigTestClass(List<String> values) {
+        this.values = values;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Nonnull
+    public List<String> getValues() {
+        return values;
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.elements;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class ElementsTest {
+
+    private static final String NULL_ELEMENT = "the return value contains a null element";
+
+    @Nested
+    class ReturnValue {
+
+        @Test
+        void listWithNull_getList_isReturnedUnchecked() {
+            // given
+            ElementsTestClass data = new ElementsTestClass(ElementsTestClass.asList("a", null), Collections.emptyMap());
+            // when
+            List<String> list = data.getList();
+            // then
+            assertThat(list).hasSize(2);
+            assertThat(list).isInstanceOf(RandomAccess.class);
+        }
+
+        @Test
+        void listWithNull_getNullElement_throwException() {
+            // given
+            List<String> list = new ElementsTestClass(ElementsTestClass.asList("a", null), Collections.emptyMap())
+                    .getList();
+            // when
+            String first = list.get(0);
+            Throwable throwable = catchThrowable(() -> list.get(1));
+            // then
+            assertThat(first).isEqualTo("a");
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage(NULL_ELEMENT);
+        }
+
+        @Test
+        void listWithNull_iterateCopy_throwException() {
+            // given
+            ElementsTestClass data = new ElementsTestClass(ElementsTestClass.asList("a", null), Collections.emptyMap());
+            // when
+            Throwable throwable = catchThrowable(() -> data.getCopy()
+                    .forEach(CharSequence::length));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage(NULL_ELEMENT);
+        }
+
+        @Test
+        void listWithNull_iterateCollection_throwException() {
+            // given
+            ElementsTestClass data = new ElementsTestClass(ElementsTestClass.asList(null, "a"), Collections.emptyMap());
+            // when
+            Throwable throwable = catchThrowable(() -> data.getCollection()
+                    .toArray());
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage(NULL_ELEMENT);
+        }
+
+        @Test
+        void listWithNull_iterator_throwExceptionOnNull() {
+            // given
+            Iterator<String> iterator = new ElementsTestClass(ElementsTestClass.asList("a", null),
+                    Collections.emptyMap()).iterator();
+            // when
+            String first = iterator.next();
+            Throwable throwable = catchThrowable(iterator::next);
+            // then
+            assertThat(first).isEqualTo("a");
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage(NULL_ELEMENT);
+        }
+
+        @Test
+        void listWithNull_stream_throwExceptionWhenConsumed() {
+            // given
+            Stream<String> stream = new ElementsTestClass(ElementsTestClass.asList("a", null), Collections.emptyMap())
+                    .stream();
+            // when
+            Throwable throwable = catchThrowable(() -> stream.collect(Collectors.toList()));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage(NULL_ELEMENT);
+        }
+
+        @Test
+        void listWithNull_toArray_throwException() {
+            // given
+            ElementsTestClass data = new ElementsTestClass(ElementsTestClass.asList("a", null), Collections.emptyMap());
+            // when
+            Throwable throwable = catchThrowable(() -> data.toArray());
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage(NULL_ELEMENT);
+        }
+
+        @Test
+        void nullBehindScanLimit_toArray_isReturned() {
+            // given
+            ElementsTestClass data = new ElementsTestClass(ElementsTestClass.asList("a", "b", null),
+                    Collections.emptyMap());
+            // when
+            String[] array = data.toArray();
+            // then
+            assertThat(array).containsExactly("a", "b", null);
+        }
+
+        @Test
+        void mapWithNullValue_getMap_throwExceptionOnRead() {
+            // given
+            Map<String, String> values = new HashMap<>();
+            values.put("key", null);
+            Map<String, String> map = new ElementsTestClass(Collections.emptyList(), values).getMap();
+            // when
+            String missing = map.get("missing");
+            Throwable throwable = catchThrowable(() -> map.get("key"));
+            // then
+            assertThat(missing).isNull();
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value contains a null value");
+        }
+
+        @Test
+        void mapWithNullKey_iterateKeys_throwException() {
+            // given
+            Map<String, String> values = new HashMap<>();
+            values.put(null, "value");
+            ElementsTestClass data = new ElementsTestClass(Collections.emptyList(), values);
+            // when
+            Throwable throwable = catchThrowable(() -> data.getMap()
+                    .keySet()
+                    .forEach(String::length));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value contains a null key");
+        }
+
+        @Test
+        void mapWithNullKey_getKeys_throwExceptionOnIteration() {
+            // given
+            Map<String, String> values = new HashMap<>();
+            values.put(null, "value");
+            ElementsTestClass data = new ElementsTestClass(Collections.emptyList(), values);
+            // when
+            Throwable throwable = catchThrowable(() -> data.getKeys()
+                    .iterator()
+                    .next());
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage(NULL_ELEMENT);
+        }
+
+        @Test
+        void concreteType_getArrayList_isNotWrapped() {
+            // given
+            ElementsTestClass data = new ElementsTestClass(ElementsTestClass.asList("a", null), Collections.emptyMap());
+            // when
+            List<String> list = data.getArrayList();
+            // then
+            assertThat(list).containsExactly("a", null);
+        }
+    }
+
+    @Nested
+    class Parameter {
+
+        private final ElementsTestClass data = new ElementsTestClass(Collections.emptyList(), Collections.emptyMap());
+
+        @Test
+        void collectionWithNull_count_throwException() {
+            // when
+            Throwable throwable = catchThrowable(() -> data.count(ElementsTestClass.asList("a", null)));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("elements contains a null element");
+        }
+
+        @Test
+        void varargsWithNull_count_throwException() {
+            // when
+            Throwable throwable = catchThrowable(() -> data.count("a", null));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("elements contains a null element");
+        }
+
+        @Test
+        void nullBehindScanLimit_count_isAccepted() {
+            // when
+            int count = data.count("a", "b", null);
+            // then
+            assertThat(count).isEqualTo(3);
+        }
+
+        @Test
+        void mapWithNullValue_countEntries_throwException() {
+            // given
+            Map<String, String> entries = Collections.singletonMap("key", null);
+            // when
+            Throwable throwable = catchThrowable(() -> data.countEntries(entries));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("entries contains a null value");
+        }
+    }
+}
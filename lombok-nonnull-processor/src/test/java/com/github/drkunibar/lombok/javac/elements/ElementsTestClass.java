@@ -0,0 +1,96 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.elements;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+
+public class ElementsTestClass {
+
+    private final List<String> values;
+    private final Map<String, String> map;
+
+    public ElementsTestClass(List<String> values, Map<String, String> map) {
+        this.values = values;
+        this.map = map;
+    }
+
+    @Nonnull
+    public List<String> getList() {
+        return values;
+    }
+
+    @Nonnull
+    public List<? extends CharSequence> getCopy() {
+        return new ArrayList<>(values);
+    }
+
+    @Nonnull
+    public Collection<String> getCollection() {
+        return values;
+    }
+
+    @Nonnull
+    public Set<String> getKeys() {
+        return map.keySet();
+    }
+
+    @Nonnull
+    public Map<String, String> getMap() {
+        return map;
+    }
+
+    @Nonnull
+    public Iterator<String> iterator() {
+        return values.iterator();
+    }
+
+    @Nonnull
+    public Stream<String> stream() {
+        return values.stream();
+    }
+
+    @Nonnull
+    public String[] toArray() {
+        return values.toArray(new String[0]);
+    }
+
+    @Nonnull
+    public ArrayList<String> getArrayList() {
+        return new ArrayList<>(values);
+    }
+
+    public int count(@Nonnull Collection<String> elements) {
+        return elements.size();
+    }
+
+    public int count(@Nonnull String... elements) {
+        return elements.length;
+    }
+
+    public int countEntries(@Nonnull Map<String, String> entries) {
+        return entries.size();
+    }
+
+    public static List<String> asList(String... values) {
+        return Arrays.asList(values);
+    }
+}
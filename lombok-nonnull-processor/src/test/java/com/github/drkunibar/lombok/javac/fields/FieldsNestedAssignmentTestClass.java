@@ -0,0 +1,36 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.fields;
+
+import javax.annotation.Nonnull;
+import lombok.Getter;
+
+public class FieldsNestedAssignmentTestClass {
+
+    @Nonnull
+    private final String name;
+
+    @Getter
+    private final String alias;
+
+    public FieldsNestedAssignmentTestClass(String name) {
+        // the field is assigned within an expression, not checked behind the statement
+        alias = this.name = name;
+    }
+
+    @Nonnull
+    public String getName() {
+        return name;
+    }
+}
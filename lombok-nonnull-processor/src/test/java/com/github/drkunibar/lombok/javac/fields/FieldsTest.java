@@ -0,0 +1,148 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.fields;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class FieldsTest {
+
+    @Nested
+    class Constructor {
+
+        @Test
+        void allArgsConstructorWithNull_throwException() {
+            // when
+            @SuppressWarnings("null")
+            Throwable throwable = catchThrowable(() -> new FieldsTestClass(null, "description", "label"));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("name is marked non-null but is null");
+        }
+
+        @Test
+        void handWrittenConstructorWithNull_throwException() {
+            // when
+            Throwable throwable = catchThrowable(() -> new FieldsTestClass(null, false));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("name is marked non-null but is null");
+        }
+
+        @Test
+        void handWrittenConstructorWithNullInBranch_throwException() {
+            // when
+            Throwable throwable = catchThrowable(() -> new FieldsTestClass(null, true));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("name is marked non-null but is null");
+        }
+
+        @Test
+        void handWrittenConstructor_getName_returnValue() {
+            // given
+            FieldsTestClass data = new FieldsTestClass("name", true);
+            // when
+            String name = data.getName();
+            // then
+            assertThat(name).isEqualTo("NAME");
+        }
+
+        @Test
+        void getterOfFinalFieldDuringConstruction_returnNullUnchecked() {
+            // when
+            FieldsConstructionTestClass data = new FieldsConstructionTestClass("name");
+            // then
+            assertThat(data.getNameDuringConstruction()).isNull();
+            assertThat(data.getName()).isEqualTo("name");
+        }
+
+        @Test
+        void nestedAssignmentWithNull_getName_throwException() {
+            // given
+            FieldsNestedAssignmentTestClass data = new FieldsNestedAssignmentTestClass(null);
+            // when
+            Throwable throwable = catchThrowable(data::getName);
+            // then
+            assertThat(data.getAlias()).isNull();
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value must not be null");
+        }
+    }
+
+    @Nested
+    class Initializer {
+
+        @Test
+        void assignmentWithNull_throwException() {
+            // when
+            Throwable throwable = catchThrowable(FieldsInitializerTestClass::new);
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("name is marked non-null but is null");
+        }
+
+        @Test
+        void assignment_getName_returnValue() {
+            // given
+            FieldsInitializerTestClass data = new FieldsInitializerTestClass() {
+
+                @Override
+                protected String compute() {
+                    return "name";
+                }
+            };
+            // when
+            String name = data.getName();
+            // then
+            assertThat(name).isEqualTo("name");
+        }
+    }
+
+    @Nested
+    class Assignment {
+
+        private final FieldsTestClass data = new FieldsTestClass("name", false);
+
+        @Test
+        void setDescriptionWithNull_throwException() {
+            // when
+            Throwable throwable = catchThrowable(() -> data.setDescription(null));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("description is marked non-null but is null");
+        }
+
+        @Test
+        void withNameWithNull_throwException() {
+            // when
+            @SuppressWarnings("null")
+            Throwable throwable = catchThrowable(() -> data.withName(null));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("name is marked non-null but is null");
+        }
+
+        @Test
+        void resetLabel_withoutValue_keepEmptyLabel() {
+            // when
+            data.resetLabel(null);
+            // then
+            assertThat(data.getLabel()).isEmpty();
+        }
+    }
+}
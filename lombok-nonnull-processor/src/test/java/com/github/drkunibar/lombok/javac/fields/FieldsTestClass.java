@@ -0,0 +1,71 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.fields;
+
+import javax.annotation.Nonnull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.With;
+
+@AllArgsConstructor
+public class FieldsTestClass {
+
+    @Getter
+    @With
+    @Nonnull
+    private final String name;
+
+    @Nonnull
+    private String description = System.getProperty("lombok.nonnull.test.description", "");
+
+    @Nonnull
+    private String label = "label";
+
+    public FieldsTestClass(String name, boolean upperCase) {
+        if (upperCase) {
+            this.name = name == null ? null : name.toUpperCase();
+        } else
+            this.name = name;
+    }
+
+    @Nonnull
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public void setLabel(@Nonnull String label) {
+        this.label = label;
+    }
+
+    public void resetLabel(String value) {
+        label = "";
+        if (value != null) {
+            label = value;
+        }
+    }
+
+    @Nonnull
+    public String getLabel() {
+        return label;
+    }
+
+    @Nonnull
+    public String describe() {
+        return this.name;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.flow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class FlowTest {
+
+    private final FlowTestClass data = new FlowTestClass();
+
+    @Nested
+    class KnownNonNull {
+
+        @Test
+        void normalize_returnValue() {
+            // when / then
+            assertThat(data.normalize("foo")).isEqualTo("foo");
+            assertThat(data.normalize("")).isEqualTo("-");
+        }
+
+        @Test
+        void normalizeWithNull_throwExceptionOfParameter() {
+            // when
+            @SuppressWarnings("null")
+            Throwable throwable = catchThrowable(() -> data.normalize(null));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("value is marked non-null but is null");
+        }
+
+        @Test
+        void guardedValues_returnValue() {
+            // when / then
+            assertThat(data.orEmpty(null)).isEmpty();
+            assertThat(data.orEmpty("foo")).isEqualTo("foo");
+            assertThat(data.firstOrEmpty("foo", null)).isEmpty();
+            assertThat(data.firstOrEmpty("foo", "bar")).isEqualTo("foo");
+            assertThat(data.concat(null)).isEqualTo("[null]");
+        }
+
+        @Test
+        void requiredWithNull_throwExceptionOfRequireNonNull() {
+            // when
+            Throwable throwable = catchThrowable(() -> data.required(null));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("value");
+        }
+    }
+
+    @Nested
+    class StillChecked {
+
+        @Test
+        void reassignedParameter_throwException() {
+            // when
+            Throwable throwable = catchThrowable(() -> data.reassigned("foo", true));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value must not be null");
+        }
+
+        @Test
+        void reassignedParameter_returnValue() {
+            // when
+            String value = data.reassigned("foo", false);
+            // then
+            assertThat(value).isEqualTo("foo");
+        }
+
+        @Test
+        void assignedInLoop_throwException() {
+            // when
+            Throwable throwable = catchThrowable(() -> data.loop(1));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value must not be null");
+        }
+
+        @Test
+        void guardInNestedBlock_throwException() {
+            // when
+            Throwable throwable = catchThrowable(() -> data.nestedGuard(null, false));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value must not be null");
+        }
+
+        @Test
+        void reassignedInElse_throwException() {
+            // when
+            Throwable throwable = catchThrowable(() -> data.reassignedInElse("foo"));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value must not be null");
+        }
+    }
+}
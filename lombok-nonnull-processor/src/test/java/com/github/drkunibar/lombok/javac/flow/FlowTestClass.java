@@ -0,0 +1,99 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.flow;
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+
+public class FlowTestClass {
+
+    @Nonnull
+    public String normalize(@Nonnull String value) {
+        if (value.isEmpty()) {
+            return "-";
+        }
+        return value;
+    }
+
+    @Nonnull
+    public String orEmpty(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value;
+    }
+
+    @Nonnull
+    public String firstOrEmpty(String first, String second) {
+        if (first == null || second == null) {
+            return "";
+        }
+        return first;
+    }
+
+    @Nonnull
+    public String required(String value) {
+        Objects.requireNonNull(value, "value");
+        return value;
+    }
+
+    @Nonnull
+    public String concat(String value) {
+        String result = "[" + value + "]";
+        return result;
+    }
+
+    @Nonnull
+    public String reassigned(@Nonnull String value, boolean lookup) {
+        if (lookup) {
+            value = lookup(value);
+        }
+        return value;
+    }
+
+    @Nonnull
+    public String loop(int count) {
+        String value = "start";
+        for (int i = 0;; i++) {
+            if (i == count) {
+                return value;
+            }
+            value = lookup(value);
+        }
+    }
+
+    @Nonnull
+    public String nestedGuard(String value, boolean guard) {
+        if (guard) {
+            if (value == null) {
+                return "";
+            }
+        }
+        return value;
+    }
+
+    @Nonnull
+    public String reassignedInElse(String value) {
+        if (value == null) {
+            return "";
+        } else {
+            value = lookup(value);
+        }
+        return value;
+    }
+
+    private static String lookup(String value) {
+        return null;
+    }
+}
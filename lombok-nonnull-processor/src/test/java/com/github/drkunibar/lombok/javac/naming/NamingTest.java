@@ -0,0 +1,54 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.naming;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import org.junit.jupiter.api.Test;
+
+public class NamingTest {
+
+    @Test
+    void byCase_returnValue() {
+        // given
+        NamingTestClass data = new NamingTestClass("foo");
+        // when / then
+        assertThat(data.byCase(1)).isEqualTo("foo");
+        assertThat(data.byCase(2)).isEqualTo("FOO");
+        assertThat(data.byCase(3)).isEqualTo("foo3");
+    }
+
+    @Test
+    void withoutName_byCase_throwException() {
+        // given
+        NamingTestClass data = new NamingTestClass(null);
+        // when
+        Throwable throwable = catchThrowable(() -> data.byCase(2));
+        // then
+        assertThat(throwable).isInstanceOf(NullPointerException.class)
+                .hasMessage("the return value must not be null");
+    }
+
+    @Test
+    void withoutName_withResultVariable_throwException() {
+        // given
+        NamingTestClass data = new NamingTestClass(null);
+        // when
+        Throwable throwable = catchThrowable(() -> data.withResultVariable(false));
+        // then
+        assertThat(throwable).isInstanceOf(NullPointerException.class)
+                .hasMessage("the return value must not be null");
+    }
+}
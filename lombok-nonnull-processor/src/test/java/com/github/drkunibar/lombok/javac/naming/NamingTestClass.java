@@ -0,0 +1,47 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.naming;
+
+import javax.annotation.Nonnull;
+
+public class NamingTestClass {
+
+    private final String name;
+
+    public NamingTestClass(String name) {
+        this.name = name;
+    }
+
+    @Nonnull
+    public String byCase(int value) {
+        switch (value) {
+        case 1:
+            return name;
+        case 2:
+            String upper = name == null ? null : name.toUpperCase();
+            return upper;
+        default:
+            return name + value;
+        }
+    }
+
+    @Nonnull
+    public String withResultVariable(boolean prefix) {
+        String $result = name;
+        if (prefix) {
+            return "prefix";
+        }
+        return $result;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.nullness;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import org.junit.jupiter.api.Test;
+import com.github.drkunibar.lombok.javac.nullness.NullnessTestClass.Color;
+
+public class NullnessTest {
+
+    @Test
+    void nullnessTestClass_nonNullExpressions_getCorrectValues() {
+        // given
+        NullnessTestClass data = new NullnessTestClass("foo");
+        // when / then
+        assertThat(data.getThis()).isSameAs(data);
+        assertThat(data.getDescription(2)).isEqualTo("foo: 2");
+        assertThat(data.getBoxed(3)).isEqualTo(3);
+        assertThat(data.getLocal()).isEqualTo(42L);
+        assertThat(data.getArray()).containsExactly(1);
+        assertThat(data.getColor(true)).isEqualTo(Color.RED);
+        assertThat(data.getColor(false)).isEqualTo(Color.GREEN);
+        assertThat(data.getType()).isEqualTo(NullnessTestClass.class);
+        assertThat(data.getSupplier()
+                .get()).isEqualTo("foo");
+        assertThat(data.getRequired()).isEqualTo("foo");
+    }
+
+    @Test
+    void withoutName_getRequired_throwExceptionOfRequireNonNull() {
+        // given
+        NullnessTestClass data = new NullnessTestClass(null);
+        // when
+        Throwable throwable = catchThrowable(() -> data.getRequired());
+        // then
+        assertThat(throwable).isInstanceOf(NullPointerException.class)
+                .hasMessage(null);
+    }
+
+    @Test
+    void withoutName_getName_throwException() {
+        // given
+        NullnessTestClass data = new NullnessTestClass(null);
+        // when
+        Throwable throwable = catchThrowable(() -> data.getName());
+        // then
+        assertThat(throwable).isInstanceOf(NullPointerException.class)
+                .hasMessage("the return value must not be null");
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.nullness;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+
+public class NullnessTestClass {
+
+    public enum Color {
+        RED,
+        GREEN
+    }
+
+    private final String name;
+
+    public NullnessTestClass(String name) {
+        this.name = name;
+    }
+
+    @Nonnull
+    public NullnessTestClass getThis() {
+        return this;
+    }
+
+    @Nonnull
+    public String getDescription(int count) {
+        return name + ": " + count;
+    }
+
+    @Nonnull
+    public Integer getBoxed(int count) {
+        return count;
+    }
+
+    @Nonnull
+    public Long getLocal() {
+        long value = 42;
+        {
+            return value;
+        }
+    }
+
+    @Nonnull
+    public int[] getArray() {
+        return new int[] { 1 };
+    }
+
+    @Nonnull
+    public Color getColor(boolean red) {
+        return red ? Color.RED : (Color.GREEN);
+    }
+
+    @Nonnull
+    public Class<?> getType() {
+        return NullnessTestClass.class;
+    }
+
+    @Nonnull
+    public Supplier<String> getSupplier() {
+        return () -> name;
+    }
+
+    @Nonnull
+    public String getRequired() {
+        return Objects.requireNonNull(name);
+    }
+
+    @Nonnull
+    public String getName() {
+        return name;
+    }
+}
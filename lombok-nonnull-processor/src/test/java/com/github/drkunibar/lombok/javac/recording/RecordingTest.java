@@ -0,0 +1,80 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.recording;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import com.github.drkunibar.lombok.runtime.NonnullViolationEvent;
+import com.github.drkunibar.lombok.runtime.NonnullViolations;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class RecordingTest {
+
+    private static final String CLASS_NAME = RecordingTestClass.class.getName();
+
+    @Test
+    void withoutName_getName_recordViolationAndThrowException() {
+        // given
+        RecordingTestClass data = new RecordingTestClass();
+        long before = count(CLASS_NAME + "#getName:return@28");
+        // when
+        Throwable throwable = catchThrowable(() -> data.getName());
+        // then
+        assertThat(throwable).isInstanceOf(NullPointerException.class)
+                .hasMessage("the return value must not be null");
+        assertThat(count(CLASS_NAME + "#getName:return@28")).isEqualTo(before + 1);
+    }
+
+    @Test
+    void recording_setNameWithNull_commitViolationEvent() throws Exception {
+        // given
+        RecordingTestClass data = new RecordingTestClass();
+        Path file = Files.createTempFile("nonnull", ".jfr");
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(NonnullViolationEvent.NAME);
+            recording.start();
+            // when
+            catchThrowable(() -> data.setName(null));
+            recording.stop();
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        } finally {
+            Files.delete(file);
+        }
+        // then
+        assertThat(events).hasSize(1);
+        RecordedEvent event = events.get(0);
+        assertThat(event.getString("className")).isEqualTo(CLASS_NAME);
+        assertThat(event.getString("method")).isEqualTo("setName");
+        assertThat(event.getString("checked")).isEqualTo("name");
+        assertThat(event.getInt("line")).isEqualTo(22);
+        assertThat(event.getThread()
+                .getJavaName()).isEqualTo(Thread.currentThread()
+                        .getName());
+    }
+
+    private static long count(String site) {
+        Long count = NonnullViolations.violations()
+                .get(site);
+        return count == null ? 0 : count;
+    }
+}
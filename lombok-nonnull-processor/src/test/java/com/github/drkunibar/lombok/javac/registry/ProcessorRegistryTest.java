@@ -0,0 +1,70 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.registry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import com.github.drkunibar.lombok.javac.codeprocessor.Processor;
+import com.github.drkunibar.lombok.javac.codeprocessor.ProcessorRegistry;
+import com.sun.source.tree.Tree;
+
+public class ProcessorRegistryTest {
+
+    @Test
+    void all_containsProcessorsOfServiceFile() throws IOException {
+        // given
+        List<String> services = new ArrayList<>();
+        Enumeration<URL> files = Processor.class.getClassLoader()
+                .getResources("META-INF/services/" + Processor.class.getName());
+        while (files.hasMoreElements()) {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(files.nextElement()
+                            .openStream(), StandardCharsets.UTF_8))) {
+                reader.lines()
+                        .map(String::trim)
+                        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                        .forEach(services::add);
+            }
+        }
+        // when
+        List<String> registered = ProcessorRegistry.all()
+                .stream()
+                .map(processor -> processor.getClass()
+                        .getName())
+                .collect(Collectors.toList());
+        // then
+        assertThat(registered).containsExactlyInAnyOrderElementsOf(services);
+    }
+
+    @Test
+    void forKind_returnProcessorOfKind() {
+        // when / then
+        for (Processor<?> processor : ProcessorRegistry.all()) {
+            for (Tree.Kind kind : processor.getSupportedKinds()) {
+                assertThat(ProcessorRegistry.forKind(kind)).isSameAs(processor);
+            }
+        }
+        assertThat(ProcessorRegistry.forKind(Tree.Kind.RETURN)).isNull();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.reportmode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.github.drkunibar.lombok.runtime.NonnullViolations;
+
+public class ReportModeTest {
+
+    private static final String CLASS_NAME = ReportModeTestClass.class.getName();
+
+    @BeforeEach
+    void resetViolations() {
+        NonnullViolations.reset();
+    }
+
+    @Test
+    void withoutName_getName_recordViolation() {
+        // given
+        ReportModeTestClass data = new ReportModeTestClass();
+        // when
+        String name = data.getName();
+        // then
+        assertThat(name).isNull();
+        assertThat(NonnullViolations.violations()).containsEntry(CLASS_NAME + "#getName:return@28", 1L);
+    }
+
+    @Test
+    void reportModeTestClass_setNameWithNull_recordViolation() {
+        // given
+        ReportModeTestClass data = new ReportModeTestClass();
+        // when
+        data.setName(null);
+        data.setName(null);
+        // then
+        assertThat(NonnullViolations.violations()).containsEntry(CLASS_NAME + "#setName:name@22", 2L);
+    }
+
+    @Test
+    void withName_getName_recordNothing() {
+        // given
+        ReportModeTestClass data = new ReportModeTestClass();
+        data.setName("name");
+        // when
+        String name = data.getName();
+        // then
+        assertThat(name).isEqualTo("name");
+        assertThat(NonnullViolations.violations()).isEmpty();
+    }
+
+    @Test
+    void nested_getValue_recordViolationOfNestedClass() {
+        // given
+        ReportModeTestClass.Nested data = new ReportModeTestClass.Nested();
+        // when
+        data.getValue(false);
+        data.getValue(true);
+        // then
+        assertThat(NonnullViolations.violations()).containsOnlyKeys(CLASS_NAME + "$Nested#getValue:return@40");
+    }
+
+    @Test
+    void violations_areExposedAsMXBean() throws Exception {
+        // given
+        new ReportModeTestClass().getName();
+        // when
+        Object total = ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(new ObjectName(NonnullViolations.OBJECT_NAME), "TotalViolations");
+        // then
+        assertThat(total).isEqualTo(1L);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.shape;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import com.github.drkunibar.lombok.javac.codeprocessor.CodeProcessor;
+
+public class ShapeTest {
+
+    @Nested
+    class SingleReturn {
+
+        @Test
+        void withoutName_getName_throwException() {
+            // given
+            ShapeTestClass data = new ShapeTestClass(null, "value");
+            // when
+            Throwable throwable = catchThrowable(() -> data.getName());
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value must not be null");
+        }
+
+        @Test
+        void withName_getName_returnName() {
+            // given
+            ShapeTestClass data = new ShapeTestClass("name", null);
+            // when
+            String name = data.getName();
+            // then
+            assertThat(name).isEqualTo("name");
+        }
+    }
+
+    @Nested
+    class MultipleReturns {
+
+        @Test
+        void withoutValue_getValue_throwException() {
+            // given
+            ShapeTestClass data = new ShapeTestClass("name", null);
+            // when
+            Throwable throwable = catchThrowable(() -> data.getValue(false));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value must not be null");
+        }
+
+        @Test
+        void withValue_getValue_returnValue() {
+            // given
+            ShapeTestClass data = new ShapeTestClass(null, "value");
+            // when
+            String value = data.getValue(false);
+            // then
+            assertThat(value).isEqualTo("value");
+        }
+
+        @Test
+        void innerClassWithoutName_getValue_throwException() {
+            // given
+            ShapeTestClass.Inner data = new ShapeTestClass(null, "value").new Inner();
+            // when
+            Throwable throwable = catchThrowable(() -> data.getValue(true));
+            // then
+            assertThat(throwable).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value must not be null");
+        }
+
+        @Test
+        void shapeTestClass_helper_isPrivateStatic() throws NoSuchMethodException {
+            // given
+            Class<?> type = ShapeTestClass.class;
+            // when
+            Method helper = type.getDeclaredMethod(CodeProcessor.HELPER_NAME, Object.class);
+            // then
+            assertThat(Modifier.isPrivate(helper.getModifiers())).isTrue();
+            assertThat(Modifier.isStatic(helper.getModifiers())).isTrue();
+        }
+
+        @Test
+        void innerClass_helper_isNotGenerated() {
+            // given
+            Class<?> type = ShapeTestClass.Inner.class;
+            // when
+            Method[] methods = type.getDeclaredMethods();
+            // then
+            assertThat(methods).extracting(Method::getName)
+                    .doesNotContain(CodeProcessor.HELPER_NAME);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.statements;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+public class StatementsTest {
+
+    private final StatementsTestClass data = new StatementsTestClass(null);
+
+    @Test
+    void withoutName_labeled_throwException() {
+        // when
+        Throwable throwable = catchThrowable(() -> data.labeled(Arrays.asList(Arrays.asList("a", null),
+                Collections.singletonList(""))));
+        // then
+        assertThat(throwable).isInstanceOf(NullPointerException.class)
+                .hasMessage("the return value must not be null");
+    }
+
+    @Test
+    void withoutEmptyValue_labeled_returnValue() {
+        // when
+        String value = data.labeled(Collections.singletonList(Arrays.asList("a", null, "")));
+        // then
+        assertThat(value).isEqualTo("none");
+    }
+
+    @Test
+    void withoutName_labeledBlock_throwException() {
+        // when
+        Throwable throwable = catchThrowable(() -> data.labeledBlock(false));
+        // then
+        assertThat(throwable).isInstanceOf(NullPointerException.class)
+                .hasMessage("the return value must not be null");
+        assertThat(data.labeledBlock(true)).isEqualTo("skipped");
+    }
+
+    @Test
+    void withoutName_synchronizedBlock_throwException() {
+        // when
+        Throwable throwable = catchThrowable(() -> data.synchronizedBlock());
+        // then
+        assertThat(throwable).isInstanceOf(NullPointerException.class)
+                .hasMessage("the return value must not be null");
+    }
+
+    @Test
+    void withoutName_localClass_returnNull() {
+        // when
+        String value = data.localClass()
+                .get();
+        // then
+        assertThat(value).isNull();
+    }
+}
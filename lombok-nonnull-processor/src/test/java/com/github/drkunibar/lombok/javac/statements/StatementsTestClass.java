@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.statements;
+
+import java.util.List;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+
+public class StatementsTestClass {
+
+    private final Object lock = new Object();
+
+    private final String name;
+
+    public StatementsTestClass(String name) {
+        this.name = name;
+    }
+
+    @Nonnull
+    public String labeled(@Nonnull List<List<String>> rows) {
+        outer: for (List<String> row : rows) {
+            for (String value : row) {
+                if (value == null) {
+                    continue outer;
+                }
+                if (value.isEmpty()) {
+                    return name;
+                }
+            }
+        }
+        return "none";
+    }
+
+    @Nonnull
+    public String labeledBlock(boolean skip) {
+        block: {
+            if (skip) {
+                break block;
+            }
+            return name;
+        }
+        return "skipped";
+    }
+
+    @Nonnull
+    public String synchronizedBlock() {
+        synchronized (lock) {
+            return name;
+        }
+    }
+
+    @Nonnull
+    public Supplier<String> localClass() {
+        class Local implements Supplier<String> {
+
+            @Override
+            public String get() {
+                return name;
+            }
+        }
+        return new Local();
+    }
+}
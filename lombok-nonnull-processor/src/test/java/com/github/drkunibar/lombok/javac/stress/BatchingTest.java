@@ -0,0 +1,148 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.stress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that all {@code @Nonnull} annotations of a type are handled in one pass exactly once, see
+ * {@code HandleNonnull#handle}.
+ */
+public class BatchingTest {
+
+    private static final String INLINE = "lombok.javax.nonnull.codeShape = INLINE";
+
+    private static final String CUSTOMER = "package stress;\n\n"
+            + "import java.util.function.Consumer;\n"
+            + "import javax.annotation.Nonnull;\n"
+            + "import lombok.Builder;\n"
+            + "import lombok.Setter;\n"
+            + "import lombok.experimental.Delegate;\n\n"
+            + "@Builder\n"
+            + "public class Customer {\n"
+            + "    @Setter\n"
+            + "    @Nonnull\n"
+            + "    private String name;\n\n"
+            + "    @Delegate\n"
+            + "    private Named named;\n\n"
+            + "    @Nonnull\n"
+            + "    public String join(@Nonnull String first, @Nonnull String second) {\n"
+            + "        @Nonnull\n"
+            + "        String joined = first + second;\n"
+            + "        if (joined.isEmpty()) {\n"
+            + "            return name;\n"
+            + "        }\n"
+            + "        return joined.trim();\n"
+            + "    }\n\n"
+            + "    public Consumer<String> printer() {\n"
+            + "        return new Consumer<String>() {\n"
+            + "            @Override\n"
+            + "            public void accept(@Nonnull String line) {\n"
+            + "                System.out.println(line);\n"
+            + "            }\n"
+            + "        };\n"
+            + "    }\n\n"
+            + "    public class Address {\n"
+            + "        public void setStreet(@Nonnull String street) {\n"
+            + "        }\n"
+            + "    }\n\n"
+            + "    public static class Named {\n"
+            + "        public void rename(@Nonnull String alias) {\n"
+            + "        }\n"
+            + "    }\n"
+            + "}\n";
+
+    @Nested
+    class OnePass {
+
+        @Test
+        void typeWithManyAnnotations_checkEveryAnnotationOnce() throws Exception {
+            // when
+            StressCorpus.Result result = StressCorpus.printSource("Customer", CUSTOMER, false, INLINE);
+            // then
+            assertCheckedOnce(result);
+        }
+
+        @Test
+        void secondProcessingRound_noDuplicateChecks() throws Exception {
+            // when
+            StressCorpus.Result result = StressCorpus.printSource("Customer", CUSTOMER, true, INLINE);
+            // then
+            assertCheckedOnce(result);
+        }
+
+        private void assertCheckedOnce(StressCorpus.Result result) {
+            // first, second, line, street, alias and name of the constructor, the setter and the builder
+            assertThat(result.getParameterChecks()).isEqualTo(8);
+            assertThat(result.getReturnSites()).isEqualTo(2);
+            String source = result.getPrintedSource();
+            assertThat(count(source, "\"first is marked non-null but is null\"")).isEqualTo(1);
+            assertThat(count(source, "\"second is marked non-null but is null\"")).isEqualTo(1);
+            assertThat(count(source, "\"the return value must not be null\"")).isEqualTo(2);
+            // nested and anonymous classes are handled in their own pass
+            assertThat(count(source, "\"street is marked non-null but is null\"")).isEqualTo(1);
+            assertThat(count(source, "\"line is marked non-null but is null\"")).isEqualTo(1);
+            assertThat(count(source, "\"alias is marked non-null but is null\"")).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    class GeneratedMembers {
+
+        @Test
+        void setterAndBuilder_checkedOnce() throws Exception {
+            // when
+            StressCorpus.Result result = StressCorpus.printSource("Customer", CUSTOMER, false, INLINE);
+            // then
+            // the constructor of @Builder, the setter and the method of the builder
+            assertThat(count(result.getPrintedSource(), "\"name is marked non-null but is null\"")).isEqualTo(3);
+        }
+
+        @Test
+        void delegateMethodGeneratedAfterPass_noCheck() throws Exception {
+            // when
+            StressCorpus.Result result = StressCorpus.printSource("Customer", CUSTOMER, true, INLINE);
+            // then
+            // lombok generates the @Delegate methods after the type was handled, without the annotations
+            assertThat(result.getPrintedSource()).contains("public void rename(final java.lang.String alias)");
+            assertThat(count(result.getPrintedSource(), "\"alias is marked non-null but is null\"")).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    class Fallback {
+
+        @Test
+        void localVariable_handledOnce() throws Exception {
+            // when
+            StressCorpus.Result result = StressCorpus.printSource("Customer", CUSTOMER, true, INLINE);
+            // then
+            // the field is handled with its type, the local variable is not part of a member
+            assertThat(result.getMessages()).containsExactly(
+                    "WARNING: @Nonnull only works on methods and arguments",
+                    "WARNING: @Nonnull only works on methods and arguments");
+        }
+    }
+
+    private static int count(String source, String text) {
+        int count = 0;
+        for (int index = source.indexOf(text); index >= 0; index = source.indexOf(text, index + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
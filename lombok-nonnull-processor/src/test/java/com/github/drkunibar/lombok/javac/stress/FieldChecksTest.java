@@ -0,0 +1,147 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.stress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the errors of {@code @Nonnull} fields and which getters of final fields keep their return check, see
+ * {@code FieldChecks}.
+ */
+public class FieldChecksTest {
+
+    private static final String CHECK_FIELDS = "lombok.javax.nonnull.checkFields = true";
+
+    private static final String INLINE = "lombok.javax.nonnull.codeShape = INLINE";
+
+    private static final String RETURN_CHECK = "\"the return value must not be null\"";
+
+    private static final String FIELD_CHECK = "\"name is marked non-null but is null\"";
+
+    @Nested
+    class Errors {
+
+        @Test
+        void initializedWithNull_error() throws Exception {
+            // given
+            String source = person("    @Nonnull\n    private String name = null;\n", "");
+            // when
+            StressCorpus.Result result = StressCorpus.compile("Person", source, CHECK_FIELDS);
+            // then
+            assertThat(result.getMessages()).containsExactly(
+                    "ERROR: @Nonnull annotated field 'name' is initialized with null");
+        }
+
+        @Test
+        void assignedNull_error() throws Exception {
+            // given
+            String source = person("    @Nonnull\n    private String name = \"\";\n",
+                    "    public void reset() {\n        this.name = null;\n    }\n");
+            // when
+            StressCorpus.Result result = StressCorpus.compile("Person", source, CHECK_FIELDS);
+            // then
+            assertThat(result.getMessages()).containsExactly("ERROR: @Nonnull annotated field 'name' is assigned null");
+        }
+    }
+
+    @Nested
+    class FinalFieldGetter {
+
+        @Test
+        void assignedInConstructor_noReturnCheck() throws Exception {
+            // given
+            String source = person("    @Nonnull\n    private final String name;\n",
+                    "    public Person(String name) {\n        this.name = name;\n    }\n");
+            // when
+            StressCorpus.Result result = StressCorpus.printSource("Person", source, false, CHECK_FIELDS, INLINE);
+            // then
+            assertThat(result.getMessages()).isEmpty();
+            assertThat(result.getReturnSites()).isZero();
+            assertThat(result.getPrintedSource()).contains(FIELD_CHECK)
+                    .doesNotContain(RETURN_CHECK);
+        }
+
+        @Test
+        void notFinal_returnCheck() throws Exception {
+            // given
+            String source = person("    @Nonnull\n    private String name;\n",
+                    "    public Person(String name) {\n        this.name = name;\n    }\n");
+            // when
+            StressCorpus.Result result = StressCorpus.printSource("Person", source, false, CHECK_FIELDS, INLINE);
+            // then
+            assertThat(result.getReturnSites()).isEqualTo(1);
+            assertThat(result.getPrintedSource()).contains(RETURN_CHECK);
+        }
+
+        @Test
+        void assignedInInitializer_checkAssignmentAndNoReturnCheck() throws Exception {
+            // given
+            String source = person("    @Nonnull\n    private final String name;\n\n    {\n        name = compute();\n"
+                    + "    }\n", "    private String compute() {\n        return null;\n    }\n");
+            // when
+            StressCorpus.Result result = StressCorpus.printSource("Person", source, false, CHECK_FIELDS, INLINE);
+            // then
+            assertThat(result.getReturnSites()).isZero();
+            assertThat(result.getPrintedSource()).contains(FIELD_CHECK)
+                    .doesNotContain(RETURN_CHECK);
+        }
+
+        @Test
+        void nestedAssignment_returnCheck() throws Exception {
+            // given
+            String source = person("    @Nonnull\n    private final String name;\n    private final String alias;\n",
+                    "    public Person(String name) {\n        alias = this.name = name;\n    }\n");
+            // when
+            StressCorpus.Result result = StressCorpus.printSource("Person", source, false, CHECK_FIELDS, INLINE);
+            // then
+            assertThat(result.getReturnSites()).isEqualTo(1);
+            assertThat(result.getPrintedSource()).contains(RETURN_CHECK)
+                    .doesNotContain(FIELD_CHECK);
+        }
+
+        @Test
+        void nestedAssignmentInInitializer_returnCheck() throws Exception {
+            // given
+            String source = person("    @Nonnull\n    private final String name;\n\n    {\n"
+                    + "        System.out.println(name = compute());\n    }\n",
+                    "    private String compute() {\n        return null;\n    }\n");
+            // when
+            StressCorpus.Result result = StressCorpus.printSource("Person", source, false, CHECK_FIELDS, INLINE);
+            // then
+            assertThat(result.getReturnSites()).isEqualTo(1);
+            assertThat(result.getPrintedSource()).contains(RETURN_CHECK);
+        }
+    }
+
+    /**
+     * A class with the given fields and members and the method {@code @Nonnull String getName()}.
+     */
+    private static String person(String fields, String members) {
+        return "package stress;\n\n"
+                + "import javax.annotation.Nonnull;\n\n"
+                + "public class Person {\n"
+                + fields
+                + "\n"
+                + members
+                + "\n"
+                + "    @Nonnull\n"
+                + "    public String getName() {\n"
+                + "        return name;\n"
+                + "    }\n"
+                + "}\n";
+    }
+}
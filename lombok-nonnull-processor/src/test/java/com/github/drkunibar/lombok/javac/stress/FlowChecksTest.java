@@ -0,0 +1,148 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.stress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that a variable known to be non-null after a guard or an assignment is returned without a check, see
+ * {@code NonNullNames}.
+ */
+public class FlowChecksTest {
+
+    private static final String INLINE = "lombok.javax.nonnull.codeShape = INLINE";
+
+    private static final String RETURN_CHECK = "\"the return value must not be null\"";
+
+    @Nested
+    class KnownNonNull {
+
+        @Test
+        void checkedParameter_noReturnCheck() throws Exception {
+            assertNoReturnCheck("    public String normalize(@Nonnull String value) {\n"
+                    + "        if (value.isEmpty()) {\n            return \"-\";\n        }\n"
+                    + "        return value;\n    }\n");
+        }
+
+        @Test
+        void nullGuard_noReturnCheck() throws Exception {
+            assertNoReturnCheck("    public String orEmpty(String value) {\n"
+                    + "        if (value == null) {\n            return \"\";\n        }\n"
+                    + "        return value;\n    }\n");
+        }
+
+        @Test
+        void nullGuardOfEitherVariable_noReturnCheck() throws Exception {
+            assertNoReturnCheck("    public String firstOrEmpty(String first, String second) {\n"
+                    + "        if (first == null || second == null) {\n            return \"\";\n        }\n"
+                    + "        return first;\n    }\n");
+        }
+
+        @Test
+        void requireNonNull_noReturnCheck() throws Exception {
+            assertNoReturnCheck("    public String required(String value) {\n"
+                    + "        Objects.requireNonNull(value, \"value\");\n"
+                    + "        return value;\n    }\n");
+        }
+
+        @Test
+        void assignedConcatenation_noReturnCheck() throws Exception {
+            assertNoReturnCheck("    public String concat(String value) {\n"
+                    + "        String result = \"[\" + value + \"]\";\n"
+                    + "        return result;\n    }\n");
+        }
+
+        private void assertNoReturnCheck(String method) throws Exception {
+            // when
+            StressCorpus.Result result = StressCorpus.printSource("Flow", flow(method), false, INLINE);
+            // then
+            assertThat(result.getMessages()).isEmpty();
+            assertThat(result.getReturnSites()).isZero();
+            assertThat(result.getPrintedSource()).doesNotContain(RETURN_CHECK);
+        }
+    }
+
+    @Nested
+    class MaybeNull {
+
+        @Test
+        void reassignedInBranch_returnCheck() throws Exception {
+            assertReturnCheck("    public String reassigned(@Nonnull String value, boolean lookup) {\n"
+                    + "        if (lookup) {\n            value = lookup(value);\n        }\n"
+                    + "        return value;\n    }\n");
+        }
+
+        @Test
+        void reassignedInLoop_returnCheck() throws Exception {
+            assertReturnCheck("    public String loop(int count) {\n"
+                    + "        String value = \"start\";\n"
+                    + "        for (int i = 0;; i++) {\n"
+                    + "            if (i == count) {\n                return value;\n            }\n"
+                    + "            value = lookup(value);\n        }\n    }\n");
+        }
+
+        @Test
+        void guardInNestedBlock_returnCheck() throws Exception {
+            assertReturnCheck("    public String nestedGuard(String value, boolean guard) {\n"
+                    + "        if (guard) {\n            if (value == null) {\n                return \"\";\n"
+                    + "            }\n        }\n"
+                    + "        return value;\n    }\n");
+        }
+
+        @Test
+        void reassignedInElse_returnCheck() throws Exception {
+            assertReturnCheck("    public String reassignedInElse(String value) {\n"
+                    + "        if (value == null) {\n            return \"\";\n"
+                    + "        } else {\n            value = lookup(value);\n        }\n"
+                    + "        return value;\n    }\n");
+        }
+
+        @Test
+        void assignedInThenAndReassignedInElse_returnCheck() throws Exception {
+            assertReturnCheck("    public String defaultOrLookup(String value) {\n"
+                    + "        if (value == null) {\n            value = \"\";\n"
+                    + "        } else {\n            value = lookup(value);\n        }\n"
+                    + "        return value;\n    }\n");
+        }
+
+        private void assertReturnCheck(String method) throws Exception {
+            // when
+            StressCorpus.Result result = StressCorpus.printSource("Flow", flow(method), false, INLINE);
+            // then
+            assertThat(result.getMessages()).isEmpty();
+            assertThat(result.getReturnSites()).isEqualTo(1);
+            assertThat(result.getPrintedSource()).contains(RETURN_CHECK);
+        }
+    }
+
+    /**
+     * A class with the given {@code @Nonnull} method and the method {@code lookup} which returns {@code null}.
+     */
+    private static String flow(String method) {
+        return "package stress;\n\n"
+                + "import java.util.Objects;\n"
+                + "import javax.annotation.Nonnull;\n\n"
+                + "public class Flow {\n\n"
+                + "    @Nonnull\n"
+                + method
+                + "\n"
+                + "    private static String lookup(String value) {\n"
+                + "        return null;\n"
+                + "    }\n"
+                + "}\n";
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.stress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the estimated bytecode size of methods against the code javac generates and the warnings of the inlining
+ * budget.
+ */
+public class InliningTest {
+
+    /**
+     * The estimate may differ from the real size by this many bytes ...
+     */
+    private static final int TOLERANCE_BYTES = 6;
+
+    /**
+     * ... or by this percentage of the real size, whichever is larger.
+     */
+    private static final int TOLERANCE_PERCENT = 15;
+
+    private static final String WARN = "lombok.javax.nonnull.inlining.warn = true";
+
+    private static final String SHAPES = "package stress;\n\n"
+            + "import java.util.ArrayList;\n"
+            + "import java.util.HashMap;\n"
+            + "import java.util.Iterator;\n"
+            + "import java.util.List;\n"
+            + "import javax.annotation.Nonnull;\n\n"
+            + "public class Shapes {\n"
+            + "    private String name;\n"
+            + "    private int count;\n"
+            + "    private List<String> values = new ArrayList<>();\n\n"
+            + "    @Nonnull\n"
+            + "    public String getName() {\n"
+            + "        return name;\n"
+            + "    }\n\n"
+            + "    public void setName(@Nonnull String name) {\n"
+            + "        this.name = name;\n"
+            + "    }\n\n"
+            + "    @Nonnull\n"
+            + "    public String concat(@Nonnull String a, int b) {\n"
+            + "        return a + \":\" + b + name;\n"
+            + "    }\n\n"
+            + "    public int loop(@Nonnull String unused, int n) {\n"
+            + "        int sum = 0;\n"
+            + "        for (int i = 0; i < n; i++) {\n"
+            + "            sum += i * count;\n"
+            + "        }\n"
+            + "        return sum;\n"
+            + "    }\n\n"
+            + "    @Nonnull\n"
+            + "    public String each() {\n"
+            + "        StringBuilder out = new StringBuilder();\n"
+            + "        for (String value : values) {\n"
+            + "            out.append(value).append(',');\n"
+            + "        }\n"
+            + "        return out.toString();\n"
+            + "    }\n\n"
+            + "    @Nonnull\n"
+            + "    public String choose(int value) {\n"
+            + "        switch (value) {\n"
+            + "        case 1:\n"
+            + "            return \"one\";\n"
+            + "        case 2:\n"
+            + "            return \"two\";\n"
+            + "        case 10:\n"
+            + "            return \"ten\";\n"
+            + "        default:\n"
+            + "            return name;\n"
+            + "        }\n"
+            + "    }\n\n"
+            + "    @Nonnull\n"
+            + "    public String tryCatch(@Nonnull String value) {\n"
+            + "        try {\n"
+            + "            return value.trim();\n"
+            + "        } catch (RuntimeException e) {\n"
+            + "            return e.toString();\n"
+            + "        } finally {\n"
+            + "            count++;\n"
+            + "        }\n"
+            + "    }\n\n"
+            + "    @Nonnull\n"
+            + "    public String conditional(String a, String b) {\n"
+            + "        return a != null ? a : b != null ? b : \"none\";\n"
+            + "    }\n\n"
+            + "    @Nonnull\n"
+            + "    public Object create(int n) {\n"
+            + "        Object[] array = new Object[n];\n"
+            + "        if (n > 0) {\n"
+            + "            array[0] = new HashMap<String, Integer>();\n"
+            + "        }\n"
+            + "        return array;\n"
+            + "    }\n\n"
+            + "    public boolean check(@Nonnull Object o) {\n"
+            + "        return o instanceof String && ((String) o).isEmpty() || !values.isEmpty();\n"
+            + "    }\n\n"
+            + "    public long locals(@Nonnull String unused, long a, double b) {\n"
+            + "        long c = a * 2;\n"
+            + "        double d = b / 3;\n"
+            + "        int e = (int) d;\n"
+            + "        return c + e + (long) d;\n"
+            + "    }\n\n"
+            + "    @Nonnull\n"
+            + "    public String whileLoop(@Nonnull Iterator<String> it) {\n"
+            + "        String last = \"\";\n"
+            + "        while (it.hasNext()) {\n"
+            + "            last = it.next();\n"
+            + "            if (last.isEmpty()) {\n"
+            + "                continue;\n"
+            + "            }\n"
+            + "            if (last.length() > 5) {\n"
+            + "                break;\n"
+            + "            }\n"
+            + "        }\n"
+            + "        return last;\n"
+            + "    }\n\n"
+            + "    public void sync(@Nonnull Object lock) {\n"
+            + "        synchronized (lock) {\n"
+            + "            values.clear();\n"
+            + "        }\n"
+            + "    }\n"
+            + "}\n";
+
+    @Nested
+    class Estimate {
+
+        @Test
+        void shapes_estimateWithinToleranceOfCodeLength() throws Exception {
+            // given
+            Map<String, Integer> codeLengths = StressCorpus.codeLengths("Shapes", SHAPES);
+            // when
+            StressCorpus.Result result = StressCorpus.compile("Shapes", SHAPES);
+            // then
+            assertThat(result.getMessages()).isEmpty();
+            assertThat(result.getBytecodeBefore()).containsOnlyKeys("getName", "setName", "concat", "loop", "each",
+                    "choose", "tryCatch", "conditional", "create", "check", "locals", "whileLoop", "sync");
+            assertThat(result.getBytecodeBefore()).allSatisfy((method, estimate) -> {
+                int codeLength = codeLengths.get(method);
+                int tolerance = Math.max(TOLERANCE_BYTES, codeLength * TOLERANCE_PERCENT / 100);
+                assertThat(estimate).as(method)
+                        .isBetween(codeLength - tolerance, codeLength + tolerance);
+            });
+        }
+    }
+
+    @Nested
+    class Warning {
+
+        @Test
+        void smallGetter_noWarning() throws Exception {
+            // given
+            String source = budget("        return name;\n");
+            // when
+            StressCorpus.Result result = StressCorpus.compile("Budget", source, WARN);
+            // then
+            assertThat(result.getBytecodeAfter()
+                    .get("get")).isLessThanOrEqualTo(35);
+            assertThat(result.getMessages()).isEmpty();
+        }
+
+        @Test
+        void maxInlineSizeExceeded_warning() throws Exception {
+            // given
+            String source = budget("        if (value == 0) {\n            return name.trim();\n        }\n"
+                    + "        if (value == 1) {\n            return name;\n        }\n"
+                    + "        return name.toLowerCase();\n");
+            // when
+            StressCorpus.Result result = StressCorpus.compile("Budget", source, WARN);
+            // then
+            assertThat(result.getBytecodeBefore()
+                    .get("get")).isLessThanOrEqualTo(35);
+            assertThat(result.getBytecodeAfter()
+                    .get("get")).isGreaterThan(35);
+            assertThat(result.getMessages()).hasSize(1);
+            assertThat(result.getMessages()
+                    .get(0)).startsWith("WARNING: @Nonnull checks grow method 'get' from about ")
+                    .endsWith(" bytes of bytecode, more than MaxInlineSize (35)");
+        }
+
+        @Test
+        void bigMethod_noWarning() throws Exception {
+            // given
+            String source = budget(statements(50));
+            // when
+            StressCorpus.Result result = StressCorpus.compile("Budget", source, WARN);
+            // then
+            assertThat(result.getBytecodeBefore()
+                    .get("get")).isGreaterThan(35);
+            assertThat(result.getBytecodeAfter()
+                    .get("get")).isLessThanOrEqualTo(325);
+            assertThat(result.getMessages()).isEmpty();
+        }
+
+        @Test
+        void freqInlineSizeExceeded_warning() throws Exception {
+            // given
+            String source = budget(statements(62));
+            // when
+            StressCorpus.Result result = StressCorpus.compile("Budget", source, WARN);
+            // then
+            assertThat(result.getBytecodeBefore()
+                    .get("get")).isLessThanOrEqualTo(325);
+            assertThat(result.getBytecodeAfter()
+                    .get("get")).isGreaterThan(325);
+            assertThat(result.getMessages()).hasSize(1);
+            assertThat(result.getMessages()
+                    .get(0)).startsWith("WARNING: @Nonnull checks grow method 'get' from about ")
+                    .endsWith(" bytes of bytecode, more than FreqInlineSize (325)");
+        }
+
+        @Test
+        void configuredThreshold_warning() throws Exception {
+            // given
+            String source = budget("        return name;\n");
+            // when
+            StressCorpus.Result result = StressCorpus.compile("Budget", source, WARN,
+                    "lombok.javax.nonnull.inlining.maxInlineSize = 10");
+            // then
+            assertThat(result.getMessages()).hasSize(1);
+            assertThat(result.getMessages()
+                    .get(0)).endsWith(" bytes of bytecode, more than MaxInlineSize (10)");
+        }
+    }
+
+    /**
+     * A class with the method {@code @Nonnull String get(int value)} and the given body.
+     */
+    private static String budget(String body) {
+        return "package stress;\n\n"
+                + "import javax.annotation.Nonnull;\n\n"
+                + "public class Budget {\n"
+                + "    private String name = \"\";\n\n"
+                + "    @Nonnull\n"
+                + "    public String get(int value) {\n"
+                + body
+                + "    }\n"
+                + "}\n";
+    }
+
+    /**
+     * A body of the given number of {@code current = current.trim();} statements, five bytes each.
+     */
+    private static String statements(int count) {
+        StringBuilder out = new StringBuilder("        String current = name;\n");
+        for (int i = 0; i < count; i++) {
+            out.append("        current = current.trim();\n");
+        }
+        return out.append("        return current;\n")
+                .toString();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.stress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that return values which are never {@code null} get no check and that {@code return null;} is an error, see
+ * {@code NullnessAnalyzer}.
+ */
+public class NullnessChecksTest {
+
+    private static final String INLINE = "lombok.javax.nonnull.codeShape = INLINE";
+
+    private static final String RETURN_CHECK = "\"the return value must not be null\"";
+
+    @Nested
+    class KnownNonNull {
+
+        @Test
+        void nonNullExpressions_noReturnCheck() throws Exception {
+            // given
+            String source = values("    @Nonnull\n    public Values getThis() {\n        return this;\n    }\n\n"
+                    + "    @Nonnull\n    public String getDescription(int count) {\n"
+                    + "        return name + \": \" + count;\n    }\n\n"
+                    + "    @Nonnull\n    public Integer getBoxed(int count) {\n        return count;\n    }\n\n"
+                    + "    @Nonnull\n    public int[] getArray() {\n        return new int[] { 1 };\n    }\n\n"
+                    + "    @Nonnull\n    public Color getColor(boolean red) {\n"
+                    + "        return red ? Color.RED : (Color.GREEN);\n    }\n\n"
+                    + "    @Nonnull\n    public Class<?> getType() {\n        return Values.class;\n    }\n\n"
+                    + "    @Nonnull\n    public Supplier<String> getSupplier() {\n        return () -> name;\n    }\n\n"
+                    + "    @Nonnull\n    public String getRequired() {\n"
+                    + "        return Objects.requireNonNull(name);\n    }\n");
+            // when
+            StressCorpus.Result result = StressCorpus.printSource("Values", source, false, INLINE);
+            // then
+            assertThat(result.getMessages()).isEmpty();
+            assertThat(result.getReturnSites()).isZero();
+            assertThat(result.getPrintedSource()).doesNotContain(RETURN_CHECK);
+        }
+
+        @Test
+        void fieldAndCall_returnCheck() throws Exception {
+            // given
+            String source = values("    @Nonnull\n    public String getName() {\n        return name;\n    }\n\n"
+                    + "    @Nonnull\n    public String getTrimmed() {\n        return name.trim();\n    }\n");
+            // when
+            StressCorpus.Result result = StressCorpus.printSource("Values", source, false, INLINE);
+            // then
+            assertThat(result.getReturnSites()).isEqualTo(2);
+            assertThat(result.getPrintedSource()).contains(RETURN_CHECK);
+        }
+    }
+
+    @Nested
+    class ReturnNull {
+
+        @Test
+        void nullLiteral_error() throws Exception {
+            // given
+            String source = values("    @Nonnull\n    public String getName() {\n        return null;\n    }\n");
+            // when
+            StressCorpus.Result result = StressCorpus.compile("Values", source);
+            // then
+            assertThat(result.getMessages()).containsExactly(
+                    "ERROR: @Nonnull annotated method 'getName' returns null");
+        }
+
+        @Test
+        void nullLiteralInParentheses_error() throws Exception {
+            // given
+            String source = values("    @Nonnull\n    public String getName(boolean empty) {\n"
+                    + "        if (empty) {\n            return \"\";\n        }\n        return (null);\n    }\n");
+            // when
+            StressCorpus.Result result = StressCorpus.compile("Values", source);
+            // then
+            assertThat(result.getMessages()).containsExactly(
+                    "ERROR: @Nonnull annotated method 'getName' returns null");
+        }
+    }
+
+    /**
+     * A class with the field {@code name}, the enum {@code Color} and the given methods.
+     */
+    private static String values(String methods) {
+        return "package stress;\n\n"
+                + "import java.util.Objects;\n"
+                + "import java.util.function.Supplier;\n"
+                + "import javax.annotation.Nonnull;\n\n"
+                + "public class Values {\n"
+                + "    public enum Color {\n        RED,\n        GREEN\n    }\n\n"
+                + "    private String name;\n\n"
+                + methods
+                + "}\n";
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.stress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the report of the handler and the summary printed as notes of the compilation.
+ */
+public class ReportTest {
+
+    @Test
+    void methods_writeReportAndSummary() throws Exception {
+        // given
+        Path directory = Files.createTempDirectory("lombok-nonnull-report");
+        try {
+            // when
+            StressCorpus.Result result = StressCorpus.compile(directory, "Methods", StressCorpus.methods(3));
+            // then
+            Path report = directory.resolve("lombok-nonnull-report-classes.csv");
+            List<String> lines = Files.readAllLines(report, StandardCharsets.UTF_8);
+            assertThat(lines).hasSize(4);
+            assertThat(lines.get(0)).isEqualTo("file,type,member,nanos,statementsVisited,returnSites,parameterChecks,"
+                    + "warnings,bytecodeBefore,bytecodeAfter,inliningThreshold,analysisCached");
+            assertThat(lines.subList(1, 4)).allSatisfy(line -> assertThat(line).contains(",Methods,get"));
+            assertThat(result.getNotes()).anySatisfy(note -> assertThat(note).startsWith(
+                    "[lombok-nonnull] 3 members in 1 files: ")
+                    .endsWith(" ms, 3 return sites, 3 parameter checks, 0 warnings"))
+                    .contains("[lombok-nonnull] slowest files:", "[lombok-nonnull] slowest members:",
+                            "[lombok-nonnull] report: " + report);
+        } finally {
+            StressCorpus.delete(directory);
+        }
+    }
+}
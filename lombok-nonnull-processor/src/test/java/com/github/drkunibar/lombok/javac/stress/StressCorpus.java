@@ -0,0 +1,563 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.stress;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import lombok.Lombok;
+
+/**
+ * Generates machine-like sources and runs the annotation processors (lombok and this extension) on them. The
+ * compilation stops after the annotation processing ({@code -proc:only}): the generated methods are far beyond the
+ * size limits of the bytecode.
+ */
+final class StressCorpus {
+
+    /**
+     * The handler extends classes lombok loads from its own jar, it is located by the class file.
+     */
+    private static final String HANDLER = "com/github/drkunibar/lombok/javac/HandleNonnull.class";
+
+    /**
+     * javac and lombok visit nested statements recursively, so the compiler thread needs a deep stack.
+     */
+    private static final long STACK_SIZE = 1024L * 1024 * 1024;
+
+    /**
+     * The processors of lombok, they have to be named together with further processors.
+     */
+    private static final String LOMBOK_PROCESSORS = "lombok.launch.AnnotationProcessorHider$AnnotationProcessor,"
+            + "lombok.launch.AnnotationProcessorHider$ClaimingProcessor";
+
+    private StressCorpus() {
+    }
+
+    /**
+     * A method with an {@code else if} chain: every level returns the parameter, the innermost {@code else} a
+     * literal.
+     */
+    static String elseIfChain(int depth) {
+        StringBuilder out = header("ElseIfChain");
+        out.append("        if (value == 0) {\n            return result;\n        }");
+        for (int i = 1; i < depth; i++) {
+            out.append(" else if (value == ")
+                    .append(i)
+                    .append(") {\n            return result;\n        }");
+        }
+        out.append(" else {\n            return \"\";\n        }\n");
+        return footer(out);
+    }
+
+    /**
+     * A method with a {@code switch}: every case returns the parameter, the default a literal.
+     */
+    static String switchCases(int cases) {
+        StringBuilder out = header("SwitchCases");
+        out.append("        switch (value) {\n");
+        for (int i = 0; i < cases; i++) {
+            out.append("        case ")
+                    .append(i)
+                    .append(":\n            return result;\n");
+        }
+        out.append("        default:\n            return \"\";\n        }\n");
+        return footer(out);
+    }
+
+    /**
+     * A method with a flat list of assignments, every 100th statement is a conditional return.
+     */
+    static String statements(int count) {
+        StringBuilder out = header("Statements");
+        out.append("        String current = result;\n");
+        for (int i = 1; i <= count; i++) {
+            if (i % 100 == 0) {
+                out.append("        if (value == ")
+                        .append(i)
+                        .append(") {\n            return current;\n        }\n");
+            } else {
+                out.append("        current = current.trim();\n");
+            }
+        }
+        out.append("        return current;\n");
+        return footer(out);
+    }
+
+    /**
+     * A class with many small methods, e.g. a generated API client. Every method returns the parameter in an
+     * {@code if} and a literal otherwise.
+     */
+    static String methods(int count) {
+        StringBuilder out = new StringBuilder().append("package stress;\n\n")
+                .append("import javax.annotation.Nonnull;\n\n")
+                .append("public class Methods {\n");
+        for (int i = 0; i < count; i++) {
+            out.append("\n    @Nonnull\n    public String get")
+                    .append(i)
+                    .append("(int value, @Nonnull String result) {\n        if (value == ")
+                    .append(i)
+                    .append(") {\n            return result.trim();\n        }\n        return \"\";\n    }\n");
+        }
+        return out.append("}\n")
+                .toString();
+    }
+
+    private static StringBuilder header(String className) {
+        return new StringBuilder().append("package stress;\n\n")
+                .append("import javax.annotation.Nonnull;\n\n")
+                .append("public class ")
+                .append(className)
+                .append(" {\n\n    @Nonnull\n    public String get(int value, String result) {\n");
+    }
+
+    private static String footer(StringBuilder out) {
+        return out.append("    }\n}\n")
+                .toString();
+    }
+
+    /**
+     * Runs the annotation processors on the source in a temporary directory.
+     *
+     * @param className
+     *            the simple name of the class in the source
+     * @param source
+     *            the source
+     * @param configuration
+     *            further lines of the {@code lombok.config}
+     * @return the result
+     */
+    @Nonnull
+    static Result compile(@Nonnull String className, @Nonnull String source, @Nonnull String... configuration)
+            throws Exception {
+        Path directory = Files.createTempDirectory("lombok-nonnull-stress");
+        try {
+            return compile(directory, className, source, configuration);
+        } finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * Runs the annotation processors on the source in the given directory, the files of former compilations (e.g.
+     * the analysis cache) are kept.
+     *
+     * @param directory
+     *            the directory of the sources, the configuration and the output
+     * @param className
+     *            the simple name of the class in the source
+     * @param source
+     *            the source
+     * @param configuration
+     *            further lines of the {@code lombok.config}
+     * @return the result
+     */
+    @Nonnull
+    static Result compile(@Nonnull Path directory, @Nonnull String className, @Nonnull String source,
+            @Nonnull String... configuration) throws Exception {
+        return compile(directory, className, source, new Result(Collections.singletonList("-proc:only")),
+                configuration);
+    }
+
+    /**
+     * Compiles the source and prints it after the annotation processing (javac {@code -printsource}), i.e. with the
+     * generated checks.
+     *
+     * @param className
+     *            the simple name of the class in the source
+     * @param source
+     *            the source
+     * @param secondRound
+     *            whether {@link RoundProcessor} generates a class, so javac runs a second round of annotation
+     *            processing
+     * @param configuration
+     *            further lines of the {@code lombok.config}
+     * @return the result with the printed source
+     */
+    @Nonnull
+    static Result printSource(@Nonnull String className, @Nonnull String source, boolean secondRound,
+            @Nonnull String... configuration) throws Exception {
+        Path directory = Files.createTempDirectory("lombok-nonnull-stress");
+        try {
+            List<String> mode = new ArrayList<>(Collections.singletonList("-printsource"));
+            if (secondRound) {
+                // the generated source must not be overwritten by the printed one
+                Path generated = Files.createDirectories(directory.resolve("generated"));
+                mode.addAll(Arrays.asList("-processor", LOMBOK_PROCESSORS + "," + RoundProcessor.class.getName(),
+                        "-s", generated.toString()));
+            }
+            Result result = compile(directory, className, source, new Result(mode), configuration);
+            result.printedSource = new String(Files.readAllBytes(directory.resolve("classes")
+                    .resolve("stress")
+                    .resolve(className + ".java")), StandardCharsets.UTF_8);
+            return result;
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static Result compile(Path directory, String className, String source, Result result,
+            String... configuration) throws Exception {
+        Path sourceFile = directory.resolve("stress")
+                .resolve(className + ".java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.write(sourceFile, source.getBytes(StandardCharsets.UTF_8));
+        // the report of the handler is written to <directory>/lombok-nonnull-report-classes.csv
+        List<String> config = new ArrayList<>();
+        config.add("lombok.javax.nonnull.report = true");
+        config.addAll(Arrays.asList(configuration));
+        Files.write(directory.resolve("lombok.config"), config, StandardCharsets.UTF_8);
+        Path classes = Files.createDirectories(directory.resolve("classes"));
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread compiler = new Thread(null, () -> {
+            try {
+                result.run(sourceFile, classes);
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        }, "lombok-nonnull-stress", STACK_SIZE);
+        compiler.start();
+        compiler.join();
+        if (failure.get() != null) {
+            throw new IllegalStateException("the compilation failed", failure.get());
+        }
+        result.readReport(directory.resolve("lombok-nonnull-report-classes.csv"));
+        return result;
+    }
+
+    /**
+     * Compiles the source without annotation processors and returns the length of the code of its methods, i.e. the
+     * bytecode size the JIT compares with its inlining thresholds.
+     *
+     * @param className
+     *            the simple name of the class in the source
+     * @param source
+     *            the source
+     * @return the code lengths by the method names, overloaded methods are not distinguished
+     */
+    @Nonnull
+    static Map<String, Integer> codeLengths(@Nonnull String className, @Nonnull String source) throws Exception {
+        Path directory = Files.createTempDirectory("lombok-nonnull-bytecode");
+        try {
+            Path sourceFile = directory.resolve(className + ".java");
+            Files.write(sourceFile, source.getBytes(StandardCharsets.UTF_8));
+            JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+            List<String> options = Arrays.asList("-proc:none", "-classpath", locate(Nonnull.class), "-d",
+                    directory.toString());
+            try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, Locale.ROOT,
+                    StandardCharsets.UTF_8)) {
+                if (!compiler.getTask(null, fileManager, null, options, null,
+                        fileManager.getJavaFileObjects(sourceFile.toFile()))
+                        .call()) {
+                    throw new IllegalStateException("the compilation of " + className + " failed");
+                }
+            }
+            return codeLengths(Files.readAllBytes(directory.resolve("stress")
+                    .resolve(className + ".class")));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * Reads the {@code code_length} of the {@code Code} attributes of the methods in a class file.
+     */
+    private static Map<String, Integer> codeLengths(byte[] classFile) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(classFile));
+        // magic, minor and major version
+        in.skipBytes(8);
+        int constants = in.readUnsignedShort();
+        String[] utf8 = new String[constants];
+        for (int i = 1; i < constants; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+            case 1:
+                utf8[i] = in.readUTF();
+                break;
+            case 7:
+            case 8:
+            case 16:
+            case 19:
+            case 20:
+                in.skipBytes(2);
+                break;
+            case 15:
+                in.skipBytes(3);
+                break;
+            case 5:
+            case 6:
+                // long and double take two entries
+                in.skipBytes(8);
+                i++;
+                break;
+            default:
+                in.skipBytes(4);
+            }
+        }
+        // access flags, this class, super class and the interfaces
+        in.skipBytes(6);
+        in.skipBytes(2 * in.readUnsignedShort());
+        int fields = in.readUnsignedShort();
+        for (int i = 0; i < fields; i++) {
+            in.skipBytes(6);
+            int attributes = in.readUnsignedShort();
+            for (int j = 0; j < attributes; j++) {
+                in.skipBytes(2);
+                in.skipBytes(in.readInt());
+            }
+        }
+        Map<String, Integer> lengths = new HashMap<>();
+        int methods = in.readUnsignedShort();
+        for (int i = 0; i < methods; i++) {
+            in.skipBytes(2);
+            String name = utf8[in.readUnsignedShort()];
+            in.skipBytes(2);
+            int attributes = in.readUnsignedShort();
+            for (int j = 0; j < attributes; j++) {
+                String attribute = utf8[in.readUnsignedShort()];
+                int length = in.readInt();
+                if (attribute.equals("Code")) {
+                    // max_stack and max_locals precede the code_length
+                    in.skipBytes(4);
+                    lengths.put(name, in.readInt());
+                    in.skipBytes(length - 8);
+                } else {
+                    in.skipBytes(length);
+                }
+            }
+        }
+        return lengths;
+    }
+
+    /**
+     * Deletes a directory with its content.
+     */
+    static void delete(@Nonnull Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder())
+                    .collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static String locate(Class<?> type) throws URISyntaxException {
+        return Paths.get(type.getProtectionDomain()
+                .getCodeSource()
+                .getLocation()
+                .toURI())
+                .toString();
+    }
+
+    private static String locateHandler() throws IOException, URISyntaxException {
+        URL url = StressCorpus.class.getClassLoader()
+                .getResource(HANDLER);
+        if (url == null) {
+            throw new IllegalStateException("the handler " + HANDLER + " is not on the class path");
+        }
+        URLConnection connection = url.openConnection();
+        if (connection instanceof JarURLConnection) {
+            return Paths.get(((JarURLConnection) connection).getJarFileURL()
+                    .toURI())
+                    .toString();
+        }
+        Path classFile = Paths.get(url.toURI());
+        // strip the package directories
+        return classFile.getRoot()
+                .resolve(classFile.subpath(0, classFile.getNameCount() - HANDLER.split("/").length))
+                .toString();
+    }
+
+    /**
+     * The result of a compilation.
+     */
+    static final class Result {
+
+        private final List<String> messages = new ArrayList<>();
+        private final List<String> notes = new ArrayList<>();
+        private long allocatedBytes = -1;
+        private boolean reported;
+        private long handlerNanos;
+        private long statementsVisited;
+        private long returnSites;
+        private long parameterChecks;
+        private long analysesCached;
+        private final Map<String, Integer> bytecodeBefore = new HashMap<>();
+        private final Map<String, Integer> bytecodeAfter = new HashMap<>();
+        private final List<String> mode;
+        private String printedSource;
+
+        private Result(List<String> mode) {
+            this.mode = mode;
+        }
+
+        private void run(Path sourceFile, Path classes) throws Exception {
+            JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+            String processorPath = String.join(java.io.File.pathSeparator, locate(Lombok.class),
+                    locateHandler(), locate(Nonnull.class), locate(RoundProcessor.class));
+            String classPath = String.join(java.io.File.pathSeparator, locate(Nonnull.class), locate(Lombok.class));
+            List<String> options = new ArrayList<>(mode);
+            options.addAll(Arrays.asList("-classpath", classPath, "-processorpath", processorPath, "-d",
+                    classes.toString()));
+            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            long allocatedBefore = allocatedBytes(threads);
+            try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, Locale.ROOT,
+                    StandardCharsets.UTF_8)) {
+                compiler.getTask(null, fileManager, diagnostics, options, null,
+                        fileManager.getJavaFileObjects(sourceFile.toFile()))
+                        .call();
+            }
+            long allocatedAfter = allocatedBytes(threads);
+            if (allocatedBefore >= 0 && allocatedAfter >= 0) {
+                allocatedBytes = allocatedAfter - allocatedBefore;
+            }
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                if (diagnostic.getKind() != Diagnostic.Kind.NOTE) {
+                    messages.add(diagnostic.getKind() + ": " + diagnostic.getMessage(Locale.ROOT));
+                } else {
+                    notes.add(diagnostic.getMessage(Locale.ROOT));
+                }
+            }
+        }
+
+        private static long allocatedBytes(ThreadMXBean threads) {
+            if (threads instanceof com.sun.management.ThreadMXBean) {
+                return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread()
+                        .getId());
+            }
+            return -1;
+        }
+
+        private void readReport(Path report) throws IOException {
+            if (!Files.exists(report)) {
+                // before Java 8 the report is written when the JVM exits
+                return;
+            }
+            reported = true;
+            List<String> lines = Files.readAllLines(report, StandardCharsets.UTF_8);
+            for (String line : lines.subList(1, lines.size())) {
+                // the quoted names may contain commas, the last 9 columns are no names
+                String[] columns = line.split(",", -1);
+                int nanos = columns.length - 9;
+                handlerNanos += Long.parseLong(columns[nanos]);
+                statementsVisited += Long.parseLong(columns[nanos + 1]);
+                returnSites += Long.parseLong(columns[nanos + 2]);
+                parameterChecks += Long.parseLong(columns[nanos + 3]);
+                analysesCached += Long.parseLong(columns[nanos + 8]);
+                int before = Integer.parseInt(columns[nanos + 5]);
+                if (before > 0) {
+                    bytecodeBefore.put(columns[nanos - 1], before);
+                    bytecodeAfter.put(columns[nanos - 1], Integer.parseInt(columns[nanos + 6]));
+                }
+            }
+        }
+
+        /**
+         * Returns the errors and warnings of the compilation.
+         */
+        List<String> getMessages() {
+            return messages;
+        }
+
+        /**
+         * Returns the notes of the compilation, e.g. the summary of the report.
+         */
+        List<String> getNotes() {
+            return notes;
+        }
+
+        /**
+         * Returns the bytes allocated by the compilation or -1 if the JVM does not measure them.
+         */
+        long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        /**
+         * Returns whether the report of the handler was written, see {@link #readReport(Path)}.
+         */
+        boolean isReported() {
+            return reported;
+        }
+
+        long getHandlerMillis() {
+            return handlerNanos / 1_000_000;
+        }
+
+        long getStatementsVisited() {
+            return statementsVisited;
+        }
+
+        long getReturnSites() {
+            return returnSites;
+        }
+
+        long getParameterChecks() {
+            return parameterChecks;
+        }
+
+        long getAnalysesCached() {
+            return analysesCached;
+        }
+
+        /**
+         * Returns the source printed after the annotation processing, see {@link StressCorpus#printSource}.
+         */
+        String getPrintedSource() {
+            return printedSource;
+        }
+
+        /**
+         * Returns the estimated bytecode size of the methods without the checks by their names.
+         */
+        Map<String, Integer> getBytecodeBefore() {
+            return bytecodeBefore;
+        }
+
+        /**
+         * Returns the estimated bytecode size of the methods with the checks by their names.
+         */
+        Map<String, Integer> getBytecodeAfter() {
+            return bytecodeAfter;
+        }
+    }
+}
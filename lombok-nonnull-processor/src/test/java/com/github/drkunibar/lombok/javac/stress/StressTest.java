@@ -0,0 +1,176 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.javac.stress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs the handler on generated code far beyond hand written methods. The limits are generous, they catch a
+ * quadratic or recursive traversal, not a few percent.
+ */
+public class StressTest {
+
+    private static final long MAX_HANDLER_MILLIS = 20_000;
+    private static final long MEGABYTE = 1024L * 1024;
+
+    @Test
+    void elseIfChain_5000deep_checkEveryReturn() throws Exception {
+        // given
+        String source = StressCorpus.elseIfChain(5_000);
+        // when
+        StressCorpus.Result result = StressCorpus.compile("ElseIfChain", source);
+        // then
+        assertWithinLimits(result, 5_000, 4 * 5_000, 1_500 * MEGABYTE);
+    }
+
+    @Test
+    void switchCases_10000cases_checkEveryReturn() throws Exception {
+        // given
+        String source = StressCorpus.switchCases(10_000);
+        // when
+        StressCorpus.Result result = StressCorpus.compile("SwitchCases", source);
+        // then
+        assertWithinLimits(result, 10_000, 2 * 10_000, 2_000 * MEGABYTE);
+    }
+
+    @Test
+    void statements_100000statements_checkEveryReturn() throws Exception {
+        // given
+        String source = StressCorpus.statements(100_000);
+        // when
+        StressCorpus.Result result = StressCorpus.compile("Statements", source);
+        // then
+        assertWithinLimits(result, 1_001, 2 * 100_000, 8_000 * MEGABYTE);
+    }
+
+    @Test
+    void methods_2000methods_sameChecksAsSerialAnalysis() throws Exception {
+        // given
+        String source = StressCorpus.methods(2_000);
+        // when
+        StressCorpus.Result serial = StressCorpus.compile("Methods", source);
+        StressCorpus.Result parallel = StressCorpus.compile("Methods", source,
+                "lombok.javax.nonnull.analysisThreads = 4");
+        // then
+        assertWithinLimits(parallel, 2_000, 2 * 2 * 2_000, 2_000 * MEGABYTE);
+        assertThat(parallel.getReturnSites()).isEqualTo(serial.getReturnSites());
+        assertThat(parallel.getStatementsVisited()).isEqualTo(serial.getStatementsVisited());
+    }
+
+    @Test
+    void methods_2000methods_analysesCachedForNextCompilation() throws Exception {
+        // given
+        String source = StressCorpus.methods(2_000);
+        Path directory = Files.createTempDirectory("lombok-nonnull-stress");
+        try {
+            // when
+            StressCorpus.Result first = StressCorpus.compile(directory, "Methods", source,
+                    "lombok.javax.nonnull.cache = DISK");
+            StressCorpus.Result second = StressCorpus.compile(directory, "Methods", source,
+                    "lombok.javax.nonnull.cache = DISK");
+            // then
+            assertWithinLimits(second, 2_000, 2 * 2 * 2_000, 2_000 * MEGABYTE);
+            assertThat(first.getAnalysesCached()).isZero();
+            assertThat(second.getAnalysesCached()).isEqualTo(2_000);
+            assertThat(second.getStatementsVisited()).isEqualTo(first.getStatementsVisited());
+        } finally {
+            StressCorpus.delete(directory);
+        }
+    }
+
+    @Test
+    void methods_changedSource_analyzeAgain() throws Exception {
+        // given
+        String source = StressCorpus.methods(100);
+        Path directory = Files.createTempDirectory("lombok-nonnull-stress");
+        try {
+            // when
+            StressCorpus.compile(directory, "Methods", source, "lombok.javax.nonnull.cache = DISK");
+            StressCorpus.Result changed = StressCorpus.compile(directory, "Methods", source.replace("\"\"", "\"-\""),
+                    "lombok.javax.nonnull.cache = DISK");
+            // then
+            assertWithinLimits(changed, 100, 2 * 2 * 100, 2_000 * MEGABYTE);
+            assertThat(changed.getAnalysesCached()).isZero();
+        } finally {
+            StressCorpus.delete(directory);
+        }
+    }
+
+    @Test
+    void methods_secondCompilation_cacheFileKeepsAnalysesOfBoth() throws Exception {
+        // given
+        Path directory = Files.createTempDirectory("lombok-nonnull-stress");
+        try {
+            // when
+            StressCorpus.Result first = StressCorpus.compile(directory, "Methods", StressCorpus.methods(100),
+                    "lombok.javax.nonnull.cache = DISK");
+            List<String> firstLines = cacheLines(directory);
+            StressCorpus.compile(directory, "ElseIfChain", StressCorpus.elseIfChain(10),
+                    "lombok.javax.nonnull.cache = DISK");
+            // then
+            assumeTrue(first.isReported(), "the cache is written when the JVM exits before Java 8");
+            assertThat(cacheLines(directory)).hasSize(101)
+                    .containsAll(firstLines);
+        } finally {
+            StressCorpus.delete(directory);
+        }
+    }
+
+    @Test
+    void methods_cacheSizeExceeded_dropLeastRecentlyUsedAnalysis() throws Exception {
+        // given
+        Path directory = Files.createTempDirectory("lombok-nonnull-stress");
+        try {
+            // when
+            StressCorpus.Result first = StressCorpus.compile(directory, "Methods", StressCorpus.methods(100),
+                    "lombok.javax.nonnull.cache = DISK", "lombok.javax.nonnull.cache.size = 100");
+            List<String> firstLines = cacheLines(directory);
+            StressCorpus.compile(directory, "ElseIfChain", StressCorpus.elseIfChain(10),
+                    "lombok.javax.nonnull.cache = DISK", "lombok.javax.nonnull.cache.size = 100");
+            // then
+            assumeTrue(first.isReported(), "the cache is written when the JVM exits before Java 8");
+            assertThat(cacheLines(directory)).hasSize(100)
+                    .containsAll(firstLines.subList(1, 100))
+                    .doesNotContain(firstLines.get(0));
+        } finally {
+            StressCorpus.delete(directory);
+        }
+    }
+
+    private static List<String> cacheLines(Path directory) throws IOException {
+        List<String> lines = Files.readAllLines(directory.resolve("lombok-nonnull-cache-classes.txt"));
+        // without the format
+        return lines.subList(1, lines.size());
+    }
+
+    private static void assertWithinLimits(StressCorpus.Result result, long returnSites, long maxStatementsVisited,
+            long maxAllocatedBytes) {
+        assertThat(result.getMessages()).isEmpty();
+        if (result.getAllocatedBytes() >= 0) {
+            // the whole compilation, lombok and javac included
+            assertThat(result.getAllocatedBytes()).isLessThan(maxAllocatedBytes);
+        }
+        assumeTrue(result.isReported(), "the report is written when the JVM exits before Java 8");
+        assertThat(result.getReturnSites()).isEqualTo(returnSites);
+        assertThat(result.getStatementsVisited()).isLessThanOrEqualTo(maxStatementsVisited);
+        assertThat(result.getHandlerMillis()).isLessThan(MAX_HANDLER_MILLIS);
+    }
+}
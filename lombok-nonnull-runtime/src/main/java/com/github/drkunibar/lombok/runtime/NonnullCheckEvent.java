@@ -0,0 +1,52 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.runtime;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+/**
+ * The periodic JFR event with the violations of all check sites. Disabled by default, e.g. enable it with
+ * {@code -XX:StartFlightRecording:com.github.drkunibar.lombok.NonnullCheck#enabled=true}.
+ */
+@Name(NonnullCheckEvent.NAME)
+@Label("Nonnull Check Statistics")
+@Category({ "Java Application", "Nonnull" })
+@Description("The violations of @Nonnull contracts per period")
+@StackTrace(false)
+@Enabled(false)
+@Period("1 s")
+public final class NonnullCheckEvent extends jdk.jfr.Event {
+
+    /**
+     * The name of the event type.
+     */
+    public static final String NAME = "com.github.drkunibar.lombok.NonnullCheck";
+
+    @Label("Check Sites")
+    @Description("The number of registered check sites")
+    int sites;
+
+    @Label("Violations")
+    @Description("The number of violations since the previous event")
+    long violations;
+
+    @Label("Total Violations")
+    long totalViolations;
+}
@@ -0,0 +1,253 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.runtime;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * The element checks generated with {@code lombok.javax.nonnull.checkElements = true}.
+ * <p>
+ * Returned collections, maps and iterators are wrapped in views which check the elements when they are read, so a
+ * {@code null} element is found where it is consumed - there is no copy and no scan on return. Streams get a deferred
+ * stage. Arrays and parameters cannot be wrapped and get an eager scan of their first elements instead.
+ */
+public final class NonnullElements {
+
+    private NonnullElements() {
+    }
+
+    /**
+     * Returns a view of the collection which checks the elements.
+     *
+     * @param <E>
+     *            the type of the elements
+     * @param collection
+     *            the collection
+     * @param name
+     *            the name of the collection in the messages, e.g. {@code the return value}
+     * @return the view
+     */
+    public static <E> Collection<E> collection(Collection<E> collection, String name) {
+        if (collection instanceof NonnullCollection) {
+            return collection;
+        }
+        return new NonnullCollection<>(collection, name);
+    }
+
+    /**
+     * Returns a view of the set which checks the elements.
+     *
+     * @param <E>
+     *            the type of the elements
+     * @param set
+     *            the set
+     * @param name
+     *            the name of the set in the messages, e.g. {@code the return value}
+     * @return the view
+     */
+    public static <E> Set<E> set(Set<E> set, String name) {
+        if (set instanceof NonnullSet) {
+            return set;
+        }
+        return new NonnullSet<>(set, name);
+    }
+
+    /**
+     * Returns a view of the list which checks the elements.
+     *
+     * @param <E>
+     *            the type of the elements
+     * @param list
+     *            the list
+     * @param name
+     *            the name of the list in the messages, e.g. {@code the return value}
+     * @return the view, implements {@link RandomAccess} if the list does
+     */
+    public static <E> List<E> list(List<E> list, String name) {
+        if (list instanceof NonnullList) {
+            return list;
+        }
+        return NonnullList.of(list, name);
+    }
+
+    /**
+     * Returns a view of the map which checks the keys and values.
+     *
+     * @param <K>
+     *            the type of the keys
+     * @param <V>
+     *            the type of the values
+     * @param map
+     *            the map
+     * @param name
+     *            the name of the map in the messages, e.g. {@code the return value}
+     * @return the view
+     */
+    public static <K, V> Map<K, V> map(Map<K, V> map, String name) {
+        if (map instanceof NonnullMap) {
+            return map;
+        }
+        return new NonnullMap<>(map, name);
+    }
+
+    /**
+     * Returns an iterator which checks the elements.
+     *
+     * @param <E>
+     *            the type of the elements
+     * @param iterator
+     *            the iterator
+     * @param name
+     *            the name of the iterator in the messages, e.g. {@code the return value}
+     * @return the checking iterator
+     */
+    public static <E> Iterator<E> iterator(Iterator<E> iterator, String name) {
+        if (iterator instanceof NonnullIterator) {
+            return iterator;
+        }
+        return new NonnullIterator<>(iterator, name);
+    }
+
+    /**
+     * Adds a stage to the stream which checks the elements when they pass.
+     *
+     * @param <E>
+     *            the type of the elements
+     * @param stream
+     *            the stream
+     * @param name
+     *            the name of the stream in the messages, e.g. {@code the return value}
+     * @return the stream with the checking stage
+     */
+    public static <E> Stream<E> stream(Stream<E> stream, String name) {
+        Objects.requireNonNull(name, "'name' must not be null");
+        return stream.peek(element -> requireElement(element, name));
+    }
+
+    /**
+     * Checks the first elements of the array.
+     *
+     * @param <E>
+     *            the type of the elements
+     * @param array
+     *            the array
+     * @param name
+     *            the name of the array in the messages, e.g. {@code the return value}
+     * @param limit
+     *            the maximum number of checked elements
+     * @return the array
+     * @throws NullPointerException
+     *             if one of the checked elements is {@code null}
+     */
+    public static <E> E[] array(E[] array, String name, int limit) {
+        int length = Math.min(array.length, limit);
+        for (int i = 0; i < length; i++) {
+            requireElement(array[i], name);
+        }
+        return array;
+    }
+
+    /**
+     * Checks the first elements of the array.
+     *
+     * @param array
+     *            the array
+     * @param name
+     *            the name of the array in the messages, e.g. the name of the parameter
+     * @param limit
+     *            the maximum number of checked elements
+     * @throws NullPointerException
+     *             if one of the checked elements is {@code null}
+     */
+    public static void scan(Object[] array, String name, int limit) {
+        array(array, name, limit);
+    }
+
+    /**
+     * Checks the first elements of the collection.
+     *
+     * @param collection
+     *            the collection
+     * @param name
+     *            the name of the collection in the messages, e.g. the name of the parameter
+     * @param limit
+     *            the maximum number of checked elements
+     * @throws NullPointerException
+     *             if one of the checked elements is {@code null}
+     */
+    public static void scan(Collection<?> collection, String name, int limit) {
+        if (collection instanceof NonnullCollection || collection instanceof NonnullList) {
+            // checked when read
+            return;
+        }
+        Iterator<?> iterator = collection.iterator();
+        for (int i = 0; i < limit && iterator.hasNext(); i++) {
+            requireElement(iterator.next(), name);
+        }
+    }
+
+    /**
+     * Checks the first keys and values of the map.
+     *
+     * @param map
+     *            the map
+     * @param name
+     *            the name of the map in the messages, e.g. the name of the parameter
+     * @param limit
+     *            the maximum number of checked entries
+     * @throws NullPointerException
+     *             if one of the checked keys or values is {@code null}
+     */
+    public static void scan(Map<?, ?> map, String name, int limit) {
+        if (map instanceof NonnullMap) {
+            // checked when read
+            return;
+        }
+        Iterator<? extends Map.Entry<?, ?>> iterator = map.entrySet()
+                .iterator();
+        for (int i = 0; i < limit && iterator.hasNext(); i++) {
+            Map.Entry<?, ?> entry = iterator.next();
+            requireKey(entry.getKey(), name);
+            requireValue(entry.getValue(), name);
+        }
+    }
+
+    static <E> E requireElement(E element, String name) {
+        if (element == null) {
+            throw new NullPointerException(name + " contains a null element");
+        }
+        return element;
+    }
+
+    static <K> K requireKey(K key, String name) {
+        if (key == null) {
+            throw new NullPointerException(name + " contains a null key");
+        }
+        return key;
+    }
+
+    static <V> V requireValue(V value, String name) {
+        if (value == null) {
+            throw new NullPointerException(name + " contains a null value");
+        }
+        return value;
+    }
+}
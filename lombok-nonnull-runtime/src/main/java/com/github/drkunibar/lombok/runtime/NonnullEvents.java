@@ -0,0 +1,65 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.runtime;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * The JFR support of {@link NonnullViolations}. Loaded only if the JVM provides JFR.
+ */
+final class NonnullEvents {
+
+    private static long previousTotal;
+
+    private NonnullEvents() {
+    }
+
+    /**
+     * Commits a {@link NonnullViolationEvent} if the event is enabled in a running recording.
+     *
+     * @param site
+     *            the check site, {@code <class>#<method>:<check>@<line>}
+     */
+    static void violation(String site) {
+        NonnullViolationEvent event = new NonnullViolationEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        int methodStart = site.indexOf('#');
+        int checkedStart = site.lastIndexOf(':');
+        int lineStart = site.lastIndexOf('@');
+        event.className = site.substring(0, methodStart);
+        event.method = site.substring(methodStart + 1, checkedStart);
+        event.checked = site.substring(checkedStart + 1, lineStart);
+        event.line = Integer.parseInt(site.substring(lineStart + 1));
+        event.commit();
+    }
+
+    /**
+     * Registers the periodic {@link NonnullCheckEvent}.
+     */
+    static void register() {
+        FlightRecorder.addPeriodicEvent(NonnullCheckEvent.class, NonnullEvents::emitCheckEvent);
+    }
+
+    private static synchronized void emitCheckEvent() {
+        NonnullCheckEvent event = new NonnullCheckEvent();
+        event.sites = NonnullViolations.siteCount();
+        event.totalViolations = NonnullViolations.totalViolations();
+        // the counters may have been reset in between
+        event.violations = Math.max(0L, event.totalViolations - previousTotal);
+        previousTotal = event.totalViolations;
+        event.commit();
+    }
+}
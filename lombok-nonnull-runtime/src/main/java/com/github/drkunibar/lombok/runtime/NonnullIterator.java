@@ -0,0 +1,46 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.runtime;
+
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * An iterator which checks the elements, see {@link NonnullElements#iterator(Iterator, String)}.
+ */
+class NonnullIterator<E> implements Iterator<E> {
+
+    private final Iterator<E> delegate;
+    final String name;
+
+    NonnullIterator(Iterator<E> delegate, String name) {
+        this.delegate = Objects.requireNonNull(delegate, "'delegate' must not be null");
+        this.name = Objects.requireNonNull(name, "'name' must not be null");
+    }
+
+    @Override
+    public boolean hasNext() {
+        return delegate.hasNext();
+    }
+
+    @Override
+    public E next() {
+        return NonnullElements.requireElement(delegate.next(), name);
+    }
+
+    @Override
+    public void remove() {
+        delegate.remove();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.runtime;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A view of a list which checks the elements, see {@link NonnullElements#list(List, String)}.
+ */
+class NonnullList<E> extends AbstractList<E> {
+
+    private final List<E> delegate;
+    private final String name;
+
+    NonnullList(List<E> delegate, String name) {
+        this.delegate = Objects.requireNonNull(delegate, "'delegate' must not be null");
+        this.name = Objects.requireNonNull(name, "'name' must not be null");
+    }
+
+    static <E> NonnullList<E> of(List<E> list, String name) {
+        return list instanceof RandomAccess ? new RandomAccessList<>(list, name) : new NonnullList<>(list, name);
+    }
+
+    @Override
+    public E get(int index) {
+        return NonnullElements.requireElement(delegate.get(index), name);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public E set(int index, E element) {
+        return delegate.set(index, NonnullElements.requireElement(element, name));
+    }
+
+    @Override
+    public void add(int index, E element) {
+        delegate.add(index, NonnullElements.requireElement(element, name));
+    }
+
+    @Override
+    public E remove(int index) {
+        return delegate.remove(index);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return delegate.contains(o);
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return delegate.indexOf(o);
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return delegate.lastIndexOf(o);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new NonnullIterator<>(delegate.iterator(), name);
+    }
+
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        return new NonnullListIterator<>(delegate.listIterator(index), name);
+    }
+
+    @Override
+    public List<E> subList(int fromIndex, int toIndex) {
+        return of(delegate.subList(fromIndex, toIndex), name);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o == this || delegate.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return delegate.hashCode();
+    }
+
+    private static class RandomAccessList<E> extends NonnullList<E> implements RandomAccess {
+
+        RandomAccessList(List<E> delegate, String name) {
+            super(delegate, name);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.runtime;
+
+import java.util.ListIterator;
+
+/**
+ * A list iterator which checks the elements, see {@link NonnullList}.
+ */
+class NonnullListIterator<E> extends NonnullIterator<E> implements ListIterator<E> {
+
+    private final ListIterator<E> delegate;
+
+    NonnullListIterator(ListIterator<E> delegate, String name) {
+        super(delegate, name);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return delegate.hasPrevious();
+    }
+
+    @Override
+    public E previous() {
+        return NonnullElements.requireElement(delegate.previous(), name);
+    }
+
+    @Override
+    public int nextIndex() {
+        return delegate.nextIndex();
+    }
+
+    @Override
+    public int previousIndex() {
+        return delegate.previousIndex();
+    }
+
+    @Override
+    public void set(E e) {
+        delegate.set(NonnullElements.requireElement(e, name));
+    }
+
+    @Override
+    public void add(E e) {
+        delegate.add(NonnullElements.requireElement(e, name));
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.runtime;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A view of a map which checks the keys and values, see {@link NonnullElements#map(Map, String)}.
+ */
+class NonnullMap<K, V> extends AbstractMap<K, V> {
+
+    private final Map<K, V> delegate;
+    private final String name;
+    private Set<Map.Entry<K, V>> entrySet;
+
+    NonnullMap(Map<K, V> delegate, String name) {
+        this.delegate = Objects.requireNonNull(delegate, "'delegate' must not be null");
+        this.name = Objects.requireNonNull(name, "'name' must not be null");
+    }
+
+    @Override
+    public V get(Object key) {
+        V value = delegate.get(key);
+        if (value == null && delegate.containsKey(key)) {
+            NonnullElements.requireValue(value, name);
+        }
+        return value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return delegate.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return delegate.containsValue(value);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return delegate.put(NonnullElements.requireKey(key, name), NonnullElements.requireValue(value, name));
+    }
+
+    @Override
+    public V remove(Object key) {
+        return delegate.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o == this || delegate.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return delegate.hashCode();
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            Iterator<Map.Entry<K, V>> iterator = delegate.entrySet()
+                    .iterator();
+            return new Iterator<Map.Entry<K, V>>() {
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Map.Entry<K, V> next() {
+                    return new Entry(iterator.next());
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public void clear() {
+            delegate.clear();
+        }
+    }
+
+    private class Entry implements Map.Entry<K, V> {
+
+        private final Map.Entry<K, V> entry;
+
+        Entry(Map.Entry<K, V> entry) {
+            this.entry = entry;
+            NonnullElements.requireKey(entry.getKey(), name);
+            NonnullElements.requireValue(entry.getValue(), name);
+        }
+
+        @Override
+        public K getKey() {
+            return entry.getKey();
+        }
+
+        @Override
+        public V getValue() {
+            return entry.getValue();
+        }
+
+        @Override
+        public V setValue(V value) {
+            return entry.setValue(NonnullElements.requireValue(value, name));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o == this || entry.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return entry.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return entry.toString();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.runtime;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The JFR event of a failed check, committed by {@link NonnullViolations#record(int)}. The thread and the stack trace
+ * are recorded by JFR.
+ */
+@Name(NonnullViolationEvent.NAME)
+@Label("Nonnull Violation")
+@Category({ "Java Application", "Nonnull" })
+@Description("A null value violated a @Nonnull contract")
+@StackTrace(true)
+public final class NonnullViolationEvent extends jdk.jfr.Event {
+
+    /**
+     * The name of the event type.
+     */
+    public static final String NAME = "com.github.drkunibar.lombok.NonnullViolation";
+
+    @Label("Class")
+    String className;
+
+    @Label("Method")
+    String method;
+
+    @Label("Checked")
+    @Description("The name of the parameter or 'return'")
+    String checked;
+
+    @Label("Line")
+    int line;
+}
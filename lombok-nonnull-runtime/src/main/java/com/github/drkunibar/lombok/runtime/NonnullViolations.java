@@ -0,0 +1,196 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.runtime;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The registry of the check sites generated with {@code lombok.javax.nonnull.checkMode = REPORT}.
+ * <p>
+ * Every class registers its check sites once while it is initialized and gets the id of its first site. A failed
+ * check calls {@link #record(int)} with the id of its site, which increments the counter at this index - there is no
+ * lookup and no lock on this path. The counters are exposed as MXBean {@value #OBJECT_NAME}.
+ * <p>
+ * If the JVM provides JFR, a violation also commits a {@link NonnullViolationEvent} while the event is enabled in a
+ * recording, and the periodic {@link NonnullCheckEvent} is available.
+ */
+public final class NonnullViolations {
+
+    /**
+     * The name of the MXBean.
+     */
+    public static final String OBJECT_NAME = "com.github.drkunibar.lombok:type=NonnullViolations";
+
+    private static final Object LOCK = new Object();
+    private static final boolean JFR = isJfrAvailable();
+    private static volatile LongAdder[] counters = new LongAdder[0];
+    private static volatile String[] sites = new String[0];
+    private static boolean registered;
+
+    private NonnullViolations() {
+    }
+
+    /**
+     * Registers the check sites of a class. Called by the generated code while the class is initialized.
+     *
+     * @param className
+     *            the name of the class
+     * @param classSites
+     *            the check sites of the class, e.g. {@code getName:return@42}
+     * @return the id of the first site, the ids of the other sites follow in order
+     */
+    public static int register(String className, String[] classSites) {
+        Objects.requireNonNull(className, "'className' must not be null");
+        Objects.requireNonNull(classSites, "'classSites' must not be null");
+        synchronized (LOCK) {
+            int base = counters.length;
+            LongAdder[] newCounters = Arrays.copyOf(counters, base + classSites.length);
+            String[] newSites = Arrays.copyOf(sites, base + classSites.length);
+            for (int i = 0; i < classSites.length; i++) {
+                newCounters[base + i] = new LongAdder();
+                newSites[base + i] = className + "#" + classSites[i];
+            }
+            sites = newSites;
+            // published last - a site is used only after its class is initialized
+            counters = newCounters;
+            if (!registered) {
+                registered = true;
+                registerMXBean();
+                registerEvents();
+            }
+            return base;
+        }
+    }
+
+    /**
+     * Records a violation. Called by the generated code instead of throwing an exception.
+     *
+     * @param site
+     *            the id of the check site
+     */
+    public static void record(int site) {
+        counters[site].increment();
+        if (JFR) {
+            NonnullEvents.violation(sites[site]);
+        }
+    }
+
+    /**
+     * Returns the number of violations of a check site.
+     *
+     * @param site
+     *            the id of the check site
+     * @return the number of violations
+     */
+    public static long count(int site) {
+        return counters[site].sum();
+    }
+
+    /**
+     * Returns the number of violations per check site.
+     *
+     * @return the violations by site ({@code <class>#<method>:<check>@<line>}), sites without violations are omitted
+     */
+    public static Map<String, Long> violations() {
+        LongAdder[] currentCounters = counters;
+        String[] currentSites = sites;
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < currentCounters.length; i++) {
+            long count = currentCounters[i].sum();
+            if (count > 0) {
+                result.put(currentSites[i], count);
+            }
+        }
+        return result;
+    }
+
+    static long totalViolations() {
+        long total = 0;
+        for (LongAdder counter : counters) {
+            total += counter.sum();
+        }
+        return total;
+    }
+
+    static int siteCount() {
+        return counters.length;
+    }
+
+    /**
+     * Resets all counters.
+     */
+    public static void reset() {
+        for (LongAdder counter : counters) {
+            counter.reset();
+        }
+    }
+
+    private static void registerMXBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+        } catch (JMException | SecurityException e) {
+            // e.g. registered by another class loader - the counters work anyway
+        }
+    }
+
+    private static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.FlightRecorder", false, NonnullViolations.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static void registerEvents() {
+        if (JFR) {
+            try {
+                NonnullEvents.register();
+            } catch (SecurityException e) {
+                // the violation events work anyway
+            }
+        }
+    }
+
+    private static class Bean implements NonnullViolationsMXBean {
+
+        @Override
+        public Map<String, Long> getViolations() {
+            return violations();
+        }
+
+        @Override
+        public long getTotalViolations() {
+            return totalViolations();
+        }
+
+        @Override
+        public int getSiteCount() {
+            return siteCount();
+        }
+
+        @Override
+        public void reset() {
+            NonnullViolations.reset();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.runtime;
+
+import java.util.Map;
+
+/**
+ * The management interface of {@link NonnullViolations}, registered as
+ * {@value NonnullViolations#OBJECT_NAME}.
+ */
+public interface NonnullViolationsMXBean {
+
+    /**
+     * Returns the number of violations per check site.
+     *
+     * @return the violations by site ({@code <class>#<method>:<check>@<line>}), sites without violations are omitted
+     */
+    Map<String, Long> getViolations();
+
+    /**
+     * Returns the number of all violations.
+     *
+     * @return the number of violations
+     */
+    long getTotalViolations();
+
+    /**
+     * Returns the number of registered check sites.
+     *
+     * @return the number of sites
+     */
+    int getSiteCount();
+
+    /**
+     * Resets all counters.
+     */
+    void reset();
+}
@@ -0,0 +1,388 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.drkunibar.lombok.runtime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class NonnullElementsTest {
+
+    private static final String NAME = "the return value";
+
+    @Nested
+    class ListView {
+
+        @Test
+        void nullElement_throwOnRead() {
+            // given
+            List<String> list = NonnullElements.list(new ArrayList<>(Arrays.asList("a", null)), NAME);
+            // when
+            Throwable thrown = catchThrowable(() -> list.get(1));
+            // then
+            assertThat(list.get(0)).isEqualTo("a");
+            assertThat(thrown).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value contains a null element");
+        }
+
+        @Test
+        void nullElement_noThrowOnWrap() {
+            // when
+            List<String> list = NonnullElements.list(Arrays.asList("a", null), NAME);
+            // then
+            assertThat(list).hasSize(2);
+            assertThat(list.contains(null)).isTrue();
+            assertThat(list.indexOf(null)).isEqualTo(1);
+        }
+
+        @Test
+        void nullElement_throwOnIteration() {
+            // given
+            List<String> list = NonnullElements.list(Arrays.asList("a", null), NAME);
+            Iterator<String> iterator = list.iterator();
+            // when
+            iterator.next();
+            Throwable thrown = catchThrowable(iterator::next);
+            // then
+            assertThat(thrown).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value contains a null element");
+        }
+
+        @Test
+        void nullElement_throwOnListIteration() {
+            // given
+            List<String> list = NonnullElements.list(Arrays.asList("a", null), NAME);
+            ListIterator<String> iterator = list.listIterator(2);
+            // when
+            Throwable thrown = catchThrowable(iterator::previous);
+            // then
+            assertThat(thrown).isInstanceOf(NullPointerException.class);
+        }
+
+        @Test
+        void addNull_throwAndKeepList() {
+            // given
+            List<String> delegate = new ArrayList<>(Arrays.asList("a"));
+            List<String> list = NonnullElements.list(delegate, NAME);
+            // when
+            Throwable thrown = catchThrowable(() -> list.add(null));
+            // then
+            assertThat(thrown).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value contains a null element");
+            assertThat(delegate).containsExactly("a");
+        }
+
+        @Test
+        void modification_writeThrough() {
+            // given
+            List<String> delegate = new ArrayList<>(Arrays.asList("a", "b"));
+            List<String> list = NonnullElements.list(delegate, NAME);
+            // when
+            list.add("c");
+            list.set(0, "x");
+            list.remove(1);
+            // then
+            assertThat(delegate).containsExactly("x", "c");
+        }
+
+        @Test
+        void arrayList_keepRandomAccess() {
+            // when
+            List<String> list = NonnullElements.list(new ArrayList<>(Arrays.asList("a", "b")), NAME);
+            // then
+            assertThat(list).isInstanceOf(RandomAccess.class);
+            assertThat(list.subList(0, 1)).isInstanceOf(RandomAccess.class);
+        }
+
+        @Test
+        void linkedList_noRandomAccess() {
+            // when
+            List<String> list = NonnullElements.list(new LinkedList<>(Arrays.asList("a", "b")), NAME);
+            // then
+            assertThat(list).isNotInstanceOf(RandomAccess.class);
+        }
+
+        @Test
+        void view_notSameTypeAsDelegate() {
+            // when
+            List<String> list = NonnullElements.list(new ArrayList<>(), NAME);
+            // then
+            assertThat(list).isNotInstanceOf(ArrayList.class);
+        }
+
+        @Test
+        void sameList_newViewEqualButNotSame() {
+            // given
+            List<String> delegate = new ArrayList<>(Arrays.asList("a"));
+            // when
+            List<String> first = NonnullElements.list(delegate, NAME);
+            List<String> second = NonnullElements.list(delegate, NAME);
+            // then
+            assertThat(first).isNotSameAs(second)
+                    .isNotSameAs(delegate)
+                    .isEqualTo(second)
+                    .isEqualTo(delegate)
+                    .hasSameHashCodeAs(delegate);
+        }
+
+        @Test
+        void view_notWrappedAgain() {
+            // given
+            List<String> list = NonnullElements.list(new ArrayList<>(), NAME);
+            // when
+            List<String> wrapped = NonnullElements.list(list, "other");
+            // then
+            assertThat(wrapped).isSameAs(list);
+        }
+    }
+
+    @Nested
+    class SetView {
+
+        @Test
+        void nullElement_throwOnIteration() {
+            // given
+            Set<String> set = NonnullElements.set(new HashSet<>(Arrays.asList((String) null)), NAME);
+            // when
+            Throwable thrown = catchThrowable(() -> set.iterator()
+                    .next());
+            // then
+            assertThat(thrown).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value contains a null element");
+        }
+
+        @Test
+        void addNull_throw() {
+            // given
+            Set<String> set = NonnullElements.set(new HashSet<>(), NAME);
+            // when
+            Throwable thrown = catchThrowable(() -> set.add(null));
+            // then
+            assertThat(thrown).isInstanceOf(NullPointerException.class);
+            assertThat(set).isEmpty();
+        }
+
+        @Test
+        void sameSet_equalAndSameHashCode() {
+            // given
+            Set<String> delegate = new HashSet<>(Arrays.asList("a", "b"));
+            // when
+            Set<String> set = NonnullElements.set(delegate, NAME);
+            // then
+            assertThat(set).isNotSameAs(delegate)
+                    .isEqualTo(delegate)
+                    .hasSameHashCodeAs(delegate);
+            assertThat(delegate).isEqualTo(set);
+        }
+    }
+
+    @Nested
+    class CollectionView {
+
+        @Test
+        void nullElement_throwOnIteration() {
+            // given
+            Collection<String> collection = NonnullElements.collection(Arrays.asList("a", null), NAME);
+            // when
+            Throwable thrown = catchThrowable(() -> new ArrayList<>(collection));
+            // then
+            assertThat(thrown).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value contains a null element");
+        }
+
+        @Test
+        void elements_readThrough() {
+            // given
+            List<String> delegate = new ArrayList<>(Arrays.asList("a"));
+            Collection<String> collection = NonnullElements.collection(delegate, NAME);
+            // when
+            delegate.add("b");
+            // then
+            assertThat(collection).containsExactly("a", "b");
+        }
+    }
+
+    @Nested
+    class MapView {
+
+        @Test
+        void nullValue_throwOnGet() {
+            // given
+            Map<String, String> delegate = new HashMap<>();
+            delegate.put("a", null);
+            Map<String, String> map = NonnullElements.map(delegate, NAME);
+            // when
+            Throwable thrown = catchThrowable(() -> map.get("a"));
+            // then
+            assertThat(thrown).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value contains a null value");
+        }
+
+        @Test
+        void missingKey_returnNull() {
+            // given
+            Map<String, String> map = NonnullElements.map(new HashMap<>(), NAME);
+            // when
+            String value = map.get("a");
+            // then
+            assertThat(value).isNull();
+        }
+
+        @Test
+        void nullKey_throwOnIteration() {
+            // given
+            Map<String, String> delegate = new HashMap<>();
+            delegate.put(null, "a");
+            Map<String, String> map = NonnullElements.map(delegate, NAME);
+            // when
+            Throwable thrown = catchThrowable(() -> map.entrySet()
+                    .iterator()
+                    .next());
+            // then
+            assertThat(thrown).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value contains a null key");
+        }
+
+        @Test
+        void putNull_throw() {
+            // given
+            Map<String, String> map = NonnullElements.map(new HashMap<>(), NAME);
+            // when
+            Throwable key = catchThrowable(() -> map.put(null, "a"));
+            Throwable value = catchThrowable(() -> map.put("a", null));
+            // then
+            assertThat(key).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value contains a null key");
+            assertThat(value).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value contains a null value");
+            assertThat(map).isEmpty();
+        }
+
+        @Test
+        void sameMap_equalAndSameHashCode() {
+            // given
+            Map<String, String> delegate = new HashMap<>();
+            delegate.put("a", "b");
+            // when
+            Map<String, String> map = NonnullElements.map(delegate, NAME);
+            // then
+            assertThat(map).isNotSameAs(delegate)
+                    .isEqualTo(delegate)
+                    .hasSameHashCodeAs(delegate);
+            assertThat(map).isNotInstanceOf(HashMap.class);
+        }
+    }
+
+    @Nested
+    class IteratorAndStream {
+
+        @Test
+        void iterator_throwOnNullElement() {
+            // given
+            Iterator<String> iterator = NonnullElements.iterator(Arrays.asList((String) null)
+                    .iterator(), NAME);
+            // when
+            Throwable thrown = catchThrowable(iterator::next);
+            // then
+            assertThat(thrown).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value contains a null element");
+        }
+
+        @Test
+        void stream_throwWhenNullElementPasses() {
+            // given
+            Stream<String> stream = NonnullElements.stream(Stream.of("a", null), NAME);
+            // when
+            Throwable thrown = catchThrowable(() -> stream.collect(Collectors.toList()));
+            // then
+            assertThat(thrown).isInstanceOf(NullPointerException.class)
+                    .hasMessage("the return value contains a null element");
+        }
+
+        @Test
+        void stream_noThrowBeforeTerminalOperation() {
+            // when
+            Throwable thrown = catchThrowable(() -> NonnullElements.stream(Stream.of("a", null), NAME));
+            // then
+            assertThat(thrown).isNull();
+        }
+    }
+
+    @Nested
+    class Scan {
+
+        @Test
+        void array_throwOnNullWithinLimit() {
+            // when
+            Throwable thrown = catchThrowable(() -> NonnullElements.scan(new Object[] { "a", null }, "values", 2));
+            // then
+            assertThat(thrown).isInstanceOf(NullPointerException.class)
+                    .hasMessage("values contains a null element");
+        }
+
+        @Test
+        void array_ignoreNullBeyondLimit() {
+            // when
+            Throwable thrown = catchThrowable(() -> NonnullElements.scan(new Object[] { "a", null }, "values", 1));
+            // then
+            assertThat(thrown).isNull();
+        }
+
+        @Test
+        void collection_throwOnNullWithinLimit() {
+            // when
+            Throwable thrown = catchThrowable(() -> NonnullElements.scan(Arrays.asList("a", null), "values", 32));
+            // then
+            assertThat(thrown).isInstanceOf(NullPointerException.class);
+        }
+
+        @Test
+        void view_notScanned() {
+            // given
+            List<String> list = NonnullElements.list(Arrays.asList("a", null), NAME);
+            // when
+            Throwable thrown = catchThrowable(() -> NonnullElements.scan(list, "values", 32));
+            // then
+            assertThat(thrown).isNull();
+        }
+
+        @Test
+        void map_throwOnNullValueWithinLimit() {
+            // given
+            Map<String, String> map = new HashMap<>();
+            map.put("a", null);
+            // when
+            Throwable thrown = catchThrowable(() -> NonnullElements.scan(map, "values", 32));
+            // then
+            assertThat(thrown).isInstanceOf(NullPointerException.class)
+                    .hasMessage("values contains a null value");
+        }
+    }
+}